@@ -0,0 +1,554 @@
+/*
+  Plain Text #3 (Batch) - Resumable Batch Conversion
+  Java class name: PlainText3Batch
+  Copyright (c) 2019 by Keith Fenske.  Apache License or GNU GPL.
+
+  Resumable batch conversion for the console's -batch option.  Each input file
+  (or every file under an input directory) is converted to a file with the
+  same relative name in an output directory.  A manifest in the output
+  directory records each finished input: its size, modification time, a
+  64-bit hash of its contents, and a 64-bit hash of the rules and options that
+  converted it.  A second run skips inputs that are already done with the same
+  rules: unchanged size and time are enough; otherwise the contents are hashed
+  again, because a copied or touched file hasn't really changed.
+
+  The manifest is only ever appended to, one line per file, and each line ends
+  with a CRC of the line, so a line that was only partly written when the
+  computer stopped is ignored (and that file is converted again).  When most
+  lines have been replaced by newer ones, the manifest is rewritten once at
+  start-up as a copy and renamed.  Output files are also written as a copy,
+  forced to disk, and renamed before their manifest line, so a finished line
+  means a whole file.
+
+  Two inputs with the same relative name (a file in two input directories, or
+  two named files in different directories) would write the same output and
+  manifest line, and each run would convert one over the other.  The second
+  is an error and is not converted; the user should convert it separately.
+  The output directory and the manifest may be inside an input directory,
+  so they are skipped when walking the input, and an input whose output would
+  be the input itself is an error.
+
+  Apache License or GNU General Public License
+  --------------------------------------------
+  PlainText3Batch is free software and has been released under the terms and
+  conditions of the Apache License (version 2.0 or later) and/or the GNU
+  General Public License (GPL, version 2 or later).  This program is
+  distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY,
+  without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+  PARTICULAR PURPOSE.  See the license(s) for more details.  You should have
+  received a copy of the licenses along with this program.  If not, see the
+  http://www.apache.org/licenses/ and http://www.gnu.org/licenses/ web pages.
+*/
+
+import java.io.*;                 // standard I/O
+import java.nio.*;                // byte and character buffers
+import java.nio.channels.*;       // file channels
+import java.nio.charset.*;        // UTF-8 encoding
+import java.util.*;               // lists, maps
+
+class PlainText3Batch
+{
+  /* constants */
+
+  static final long FNV_BASIS = 0xCBF29CE484222325L; // FNV-1a 64-bit hash
+  static final long FNV_PRIME = 0x100000001B3L;
+  static final String MANIFEST = "PlainText3.manifest"; // default file name
+  static final int SYNC_COUNT = 1000; // manifest lines between disk syncs
+
+  /* class variables */
+
+  HashMap<String, String> claimed; // relative path to input, this run
+  int convertCount;               // files converted
+  int errorCount;                 // files with errors
+  int format;                     // PlainText3Markup.FORMAT_ constant
+  HashMap<String, long[]> manifest; // input path to size, time, hash
+  FileChannel manifestChannel;    // append-only manifest file
+  String manifestCanon;           // canonical path of manifest file
+  String manifestPath;            // name of manifest file
+  String outputCanon;             // canonical path of output directory
+  File outputDir;                 // where converted files go
+  long ruleHash;                  // hash of rules and options
+  int skipCount;                  // files already done
+  int unsynced;                   // manifest lines since last disk sync
+
+  /* constructor */
+
+  public PlainText3Batch(String outputDir, String manifestPath, int format)
+  {
+    this.claimed = new HashMap<>();
+    this.convertCount = this.errorCount = this.skipCount = 0;
+    this.format = format;
+    this.manifest = new HashMap<>();
+    this.manifestChannel = null;  // opened by run()
+    this.outputDir = new File(outputDir);
+    this.manifestPath = (manifestPath != null) ? manifestPath
+      : new File(this.outputDir, MANIFEST).getPath();
+    this.manifestCanon = canonicalPath(new File(this.manifestPath));
+    this.outputCanon = canonicalPath(this.outputDir);
+    this.ruleHash = hashRules(PlainText3Engine.dataTable, format);
+    this.unsynced = 0;
+  }
+
+
+/*
+  appendRecord() method
+
+  Append one line to the manifest: size, time, content hash, rule hash, CRC,
+  and the input path (last, because it may have spaces).  One write() call, so
+  a crash leaves at most one partial line at the end.
+*/
+  void appendRecord(String path, long size, long time, long hash)
+    throws IOException
+  {
+    ByteBuffer bytes;             // line as UTF-8
+
+    bytes = ByteBuffer.wrap(formatRecord(path, size, time, hash, ruleHash)
+      .getBytes(StandardCharsets.UTF_8));
+    while (bytes.hasRemaining())
+      manifestChannel.write(bytes);
+    manifest.put(path, new long[] { size, time, hash, ruleHash });
+    if (++ unsynced >= SYNC_COUNT) // limit what a power failure can lose
+    {
+      manifestChannel.force(false);
+      unsynced = 0;
+    }
+  }
+
+
+/*
+  canonicalPath() method
+
+  Return the canonical path name for a file, so that two names for the same
+  file compare equal.  If the system can't tell us, use the absolute path.
+*/
+  static String canonicalPath(File file)
+  {
+    try { return(file.getCanonicalPath()); }
+    catch (IOException ioe) { return(file.getAbsolutePath()); }
+  }
+
+
+/*
+  convertFile() method
+
+  Convert one input file to <output>, unless the manifest says that it's
+  already done with the same rules, or another input already has the same
+  relative path in this run.  Never convert the manifest, or an input onto
+  itself.
+*/
+  void convertFile(File input, String path, File output)
+  {
+    byte[] bytes;                 // contents of input file
+    int changes;                  // number of changes made by rules
+    long hash;                    // hash of <bytes>
+    String owner;                 // input that has <path> in this run
+    long[] record;                // from manifest: size, time, hash, rules
+    long size, time;              // size and time of input file
+    long start;                   // nanoseconds when we started this file
+    File temp;                    // converted text, before being renamed
+
+    owner = claimed.get(path);
+    if (owner != null)            // same output as an earlier input?
+    {
+      if (owner.equals(input.getAbsolutePath()) == false)
+      {
+        PlainText3Engine.putError("Not converting " + input.getPath()
+          + ": same output name as " + owner);
+        errorCount ++;
+      }
+      return;                     // same file named twice is done already
+    }
+    claimed.put(path, input.getAbsolutePath());
+    if (canonicalPath(input).equals(manifestCanon))
+    {
+      PlainText3Engine.putError("Not converting " + input.getPath()
+        + ": this is the batch manifest");
+      errorCount ++;
+      return;
+    }
+    if (canonicalPath(input).equals(canonicalPath(output)))
+    {
+      PlainText3Engine.putError("Not converting " + input.getPath()
+        + ": output would replace the input");
+      errorCount ++;
+      return;
+    }
+
+    start = System.nanoTime();
+    size = input.length();
+    time = input.lastModified();
+    record = manifest.get(path);
+    if ((record != null) && (record[0] == size) && (record[1] == time)
+      && (record[3] == ruleHash) && output.exists())
+    {
+      skipCount ++;               // done, not even opened
+      return;
+    }
+
+    temp = null;
+    try
+    {
+      bytes = java.nio.file.Files.readAllBytes(input.toPath());
+      hash = hashBytes(FNV_BASIS, bytes);
+      if ((record != null) && (record[2] == hash) && (record[3] == ruleHash)
+        && output.exists())
+      {
+        appendRecord(path, size, time, hash); // only the time has changed
+        skipCount ++;
+        return;
+      }
+
+      /* Convert to a temporary file in the output directory, then rename. */
+
+      output.getAbsoluteFile().getParentFile().mkdirs();
+      temp = File.createTempFile("PlainText3", ".tmp",
+        output.getAbsoluteFile().getParentFile());
+      changes = convertBytes(bytes, temp);
+      java.nio.file.Files.move(temp.toPath(), output.toPath(),
+        java.nio.file.StandardCopyOption.REPLACE_EXISTING);
+      temp = null;
+      appendRecord(path, size, time, hash);
+      convertCount ++;
+      if (PlainText3Engine.telemetry != null)
+        PlainText3Engine.telemetry.record((System.nanoTime() - start),
+          bytes.length, output.length(), changes);
+    }
+    catch (IOException ioe)
+    {
+      PlainText3Engine.putError("Unable to convert " + input.getPath() + ": "
+        + ioe.getMessage());
+      errorCount ++;
+    }
+    finally
+    {
+      if (temp != null) temp.delete(); // don't leave partial files around
+    }
+  } // end of convertFile() method
+
+
+/*
+  convertBytes() method
+
+  Convert the contents of one file and write them to another, and force them
+  to disk.  Return the number of changes made by the rules.
+*/
+  int convertBytes(byte[] bytes, File file) throws IOException
+  {
+    int changes;                  // number of changes made by rules
+    FileOutputStream stream;      // output file
+    PlainText3Output segments;    // converted text, maybe spilled to disk
+    Writer writer;                // structured text output
+
+    stream = new FileOutputStream(file);
+    try
+    {
+      if (format != PlainText3Markup.FORMAT_NONE) // structured text
+      {
+        writer = new BufferedWriter(new OutputStreamWriter(stream,
+          StandardCharsets.UTF_8));
+        changes = (int) new PlainText3Markup(format,
+          PlainText3Markup.strictReader(new ByteArrayInputStream(bytes)),
+          writer).run();
+        writer.flush();
+      }
+      else
+      {
+        segments = new PlainText3Output(PlainText3Engine.spillLimit,
+          PlainText3Engine.maxOutput, PlainText3Engine.maxExpansion);
+        changes = PlainText3Engine.convertUnicode(PlainText3Engine.utfParse16(
+          new String(bytes, StandardCharsets.UTF_8),
+          PlainText3Engine.jbnUserFlag, PlainText3Engine.xmlUserFlag),
+          segments);
+        if (segments.error != null) // stopped by a limit
+        {
+          segments.close();
+          throw new IOException(segments.error);
+        }
+        segments.writeTo(stream.getChannel());
+      }
+      PlainText3Engine.finishErrors();
+      stream.getChannel().force(true); // on disk before rename and manifest
+    }
+    finally { stream.close(); }
+    return(changes);
+
+  } // end of convertBytes() method
+
+
+/*
+  formatRecord() method
+
+  Return one manifest line, with its CRC.
+*/
+  static String formatRecord(String path, long size, long time, long hash,
+    long rules)
+  {
+    java.util.zip.CRC32 crc;      // checksum of line
+    String fields;                // everything except CRC
+
+    fields = size + " " + time + " " + Long.toHexString(hash) + " "
+      + Long.toHexString(rules);
+    crc = new java.util.zip.CRC32();
+    crc.update((fields + " " + path).getBytes(StandardCharsets.UTF_8));
+    return(fields + " " + Long.toHexString(crc.getValue()) + " " + path
+      + "\n");
+  }
+
+
+/*
+  hashBytes() method
+
+  Add bytes to a 64-bit FNV-1a hash.  This isn't cryptographic, but it is
+  fast, has no dependencies, and is plenty to notice a changed file.
+*/
+  static long hashBytes(long hash, byte[] bytes)
+  {
+    int i;                        // index variable
+
+    for (i = 0; i < bytes.length; i ++)
+      hash = (hash ^ (bytes[i] & 0xFF)) * FNV_PRIME;
+    return(hash);
+  }
+
+
+/*
+  hashRules() method
+
+  Return a hash of everything that decides the output for a given input: the
+  packed rules of each pass, and the options that change how input is read or
+  matched.
+*/
+  static long hashRules(PlainText3Table table, int format)
+  {
+    StringBuffer text;            // rules and options as text
+    int i;                        // index variable
+
+    text = new StringBuffer();
+    text.append("format " + format + " java " + PlainText3Engine.jbnUserFlag
+      + " xml " + PlainText3Engine.xmlUserFlag + " grapheme "
+      + PlainText3Engine.graphemeFlag + "\n");
+    for ( ; table != null; table = table.next)
+    {
+      text.append("pass " + table.ruleCount + "\n");
+      for (i = 0; i < table.ruleCount; i ++)
+      {
+        text.append(table.ruleActions[i] + " " + table.ruleKinds[i] + " "
+          + Arrays.toString(Arrays.copyOfRange(table.leftPool,
+          table.leftStart[i], table.leftStart[i + 1])));
+        if (table.rightIndex[i] >= 0)
+        {
+          text.append(" = ");
+          table.appendRight(text, i);
+        }
+        if (table.ruleClasses != null && table.ruleClasses[i] != null)
+          text.append(" class " + table.ruleClasses[i].name);
+        if (table.ruleArguments != null && table.ruleArguments[i] != null)
+          text.append(" custom " + table.ruleFormatters[i].name() + " "
+            + table.ruleArguments[i]);
+        text.append("\n");
+      }
+    }
+    return(hashBytes(FNV_BASIS, text.toString().getBytes(
+      StandardCharsets.UTF_8)));
+
+  } // end of hashRules() method
+
+
+/*
+  openManifest() method
+
+  Read the manifest, keeping the last line for each input path, then open it
+  for appending.  Lines with a bad CRC are ignored.  If more than half of the
+  lines are old, the live lines are written to a new manifest first.
+*/
+  void openManifest() throws IOException
+  {
+    Map.Entry<String, long[]> entry; // one input path and its record
+    String[] fields;              // size, time, hash, rules, CRC, path
+    File file;                    // manifest file
+    long hash, rules;             // content and rule hashes from one line
+    BufferedReader input;         // reads manifest
+    Iterator<Map.Entry<String, long[]>> iterator; // live records
+    String line;                  // one line from manifest
+    int lineCount;                // number of valid lines
+    boolean partial;              // true if last line has no newline
+    long[] record;                // size, time, hash, rules for one path
+    long size, time;              // input file size and time from one line
+    File temp;                    // new manifest before being renamed
+    Writer writer;                // writes new manifest
+
+    file = new File(manifestPath);
+    lineCount = 0;
+    partial = false;
+    if (file.exists())
+    {
+      input = new BufferedReader(new InputStreamReader(new FileInputStream(
+        file), StandardCharsets.UTF_8));
+      try
+      {
+        while ((line = input.readLine()) != null)
+        {
+          fields = line.split(" ", 6);
+          if (fields.length < 6) // not a manifest line
+            continue;
+          try
+          {
+            size = Long.parseLong(fields[0]);
+            time = Long.parseLong(fields[1]);
+            hash = Long.parseUnsignedLong(fields[2], 16);
+            rules = Long.parseUnsignedLong(fields[3], 16);
+            if (formatRecord(fields[5], size, time, hash, rules).equals(
+              line + "\n"))
+            {
+              manifest.put(fields[5], new long[] { size, time, hash,
+                rules });
+              lineCount ++;
+            }
+          }
+          catch (NumberFormatException nfe) { /* partial or damaged line */ }
+        }
+      }
+      finally { input.close(); }
+      partial = (file.length() > 0) && (readLastByte(file) != '\n');
+    }
+
+    if (lineCount > ((manifest.size() * 2) + SYNC_COUNT)) // mostly old?
+    {
+      temp = new File(manifestPath + ".tmp");
+      writer = new BufferedWriter(new OutputStreamWriter(
+        new FileOutputStream(temp), StandardCharsets.UTF_8));
+      iterator = manifest.entrySet().iterator();
+      while (iterator.hasNext())
+      {
+        entry = iterator.next();
+        record = entry.getValue();
+        writer.write(formatRecord(entry.getKey(), record[0],
+          record[1], record[2], record[3]));
+      }
+      writer.close();
+      java.nio.file.Files.move(temp.toPath(), file.toPath(),
+        java.nio.file.StandardCopyOption.REPLACE_EXISTING);
+      partial = false;
+    }
+
+    file.getAbsoluteFile().getParentFile().mkdirs();
+    manifestChannel = new FileOutputStream(file, true).getChannel();
+    if (partial)                  // end a partial line, so the next is whole
+      manifestChannel.write(ByteBuffer.wrap(new byte[] { '\n' }));
+
+  } // end of openManifest() method
+
+
+/*
+  readLastByte() method
+
+  Return the last byte of a non-empty file.
+*/
+  static int readLastByte(File file) throws IOException
+  {
+    RandomAccessFile random;      // for reading at the end
+
+    random = new RandomAccessFile(file, "r");
+    try
+    {
+      random.seek(file.length() - 1);
+      return(random.read());
+    }
+    finally { random.close(); }
+  }
+
+
+/*
+  run() method
+
+  Convert all files in the list of names, which may be files or directories.
+  Print a summary on standard error, and return the number of errors.
+*/
+  int run(ArrayList<String> names)
+  {
+    int i;                        // index variable
+    File input;                   // one name as a file
+    long startTime;               // when we started, in nanoseconds
+
+    startTime = System.nanoTime();
+    try
+    {
+      openManifest();
+      for (i = 0; i < names.size(); i ++)
+      {
+        input = new File(names.get(i));
+        if (input.isDirectory())  // outputs keep paths under directory
+          walk(input, "");
+        else if (input.exists())
+          convertFile(input, input.getName(), new File(outputDir,
+            input.getName()));
+        else
+        {
+          PlainText3Engine.putError("Input file not found: "
+            + input.getPath());
+          errorCount ++;
+        }
+      }
+      manifestChannel.force(false);
+      manifestChannel.close();
+    }
+    catch (IOException ioe)
+    {
+      PlainText3Engine.putError("Manifest " + manifestPath + ": "
+        + ioe.getMessage());
+      errorCount ++;
+    }
+
+    System.err.println("Converted "
+      + PlainText3Engine.prettyPlural(convertCount, "file") + ", skipped "
+      + PlainText3Engine.formatComma.format(skipCount)
+      + " already done, with "
+      + PlainText3Engine.prettyPlural(errorCount, "error") + " in "
+      + PlainText3Engine.formatComma.format((System.nanoTime() - startTime)
+      / 1000000) + " ms.");
+    return(errorCount);
+
+  } // end of run() method
+
+
+/*
+  walk() method
+
+  Convert all files under a directory, in sorted order so that the manifest
+  grows the same way each time.  <relative> is the path below the directory
+  given by the user, and is used for the output and the manifest.  Skip the
+  output directory and the manifest (and its temporary copy), or each run
+  would convert the previous run's results.
+*/
+  void walk(File directory, String relative)
+  {
+    File[] children;              // contents of directory
+    int i;                        // index variable
+    String canon;                 // canonical path of one child
+    String path;                  // relative path of one child
+
+    if ((children = directory.listFiles()) == null)
+    {
+      PlainText3Engine.putError("Unable to read directory: "
+        + directory.getPath());
+      errorCount ++;
+      return;
+    }
+    Arrays.sort(children);
+    for (i = 0; i < children.length; i ++)
+    {
+      path = relative + children[i].getName();
+      canon = canonicalPath(children[i]);
+      if (canon.equals(outputCanon) || canon.equals(manifestCanon)
+        || canon.equals(manifestCanon + ".tmp"))
+        continue;                 // our own output, not an input
+      if (children[i].isDirectory())
+        walk(children[i], (path + File.separator));
+      else if (children[i].isFile())
+        convertFile(children[i], path, new File(outputDir, path));
+    }
+  } // end of walk() method
+
+} // end of PlainText3Batch class
+
+/* Copyright (c) 2019 by Keith Fenske.  Apache License or GNU GPL. */
@@ -0,0 +1,203 @@
+/*
+  Plain Text #3 (Builtin) - Built-in Packs of Conversion Rules
+  Java class name: PlainText3Builtin
+  Copyright (c) 2019 by Keith Fenske.  Apache License or GNU GPL.
+
+  Rule packs that are built into the program, so that common transliterations
+  don't have to be copied into every configuration data file.  A pack is
+  pulled in with one line, and its rules go where that line is, in the usual
+  first-match order:
+
+      include builtin:cyrillic
+
+  Each pack is a sorted list of single characters with their replacements,
+  kept as primitive arrays and one string of right sides, as in the packed
+  PlainText3Table.  Nothing is parsed, so a pack loads in microseconds.
+
+      cyrillic     Russian, Ukrainian, Belarusian, Serbian, Macedonian letters
+      greek        modern Greek letters, with and without accents
+      latin        accented and special Latin letters (U+00C0 to U+024F)
+      punctuation  typographic quotes, dashes, spaces, and a few symbols
+
+  Apache License or GNU General Public License
+  --------------------------------------------
+  PlainText3Builtin is free software and has been released under the terms and
+  conditions of the Apache License (version 2.0 or later) and/or the GNU
+  General Public License (GPL, version 2 or later).  This program is
+  distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY,
+  without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+  PARTICULAR PURPOSE.  See the license(s) for more details.  You should have
+  received a copy of the licenses along with this program.  If not, see the
+  http://www.apache.org/licenses/ and http://www.gnu.org/licenses/ web pages.
+*/
+
+import java.util.*;               // lists, maps
+
+class PlainText3Builtin
+{
+  /* constants */
+
+  static final String[] NAMES = { "cyrillic", "greek", "latin",
+    "punctuation" };              // sorted, same order as tables below
+
+  static final int[] CYRILLIC_LEFT = {
+    0x0401, 0x0402, 0x0403, 0x0404, 0x0405, 0x0406, 0x0407, 0x0408, 0x0409,
+    0x040A, 0x040B, 0x040C, 0x040E, 0x040F, 0x0410, 0x0411, 0x0412, 0x0413,
+    0x0414, 0x0415, 0x0416, 0x0417, 0x0418, 0x0419, 0x041A, 0x041B, 0x041C,
+    0x041D, 0x041E, 0x041F, 0x0420, 0x0421, 0x0422, 0x0423, 0x0424, 0x0425,
+    0x0426, 0x0427, 0x0428, 0x0429, 0x042A, 0x042B, 0x042C, 0x042D, 0x042E,
+    0x042F, 0x0430, 0x0431, 0x0432, 0x0433, 0x0434, 0x0435, 0x0436, 0x0437,
+    0x0438, 0x0439, 0x043A, 0x043B, 0x043C, 0x043D, 0x043E, 0x043F, 0x0440,
+    0x0441, 0x0442, 0x0443, 0x0444, 0x0445, 0x0446, 0x0447, 0x0448, 0x0449,
+    0x044A, 0x044B, 0x044C, 0x044D, 0x044E, 0x044F, 0x0451, 0x0452, 0x0453,
+    0x0454, 0x0455, 0x0456, 0x0457, 0x0458, 0x0459, 0x045A, 0x045B, 0x045C,
+    0x045E, 0x045F, 0x0490, 0x0491 };
+  static final int[] CYRILLIC_START = {
+    0, 2, 4, 6, 8, 10, 11, 13, 14, 16, 18, 19, 21, 22, 25, 26, 27, 28, 29, 30,
+    31, 33, 34, 35, 36, 37, 38, 39, 40, 41, 42, 43, 44, 45, 46, 47, 49, 51,
+    53, 55, 59, 60, 61, 62, 63, 65, 67, 68, 69, 70, 71, 72, 73, 75, 76, 77,
+    78, 79, 80, 81, 82, 83, 84, 85, 86, 87, 88, 89, 91, 93, 95, 97, 101, 102,
+    103, 104, 105, 107, 109, 111, 113, 115, 117, 119, 120, 122, 123, 125, 127,
+    128, 130, 131, 134, 135, 136 };
+  static final String CYRILLIC_RIGHT =
+    "YoDjGjYeDzIYiJLjNjCKjUDzhABVGDEZhZIYKLMNOPRSTUFKhTsChShShch\"Y'EYuYa" +
+    "abvgdezhziyklmnoprstufkhtschshshch\"y'eyuyayodjgjyedziyijljnjckjudzh" +
+    "Gg";
+
+  static final int[] GREEK_LEFT = {
+    0x0386, 0x0388, 0x0389, 0x038A, 0x038C, 0x038E, 0x038F, 0x0390, 0x0391,
+    0x0392, 0x0393, 0x0394, 0x0395, 0x0396, 0x0397, 0x0398, 0x0399, 0x039A,
+    0x039B, 0x039C, 0x039D, 0x039E, 0x039F, 0x03A0, 0x03A1, 0x03A3, 0x03A4,
+    0x03A5, 0x03A6, 0x03A7, 0x03A8, 0x03A9, 0x03AA, 0x03AB, 0x03AC, 0x03AD,
+    0x03AE, 0x03AF, 0x03B0, 0x03B1, 0x03B2, 0x03B3, 0x03B4, 0x03B5, 0x03B6,
+    0x03B7, 0x03B8, 0x03B9, 0x03BA, 0x03BB, 0x03BC, 0x03BD, 0x03BE, 0x03BF,
+    0x03C0, 0x03C1, 0x03C2, 0x03C3, 0x03C4, 0x03C5, 0x03C6, 0x03C7, 0x03C8,
+    0x03C9, 0x03CA, 0x03CB, 0x03CC, 0x03CD, 0x03CE };
+  static final int[] GREEK_START = {
+    0, 1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15, 17, 18, 19, 20, 21,
+    22, 23, 24, 25, 26, 27, 28, 29, 30, 32, 34, 35, 36, 37, 38, 39, 40, 41,
+    42, 43, 44, 45, 46, 47, 48, 49, 51, 52, 53, 54, 55, 56, 57, 58, 59, 60,
+    61, 62, 63, 64, 65, 67, 69, 70, 71, 72, 73, 74, 75 };
+  static final String GREEK_RIGHT =
+    "AEIIOYOiAVGDEZIThIKLMNXOPRSTYFChPsOIYaeiiyavgdezithiklmnxoprsstyfchp" +
+    "soiyoyo";
+
+  static final int[] LATIN_LEFT = {
+    0x00C0, 0x00C1, 0x00C2, 0x00C3, 0x00C4, 0x00C5, 0x00C6, 0x00C7, 0x00C8,
+    0x00C9, 0x00CA, 0x00CB, 0x00CC, 0x00CD, 0x00CE, 0x00CF, 0x00D0, 0x00D1,
+    0x00D2, 0x00D3, 0x00D4, 0x00D5, 0x00D6, 0x00D8, 0x00D9, 0x00DA, 0x00DB,
+    0x00DC, 0x00DD, 0x00DE, 0x00DF, 0x00E0, 0x00E1, 0x00E2, 0x00E3, 0x00E4,
+    0x00E5, 0x00E6, 0x00E7, 0x00E8, 0x00E9, 0x00EA, 0x00EB, 0x00EC, 0x00ED,
+    0x00EE, 0x00EF, 0x00F0, 0x00F1, 0x00F2, 0x00F3, 0x00F4, 0x00F5, 0x00F6,
+    0x00F8, 0x00F9, 0x00FA, 0x00FB, 0x00FC, 0x00FD, 0x00FE, 0x00FF, 0x0100,
+    0x0101, 0x0102, 0x0103, 0x0104, 0x0105, 0x0106, 0x0107, 0x0108, 0x0109,
+    0x010A, 0x010B, 0x010C, 0x010D, 0x010E, 0x010F, 0x0110, 0x0111, 0x0112,
+    0x0113, 0x0114, 0x0115, 0x0116, 0x0117, 0x0118, 0x0119, 0x011A, 0x011B,
+    0x011C, 0x011D, 0x011E, 0x011F, 0x0120, 0x0121, 0x0122, 0x0123, 0x0124,
+    0x0125, 0x0126, 0x0127, 0x0128, 0x0129, 0x012A, 0x012B, 0x012C, 0x012D,
+    0x012E, 0x012F, 0x0130, 0x0131, 0x0132, 0x0133, 0x0134, 0x0135, 0x0136,
+    0x0137, 0x0138, 0x0139, 0x013A, 0x013B, 0x013C, 0x013D, 0x013E, 0x0141,
+    0x0142, 0x0143, 0x0144, 0x0145, 0x0146, 0x0147, 0x0148, 0x014A, 0x014B,
+    0x014C, 0x014D, 0x014E, 0x014F, 0x0150, 0x0151, 0x0152, 0x0153, 0x0154,
+    0x0155, 0x0156, 0x0157, 0x0158, 0x0159, 0x015A, 0x015B, 0x015C, 0x015D,
+    0x015E, 0x015F, 0x0160, 0x0161, 0x0162, 0x0163, 0x0164, 0x0165, 0x0166,
+    0x0167, 0x0168, 0x0169, 0x016A, 0x016B, 0x016C, 0x016D, 0x016E, 0x016F,
+    0x0170, 0x0171, 0x0172, 0x0173, 0x0174, 0x0175, 0x0176, 0x0177, 0x0178,
+    0x0179, 0x017A, 0x017B, 0x017C, 0x017D, 0x017E, 0x017F, 0x0180, 0x0181,
+    0x0182, 0x0183, 0x0187, 0x0188, 0x0189, 0x018A, 0x018B, 0x018C, 0x0191,
+    0x0192, 0x0193, 0x0197, 0x0198, 0x0199, 0x019A, 0x019D, 0x019E, 0x01A0,
+    0x01A1, 0x01A4, 0x01A5, 0x01AB, 0x01AC, 0x01AD, 0x01AE, 0x01AF, 0x01B0,
+    0x01B2, 0x01B3, 0x01B4, 0x01B5, 0x01B6, 0x01C4, 0x01C5, 0x01C6, 0x01C7,
+    0x01C8, 0x01C9, 0x01CA, 0x01CB, 0x01CC, 0x01CD, 0x01CE, 0x01CF, 0x01D0,
+    0x01D1, 0x01D2, 0x01D3, 0x01D4, 0x01D5, 0x01D6, 0x01D7, 0x01D8, 0x01D9,
+    0x01DA, 0x01DB, 0x01DC, 0x01DE, 0x01DF, 0x01E0, 0x01E1, 0x01E4, 0x01E5,
+    0x01E6, 0x01E7, 0x01E8, 0x01E9, 0x01EA, 0x01EB, 0x01EC, 0x01ED, 0x01F0,
+    0x01F1, 0x01F2, 0x01F3, 0x01F4, 0x01F5, 0x01F8, 0x01F9, 0x01FA, 0x01FB,
+    0x0200, 0x0201, 0x0202, 0x0203, 0x0204, 0x0205, 0x0206, 0x0207, 0x0208,
+    0x0209, 0x020A, 0x020B, 0x020C, 0x020D, 0x020E, 0x020F, 0x0210, 0x0211,
+    0x0212, 0x0213, 0x0214, 0x0215, 0x0216, 0x0217, 0x0218, 0x0219, 0x021A,
+    0x021B, 0x021E, 0x021F, 0x0221, 0x0224, 0x0225, 0x0226, 0x0227, 0x0228,
+    0x0229, 0x022A, 0x022B, 0x022C, 0x022D, 0x022E, 0x022F, 0x0230, 0x0231,
+    0x0232, 0x0233, 0x0234, 0x0235, 0x0236, 0x0237, 0x023A, 0x023B, 0x023C,
+    0x023D, 0x023E, 0x023F, 0x0240, 0x0243, 0x0244, 0x0246, 0x0247, 0x0248,
+    0x0249, 0x024A, 0x024B, 0x024C, 0x024D, 0x024E, 0x024F };
+  static final int[] LATIN_START = {
+    0, 1, 2, 3, 4, 5, 6, 8, 9, 10, 11, 12, 13, 14, 15, 16, 17, 18, 19, 20, 21,
+    22, 23, 24, 25, 26, 27, 28, 29, 30, 32, 34, 35, 36, 37, 38, 39, 40, 42,
+    43, 44, 45, 46, 47, 48, 49, 50, 51, 52, 53, 54, 55, 56, 57, 58, 59, 60,
+    61, 62, 63, 64, 66, 67, 68, 69, 70, 71, 72, 73, 74, 75, 76, 77, 78, 79,
+    80, 81, 82, 83, 84, 85, 86, 87, 88, 89, 90, 91, 92, 93, 94, 95, 96, 97,
+    98, 99, 100, 101, 102, 103, 104, 105, 106, 107, 108, 109, 110, 111, 112,
+    113, 114, 115, 116, 117, 119, 121, 122, 123, 124, 125, 126, 127, 128, 129,
+    130, 131, 132, 133, 134, 135, 136, 137, 138, 139, 140, 141, 142, 143, 144,
+    145, 146, 147, 148, 150, 152, 153, 154, 155, 156, 157, 158, 159, 160, 161,
+    162, 163, 164, 165, 166, 167, 168, 169, 170, 171, 172, 173, 174, 175, 176,
+    177, 178, 179, 180, 181, 182, 183, 184, 185, 186, 187, 188, 189, 190, 191,
+    192, 193, 194, 195, 196, 197, 198, 199, 200, 201, 202, 203, 204, 205, 206,
+    207, 208, 209, 210, 211, 212, 213, 214, 215, 216, 217, 218, 219, 220, 221,
+    222, 223, 224, 225, 226, 227, 228, 229, 230, 232, 234, 236, 238, 240, 242,
+    244, 246, 248, 249, 250, 251, 252, 253, 254, 255, 256, 257, 258, 259, 260,
+    261, 262, 263, 264, 265, 266, 267, 268, 269, 270, 271, 272, 273, 274, 275,
+    276, 277, 278, 279, 281, 283, 285, 286, 287, 288, 289, 290, 291, 292, 293,
+    294, 295, 296, 297, 298, 299, 300, 301, 302, 303, 304, 305, 306, 307, 308,
+    309, 310, 311, 312, 313, 314, 315, 316, 317, 318, 319, 320, 321, 322, 323,
+    324, 325, 326, 327, 328, 329, 330, 331, 332, 333, 334, 335, 336, 337, 338,
+    339, 340, 341, 342, 343, 344, 345, 346, 347, 348, 349, 350, 351, 352, 353,
+    354, 355, 356, 357, 358, 359, 360, 361 };
+  static final String LATIN_RIGHT =
+    "AAAAAAAECEEEEIIIIDNOOOOOOUUUUYThssaaaaaaaeceeeeiiiidnoooooouuuuythyA" +
+    "aAaAaCcCcCcCcDdDdEeEeEeEeEeGgGgGgGgHhHhIiIiIiIiIiIJijJjKkqLlLlLlLlNn" +
+    "NnNnNnOoOoOoOEoeRrRrRrSsSsSsSsTtTtTtUuUuUuUuUuUuWwYyYZzZzZzsbBBbCcDD" +
+    "DdFfGIKklNnOoPptTtTUuVYyZzDZDzdzLJLjljNJNjnjAaIiOoUuUuUuUuUuAaAaGgGg" +
+    "KkOoOojDZDzdzGgNnAaAaAaEeEeIiIiOoOoRrRrUuUuSsTtHhdZzAaEeOoOoOoOoYyln" +
+    "tjACcLTszBUEeJjQqRrYy";
+
+  static final int[] PUNCTUATION_LEFT = {
+    0x00A0, 0x00AB, 0x00AD, 0x00B4, 0x00B7, 0x00BB, 0x2002, 0x2003, 0x2009,
+    0x200A, 0x200B, 0x2010, 0x2011, 0x2012, 0x2013, 0x2014, 0x2015, 0x2018,
+    0x2019, 0x201A, 0x201B, 0x201C, 0x201D, 0x201E, 0x201F, 0x2022, 0x2026,
+    0x2032, 0x2033, 0x2039, 0x203A, 0x2044, 0x2060, 0x2212, 0xFEFF };
+  static final int[] PUNCTUATION_START = {
+    0, 1, 3, 3, 4, 5, 7, 8, 9, 10, 11, 11, 12, 13, 14, 15, 17, 19, 20, 21, 22,
+    23, 24, 25, 26, 27, 28, 31, 32, 34, 35, 36, 37, 37, 38, 38 };
+  static final String PUNCTUATION_RIGHT =
+    " <<'.>>    --------''''\"\"\"\"*...'''<>/-";
+
+  static final int[][] LEFTS = { CYRILLIC_LEFT, GREEK_LEFT, LATIN_LEFT,
+    PUNCTUATION_LEFT };
+  static final String[] RIGHTS = { CYRILLIC_RIGHT, GREEK_RIGHT, LATIN_RIGHT,
+    PUNCTUATION_RIGHT };
+  static final int[][] STARTS = { CYRILLIC_START, GREEK_START, LATIN_START,
+    PUNCTUATION_START };
+
+/*
+  addPack() method
+
+  Add the rules from one pack to the end of the engine's parsed rules, with
+  the configuration line number of the "include" line.  Return the number of
+  rules added, or -1 if there is no pack with that name.
+*/
+  static int addPack(String name, int line)
+  {
+    int i;                        // index variable
+    int[] left;                   // characters in this pack
+    int pack;                     // index of pack in <NAMES>
+    String right;                 // right sides for this pack
+    int[] start;                  // offsets into <right>, one extra at end
+
+    if ((pack = Arrays.binarySearch(NAMES, name.toLowerCase())) < 0)
+      return(-1);                 // no such pack
+    left = LEFTS[pack];
+    right = RIGHTS[pack];
+    start = STARTS[pack];
+    for (i = 0; i < left.length; i ++)
+      PlainText3Engine.addConversion(PlainText3Engine.ACTION_REPLACE, false,
+        new int[] { left[i] }, right.substring(start[i], start[i + 1]),
+        line);
+    return(left.length);
+
+  } // end of addPack() method
+
+} // end of PlainText3Builtin class
+
+/* Copyright (c) 2019 by Keith Fenske.  Apache License or GNU GPL. */
@@ -0,0 +1,139 @@
+/*
+  Plain Text #3 (Changes) - Map of Changes Made by a Conversion
+  Java class name: PlainText3Changes
+  Copyright (c) 2019 by Keith Fenske.  Apache License or GNU GPL.
+
+  A compact map of where changes were made during one conversion.  Each change
+  has a source offset and length in the input, a target offset and length in
+  the output, and the index of the rule that made the change.  Offsets and
+  lengths count UTF-16 characters (as in a JTextArea).  Consecutive changes by
+  the same rule with the same lengths are run-length encoded: one entry with a
+  repeat count, so a line of dashes or a paragraph of curly quotes costs very
+  little.  Everything is kept in primitive arrays that grow by doubling.
+
+  Apache License or GNU General Public License
+  --------------------------------------------
+  PlainText3Changes is free software and has been released under the terms and
+  conditions of the Apache License (version 2.0 or later) and/or the GNU
+  General Public License (GPL, version 2 or later).  This program is
+  distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY,
+  without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+  PARTICULAR PURPOSE.  See the license(s) for more details.  You should have
+  received a copy of the licenses along with this program.  If not, see the
+  http://www.apache.org/licenses/ and http://www.gnu.org/licenses/ web pages.
+*/
+
+class PlainText3Changes
+{
+  /* constants */
+
+  static final int INITIAL_SIZE = 64; // initial number of runs allocated
+
+  /* class variables */
+
+  int runCount;                   // number of runs in the arrays below
+  int[] runLength;                // number of changes in each run (repeats)
+  int[] ruleIndex;                // rule that made the changes in each run
+  int[] sourceLength;             // UTF-16 characters matched by each change
+  int[] sourceStart;              // UTF-16 offset in input of first change
+  int[] targetLength;             // UTF-16 characters written by each change
+  int[] targetStart;              // UTF-16 offset in output of first change
+
+  /* Converting UTF-32 indexes to UTF-16 offsets is done incrementally, from
+  wherever the previous change was, so the total cost is linear. */
+
+  int scanIndex;                  // UTF-32 index already scanned in input
+  int scanOffset;                 // UTF-16 offset matching <scanIndex>
+
+  /* constructor */
+
+  public PlainText3Changes()
+  {
+    runCount = 0;                 // no changes recorded yet
+    runLength = new int[INITIAL_SIZE];
+    ruleIndex = new int[INITIAL_SIZE];
+    scanIndex = scanOffset = 0;   // start of input text
+    sourceLength = new int[INITIAL_SIZE];
+    sourceStart = new int[INITIAL_SIZE];
+    targetLength = new int[INITIAL_SIZE];
+    targetStart = new int[INITIAL_SIZE];
+  }
+
+
+/*
+  add() method
+
+  Record one change: the UTF-32 input characters from <matchStart> up to (but
+  not including) <matchEnd> became the UTF-16 output from <outputStart> up to
+  <outputEnd>.  Changes must be added in order, from start to end of input.
+*/
+  void add(
+    int[] inputText,              // UTF-32 input text (code points)
+    int matchStart,               // first UTF-32 character matched
+    int matchEnd,                 // after last UTF-32 character matched
+    int outputStart,              // UTF-16 offset of replacement in output
+    int outputEnd,                // after replacement in output
+    int rule)                     // index of rule in conversion table
+  {
+    int last;                     // index of previous run
+    int length;                   // UTF-16 length of matched input
+    int start;                    // UTF-16 offset of matched input
+
+    while (scanIndex < matchStart) // advance to start of this change
+      scanOffset += (inputText[scanIndex ++] > PlainText3Engine.UTF16_MAX)
+        ? 2 : 1;
+    start = scanOffset;
+    while (scanIndex < matchEnd)  // and then to the end of this change
+      scanOffset += (inputText[scanIndex ++] > PlainText3Engine.UTF16_MAX)
+        ? 2 : 1;
+    length = scanOffset - start;
+
+    /* Extend the previous run if this change repeats it exactly. */
+
+    last = runCount - 1;
+    if ((last >= 0) && (ruleIndex[last] == rule)
+      && (sourceLength[last] == length)
+      && (targetLength[last] == (outputEnd - outputStart))
+      && (start == (sourceStart[last] + (length * runLength[last])))
+      && (outputStart == (targetStart[last] + (targetLength[last]
+        * runLength[last]))))
+    {
+      runLength[last] ++;         // one more change in this run
+      return;
+    }
+
+    if (runCount == runLength.length) // are the arrays full?
+    {
+      runLength = grow(runLength);
+      ruleIndex = grow(ruleIndex);
+      sourceLength = grow(sourceLength);
+      sourceStart = grow(sourceStart);
+      targetLength = grow(targetLength);
+      targetStart = grow(targetStart);
+    }
+    runLength[runCount] = 1;      // start a new run with one change
+    ruleIndex[runCount] = rule;
+    sourceLength[runCount] = length;
+    sourceStart[runCount] = start;
+    targetLength[runCount] = outputEnd - outputStart;
+    targetStart[runCount] = outputStart;
+    runCount ++;
+
+  } // end of add() method
+
+
+/*
+  grow() method
+
+  Return a copy of an integer array with double the size.
+*/
+  static int[] grow(int[] array)
+  {
+    int[] result = new int[array.length * 2];
+    System.arraycopy(array, 0, result, 0, array.length);
+    return(result);
+  }
+
+} // end of PlainText3Changes class
+
+/* Copyright (c) 2019 by Keith Fenske.  Apache License or GNU GPL. */
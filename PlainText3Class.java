@@ -0,0 +1,479 @@
+/*
+  Plain Text #3 (Class) - Character Classes for Conversion Rules
+  Java class name: PlainText3Class
+  Copyright (c) 2019 by Keith Fenske.  Apache License or GNU GPL.
+
+  A character class from the left side of a rule: a Unicode general category
+  or other regular expression property (\p{Mn}), a script (script=Cyrillic),
+  or a block (block=Dingbats).  The class is resolved once, when the
+  configuration data file is loaded, into a bitset of character numbers, so
+  matching is one bit test no matter how many ranges the class covers.
+
+  The bitset has one page for each 4,096 characters.  Pages with no
+  characters are null, and pages with all characters share one array, so a
+  script like Cyrillic takes a few hundred bytes instead of 136 KB.
+
+  Building a class must be quick, because it happens on every cold start and
+  every reload.  General categories (\p{L}, \p{Mn}), scripts, and blocks are
+  found once as runs of characters with the same Character.getType(), script,
+  or block, and kept, so each class is built from a few thousand runs instead
+  of a million tests.  Other property names use a regular expression for each
+  character, except on pages outside every Unicode block (most of planes 3 to
+  13), where all characters are alike and only one is tested.
+
+  Apache License or GNU General Public License
+  --------------------------------------------
+  PlainText3Class is free software and has been released under the terms and
+  conditions of the Apache License (version 2.0 or later) and/or the GNU
+  General Public License (GPL, version 2 or later).  This program is
+  distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY,
+  without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+  PARTICULAR PURPOSE.  See the license(s) for more details.  You should have
+  received a copy of the licenses along with this program.  If not, see the
+  http://www.apache.org/licenses/ and http://www.gnu.org/licenses/ web pages.
+*/
+
+import java.util.*;               // lists, maps
+import java.util.regex.*;         // regular expressions
+
+class PlainText3Class
+{
+  /* constants */
+
+  static final String CATEGORIES = "Cn Lu Ll Lt Lm Lo Mn Me Mc Nd Nl No Zs"
+    + " Zl Zp Cc Cf ?? Co Cs Pd Ps Pe Pc Po Sm Sc Sk So Pi Pf";
+                                  // names in Character.getType() order
+  static final long[] FULL_PAGE = fullPage(); // shared page with all bits set
+  static final int PAGE_BITS = 12; // log2 of characters per page
+  static final int PAGE_LONGS = (1 << PAGE_BITS) / 64; // longs per page
+  static final int PAGE_MASK = (1 << PAGE_BITS) - 1; // character on a page
+  static final int RUN_BLOCK = 0; // runs of characters in the same block
+  static final int RUN_SCRIPT = 1; // runs of characters in the same script
+  static final int RUN_TYPE = 2;  // runs with the same Character.getType()
+  static final Object SURROGATES = "surrogates"; // run that never matches
+
+  /* class variables */
+
+  static HashMap<String, Integer> categoryMap; // general category to types
+  static boolean[] emptyPages;    // true if page is outside every block
+  static int[][] runStarts;       // first character of each run, and end
+  static Object[][] runValues;    // block, script, or type of each run
+
+  int count;                      // number of characters in class
+  int first, last;                // lowest and highest characters in class
+  String name;                    // class as written in configuration file
+  long[][] pages;                 // null or bits for each page
+
+  /* constructor */
+
+  public PlainText3Class(String name)
+  {
+    this.count = 0;               // no characters yet
+    this.first = this.last = -1;  // no limits yet
+    this.name = name;
+    this.pages = new long[(PlainText3Engine.UTF32_MAX >> PAGE_BITS) + 1][];
+  }
+
+
+/*
+  add() method
+
+  Add one character to the class, while the class is being built.
+*/
+  void add(int ch)
+  {
+    int page = ch >> PAGE_BITS;   // which page has this character
+
+    if (pages[page] == null)
+      pages[page] = new long[PAGE_LONGS];
+    pages[page][(ch >> 6) & (PAGE_LONGS - 1)] |= 1L << ch;
+  }
+
+
+/*
+  contains() method
+
+  Return true if a character is in the class.  This is the inner loop, so
+  there is only one test for characters outside the Unicode range.
+*/
+  boolean contains(int ch)
+  {
+    long[] page;                  // page with this character, or null
+
+    if ((ch >>> PAGE_BITS) >= pages.length) // also catches negative numbers
+      return(false);
+    page = pages[ch >> PAGE_BITS];
+    return((page != null)
+      && ((page[(ch >> 6) & (PAGE_LONGS - 1)] & (1L << ch)) != 0));
+  }
+
+
+/*
+  finish() method
+
+  Called after the last add().  Count the characters, find the limits, and
+  replace full pages with the shared page.
+*/
+  void finish()
+  {
+    boolean fullFlag;             // true if every bit in page is set
+    int i, k;                     // index variables
+
+    for (i = 0; i < pages.length; i ++)
+    {
+      if (pages[i] == null)
+        continue;
+      fullFlag = true;
+      for (k = 0; k < PAGE_LONGS; k ++)
+      {
+        count += Long.bitCount(pages[i][k]);
+        fullFlag &= (pages[i][k] == -1L);
+      }
+      if (fullFlag)
+        pages[i] = FULL_PAGE;
+    }
+    for (i = 0; i <= PlainText3Engine.UTF32_MAX; i ++)
+    {
+      if (pages[i >> PAGE_BITS] == null) // skip whole page
+        i |= PAGE_MASK;
+      else if (contains(i)) { first = i; break; }
+    }
+    for (i = PlainText3Engine.UTF32_MAX; i >= 0; i --)
+    {
+      if (pages[i >> PAGE_BITS] == null)
+        i &= ~PAGE_MASK;
+      else if (contains(i)) { last = i; break; }
+    }
+  }
+
+
+/*
+  addRange() method
+
+  Add a range of characters to the class, while the class is being built.
+  Whole groups of 64 characters are set with one store.
+*/
+  void addRange(int low, int high)
+  {
+    int ch;                       // current character number
+    int page;                     // which page has this character
+
+    ch = low;
+    while (ch <= high)
+    {
+      if (((ch & 63) == 0) && ((high - ch) >= 63))
+      {
+        page = ch >> PAGE_BITS;
+        if (pages[page] == null)
+          pages[page] = new long[PAGE_LONGS];
+        pages[page][(ch >> 6) & (PAGE_LONGS - 1)] = -1L;
+        ch += 64;
+      }
+      else
+        add(ch ++);
+    }
+  }
+
+
+/*
+  categoryMask() method
+
+  Return a mask of Character.getType() values for a general category name
+  as a regular expression writes it (Lu, IsLu, gc=Lu, general_category=Lu,
+  or one letter for a group), or zero if the name is something else.
+*/
+  static synchronized int categoryMask(String name)
+  {
+    Integer mask;                 // mask from our map
+    String[] names;               // two-letter names in type order
+    int type;                     // one Character.getType() value
+
+    if (categoryMap == null)      // first time here?
+    {
+      categoryMap = new HashMap<>();
+      names = CATEGORIES.split(" ");
+      for (type = 0; type < names.length; type ++)
+      {
+        if (names[type].equals("??")) // no category has this number
+          continue;
+        categoryMap.put(names[type], Integer.valueOf(1 << type));
+        String group = names[type].substring(0, 1); // L for Lu, etc
+        mask = categoryMap.get(group);
+        categoryMap.put(group, Integer.valueOf(((mask == null) ? 0
+          : mask.intValue()) | (1 << type)));
+      }
+      categoryMap.put("LC", Integer.valueOf(categoryMap.get("Lu").intValue()
+        | categoryMap.get("Ll").intValue() | categoryMap.get("Lt")
+        .intValue()));
+    }
+    if (name.startsWith("Is"))    // remove one of the optional prefixes
+      name = name.substring(2);
+    else if (name.startsWith("gc="))
+      name = name.substring(3);
+    else if (name.startsWith("general_category="))
+      name = name.substring(17);
+    mask = categoryMap.get(name);
+    return((mask == null) ? 0 : mask.intValue());
+
+  } // end of categoryMask() method
+
+
+/*
+  emptyPage() method
+
+  Return true if no part of a page is in a Unicode block.  Every assigned
+  character is in a block, so every property has the same value for all
+  characters on such a page, except maybe the noncharacters at the end of a
+  plane.  Blocks start and end on multiples of 16 characters, so we only need
+  to look at every 16th character.  Found once and kept.
+*/
+  static synchronized boolean emptyPage(int page)
+  {
+    int ch;                       // current character number
+    int i;                        // index variable
+    int size;                     // characters per page
+
+    if (emptyPages == null)       // first time here?
+    {
+      emptyPages = new boolean[(PlainText3Engine.UTF32_MAX >> PAGE_BITS)
+        + 1];
+      size = 1 << PAGE_BITS;
+      for (i = 0; i < emptyPages.length; i ++)
+      {
+        emptyPages[i] = true;
+        for (ch = i * size; emptyPages[i] && (ch < ((i + 1) * size));
+          ch += 16)
+        {
+          emptyPages[i] = (Character.UnicodeBlock.of(ch) == null);
+        }
+      }
+    }
+    return(emptyPages[page]);
+
+  } // end of emptyPage() method
+
+
+/*
+  footprint() method
+
+  Return the approximate number of bytes used by this class.  The shared page
+  is not counted.
+*/
+  long footprint()
+  {
+    final int HEADER = 16;        // nominal bytes for each array object
+    int i;                        // index variable
+    long result;                  // total bytes
+
+    result = HEADER + (8L * pages.length);
+    for (i = 0; i < pages.length; i ++)
+      if ((pages[i] != null) && (pages[i] != FULL_PAGE))
+        result += HEADER + (8L * PAGE_LONGS);
+    return(result);
+  }
+
+
+/*
+  fullPage() method
+
+  Make the shared page with all bits set.
+*/
+  static long[] fullPage()
+  {
+    long[] result = new long[PAGE_LONGS];
+    Arrays.fill(result, -1L);
+    return(result);
+  }
+
+
+/*
+  findRuns() method
+
+  Find the runs of characters with the same block, script, or general
+  category, once for each of those, and keep them in <runStarts> and
+  <runValues>.  A page outside every block is one value, so only its first
+  character is looked at.  Surrogates are a run that never matches.
+*/
+  static synchronized void findRuns(int which)
+  {
+    int ch;                       // current character number
+    int high;                     // last character looked at on a page
+    int i;                        // index variable
+    Object last;                  // value of current run
+    int page;                     // index of current page
+    ArrayList<Integer> starts;    // first character of each run
+    Object value;                 // value for current character
+    ArrayList<Object> values;     // value of each run
+
+    if (runStarts == null)        // first time here?
+    {
+      runStarts = new int[3][];
+      runValues = new Object[3][];
+    }
+    if (runStarts[which] != null) // already found?
+      return;
+
+    last = null;
+    starts = new ArrayList<>();
+    values = new ArrayList<>();
+    for (page = 0; page <= (PlainText3Engine.UTF32_MAX >> PAGE_BITS); page ++)
+    {
+      ch = page << PAGE_BITS;     // first character on this page
+      high = emptyPage(page) ? ch : (ch + PAGE_MASK); // empty is all alike
+      for ( ; ch <= high; ch ++)
+      {
+        if ((ch >= PlainText3Engine.UTF16_HIGH_BEGIN)
+          && (ch <= PlainText3Engine.UTF16_LOW_END))
+        {
+          value = SURROGATES;     // never in our input
+        }
+        else if (which == RUN_BLOCK)
+          value = Character.UnicodeBlock.of(ch);
+        else if (which == RUN_SCRIPT)
+          value = Character.UnicodeScript.of(ch);
+        else
+          value = Integer.valueOf(Character.getType(ch));
+        if ((value != last) || (starts.size() == 0)) // values are shared
+        {
+          starts.add(Integer.valueOf(ch));
+          values.add(value);
+          last = value;
+        }
+      }
+    }
+
+    runStarts[which] = new int[starts.size() + 1];
+    for (i = 0; i < starts.size(); i ++)
+      runStarts[which][i] = starts.get(i).intValue();
+    runStarts[which][i] = PlainText3Engine.UTF32_MAX + 1;
+    runValues[which] = values.toArray();
+
+  } // end of findRuns() method
+
+
+/*
+  parse() method
+
+  Build a class from its kind and name, or return null if the name is not
+  known to this Java run-time.  <kind> is "p" or "P" (negated) for a regular
+  expression property, "script", or "block".  Noncharacters (U+xFFFE and
+  U+xFFFF) are tested one by one with a regular expression, even on an empty
+  page, because a property like Noncharacter_Code_Point may include them.
+*/
+  static PlainText3Class parse(String kind, String value)
+  {
+    Character.UnicodeBlock block; // named Unicode block, if any
+    int ch;                       // current character number
+    int high;                     // last character on current page
+    int i;                        // index variable
+    boolean match;                // true if a run is in the class
+    Matcher matcher;              // reused for each character
+    boolean negate;               // true for \P{...}
+    int page;                     // index of current page
+    Pattern pattern;              // regular expression property, if any
+    PlainText3Class result;       // our new class
+    boolean sample;               // result for first character on empty page
+    Character.UnicodeScript script; // named Unicode script, if any
+    int[] starts;                 // first character of each run, and end
+    int typeMask;                 // Character.getType() values, or zero
+    Object[] values;              // block, script, or type of each run
+    int which;                    // RUN_ constant for block, script, type
+
+    block = null;
+    pattern = null;
+    script = null;
+    negate = kind.equals("P");
+    typeMask = 0;
+    try
+    {
+      if (kind.equalsIgnoreCase("block"))
+        block = Character.UnicodeBlock.forName(value);
+      else if (kind.equalsIgnoreCase("script"))
+        script = Character.UnicodeScript.forName(value);
+      else if ((typeMask = categoryMask(value)) == 0)
+        pattern = Pattern.compile("\\p{" + value + "}");
+    }
+    catch (IllegalArgumentException iae) // includes PatternSyntaxException
+    {
+      return(null);               // not a name that we know
+    }
+
+    result = new PlainText3Class(negate ? ("\\P{" + value + "}")
+      : ((pattern != null) || (typeMask != 0)) ? ("\\p{" + value + "}")
+      : (kind.toLowerCase() + "=" + value));
+
+    /* Blocks, scripts, and general categories are built from runs. */
+
+    if (pattern == null)
+    {
+      which = (block != null) ? RUN_BLOCK : (script != null) ? RUN_SCRIPT
+        : RUN_TYPE;
+      findRuns(which);
+      starts = runStarts[which];
+      values = runValues[which];
+      for (i = 0; i < values.length; i ++)
+      {
+        if (values[i] == SURROGATES) // never in our input
+          continue;
+        if (which == RUN_BLOCK)
+          match = (values[i] == block);
+        else if (which == RUN_SCRIPT)
+          match = (values[i] == script);
+        else
+          match = (((typeMask >> ((Integer) values[i]).intValue()) & 1) != 0)
+            != negate;
+        if (match)
+          result.addRange(starts[i], (starts[i + 1] - 1));
+      }
+      result.finish();
+      return(result);
+    }
+
+    /* Other properties test each character with the regular expression. */
+
+    matcher = pattern.matcher("");
+    for (page = 0; page < result.pages.length; page ++)
+    {
+      ch = page << PAGE_BITS;     // first character on this page
+      high = ch + PAGE_MASK;
+      if (emptyPage(page))        // every character is alike, test one
+      {
+        sample = matches(matcher, ch) != negate;
+        for ( ; ch <= high; ch ++)
+          if (((ch & 0xFFFE) == 0xFFFE) ? (matches(matcher, ch) != negate)
+            : sample)
+          {
+            result.add(ch);
+          }
+        continue;
+      }
+      for ( ; ch <= high; ch ++)
+      {
+        if ((ch >= PlainText3Engine.UTF16_HIGH_BEGIN)
+          && (ch <= PlainText3Engine.UTF16_LOW_END))
+        {
+          continue;               // surrogates are never in our input
+        }
+        if (matches(matcher, ch) != negate)
+          result.add(ch);
+      }
+    }
+    result.finish();
+    return(result);
+
+  } // end of parse() method
+
+
+/*
+  matches() method
+
+  Return true if one character matches a regular expression property.
+*/
+  static boolean matches(Matcher matcher, int ch)
+  {
+    return(matcher.reset(new String(Character.toChars(ch))).matches());
+  }
+
+} // end of PlainText3Class class
+
+/* Copyright (c) 2019 by Keith Fenske.  Apache License or GNU GPL. */
@@ -0,0 +1,541 @@
+/*
+  Plain Text #3 (Compiler) - Generate Java Code for a Conversion Table
+  Java class name: PlainText3Compiler
+  Copyright (c) 2019 by Keith Fenske.  Apache License or GNU GPL.
+
+  The conversion table is fixed once the configuration data file has been
+  loaded, but convertTable() still interprets it: for each input character,
+  it tries every rule in order until one matches.  This class writes a Java
+  class that does the same thing with a "switch" statement on the character
+  number, so only the rules that can match a given character are tried, and
+  replacement strings are constants in the code.  The Java run-time then
+  compiles that into straight-line machine code.
+
+  Java source is generated and compiled with the javax.tools compiler, and the
+  class file is loaded as a hidden class with MethodHandles.Lookup (Java 15 or
+  later).  Java doesn't have a standard class file writer before Java 22, and
+  source code is much easier to check.  If any of this is missing (a JRE
+  without a compiler, an older Java), or the table is too big, then we report
+  why and the table is interpreted as before.  Compiling is optional and is
+  selected with the -compile option.
+
+  Rules are grouped by their first character.  For each character that starts
+  at least one rule, a "case" tries those rules in their original order,
+  including any ranges that contain the character, and stops at the first rule
+  that must match.  Ranges for all other characters are tried in order after
+  the switch.  Methods are kept small (one per block of 64 characters) because
+  the Java run-time doesn't compile very large methods.
+
+  Run this class as an application to compare the interpreter and the
+  generated code on text made from your own configuration data file:
+
+      java  PlainText3Compiler  [-d#]
+
+  Apache License or GNU General Public License
+  --------------------------------------------
+  PlainText3Compiler is free software and has been released under the terms
+  and conditions of the Apache License (version 2.0 or later) and/or the GNU
+  General Public License (GPL, version 2 or later).  This program is
+  distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY,
+  without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+  PARTICULAR PURPOSE.  See the license(s) for more details.  You should have
+  received a copy of the licenses along with this program.  If not, see the
+  http://www.apache.org/licenses/ and http://www.gnu.org/licenses/ web pages.
+*/
+
+import java.io.*;                 // standard I/O
+import java.lang.invoke.*;        // hidden classes
+import java.net.*;                // URIs for in-memory files
+import java.util.*;               // lists, maps
+import javax.tools.*;             // Java compiler
+
+public class PlainText3Compiler extends PlainText3Engine
+{
+  /* constants */
+
+  static final int BLOCK_BITS = 6; // characters per method: 2^6 = 64
+  static final String CLASS_NAME = "PlainText3Generated"; // before hiding
+  static final int MAX_TESTS = 20000; // most rule tests in generated code
+  static final int RANGE_CHUNK = 64; // most range tests per method
+
+/*
+  main() method
+
+  Benchmark: load the configuration data file, make some text from the
+  characters in the rules, and time both the interpreter and the generated
+  code on the same text.
+*/
+  public static void main(String[] args)
+  {
+    PlainText3Converter compiled; // generated converter, or null
+    long elapsed;                 // nanoseconds for compiling
+    int i;                        // index variable
+    int[] text;                   // benchmark text (UTF-32)
+    String word;                  // one parameter from command line
+
+    initialize();                 // data file, notation flags, number format
+    for (i = 0; i < args.length; i ++)
+    {
+      word = args[i].toLowerCase(); // easier to process if consistent case
+      if ((word.length() > 0) && (parseOption(word, args[i]) == false))
+      {
+        System.err.println("Option not recognized: " + args[i]);
+        System.err.println("Options are: -d# -j0 -j1 -m0 -m1 (see PlainText3)");
+        System.exit(-1);
+      }
+    }
+    diagnostics = new PlainText3Diagnostics(System.err);
+    compileFlag = false;          // we compile below, and time it
+    loadConfig();
+
+    elapsed = System.nanoTime();
+    compiled = compile(dataTable);
+    elapsed = System.nanoTime() - elapsed;
+    if (compiled == null)
+      System.exit(1);             // reason already printed
+    System.out.println("Compiled " + prettyPlural(dataTable.ruleCount, "rule")
+      + " in " + formatComma.format(elapsed / 1000000) + " ms.");
+
+    text = benchmarkText(dataTable, BENCH_LENGTH);
+    if (timeConverter("Interpreter", null, text).equals(timeConverter(
+      "Generated", compiled, text)) == false)
+    {
+      System.out.println("ERROR: generated code gives a different result.");
+      System.exit(1);
+    }
+    System.out.println("Both give the same result.");
+
+  } // end of main() method
+
+// ------------------------------------------------------------------------- //
+
+/*
+  compile() method
+
+  Generate, compile, and load a converter for a conversion table.  Return null
+  (after reporting why) if that isn't possible.
+*/
+  static PlainText3Converter compile(PlainText3Table table)
+  {
+    byte[] classFile;             // compiled class file
+    MethodHandles.Lookup lookup;  // lookup for hidden class
+    String source;                // generated Java source code
+
+    source = generate(table);
+    if (source == null)
+    {
+      putError("Too many rules to compile; the conversion table will be"
+        + " interpreted.");
+      return(null);
+    }
+    classFile = javac(source);
+    if (classFile == null)        // reason already reported
+      return(null);
+    try
+    {
+      lookup = MethodHandles.lookup().defineHiddenClass(classFile, true);
+      return((PlainText3Converter) lookup.findConstructor(lookup.lookupClass(),
+        MethodType.methodType(void.class, PlainText3Table.class))
+        .invoke(table));
+    }
+    catch (Throwable t)           // many possible reasons, all the same to us
+    {
+      putError("Unable to load compiled conversion rules: " + t);
+      return(null);
+    }
+  } // end of compile() method
+
+
+/*
+  generate() method
+
+  Return Java source code for a converter, or null if the table needs too many
+  tests.
+*/
+  static String generate(PlainText3Table table)
+  {
+    ArrayList<Integer> block;     // first characters in one block
+    TreeMap<Integer, ArrayList<Integer>> blocks; // block to characters
+    StringBuffer buffer;          // faster than String for multiple appends
+    Integer ch;                   // first character of a rule
+    Map.Entry<Integer, ArrayList<Integer>> entry; // character or block
+    TreeMap<Integer, ArrayList<Integer>> firstMap; // character to rules
+    int i, k;                     // index variables
+    Iterator<Map.Entry<Integer, ArrayList<Integer>>> entries; // in map
+    Iterator<Integer> keys;       // for walking through map keys
+    ArrayList<Integer> list;      // rules for one first character
+    Integer number;               // block number for a first character
+    int low, high;                // limits of a range rule
+    ArrayList<Integer> ranges;    // all range rules, in order
+    int rule;                     // index of current rule
+    int tests;                    // number of rule tests generated
+
+    /* For each character that starts a string rule, make a list of the rules
+    that could match there, in their original order.  A list is closed by the
+    first rule that must match: a single character, a range, or a character
+    class that includes the first character. */
+
+    firstMap = new TreeMap<>();
+    ranges = new ArrayList<>();
+    for (rule = 0; rule < table.ruleCount; rule ++)
+      if (table.ruleKinds[rule] == PlainText3Table.KIND_STRING)
+        firstMap.put(Integer.valueOf(table.leftPool[table.leftStart[rule]]),
+          new ArrayList<Integer>());
+    tests = 0;
+    for (rule = 0; rule < table.ruleCount; rule ++)
+    {
+      if (table.ruleKinds[rule] != PlainText3Table.KIND_STRING)
+      {                           // range, or character class in a range
+        low = table.leftPool[table.leftStart[rule]];
+        high = table.leftPool[table.leftStart[rule] + 1];
+        ranges.add(Integer.valueOf(rule));
+        tests ++;
+        entries = firstMap.subMap(Integer.valueOf(low),
+          Integer.valueOf(high + 1)).entrySet().iterator();
+        while (entries.hasNext())
+        {
+          entry = entries.next();
+          if ((table.ruleKinds[rule] == PlainText3Table.KIND_RANGE)
+            || table.ruleClasses[rule].contains(entry.getKey().intValue()))
+          {
+            tests += addRule(entry.getValue(), rule, true);
+          }
+        }
+      }
+      else
+      {
+        list = firstMap.get(Integer.valueOf(
+          table.leftPool[table.leftStart[rule]]));
+        tests += addRule(list, rule, (ruleLength(table, rule) == 1));
+      }
+      if (tests > MAX_TESTS)
+        return(null);
+    }
+
+    /* Group the first characters into blocks, one method per block. */
+
+    blocks = new TreeMap<>();
+    keys = firstMap.keySet().iterator();
+    while (keys.hasNext())
+    {
+      ch = keys.next();
+      number = Integer.valueOf(ch.intValue() >> BLOCK_BITS);
+      block = blocks.get(number);
+      if (block == null)
+        blocks.put(number, (block = new ArrayList<>()));
+      block.add(ch);
+    }
+
+    /* The class, with the main loop. */
+
+    buffer = new StringBuffer();
+    buffer.append("public final class " + CLASS_NAME
+      + " implements PlainText3Converter {\n"
+      + "  private final PlainText3Table table;\n"
+      + "  public " + CLASS_NAME + "(PlainText3Table table) {"
+      + " this.table = table; }\n"
+      + "  public int convert(int[] in, StringBuffer out,"
+      + " PlainText3Output output) {\n"
+      + "    int[] count = new int[1];\n"
+      + "    int c, i = 0, n = in.length, next;\n"
+      + "    while (i < n) {\n"
+      + "      c = in[i];\n"
+      + "      switch (c >> " + BLOCK_BITS + ") {\n");
+    keys = blocks.keySet().iterator();
+    while (keys.hasNext())
+    {
+      k = keys.next().intValue();
+      buffer.append("        case " + k + ": next = block" + k
+        + "(in, i, n, c, out, count); break;\n");
+    }
+    buffer.append("        default: next = -1; break;\n"
+      + "      }\n"
+      + "      if (next < 0) next = range0(in, i, n, c, out, count);\n"
+      + "      if (next < 0) { PlainText3Engine.utfAppend32(out, c);"
+      + " next = i + 1; }\n"
+      + "      i = next;\n"
+      + "      if ((output != null) && (out.length()"
+      + " >= PlainText3Output.SEGMENT_SIZE)) {\n"
+      + "        if (output.append(out, i) == false) return count[0];\n"
+      + "        out.setLength(0);\n"
+      + "      }\n"
+      + "    }\n"
+      + "    if (output != null) { output.append(out, n);"
+      + " out.setLength(0); }\n"
+      + "    return count[0];\n"
+      + "  }\n");
+
+    /* One method per block of first characters. */
+
+    entries = blocks.entrySet().iterator();
+    while (entries.hasNext())
+    {
+      entry = entries.next();
+      buffer.append("  private int block" + entry.getKey()
+        + "(int[] in, int i, int n, int c, StringBuffer out, int[] count) {\n"
+        + "    switch (c) {\n");
+      block = entry.getValue();
+      for (i = 0; i < block.size(); i ++)
+      {
+        ch = block.get(i);
+        buffer.append("      case " + ch + ":\n");
+        list = firstMap.get(ch);
+        for (k = 0; (k < list.size()) && (list.get(k) != null); k ++)
+          generateRule(buffer, table, list.get(k).intValue(),
+            "        ");
+        if (k == list.size())     // list wasn't closed by a rule that must
+          buffer.append("        return -1;\n"); // match, so nothing matched
+      }
+      buffer.append("    }\n    return -1;\n  }\n");
+    }
+
+    /* Range rules for characters that don't start a string rule, in chunks
+    that call the next chunk. */
+
+    for (i = 0; (i == 0) || (i < ranges.size()); i += RANGE_CHUNK)
+    {
+      buffer.append("  private int range" + (i / RANGE_CHUNK) + "(int[] in,"
+        + " int i, int n, int c, StringBuffer out, int[] count) {\n");
+      for (k = i; (k < ranges.size()) && (k < (i + RANGE_CHUNK)); k ++)
+      {
+        rule = ranges.get(k).intValue();
+        buffer.append("    if ((c >= " + table.leftPool[table.leftStart[rule]]
+          + ") && (c <= " + table.leftPool[table.leftStart[rule] + 1] + ")"
+          + ((table.ruleKinds[rule] == PlainText3Table.KIND_CLASS)
+          ? (" && table.ruleClasses[" + rule + "].contains(c)") : "")
+          + ") {\n");
+        generateRule(buffer, table, rule, "      ");
+        buffer.append("    }\n");
+      }
+      if ((i + RANGE_CHUNK) < ranges.size())
+        buffer.append("    return range" + ((i / RANGE_CHUNK) + 1)
+          + "(in, i, n, c, out, count);\n  }\n");
+      else
+        buffer.append("    return -1;\n  }\n");
+    }
+    buffer.append("}\n");
+    return(buffer.toString());
+
+  } // end of generate() method
+
+
+/*
+  addRule() method
+
+  Add a rule to the list for one first character, unless the list is closed.
+  A null at the end of a list closes it.  Return the number of tests added.
+*/
+  static int addRule(ArrayList<Integer> list, int rule, boolean mustMatch)
+  {
+    if ((list.size() > 0) && (list.get(list.size() - 1) == null))
+      return(0);                  // list is closed
+    list.add(Integer.valueOf(rule));
+    if (mustMatch)
+      list.add(null);             // no later rule can be reached
+    return(1);
+  }
+
+
+/*
+  generateRule() method
+
+  Append code for one rule at input index <i>, where we already know that the
+  first character <c> matches.  The code returns the index after the match,
+  or falls through if the rest of a string doesn't match.  Accept and replace
+  rules are done inline; everything else calls convertRule().
+*/
+  static void generateRule(
+    StringBuffer buffer,          // where generated code goes
+    PlainText3Table table,        // compiled conversion table
+    int rule,                     // index of rule in <table>
+    String indent)                // spaces at start of each line
+  {
+    int action;                   // action code for rule
+    int i;                        // index variable
+    int length;                   // number of characters matched
+    int start;                    // start of rule in <leftPool>
+
+    action = table.ruleActions[rule];
+    length = ruleLength(table, rule);
+    start = table.leftStart[rule];
+
+    buffer.append(indent);
+    if (length > 1)               // check the rest of a string
+    {
+      buffer.append("if ((i + " + length + " <= n)");
+      for (i = 1; i < length; i ++)
+        buffer.append(" && (in[i + " + i + "] == " + table.leftPool[start + i]
+          + ")");
+      buffer.append(") ");
+    }
+    buffer.append("{ ");
+    if ((action == ACTION_ACCEPT) && (length == 1))
+      buffer.append("PlainText3Engine.utfAppend32(out, c); ");
+    else if (action == ACTION_REPLACE)
+    {
+      if (table.rightLength(rule) > 0)
+      {
+        StringBuffer right = new StringBuffer();
+        table.appendRight(right, rule);
+        buffer.append("out.append(" + quote(right) + "); ");
+      }
+      buffer.append("count[0] ++; ");
+    }
+    else
+      buffer.append("count[0] += PlainText3Engine.convertRule(table, " + rule
+        + ", in, i, i + " + length + ", out); ");
+    buffer.append("return i + " + length + "; }\n");
+
+  } // end of generateRule() method
+
+
+/*
+  javac() method
+
+  Compile Java source code in memory, and return the class file, or null if
+  there is no compiler or it found errors.
+*/
+  static byte[] javac(final String source)
+  {
+    final ByteArrayOutputStream bytes; // class file written by compiler
+    JavaCompiler compiler;        // system Java compiler
+    JavaFileManager files;        // in-memory file manager
+    StringWriter messages;        // compiler error messages
+    ArrayList<String> options;    // compiler options
+    JavaFileObject sourceFile;    // in-memory source file
+
+    compiler = ToolProvider.getSystemJavaCompiler();
+    if (compiler == null)         // running on a JRE, not a JDK
+    {
+      putError("No Java compiler available; the conversion table will be"
+        + " interpreted.");
+      return(null);
+    }
+    bytes = new ByteArrayOutputStream();
+    files = new ForwardingJavaFileManager<JavaFileManager>(
+      compiler.getStandardFileManager(null, null, null))
+    {
+      public JavaFileObject getJavaFileForOutput(Location location,
+        String name, JavaFileObject.Kind kind, FileObject sibling)
+      {
+        return(new SimpleJavaFileObject(URI.create("mem:///" + name
+          + ".class"), kind)
+        {
+          public OutputStream openOutputStream() { return(bytes); }
+        });
+      }
+    };
+    sourceFile = new SimpleJavaFileObject(URI.create("mem:///" + CLASS_NAME
+      + ".java"), JavaFileObject.Kind.SOURCE)
+    {
+      public CharSequence getCharContent(boolean ignore) { return(source); }
+    };
+    messages = new StringWriter();
+    options = new ArrayList<>();
+    options.add("-classpath");    // so that the compiler finds our classes
+    options.add(System.getProperty("java.class.path"));
+    options.add("-g:none");       // no debugging information
+    options.add("-nowarn");
+
+    if (compiler.getTask(messages, files, null, options, null,
+      Collections.singletonList(sourceFile)).call().booleanValue() == false)
+    {
+      putError("Unable to compile conversion rules: " + messages);
+      return(null);
+    }
+    return(bytes.toByteArray());
+
+  } // end of javac() method
+
+
+/*
+  quote() method
+
+  Return a string as a Java string literal.  Unicode escapes are processed
+  before anything else by the Java compiler, so quotes, backslashes, and line
+  breaks must use ordinary escapes.
+*/
+  static String quote(CharSequence text)
+  {
+    StringBuffer buffer;          // faster than String for multiple appends
+    char ch;                      // one character from <text>
+    int i;                        // index variable
+
+    buffer = new StringBuffer("\"");
+    for (i = 0; i < text.length(); i ++)
+    {
+      ch = text.charAt(i);
+      if (ch == '"') buffer.append("\\\"");
+      else if (ch == '\\') buffer.append("\\\\");
+      else if (ch == '\n') buffer.append("\\n");
+      else if (ch == '\r') buffer.append("\\r");
+      else if ((ch >= 0x20) && (ch < 0x7F)) buffer.append(ch);
+      else
+      {
+        String hx = "0000" + Integer.toHexString(ch).toUpperCase();
+        buffer.append("\\u" + hx.substring(hx.length() - 4));
+      }
+    }
+    buffer.append('"');
+    return(buffer.toString());
+
+  } // end of quote() method
+
+
+/*
+  ruleLength() method
+
+  Return the number of input characters matched by a rule: one for a range.
+*/
+  static int ruleLength(PlainText3Table table, int rule)
+  {
+    if (table.ruleKinds[rule] != PlainText3Table.KIND_STRING)
+      return(1);
+    return(table.leftStart[rule + 1] - table.leftStart[rule]);
+  }
+
+
+/*
+  timeConverter() method
+
+  Time one converter (null for the interpreter) on the benchmark text, print
+  the result, and return the converted text so the caller can compare.
+*/
+  static String timeConverter(String title, PlainText3Converter converter,
+    int[] text)
+  {
+    long best;                    // fastest run in nanoseconds
+    StringBuffer buffer;          // converted text
+    int changes;                  // number of changes made
+    long elapsed;                 // nanoseconds for one run
+    int i;                        // index variable
+    long total;                   // nanoseconds for all timed runs
+
+    dataTable.converter = converter; // selects interpreter or generated code
+    best = Long.MAX_VALUE;
+    buffer = null;
+    changes = 0;
+    total = 0;
+    for (i = 0; i < (BENCH_WARMUP + BENCH_RUNS); i ++)
+    {
+      buffer = new StringBuffer(text.length);
+      elapsed = System.nanoTime();
+      changes = convertUnicode(text, buffer, null);
+      elapsed = System.nanoTime() - elapsed;
+      if (i >= BENCH_WARMUP)      // only count timed runs
+      {
+        best = Math.min(best, elapsed);
+        total += elapsed;
+      }
+    }
+    System.out.println(title + ": " + prettyPlural(changes, "change")
+      + ", best " + formatComma.format((double) best / text.length)
+      + " ns/char, average " + formatComma.format((double) total / BENCH_RUNS
+      / text.length) + " ns/char.");
+    return(buffer.toString());
+
+  } // end of timeConverter() method
+
+} // end of PlainText3Compiler class
+
+/* Copyright (c) 2019 by Keith Fenske.  Apache License or GNU GPL. */
@@ -0,0 +1,431 @@
+/*
+  Plain Text #3 (Console) - Convert Unicode Characters to Plain Text
+  Java class name: PlainText3Console
+  Copyright (c) 2019 by Keith Fenske.  Apache License or GNU GPL.
+
+  This is a Java console application that does the same conversion as the
+  graphical PlainText3 application, for use in scripts and other programs.  It
+  reads the same configuration data file, converts text from files named on
+  the command line (or from standard input if there are none), and writes the
+  result to standard output.  Input and output are UTF-8.  Error messages go
+  to standard error.
+
+  Only the conversion engine is loaded (PlainText3Engine and the small helper
+  classes that it uses).  None of the AWT or Swing classes are touched, which
+  saves most of the start-up time for a short conversion.  The -t option
+  reports how long it took to write the first output, measured from when the
+  Java virtual machine started:
+
+      java  -cp PlainText3.jar  PlainText3Console  -t  < input.txt
+
+  The -f option converts only the text in structured files: between the tags
+  of HTML or XML, inside JSON string values, or in the fields of CSV.  The
+  rest is copied unchanged, and the input is streamed, not read all at once:
+
+      java  PlainText3Console  -fhtml  page.html  > plain.html
+
+  The -java option is different: it rewrites Java source files in place,
+  escaping non-ASCII characters in literals and comments (see the
+  PlainText3JavaSource class).  Names on the command line may be directories,
+  and the default is the current directory.  The configuration is not used.
+
+  The -follow option converts one growing file, such as a log, as lines are
+  appended, until stopped (see the PlainText3Follow class).  The byte offset
+  is saved in a checkpoint file, so a restart continues where it stopped.
+  The checkpoint goes next to the file (app.log.checkpoint below) unless
+  -checkpoint names another place, as it must if that directory is read-only:
+
+      java  PlainText3Console  -follow  -o"plain.log"  app.log
+
+  The -batch option converts many files, or all files in directories, to an
+  output directory with the same relative names.  A manifest records what has
+  been done, so running the same command again only converts new or changed
+  files, or everything if the rules have changed (see the PlainText3Batch
+  class):
+
+      java  PlainText3Console  -batch"plain"  incoming
+
+  Apache License or GNU General Public License
+  --------------------------------------------
+  PlainText3Console is free software and has been released under the terms and
+  conditions of the Apache License (version 2.0 or later) and/or the GNU
+  General Public License (GPL, version 2 or later).  This program is
+  distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY,
+  without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+  PARTICULAR PURPOSE.  See the license(s) for more details.  You should have
+  received a copy of the licenses along with this program.  If not, see the
+  http://www.apache.org/licenses/ and http://www.gnu.org/licenses/ web pages.
+*/
+
+import java.io.*;                 // standard I/O
+import java.nio.channels.*;       // large output from temporary file
+import java.util.*;               // lists
+
+public class PlainText3Console extends PlainText3Engine
+{
+  /* constants */
+
+  static final int BUFFER_SIZE = 0x10000; // input and output buffer in bytes
+  static final String ENCODING = "UTF-8"; // input and output text encoding
+
+  /* class variables */
+
+  static String batchDir;         // null or output directory for -batch
+  static String checkpoint;       // null or checkpoint file for -follow
+  static long firstOutput;        // nanoseconds when first output was written
+  static boolean followFlag;      // true if we follow one growing file
+  static int format;              // PlainText3Markup.FORMAT_ for -f option
+  static boolean javaFlag;        // true if we escape Java source files
+  static String manifest;         // null or manifest file for -batch
+  static Writer output;           // where converted text goes (stdout)
+  static String outputName;       // null or output file for -follow
+  static boolean timeFlag;        // true if we report time to first output
+
+/*
+  main() method
+
+  Load the configuration data file, then convert each file on the command line
+  or standard input.
+*/
+  public static void main(String[] args)
+  {
+    int errorCount;               // number of files we couldn't read
+    ArrayList<String> files;      // names of input files, if any
+    int i;                        // index variable
+    long mainStart;               // nanoseconds when main() started
+    String word;                  // one parameter from command line
+
+    mainStart = System.nanoTime(); // before we do anything
+    initialize();                 // data file, notation flags, number format
+    errorCount = 0;               // no file errors yet
+    files = new ArrayList<>();    // no input files yet
+    batchDir = manifest = null;   // by default, not a batch job
+    checkpoint = outputName = null; // defaults for -follow
+    firstOutput = 0;              // nothing written yet
+    followFlag = false;           // by default, convert files once
+    format = PlainText3Markup.FORMAT_NONE; // by default, all text is text
+    javaFlag = false;             // by default, convert text to output
+    timeFlag = false;             // by default, don't report timing
+
+    /* Check command-line parameters for options and file names. */
+
+    for (i = 0; i < args.length; i ++)
+    {
+      word = args[i].toLowerCase(); // easier to process if consistent case
+      if (word.length() == 0)
+        { /* ignore empty parameters, common from scripts */ }
+
+      else if (word.equals("?") || word.equals("-?") || word.equals("/?")
+        || word.equals("-h") || (mswinFlag && word.equals("/h"))
+        || word.equals("-help") || (mswinFlag && word.equals("/help")))
+      {
+        showHelp();               // show help summary
+        System.exit(0);           // exit application after printing help
+      }
+
+      else if (parseOption(word, args[i]))
+        { /* data file, Java backslash, XML options: done by engine */ }
+
+      else if (word.startsWith("-batch")
+        || (mswinFlag && word.startsWith("/batch")))
+      {
+        batchDir = args[i].substring(6); // output directory for -batch
+      }
+
+      else if (word.startsWith("-checkpoint")
+        || (mswinFlag && word.startsWith("/checkpoint")))
+      {
+        checkpoint = args[i].substring(11); // file name for -follow
+      }
+
+      else if (word.equals("-fcsv") || (mswinFlag && word.equals("/fcsv")))
+        format = PlainText3Markup.FORMAT_CSV;
+      else if (word.equals("-fhtml") || (mswinFlag && word.equals("/fhtml")))
+        format = PlainText3Markup.FORMAT_HTML;
+      else if (word.equals("-fjson") || (mswinFlag && word.equals("/fjson")))
+        format = PlainText3Markup.FORMAT_JSON;
+      else if (word.equals("-ftext") || (mswinFlag && word.equals("/ftext")))
+        format = PlainText3Markup.FORMAT_NONE;
+      else if (word.equals("-fxml") || (mswinFlag && word.equals("/fxml")))
+        format = PlainText3Markup.FORMAT_XML;
+      else if (word.equals("-follow") || (mswinFlag && word.equals("/follow")))
+        followFlag = true;        // convert appended lines until stopped
+
+      else if (word.equals("-java") || (mswinFlag && word.equals("/java")))
+        javaFlag = true;          // escape Java source files in place
+
+      else if (word.startsWith("-manifest")
+        || (mswinFlag && word.startsWith("/manifest")))
+      {
+        manifest = args[i].substring(9); // manifest file for -batch
+      }
+
+      else if (word.startsWith("-o") || (mswinFlag && word.startsWith("/o")))
+        outputName = args[i].substring(2); // output file for -follow
+
+      else if (word.equals("-t") || (mswinFlag && word.equals("/t")))
+        timeFlag = true;          // report time to first output
+
+      else if (word.startsWith("-") || (mswinFlag && word.startsWith("/")))
+      {
+        System.err.println("Option not recognized: " + args[i]);
+        showHelp();               // show help summary
+        System.exit(-1);          // exit application after printing help
+      }
+
+      else                        // parameter is a file name
+        files.add(args[i]);
+    }
+
+    /* Escaping Java source files doesn't need any conversion rules. */
+
+    if (javaFlag)
+    {
+      if (files.size() == 0)      // no names, use current directory
+        files.add(".");
+      System.exit((PlainText3JavaSource.escapeTree(files) > 0) ? 1 : 0);
+    }
+
+    /* Load the configuration data file.  Errors go to standard error in the
+    same form as the -verify option of the graphical application. */
+
+    diagnostics = new PlainText3Diagnostics(System.err);
+    loadConfig();                 // always load configuration data file here
+    if (telemetry != null)        // throughput numbers for batch runs
+    {
+      if (batchDir == null)       // batch directories have unknown counts
+        telemetry.queue(Math.max(files.size(), 1));
+      telemetry.start();
+    }
+
+    /* Convert files to an output directory, skipping those already done
+    according to the manifest. */
+
+    if (batchDir != null)
+    {
+      if ((batchDir.length() == 0) || (files.size() == 0))
+      {
+        System.err.println("The -batch option needs an output directory and"
+          + " input names.");
+        System.exit(-1);
+      }
+      errorCount = new PlainText3Batch(batchDir, manifest, format).run(files);
+      System.exit((errorCount > 0) ? 1 : 0);
+    }
+
+    /* Follow one file until stopped.  Output is appended to a file, if
+    given, so a restart from a checkpoint doesn't lose earlier output. */
+
+    if (followFlag)
+    {
+      if (files.size() != 1)
+      {
+        System.err.println("The -follow option needs exactly one file name.");
+        System.exit(-1);
+      }
+      String name = files.get(0);
+      try
+      {
+        output = new BufferedWriter(new OutputStreamWriter((outputName == null)
+          ? (OutputStream) System.out : new FileOutputStream(outputName, true),
+          ENCODING), BUFFER_SIZE);
+        new PlainText3Follow(name, ((checkpoint == null)
+          ? (name + ".checkpoint") : checkpoint), // default next to log
+          output).run();
+      }
+      catch (IOException ioe)
+      {
+        putError("Unable to follow " + name + ": " + ioe.getMessage());
+      }
+      System.exit(-1);            // only returns on error or interrupt
+    }
+
+    /* Convert each file, or standard input, in order. */
+
+    try
+    {
+      output = new BufferedWriter(new OutputStreamWriter(System.out,
+        ENCODING), BUFFER_SIZE);
+      if (files.size() == 0)      // no file names, use standard input
+        convertStream(System.in);
+      else for (i = 0; i < files.size(); i ++)
+      {
+        String name = files.get(i);
+        try
+        {
+          InputStream stream = new FileInputStream(name);
+          convertStream(stream);
+          stream.close();         // try to close input file
+        }
+        catch (FileNotFoundException fnfe)
+        {
+          putError("Input file not found: " + name);
+          errorCount ++;
+          if (telemetry != null) telemetry.queue(-1); // not waiting anymore
+        }
+      }
+      output.flush();             // make sure everything has been written
+    }
+    catch (IOException ioe)       // for all other file I/O errors
+    {
+      putError("Unable to convert text: " + ioe.getMessage());
+      System.exit(-1);
+    }
+
+    /* Report the time to first output.  The management classes are only
+    loaded now, after the output, so they don't change what we measure. */
+
+    if (timeFlag)
+    {
+      long jvmStart = java.lang.management.ManagementFactory
+        .getRuntimeMXBean().getStartTime(); // milliseconds since 1970
+      long written = (firstOutput == 0) ? System.nanoTime() : firstOutput;
+      long now = System.currentTimeMillis(); // convert nanoseconds to clock
+      long firstMillis = now - ((System.nanoTime() - written) / 1000000);
+      System.err.println("Time to first output: "
+        + formatComma.format(firstMillis - jvmStart)
+        + " ms after Java start, "
+        + formatComma.format((written - mainStart) / 1000000)
+        + " ms after main(), for " + prettyPlural(dataTable.ruleCount, "rule")
+        + ".");
+    }
+    System.exit((errorCount > 0) ? 1 : 0);
+
+  } // end of main() method
+
+// ------------------------------------------------------------------------- //
+
+/*
+  convertStream() method
+
+  Read all text from an input stream, convert, and write the result to our
+  output.  The whole stream is converted at once, because rules may match
+  across line boundaries.  With the -f option, only text values are converted,
+  and each is small, so the stream goes straight through PlainText3Markup.
+*/
+  static void convertStream(InputStream stream) throws IOException
+  {
+    byte[] buffer;                // input buffer for bytes
+    int changes;                  // number of changes made by rules
+    int count;                    // number of bytes read
+    int[] inputText;              // UTF-32 input text
+    int[] newLength;              // length of text converted in place
+    long outputBytes;             // number of UTF-8 bytes written
+    String result;                // converted text, if done in place
+    PlainText3Output segments;    // converted text, if not done in place
+    long start;                   // nanoseconds when we started this stream
+    ByteArrayOutputStream text;   // all bytes from input stream
+
+    start = System.nanoTime();
+    if (format != PlainText3Markup.FORMAT_NONE) // structured text, streamed
+    {
+      changes = (int) new PlainText3Markup(format,
+        PlainText3Markup.strictReader(stream), output).run();
+      finishErrors();             // summarize any suppressed errors
+      if (firstOutput == 0)       // is this the first output?
+      {
+        output.flush();
+        firstOutput = System.nanoTime();
+      }
+      if (telemetry != null)      // sizes aren't known when streaming
+      {
+        telemetry.queue(-1);
+        telemetry.record((System.nanoTime() - start), 0, 0, changes);
+      }
+      return;
+    }
+    buffer = new byte[BUFFER_SIZE];
+    text = new ByteArrayOutputStream();
+    while ((count = stream.read(buffer)) > 0)
+      text.write(buffer, 0, count);
+
+    inputText = utfParse16(text.toString(ENCODING), jbnUserFlag, xmlUserFlag);
+    newLength = new int[1];
+    result = null;                // assume result will be in segments
+    segments = null;
+    if ((changes = convertInPlace(inputText, newLength)) >= 0) // no growth?
+      result = new String(inputText, 0, newLength[0]);
+    else                          // result may be large, in memory or file
+    {
+      segments = new PlainText3Output(spillLimit, maxOutput, maxExpansion);
+      changes = convertUnicode(inputText, segments);
+      if (segments.error != null) // stopped by a limit: write nothing
+      {
+        segments.close();
+        throw new IOException(segments.error);
+      }
+    }
+    finishErrors();               // summarize any suppressed errors
+
+    if (result != null)
+    {
+      output.write(result);
+      outputBytes = (telemetry == null) ? 0
+        : PlainText3Telemetry.utf8Length(result);
+    }
+    else                          // segments are already UTF-8 bytes
+    {
+      output.flush();             // anything before us goes first
+      outputBytes = segments.writeTo(Channels.newChannel(System.out));
+    }
+    if (firstOutput == 0)         // is this the first output?
+    {
+      output.flush();             // time is only real once it's written
+      firstOutput = System.nanoTime();
+    }
+    if (telemetry != null)        // count this file, whether or not it changed
+    {
+      telemetry.queue(-1);
+      telemetry.record((System.nanoTime() - start), text.size(),
+        outputBytes, changes);
+    }
+  } // end of convertStream() method
+
+
+/*
+  showHelp() method
+
+  Show the help summary.  This is a UNIX standard and is expected for all
+  console applications, even very simple ones.
+*/
+  static void showHelp()
+  {
+    System.err.println();
+    System.err.println("Convert Unicode Characters to Plain Text (console)");
+    System.err.println();
+    System.err.println("  java  PlainText3Console  [options]  [files]");
+    System.err.println();
+    System.err.println("Text is read from the files, or standard input if none, and written to");
+    System.err.println("standard output.  Both are UTF-8.  Options are:");
+    System.err.println();
+    System.err.println("  -? = -help = show summary of command-line syntax");
+    System.err.println("  -batch# = convert files or directories to this directory, skipping files done");
+    System.err.println("  -checkpoint# = file that saves position for -follow; default is next to file");
+    System.err.println("  -compile = generate Java code for conversion rules (JDK 15 or later)");
+    System.err.println("  -d# = text file with configuration data; default is -d\"" + DEFAULT_FILE + "\"");
+    System.err.println("  -fcsv -fhtml -fjson -fxml = convert only text values in these formats");
+    System.err.println("  -follow = convert lines appended to one file until stopped, like tail -f");
+    System.err.println("  -ftext = convert all text (default)");
+    System.err.println("  -grapheme = rules match whole grapheme clusters (emoji, flags, marks)");
+    System.err.println("  -java = escape non-ASCII in literals and comments of Java files, in place");
+    System.err.println("  -j0 = disable Java backslash notation in configuration file (default)");
+    System.err.println("  -j1 = -j = enable Java backslash notation in configuration data file");
+    System.err.println("  -m0 = disable XML character references in configuration file (default)");
+    System.err.println("  -m1 = -m = enable XML character references in configuration data file");
+    System.err.println("  -manifest# = file that records files done by -batch; default in -batch directory");
+    System.err.println("  -maxexpand# = stop if output is more than # times the input (default none)");
+    System.err.println("  -maxoutput# = stop if output is more than # characters; k, m, g suffixes");
+    System.err.println("  -o# = output file for -follow, appended; default is standard output");
+    System.err.println("  -profile# = count rule matches, save in file, and move busy rules first");
+    System.err.println("  -reorder# = move busy rules first using a saved -profile# file");
+    System.err.println("  -spill# = characters of output kept in memory before using a temporary file");
+    System.err.println("  -t = report time to first output on standard error");
+    System.err.println("  -telemetry# = write throughput numbers to file (JSON lines, or Prometheus if .prom)");
+    System.err.println();
+    System.err.println("Copyright (c) 2019 by Keith Fenske.  Apache License or GNU GPL.");
+
+  } // end of showHelp() method
+
+} // end of PlainText3Console class
+
+/* Copyright (c) 2019 by Keith Fenske.  Apache License or GNU GPL. */
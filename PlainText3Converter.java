@@ -0,0 +1,29 @@
+/*
+  Plain Text #3 (Converter) - Interface for Generated Converters
+  Java class name: PlainText3Converter
+  Copyright (c) 2019 by Keith Fenske.  Apache License or GNU GPL.
+
+  A converter generated for one conversion table by PlainText3Compiler.  It
+  gives exactly the same result as convertTable() without a change map,
+  including moving full buffers to a segmented output, if given.
+
+  Apache License or GNU General Public License
+  --------------------------------------------
+  PlainText3Converter is free software and has been released under the terms
+  and conditions of the Apache License (version 2.0 or later) and/or the GNU
+  General Public License (GPL, version 2 or later).  This program is
+  distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY,
+  without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+  PARTICULAR PURPOSE.  See the license(s) for more details.  You should have
+  received a copy of the licenses along with this program.  If not, see the
+  http://www.apache.org/licenses/ and http://www.gnu.org/licenses/ web pages.
+*/
+
+interface PlainText3Converter
+{
+  int convert(int[] inputText, StringBuffer resultBuffer,
+    PlainText3Output output);     // return number of changes made
+
+} // end of PlainText3Converter interface
+
+/* Copyright (c) 2019 by Keith Fenske.  Apache License or GNU GPL. */
@@ -0,0 +1,426 @@
+/*
+  Plain Text #3 (Daemon) - Convert Unicode Characters to Plain Text
+  Java class name: PlainText3Daemon
+  Copyright (c) 2019 by Keith Fenske.  Apache License or GNU GPL.
+
+  This is a Java console application that loads the configuration data file
+  once, then converts text for any number of clients over a Unix domain socket.
+  It is meant for build systems that would otherwise start a new Java virtual
+  machine for each of thousands of small conversions.  Unix domain sockets
+  require Java 16 or later; the rest of PlainText3 does not.
+
+  The protocol is as simple as possible: a client connects, sends its text as
+  UTF-8, and closes its side of the connection (half-close).  The daemon
+  replies with one status line, then the converted text as UTF-8, and closes
+  the connection.  The status line is "OK" and the number of bytes that
+  follow, or "ERROR" and a message with no text following, each ending with a
+  newline.  A reply shorter than its status line says was cut off by an error
+  in the daemon.  Any program that can half-close a Unix socket may be a
+  client, or use the tiny client built into this class, which prints the
+  daemon's message and exits with a non-zero status on any error:
+
+      java  PlainText3Daemon  -s/tmp/plaintext3.sock  &
+      java  PlainText3Daemon  -client  -s/tmp/plaintext3.sock  < in  > out
+
+  Connections are handled concurrently by a pool of threads.  The daemon checks
+  once per second if the configuration data file has changed (modification
+  time or size), and reloads it.  Conversions already running finish with the
+  old rules.
+
+  Apache License or GNU General Public License
+  --------------------------------------------
+  PlainText3Daemon is free software and has been released under the terms and
+  conditions of the Apache License (version 2.0 or later) and/or the GNU
+  General Public License (GPL, version 2 or later).  This program is
+  distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY,
+  without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+  PARTICULAR PURPOSE.  See the license(s) for more details.  You should have
+  received a copy of the licenses along with this program.  If not, see the
+  http://www.apache.org/licenses/ and http://www.gnu.org/licenses/ web pages.
+*/
+
+import java.io.*;                 // standard I/O
+import java.net.*;                // Unix domain socket addresses
+import java.nio.*;                // byte buffers
+import java.nio.channels.*;       // socket channels
+import java.util.concurrent.*;    // thread pools for parallel work
+
+public class PlainText3Daemon extends PlainText3Engine
+{
+  /* constants */
+
+  static final int BUFFER_SIZE = 0x10000; // socket buffer size in bytes
+  static final String DEFAULT_SOCKET = "PlainText3.sock"; // in current folder
+  static final String ENCODING = "UTF-8"; // input and output text encoding
+  static final String REPLY_ERROR = "ERROR "; // status line for failure
+  static final String REPLY_OK = "OK "; // status line before converted text
+  static final long RELOAD_DELAY = 1000; // milliseconds between file checks
+
+  /* class variables */
+
+  static long configSize;         // size of configuration file when loaded
+  static long configTime;         // modification time of configuration file
+  static String socketPath;       // file name for Unix domain socket
+
+/*
+  main() method
+
+  Check options, then run as either the daemon (default) or the client.
+*/
+  public static void main(String[] args)
+  {
+    boolean clientFlag;           // true if we are the client
+    int i;                        // index variable
+    String word;                  // one parameter from command line
+
+    initialize();                 // data file, notation flags, number format
+    clientFlag = false;           // by default, we are the daemon
+    socketPath = DEFAULT_SOCKET;  // default socket in current folder
+
+    for (i = 0; i < args.length; i ++)
+    {
+      word = args[i].toLowerCase(); // easier to process if consistent case
+      if (word.length() == 0)
+        { /* ignore empty parameters, common from scripts */ }
+
+      else if (word.equals("?") || word.equals("-?") || word.equals("/?")
+        || word.equals("-h") || (mswinFlag && word.equals("/h"))
+        || word.equals("-help") || (mswinFlag && word.equals("/help")))
+      {
+        showHelp();               // show help summary
+        System.exit(0);           // exit application after printing help
+      }
+
+      else if (word.equals("-client") || (mswinFlag && word.equals("/client")))
+        clientFlag = true;        // send standard input to the daemon
+
+      else if (parseOption(word, args[i]))
+        { /* data file, Java backslash, XML options: done by engine */ }
+
+      else if (word.startsWith("-s") || (mswinFlag && word.startsWith("/s")))
+        socketPath = args[i].substring(2); // accept anything for socket name
+
+      else                        // parameter is not a recognized option
+      {
+        System.err.println("Option not recognized: " + args[i]);
+        showHelp();               // show help summary
+        System.exit(-1);          // exit application after printing help
+      }
+    }
+
+    try
+    {
+      if (clientFlag)
+        runClient();
+      else
+        runDaemon();
+    }
+    catch (IOException ioe)       // for all socket and file I/O errors
+    {
+      System.err.println("Socket " + socketPath + ": " + ioe.getMessage());
+      System.exit(-1);
+    }
+    System.exit(0);
+
+  } // end of main() method
+
+// ------------------------------------------------------------------------- //
+
+/*
+  checkConfig() method
+
+  Reload the configuration data file if it has changed since we last loaded
+  it.  Called periodically on one thread only.
+*/
+  static void checkConfig()
+  {
+    File file;                    // configuration data file
+
+    file = new File(dataFile);
+    if ((file.lastModified() != configTime) || (file.length() != configSize))
+    {
+      loadConfigFile();           // new table replaces old when complete
+      System.err.println("Reloaded " + dataFile + ": "
+        + prettyPlural(dataTable.ruleCount, "rule") + ".");
+    }
+  }
+
+
+/*
+  loadConfigFile() method
+
+  Remember the modification time and size of the configuration data file, then
+  load it.  Reading the time first means that a change during loading will be
+  seen by the next check.
+*/
+  static void loadConfigFile()
+  {
+    File file;                    // configuration data file
+
+    file = new File(dataFile);
+    configTime = file.lastModified(); // zero if the file does not exist
+    configSize = file.length();
+    loadConfig();
+  }
+
+
+/*
+  readAll() method
+
+  Read from a channel until end-of-file, and return all bytes as one array.
+*/
+  static byte[] readAll(ReadableByteChannel channel) throws IOException
+  {
+    ByteBuffer buffer;            // buffer for reading channel
+    ByteArrayOutputStream bytes;  // all bytes read so far
+
+    buffer = ByteBuffer.allocate(BUFFER_SIZE);
+    bytes = new ByteArrayOutputStream();
+    while (channel.read(buffer) >= 0)
+    {
+      bytes.write(buffer.array(), 0, buffer.position());
+      buffer.clear();
+    }
+    return(bytes.toByteArray());
+
+  } // end of readAll() method
+
+
+/*
+  runClient() method
+
+  Send standard input to the daemon, half-close, check the status line, and
+  copy the converted text to standard output.  An error from the daemon, or a
+  reply that was cut short, is thrown with the daemon's message, and nothing
+  is written.
+*/
+  static void runClient() throws IOException
+  {
+    SocketChannel channel;        // connection to daemon
+    int i;                        // index variable
+    long length;                  // number of bytes promised by daemon
+    byte[] reply;                 // status line and converted text
+    String status;                // first line of reply
+
+    channel = SocketChannel.open(UnixDomainSocketAddress.of(socketPath));
+    writeAll(channel, readAll(Channels.newChannel(System.in)));
+    channel.shutdownOutput();     // tell daemon that our text is complete
+    reply = readAll(channel);
+    channel.close();
+
+    i = 0;                        // find end of status line
+    while ((i < reply.length) && (reply[i] != '\n'))
+      i ++;
+    if (i >= reply.length)        // daemon closed without a status
+      throw new IOException("no reply from daemon");
+    status = new String(reply, 0, i, ENCODING);
+    if (status.startsWith(REPLY_ERROR))
+      throw new IOException(status.substring(REPLY_ERROR.length()));
+    length = -1;                  // assume status line is not valid
+    if (status.startsWith(REPLY_OK))
+    {
+      try { length = Long.parseLong(status.substring(REPLY_OK.length())); }
+      catch (NumberFormatException nfe) { /* not valid */ }
+    }
+    if (length < 0)
+      throw new IOException("bad reply from daemon: " + status);
+    if (length != (reply.length - i - 1))
+    {
+      throw new IOException("reply from daemon was cut short ("
+        + prettyPlural((reply.length - i - 1), "byte") + " of "
+        + prettyPlural(length, "byte") + ")");
+    }
+    System.out.write(reply, (i + 1), (reply.length - i - 1));
+    System.out.flush();
+
+  } // end of runClient() method
+
+
+/*
+  runDaemon() method
+
+  Load the configuration data, bind the socket, and accept connections until
+  killed.  Each connection is converted by a thread from a pool.
+*/
+  static void runDaemon() throws IOException
+  {
+    ServerSocketChannel server;   // listening Unix domain socket
+    ExecutorService workers;      // threads for client connections
+    File socketFile;              // socket as a file name
+
+    diagnostics = new PlainText3Diagnostics(System.err);
+    loadConfigFile();             // always load configuration data file here
+    if (telemetry != null)        // throughput numbers for requests
+      telemetry.start();
+
+    /* A socket file left over from a previous daemon that was killed would
+    stop us from binding.  Remove it, and remove ours when we exit. */
+
+    socketFile = new File(socketPath);
+    socketFile.delete();
+    server = ServerSocketChannel.open(StandardProtocolFamily.UNIX);
+    server.bind(UnixDomainSocketAddress.of(socketPath));
+    socketFile.deleteOnExit();
+    Runtime.getRuntime().addShutdownHook(new Thread() {
+      public void run() { new File(socketPath).delete(); } });
+
+    Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+      public Thread newThread(Runnable task)
+      {
+        Thread thread = new Thread(task, "PlainText3 reload");
+        thread.setDaemon(true);   // don't keep JVM alive for this
+        return(thread);
+      } }).scheduleWithFixedDelay(new Runnable() {
+        public void run() { checkConfig(); } },
+      RELOAD_DELAY, RELOAD_DELAY, TimeUnit.MILLISECONDS);
+
+    System.err.println("Listening on " + socketPath + " with "
+      + prettyPlural(dataTable.ruleCount, "rule") + ".");
+    workers = Executors.newCachedThreadPool();
+    while (true)
+    {
+      final SocketChannel client = server.accept();
+      if (telemetry != null) telemetry.queue(1); // waiting for a thread
+      workers.execute(new Runnable() {
+        public void run() { serveClient(client); } });
+    }
+  } // end of runDaemon() method
+
+
+/*
+  serveClient() method
+
+  Read one client's text until it half-closes, convert, reply, and close.
+  Errors only affect this client, and are sent to the client as a status line
+  if nothing has been sent yet.
+*/
+  static void serveClient(SocketChannel client)
+  {
+    int changes;                  // number of changes made by rules
+    byte[] inputBytes, outputBytes; // UTF-8 text from and to client
+    int[] inputText;              // UTF-32 input text
+    int[] newLength;              // length of text converted in place
+    long outputCount;             // number of UTF-8 bytes written
+    boolean replied;              // true if status line has been sent
+    PlainText3Output segments;    // converted text, if not done in place
+    long start;                   // nanoseconds when a thread took this client
+
+    start = System.nanoTime();
+    if (telemetry != null) telemetry.queue(-1); // no longer waiting
+    replied = false;
+    try
+    {
+      inputBytes = readAll(client);
+      inputText = utfParse16(new String(inputBytes, ENCODING), jbnUserFlag,
+        xmlUserFlag);
+      newLength = new int[1];
+      if ((changes = convertInPlace(inputText, newLength)) >= 0)
+      {
+        finishErrors();           // summarize any suppressed errors
+        outputBytes = new String(inputText, 0, newLength[0])
+          .getBytes(ENCODING);    // no growth, no second buffer
+        writeStatus(client, (REPLY_OK + outputBytes.length));
+        replied = true;
+        writeAll(client, outputBytes);
+        outputCount = outputBytes.length;
+      }
+      else                        // result may be large, in memory or file
+      {
+        segments = new PlainText3Output(spillLimit, maxOutput, maxExpansion);
+        changes = convertUnicode(inputText, segments);
+        finishErrors();           // summarize any suppressed errors
+        if (segments.error != null) // stopped by a limit: no text
+        {
+          segments.close();
+          throw new IOException(segments.error);
+        }
+        writeStatus(client, (REPLY_OK + segments.byteCount()));
+        replied = true;
+        outputCount = segments.writeTo(client);
+      }
+      if (telemetry != null)
+        telemetry.record((System.nanoTime() - start), inputBytes.length,
+          outputCount, changes);
+    }
+    catch (IOException ioe)       // client went away, limits, etc
+    {
+      putError("Client connection: " + ioe.getMessage());
+      if (replied == false)       // client is still waiting for a status
+      {
+        try { writeStatus(client, (REPLY_ERROR + ioe.getMessage())); }
+        catch (IOException ignore) { /* client is gone */ }
+      }
+    }
+    try { client.close(); } catch (IOException ioe) { /* ignore */ }
+
+  } // end of serveClient() method
+
+
+/*
+  showHelp() method
+
+  Show the help summary.  This is a UNIX standard and is expected for all
+  console applications, even very simple ones.
+*/
+  static void showHelp()
+  {
+    System.err.println();
+    System.err.println("Convert Unicode Characters to Plain Text (daemon)");
+    System.err.println();
+    System.err.println("  java  PlainText3Daemon  [options]");
+    System.err.println("  java  PlainText3Daemon  -client  [-s#]  < input  > output");
+    System.err.println();
+    System.err.println("  -? = -help = show summary of command-line syntax");
+    System.err.println("  -client = send standard input to daemon, write reply to standard output");
+    System.err.println("  -compile = generate Java code for conversion rules (JDK 15 or later)");
+    System.err.println("  -d# = text file with configuration data; default is -d\"" + DEFAULT_FILE + "\"");
+    System.err.println("  -grapheme = rules match whole grapheme clusters (emoji, flags, marks)");
+    System.err.println("  -j0 = disable Java backslash notation in configuration file (default)");
+    System.err.println("  -j1 = -j = enable Java backslash notation in configuration data file");
+    System.err.println("  -m0 = disable XML character references in configuration file (default)");
+    System.err.println("  -m1 = -m = enable XML character references in configuration data file");
+    System.err.println("  -maxexpand# = refuse output more than # times the input (default none)");
+    System.err.println("  -maxoutput# = refuse output more than # characters; k, m, g suffixes");
+    System.err.println("  -profile# = count rule matches, save in file, and move busy rules first");
+    System.err.println("  -reorder# = move busy rules first using a saved -profile# file");
+    System.err.println("  -s# = Unix domain socket file; default is -s\"" + DEFAULT_SOCKET + "\"");
+    System.err.println("  -spill# = characters of output kept in memory before using a temporary file");
+    System.err.println("  -telemetry# = write throughput numbers to file (JSON lines, or Prometheus if .prom)");
+    System.err.println();
+    System.err.println("Copyright (c) 2019 by Keith Fenske.  Apache License or GNU GPL.");
+
+  } // end of showHelp() method
+
+
+/*
+  writeAll() method
+
+  Write all bytes to a channel.
+*/
+  static void writeAll(WritableByteChannel channel, byte[] bytes)
+    throws IOException
+  {
+    ByteBuffer buffer;            // wrapper for caller's bytes
+
+    buffer = ByteBuffer.wrap(bytes);
+    while (buffer.hasRemaining())
+      channel.write(buffer);
+  }
+
+
+
+/*
+  writeStatus() method
+
+  Write one status line to a client, ending with a newline.  Newlines inside
+  an error message would end the line early, so they become spaces.
+*/
+  static void writeStatus(WritableByteChannel channel, String status)
+    throws IOException
+  {
+    writeAll(channel, (status.replace('\n', ' ') + "\n").getBytes(ENCODING));
+  }
+
+} // end of PlainText3Daemon class
+
+/* Copyright (c) 2019 by Keith Fenske.  Apache License or GNU GPL. */
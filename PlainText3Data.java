@@ -0,0 +1,52 @@
+/*
+  Plain Text #3 (Data) - One Parsed Conversion Rule
+  Java class name: PlainText3Data
+  Copyright (c) 2019 by Keith Fenske.  Apache License or GNU GPL.
+
+  Each possible action by the user (accept, delete, replace) requires more
+  information than can be cleanly represented by arrays or pre-defined Java
+  objects (lists, maps, vectors, etc).
+
+  Apache License or GNU General Public License
+  --------------------------------------------
+  PlainText3Data is free software and has been released under the terms and
+  conditions of the Apache License (version 2.0 or later) and/or the GNU
+  General Public License (GPL, version 2 or later).  This program is
+  distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY,
+  without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+  PARTICULAR PURPOSE.  See the license(s) for more details.  You should have
+  received a copy of the licenses along with this program.  If not, see the
+  http://www.apache.org/licenses/ and http://www.gnu.org/licenses/ web pages.
+*/
+
+class PlainText3Data
+{
+  /* class variables */
+
+  int action;                     // accept, delete, replace action code
+  PlainText3Formatter formatter;  // null or plug-in for "custom:name"
+  boolean isRange;                // true if <left> is a low-high range
+  int[] left;                     // if <isRange>, then two limits: low, high
+                                  // else non-empty array of UTF-32 characters
+  PlainText3Class leftClass;      // null or character class within range
+  int line;                       // configuration line number, or zero
+  String right;                   // standard Java UTF-16 string or null
+  PlainText3Data next;            // next data object in linked list
+
+  /* constructor */
+
+  public PlainText3Data()
+  {
+    this.action = 0;              // no action code yet
+    this.formatter = null;        // no plug-in formatter
+    this.isRange = false;         // no low-high range defined
+    this.left = null;             // no left array or range yet
+    this.leftClass = null;        // no character class
+    this.line = 0;                // not from configuration file
+    this.right = null;            // no replacement string
+    this.next = null;             // no following element in list
+  }
+
+} // end of PlainText3Data class
+
+/* Copyright (c) 2019 by Keith Fenske.  Apache License or GNU GPL. */
@@ -0,0 +1,164 @@
+/*
+  Plain Text #3 (Diagnostics) - Collect Error Messages
+  Java class name: PlainText3Diagnostics
+  Copyright (c) 2019 by Keith Fenske.  Apache License or GNU GPL.
+
+  Collect error messages from any thread, and give them to the graphical
+  interface in batches, so that a bad configuration file with thousands of
+  errors doesn't append to the error text area one line at a time.  Only the
+  first <MAX_MESSAGES> are kept; the rest are counted and summarized with one
+  line by finish().
+
+  When there is no graphical interface, each message is written immediately to
+  standard error in a form that other programs can parse:
+
+      PlainText3:file:line: text
+      PlainText3: text
+
+  This class knows nothing about Swing.  The caller decides how to show the
+  messages returned by drain().
+
+  Apache License or GNU General Public License
+  --------------------------------------------
+  PlainText3Diagnostics is free software and has been released under the terms
+  and conditions of the Apache License (version 2.0 or later) and/or the GNU
+  General Public License (GPL, version 2 or later).  This program is
+  distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY,
+  without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+  PARTICULAR PURPOSE.  See the license(s) for more details.  You should have
+  received a copy of the licenses along with this program.  If not, see the
+  http://www.apache.org/licenses/ and http://www.gnu.org/licenses/ web pages.
+*/
+
+import java.io.*;                 // standard I/O
+
+class PlainText3Diagnostics
+{
+  /* constants */
+
+  static final int MAX_MESSAGES = 1000; // messages kept before suppressing
+  static final String PREFIX = "PlainText3"; // machine-readable line prefix
+
+  /* class variables */
+
+  int keptCount;                  // messages kept since last finish()
+  PrintStream machine;            // null or where machine-readable copies go
+  StringBuffer pending;           // lines not yet taken by drain()
+  boolean queued;                 // true if caller will soon call drain()
+  int suppressCount;              // messages dropped since last finish()
+
+  /* constructor */
+
+  public PlainText3Diagnostics(PrintStream machine)
+  {
+    this.keptCount = 0;           // nothing kept yet
+    this.machine = machine;       // null for graphical interface
+    this.pending = new StringBuffer();
+    this.queued = false;          // nobody has been told to drain()
+    this.suppressCount = 0;       // nothing dropped yet
+  }
+
+
+/*
+  add() method
+
+  Add one message, with an optional file name and line number (zero if none).
+  Extra text is shown to the user on a second line, but is not part of the
+  machine-readable copy.  Return true if the caller should arrange for drain()
+  to be called, which happens only once per batch.
+*/
+  synchronized boolean add(String text)
+  {
+    return(add(null, 0, text, null));
+  }
+
+  synchronized boolean add(
+    String file,                  // null or name of file with the error
+    int line,                     // line number in <file>, or zero
+    String text,                  // message text
+    String extra)                 // null or more text for user, such as input
+  {
+    if (keptCount >= MAX_MESSAGES) // have we already shown too many?
+    {
+      suppressCount ++;           // count it, but say nothing
+      return(false);
+    }
+    keptCount ++;
+
+    if (machine != null)          // no graphical interface
+    {
+      machine.println(PREFIX + ((file == null) ? "" : (":" + file))
+        + ((line > 0) ? (":" + line) : "") + ": " + text);
+      return(false);
+    }
+
+    if (pending.length() > 0) pending.append('\n');
+    pending.append(text);
+    if (extra != null)            // second line for user
+    {
+      pending.append('\n');
+      pending.append(extra);
+    }
+    if (queued)                   // drain() is already on its way
+      return(false);
+    queued = true;
+    return(true);
+
+  } // end of add() method
+
+
+/*
+  clear() method
+
+  Forget any pending messages and start counting again.
+*/
+  synchronized void clear()
+  {
+    keptCount = suppressCount = 0;
+    pending.setLength(0);
+  }
+
+
+/*
+  drain() method
+
+  Return the pending lines as one string without a final newline, or null if
+  there are none.  Pending lines are removed.
+*/
+  synchronized String drain()
+  {
+    String result;                // our string or null
+
+    queued = false;               // next add() must ask again
+    if (pending.length() == 0)
+      return(null);
+    result = pending.toString();
+    pending.setLength(0);
+    return(result);
+
+  } // end of drain() method
+
+
+/*
+  finish() method
+
+  Finish one batch of work (loading a configuration file, converting text) by
+  reporting how many messages were suppressed, if any.  Return true if the
+  caller should arrange for drain() to be called.
+*/
+  synchronized boolean finish()
+  {
+    int count;                    // number of suppressed messages
+
+    count = suppressCount;
+    keptCount = suppressCount = 0; // next batch gets its own limit
+    if (count == 0)
+      return(false);
+    return(add(null, 0, (PlainText3Engine.formatComma.format(count)
+      + " more messages were suppressed."), null));
+
+  } // end of finish() method
+
+} // end of PlainText3Diagnostics class
+
+/* Copyright (c) 2019 by Keith Fenske.  Apache License or GNU GPL. */
@@ -0,0 +1,2897 @@
+/*
+  Plain Text #3 (Engine) - Convert Unicode Characters to Plain Text
+  Java class name: PlainText3Engine
+  Copyright (c) 2019 by Keith Fenske.  Apache License or GNU GPL.
+
+  The conversion engine: command-line options for the configuration data,
+  loading and compiling the conversion rules, converting text, and parsing
+  UTF-16 strings into UTF-32 characters.  Nothing here uses AWT or Swing, so a
+  console application (PlainText3Console) can convert text without loading the
+  graphical classes, which take most of the start-up time for a short run.
+  PlainText3 extends this class only so that the graphical code can use these
+  names without qualifying them.
+
+  Apache License or GNU General Public License
+  --------------------------------------------
+  PlainText3Engine is free software and has been released under the terms and
+  conditions of the Apache License (version 2.0 or later) and/or the GNU
+  General Public License (GPL, version 2 or later).  This program is
+  distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY,
+  without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+  PARTICULAR PURPOSE.  See the license(s) for more details.  You should have
+  received a copy of the licenses along with this program.  If not, see the
+  http://www.apache.org/licenses/ and http://www.gnu.org/licenses/ web pages.
+*/
+
+import java.io.*;                 // standard I/O
+import java.text.*;               // number formatting
+import java.util.*;               // lists, maps
+import java.util.concurrent.*;    // thread pools for parallel work
+import java.util.regex.*;         // regular expressions
+
+class PlainText3Engine
+{
+  /* constants */
+
+  static final int ACTION_ACCEPT = 1; // accept, delete, replace action codes
+//static final int ACTION_DELETE = 2; // delete is replace with empty string
+  static final int ACTION_REPLACE = 3;
+  static final int ACTION_CUSTOM = 4; // placeholder for special requests
+  static final int ACTION_DECNUM = 5; // decimal character number (generic)
+  static final int ACTION_HEXNUM = 6; // hexadecimal character number (generic)
+  static final int ACTION_JAVA16 = 7; // Java UTF-16 backslash notation
+  static final int ACTION_OCTNUM = 8; // octal character number (generic)
+  static final int ACTION_UNINUM = 9; // Unicode character number (notation)
+  static final int ACTION_XMLDEC = 10; // XML decimal character reference
+  static final int ACTION_XMLHEX = 11; // XML hexadecimal character reference
+  static final int ACTION_UNINAME = 12; // Unicode character name (caption)
+  static final int ACTION_FOLD = 13; // compatibility folding, no diacritics
+  static final int BENCH_LENGTH = 1000000; // characters of benchmark text
+  static final int BENCH_RUNS = 10; // timed runs for each benchmark
+  static final int BENCH_WARMUP = 5; // untimed runs before timing
+  static final String DEFAULT_FILE = "PlainText3.txt"; // configuration data
+  static final int FUSE_LIMIT = 0x1000; // rules split from ranges by fusing
+  static final int PARSE_BLOCK = 0x1000; // configuration lines per task
+  static final char REPLACE_CHAR = '?'; // bad Unicode replacement character
+  static final long SPILL_LIMIT = 0x1000000; // output characters in memory
+  static final int VERIFY_CHUNK = 0x1000; // characters per parallel task
+
+  /* Internally, Java characters are 16-bit Unicode and strings are encoded as
+  UTF-16 with high and low surrogate pairs for anything beyond U+FFFF.  We need
+  UTF-32 integers during conversion and briefly while parsing the configuration
+  file.  Replacement strings, for example, are parsed into an array of UTF-32
+  integers, then saved back as standard Java strings (UTF-16), because that is
+  what the Java run-time expects for text in a JTextArea. */
+
+  static final int UTF16_HIGH_BEGIN = 0xD800; // UTF-16 high surrogate start
+  static final int UTF16_HIGH_END = 0xDBFF; // UTF-16 high surrogate stop
+  static final int UTF16_LOW_BEGIN = 0xDC00; // UTF-16 low surrogate start
+  static final int UTF16_LOW_END = 0xDFFF; // UTF-16 low surrogate stop
+  static final int UTF16_MASK = 0x03FF; // bit mask for high, low surrogate
+  static final int UTF16_MAX = 0xFFFF; // maximum 16-bit character number
+  static final int UTF16_SHIFT = 10; // bit shift combine high, low surrogate
+  static final int UTF32_ERROR = 0xBADABAD; // must be more than <UTF32_MAX>
+  static final int UTF32_MAX = 0x10FFFF; // maximum Unicode character number
+  static final int UTF32_OFFSET = 0x010000; // start of extended Unicode
+
+  /* class variables */
+
+  static String dataFile;         // text file with configuration data
+  static HashMap<String, PlainText3Class> classMap; // classes by name
+  static boolean compileFlag;     // true if we generate a compiled converter
+  static PlainText3Data dataFirst; // first parsed entry in conversion table
+  static PlainText3Data dataLast; // last parsed entry in conversion table
+  static volatile PlainText3Table dataTable; // compiled conversion table
+  static PlainText3Diagnostics diagnostics; // collects error messages
+  static Runnable errorHook;      // null or told when errors are waiting
+  static NumberFormat formatComma; // formats with commas (digit grouping)
+  static HashMap<String, PlainText3Formatter> formatterMap; // by name
+  static boolean graphemeFlag;    // true if rules match grapheme clusters
+  static boolean jbnDataFlag;     // Java backslash notation in our data file
+  static boolean jbnUserFlag;     // Java backslash notation in user input/text
+  static long maxExpansion;       // zero or output limit per input character
+  static long maxOutput;          // zero or output limit in characters
+  static PlainText3Profile profile; // null or rule order from profile
+  static boolean mswinFlag;       // true if running on Microsoft Windows
+  static long spillLimit;         // output characters in memory before file
+  static PlainText3Telemetry telemetry; // null or throughput numbers
+  static boolean xmlDataFlag;     // true if XML characters in our data file
+  static boolean xmlUserFlag;     // true if XML characters in user input/text
+
+/*
+  addConversion() method
+
+  This helper method makes it easier to add characters to the conversion table,
+  and is called by the loadConfig() method.  An original string (our left side)
+  must have at least one character, or be a low-high range.  The replacement
+  string (our right side) may be empty (delete action) or null (accept action).
+*/
+  static void addConversion(      // convenience method for one character
+    int ch,                       // one UTF-32 character (left side)
+    String newText)               // arbitrary replacement string (right side)
+  {
+    int[] array = { ch };         // temporary array with one element
+    addConversion(ACTION_REPLACE, false, array, newText, 0); // general method
+  }
+
+  static void addConversion(      // general method for array of characters
+    int actionCode,               // accept, delete, replace action code
+    boolean rangeFlag,            // true if <oldText> is low-high range
+    int[] oldText,                // non-empty UTF-32 array (left side)
+    String newText,               // arbitrary replacement string (right side)
+    int lineNumber)               // configuration line number, or zero
+  {
+    if ((oldText == null)
+      || ((rangeFlag == false) && (oldText.length == 0))
+      || ((rangeFlag == true) && (oldText.length != 2)))
+    {
+      System.err.println(
+        "Invalid <oldText> parameter in addConversion() method.");
+    }
+    else
+    {
+      PlainText3Data data = new PlainText3Data(); // create new data entry
+      data.action = actionCode;   // copy whatever parameters caller gave us
+      data.isRange = rangeFlag;   // ... to the new data entry (rule)
+      data.left = oldText;
+      data.line = lineNumber;
+      data.right = newText;
+      addConversion(data);        // link to end of list
+    }
+  }
+
+  static void addConversion(      // method for a rule that's already parsed
+    PlainText3Data data)          // new data entry (rule)
+  {
+    if (dataFirst == null)        // is this the first data entry (rule)?
+      dataFirst = dataLast = data; // yes, first and last entries are same
+    else                          // no, we already have some entries
+    {
+      dataLast.next = data;       // link new entry to current end of list
+      dataLast = data;            // and new entry becomes new end of list
+    }
+  } // end of addConversion() method
+
+
+/*
+  appendArray() method
+
+  Given two integer arrays, return a new array with the second array appended
+  (concatenated) to the end of the first array.  Arrays are character numbers
+  for what would be a UTF-32 string.
+
+  This is not an efficient way of dealing with characters as integers, and is
+  used in loadConfig() while parsing the configuration data file.  Most calls
+  have an empty first array.  Both arrays are usually very small.
+*/
+  static int[] appendArray(int[] firstArray, int[] secondArray)
+  {
+    int firstLength;              // number of elements in <firstArray>
+    int i;                        // index variable
+    int[] resultArray;            // our converted result
+    int resultCount;              // total elements copied to <resultArray>
+    int secondLength;             // number of elements in <secondArray>
+
+    firstLength = firstArray.length; // get number of elements in arrays
+    secondLength = secondArray.length;
+    if (firstLength == 0)         // if first array is empty, ...
+      resultArray = secondArray;  // return second without even looking
+    else if (secondLength == 0)
+      resultArray = firstArray;   // return first without even looking
+    else
+    {
+      resultArray = new int[firstLength + secondLength]; // size of new array
+      resultCount = 0;            // no elements copied yet
+      for (i = 0; i < firstLength; i ++)
+        resultArray[resultCount ++] = firstArray[i];
+      for (i = 0; i < secondLength; i ++)
+        resultArray[resultCount ++] = secondArray[i];
+    }
+    return(resultArray);          // give caller our converted result
+
+  } // end of appendArray() method
+
+
+/*
+  appendJava16() method
+
+  Append one UTF-16 character in Java backslash notation: a backslash, "u",
+  and four uppercase hexadecimal digits.  Extended Unicode is two calls, one
+  for each half of the surrogate pair, as the Java compiler expects.
+*/
+  static void appendJava16(StringBuffer buffer, char ch)
+  {
+    String hex;                   // hexadecimal with extra leading zeros
+
+    hex = "0000" + Integer.toHexString(ch).toUpperCase();
+    buffer.append("\\u" + hex.substring(hex.length() - 4));
+                                // insert prefix, keep last four hex digits
+  }
+
+
+/*
+  benchmarkAllocated() method
+
+  Return the number of bytes allocated so far by the current thread, or -1 if
+  the Java run-time doesn't tell us.  The method we need is an extension in
+  com.sun.management, so we use reflection to stay portable.
+*/
+  static long benchmarkAllocated()
+  {
+    try
+    {
+      return(((Long) Class.forName("com.sun.management.ThreadMXBean")
+        .getMethod("getThreadAllocatedBytes", new Class<?>[] { long.class })
+        .invoke(java.lang.management.ManagementFactory.getThreadMXBean(),
+        new Object[] { Long.valueOf(Thread.currentThread().getId()) }))
+        .longValue());
+    }
+    catch (Exception e) { return(-1); } // any reason, same answer
+  }
+
+
+/*
+  benchmarkRate() method
+
+  Format one line of the benchmark report: time, characters per second, and
+  megabytes per second.
+*/
+  static String benchmarkRate(String title, long nanos, int characters,
+    double megabytes)
+  {
+    double seconds = Math.max(nanos, 1) / 1000000000.0; // avoid zero
+    return(title + ": " + formatComma.format(nanos / 1000000) + " ms, "
+      + formatComma.format((long) (characters / seconds)) + " chars/s, "
+      + formatComma.format(megabytes / seconds) + " MB/s.");
+  }
+
+
+/*
+  benchmarkTable() method
+
+  Performance self-test with the user's own configuration data file, so that
+  a report of "it's slow" comes with numbers that we can compare.  Load the
+  configuration (twice: cold, then warm), make text from the characters that
+  the rules refer to, and time decoding, conversion, and encoding.  The
+  report is plain text on standard output.
+*/
+  static void benchmarkTable()
+  {
+    long allocated;               // bytes allocated by this thread, or -1
+    long best;                    // fastest conversion in nanoseconds
+    byte[] bytes;                 // benchmark text as UTF-8
+    double megabytes;             // size of UTF-8 text in megabytes
+    long coldLoad, warmLoad;      // nanoseconds to load configuration
+    long decodeTime, encodeTime;  // nanoseconds to decode, encode text
+    long elapsed;                 // nanoseconds for one run
+    long first;                   // nanoseconds for first conversion
+    int i;                        // index variable
+    int[] input;                  // benchmark text as UTF-32
+    StringBuffer result;          // converted text
+    long start;                   // starting time in nanoseconds
+    long[] times;                 // nanoseconds for each timed conversion
+
+    elapsed = System.nanoTime();
+    loadConfig();                 // first load includes class loading
+    coldLoad = System.nanoTime() - elapsed;
+    elapsed = System.nanoTime();
+    loadConfig();                 // second load shows the steady cost
+    warmLoad = System.nanoTime() - elapsed;
+
+    /* Decode: UTF-8 bytes to a Java string to UTF-32, as a console would. */
+
+    input = benchmarkText(dataTable, BENCH_LENGTH);
+    try { bytes = utfCreate16(input).getBytes("UTF-8"); }
+    catch (UnsupportedEncodingException uee) { bytes = new byte[0]; }
+    megabytes = bytes.length / 1000000.0;
+    start = System.nanoTime();
+    try
+    {
+      input = utfParse16(new String(bytes, "UTF-8"), jbnUserFlag,
+        xmlUserFlag);
+    }
+    catch (UnsupportedEncodingException uee) { /* UTF-8 is always here */ }
+    decodeTime = System.nanoTime() - start;
+
+    /* Convert: first run (cold), then warm up, then timed runs. */
+
+    result = new StringBuffer(input.length);
+    first = System.nanoTime();
+    convertUnicode(input, result, null);
+    first = System.nanoTime() - first;
+    for (i = 0; i < BENCH_WARMUP; i ++)
+      convertUnicode(input, new StringBuffer(input.length), null);
+    allocated = benchmarkAllocated();
+    times = new long[BENCH_RUNS];
+    for (i = 0; i < BENCH_RUNS; i ++)
+    {
+      result = new StringBuffer(input.length);
+      start = System.nanoTime();
+      convertUnicode(input, result, null);
+      times[i] = System.nanoTime() - start;
+    }
+    if (allocated >= 0)           // bytes allocated by timed runs
+      allocated = (benchmarkAllocated() - allocated) / BENCH_RUNS;
+    Arrays.sort(times);
+    best = times[0];
+
+    /* Encode: converted text back to UTF-8 bytes. */
+
+    start = System.nanoTime();
+    try { result.toString().getBytes("UTF-8"); }
+    catch (UnsupportedEncodingException uee) { /* UTF-8 is always here */ }
+    encodeTime = System.nanoTime() - start;
+
+    /* Report.  Rates use the input size: characters and UTF-8 bytes. */
+
+    System.out.println("PlainText3 benchmark for " + dataFile + ": "
+      + prettyPlural(dataTable.ruleCount, "rule") + ", "
+      + prettyPlural(dataTable.footprint(), "byte") + ".");
+    System.out.println("Java " + System.getProperty("java.version") + " ("
+      + System.getProperty("java.vendor") + ") on "
+      + System.getProperty("os.name") + " " + System.getProperty("os.arch")
+      + ", " + prettyPlural(Runtime.getRuntime().availableProcessors(),
+      "processor") + (compileFlag ? ", compiled rules." : "."));
+    System.out.println("Load configuration: "
+      + formatComma.format(coldLoad / 1000000) + " ms cold, "
+      + formatComma.format(warmLoad / 1000000) + " ms warm.");
+    System.out.println("Text: " + prettyPlural(input.length, "character")
+      + ", " + prettyPlural(bytes.length, "byte") + " as UTF-8.");
+    System.out.println(benchmarkRate("Decode UTF-8", decodeTime, input.length,
+      megabytes));
+    System.out.println(benchmarkRate("Convert, first run", first,
+      input.length, megabytes));
+    System.out.println(benchmarkRate("Convert, best of "
+      + BENCH_RUNS, best, input.length, megabytes));
+    System.out.println(benchmarkRate("Convert, median", times[BENCH_RUNS / 2],
+      input.length, megabytes));
+    System.out.println(benchmarkRate("Encode UTF-8", encodeTime,
+      input.length, megabytes));
+    System.out.println("Allocation: " + ((allocated < 0) ? "not available"
+      : (formatComma.format((long) (allocated / megabytes))
+      + " bytes per MB converted")) + ".");
+
+  } // end of benchmarkTable() method
+
+
+/*
+  benchmarkText() method
+
+  Make benchmark text from the characters in the rules: whole left sides,
+  characters from ranges, and plain ASCII letters and spaces in between.  The
+  random numbers are always the same, so runs can be compared.
+*/
+  static int[] benchmarkText(PlainText3Table table, int length)
+  {
+    int count;                    // characters in <text> so far
+    int i;                        // index variable
+    Random random;                // pseudo-random number generator
+    int rule;                     // randomly chosen rule
+    int start;                    // start of rule in <leftPool>
+    int[] text;                   // our benchmark text
+
+    random = new Random(3);       // always the same sequence
+    text = new int[length];
+    count = 0;
+    while (count < length)
+    {
+      if ((table.ruleCount == 0) || random.nextBoolean())
+      {
+        i = random.nextInt(27);   // plain letter or space
+        text[count ++] = (i == 26) ? ' ' : ('a' + i);
+        continue;
+      }
+      rule = random.nextInt(table.ruleCount);
+      start = table.leftStart[rule];
+      if (table.ruleKinds[rule] != PlainText3Table.KIND_STRING)
+      {
+        int low = table.leftPool[start];
+        int span = table.leftPool[start + 1] - low + 1;
+        i = low + random.nextInt(span);
+        if ((table.ruleKinds[rule] == PlainText3Table.KIND_CLASS)
+          && !table.ruleClasses[rule].contains(i))
+        {
+          continue;               // not in class, try another rule
+        }
+        if ((i < UTF16_HIGH_BEGIN) || (i > UTF16_LOW_END))
+          text[count ++] = i;     // no surrogates
+      }
+      else for (i = start; (i < table.leftStart[rule + 1])
+        && (count < length); i ++)
+      {
+        text[count ++] = table.leftPool[i];
+      }
+    }
+    return(text);
+
+  } // end of benchmarkText() method
+
+
+/*
+  compileTable() method
+
+  Generate a specialized converter for a conversion table, or return null if
+  that isn't possible, in which case the table is interpreted as usual.  The
+  generator needs Java 15 or later and the Java compiler (a JDK, not a JRE);
+  on older Java, the class won't even link, and we catch that here.
+*/
+  static PlainText3Converter compileTable(PlainText3Table table)
+  {
+    try { return(PlainText3Compiler.compile(table)); }
+    catch (LinkageError le)       // missing classes or methods
+    {
+      putError("Unable to compile conversion rules on this Java: " + le);
+      return(null);
+    }
+  }
+
+
+/*
+  convertInPlace() method
+
+  Convert an array of UTF-32 character numbers in place, if no rule in the
+  current table can make the text longer: accept rules, delete rules, and
+  replace rules whose right side is no longer than their left side.  The
+  result is written over the input from the front, behind the rules that are
+  still reading, so the caller needs no second buffer.  Return the number of
+  changes made, with the new length in <newLength[0]>, or -1 if the table
+  doesn't allow this (the array is unchanged and the caller should use
+  convertUnicode() instead).  Generated converters are faster than this, so a
+  compiled table is never converted in place.
+*/
+  static int convertInPlace(
+    int[] inputText,              // UTF-32 text, replaced by result
+    int[] newLength)              // where we put length of result
+  {
+    int ch;                       // one character from a right side
+    int changeCount;              // number of changes made (not characters)
+    int i;                        // index variable
+    int inputIndex;               // current character in <inputText>
+    int inputLength;              // number of characters in <inputText>
+    int[] leftPool;               // all left sides from <table>
+    int[] leftStart;              // offsets into <leftPool> for each rule
+    int leftIndex;                // start of current rule in <leftPool>
+    int leftLength;               // number of UTF-32 characters in left side
+    boolean matchFlag;            // true if all characters match data entry
+    int outputIndex;              // next result character in <inputText>
+    int rightEnd;                 // end of right side in <rightPool>
+    int rule;                     // index of current rule in <table>
+    int ruleCount;                // number of rules in <table>
+    byte[] ruleKinds;             // kind of left side for each rule
+    int searchIndex;              // current look-ahead index in <inputText>
+    PlainText3Table table;        // <dataTable> when we started
+
+    table = dataTable;            // only read <dataTable> once
+    if ((table.shrinkFlag == false) || (table.converter != null)
+      || (table.next != null) || table.graphemeFlag
+      || (table.ruleHits != null))
+    {
+      return(-1);                 // caller must use a second buffer
+    }
+
+    /* The search for a matching rule is the same as in convertTable().  Only
+    the output is different. */
+
+    changeCount = 0;              // no strings have been replaced yet
+    inputIndex = outputIndex = 0; // start with the very first character
+    inputLength = inputText.length; // get size of input string in characters
+    leftPool = table.leftPool;
+    leftStart = table.leftStart;
+    ruleCount = table.ruleCount;
+    ruleKinds = table.ruleKinds;
+
+    while (inputIndex < inputLength)
+    {
+      searchIndex = inputIndex;   // just to keep compiler happy
+
+      for (rule = 0; rule < ruleCount; rule ++)
+      {
+        searchIndex = inputIndex; // restart search at this input character
+        leftIndex = leftStart[rule]; // where this left side begins
+        leftLength = leftStart[rule + 1] - leftIndex;
+        if (ruleKinds[rule] == PlainText3Table.KIND_RANGE) // low-high range?
+        {
+          if ((inputText[searchIndex] >= leftPool[leftIndex])
+            && (inputText[searchIndex] <= leftPool[leftIndex + 1]))
+          {
+            searchIndex ++;       // matched one character, advance to next
+            break;                // exit early from <for> loop
+          }
+        }
+        else if (ruleKinds[rule] == PlainText3Table.KIND_CLASS) // class?
+        {
+          if (table.ruleClasses[rule].contains(inputText[searchIndex]))
+          {
+            searchIndex ++;       // matched one character, advance to next
+            break;                // exit early from <for> loop
+          }
+        }
+        else if ((leftLength > 0) // avoid possible infinite loop
+          && (inputIndex + leftLength) <= inputLength)
+        {                         // left side is array of UTF-32 characters
+          i = leftIndex;          // start with first character
+          leftLength += leftIndex; // now the end of this left side
+          matchFlag = true;       // assume all characters match
+          while (matchFlag && (i < leftLength))
+            matchFlag &= (inputText[searchIndex ++] == leftPool[i ++]);
+          if (matchFlag)          // does input match complete data entry?
+            break;                // yes, exit early from <for> loop
+        }
+      }
+
+      /* Write the result at <outputIndex>, which is never past the input
+      that we have already read. */
+
+      if ((rule >= ruleCount)     // no match found, keep one character
+        || (table.ruleActions[rule] == ACTION_ACCEPT)) // or accept as-is
+      {
+        if (rule >= ruleCount)
+          searchIndex = inputIndex + 1;
+        while (inputIndex < searchIndex)
+          inputText[outputIndex ++] = inputText[inputIndex ++];
+      }
+      else                        // replace or delete, never longer
+      {
+        changeCount ++;           // one more substitution has been made
+        inputIndex = searchIndex; // where next input comes from
+        i = table.rightIndex[rule];
+        rightEnd = table.rightStart[i + 1];
+        i = table.rightStart[i];  // UTF-16 right side back to UTF-32
+        while (i < rightEnd)
+        {
+          ch = Character.codePointAt(table.rightPool, i, rightEnd);
+          inputText[outputIndex ++] = ch;
+          i += Character.charCount(ch);
+        }
+      }
+    }
+    newLength[0] = outputIndex;
+    return(changeCount);          // give caller the number of changes made
+
+  } // end of convertInPlace() method
+
+
+/*
+  convertRule() method
+
+  Apply one rule to the characters it matched, from <inputIndex> up to but not
+  including <searchIndex>, and append the result.  Return one if this counts
+  as a change, otherwise zero.  The interpreter in convertTable() handles the
+  common accept and replace rules itself, and calls here for the others.
+  Generated converters (PlainText3Compiler) call here for anything that they
+  don't do inline.
+*/
+  static int convertRule(
+    PlainText3Table table,        // compiled conversion table
+    int rule,                     // index of rule in <table>
+    int[] inputText,              // UTF-32 input text (code points)
+    int inputIndex,               // first character matched by rule
+    int searchIndex,              // one past last character matched
+    StringBuffer resultBuffer)    // converted result in UTF-16
+  {
+    int changeCount;              // one if a change was made, else zero
+    int i;                        // index variable
+
+    changeCount = 0;              // no change made yet
+    if (table.ruleActions[rule] == ACTION_ACCEPT) // accept as-is?
+    {
+      while (inputIndex < searchIndex) // for each UTF-32 character matched
+        utfAppend32(resultBuffer, inputText[inputIndex ++]); // to UTF-16
+    }
+    else if (table.ruleActions[rule] == ACTION_REPLACE) // or delete
+    {
+      changeCount = 1;            // one substitution has been made
+      table.appendRight(resultBuffer, rule); // copy UTF-16, may be empty
+    }
+    else if ((table.ruleActions[rule] == ACTION_CUSTOM)
+      && (table.ruleFormatters != null)
+      && (table.ruleFormatters[rule] != null)) // plug-in formatter
+    {
+      if (table.ruleFormatters[rule].format(inputText, inputIndex,
+        searchIndex, table.ruleArguments[rule], resultBuffer))
+      {
+        changeCount = 1;          // formatter made a change
+      }
+    }
+    else if (table.ruleActions[rule] == ACTION_CUSTOM) // special
+    {
+      /* Placeholder for customizing special requests.  The sample code is
+      similar to ACTION_UNINUM with an optional string appended, such as a
+      Unicode block name for non-European languages. */
+
+      changeCount = 1;            // one substitution has been made
+      boolean addSpace = false; // no space before first character (item)
+      resultBuffer.append("<"); // leading delimiter
+      while (inputIndex < searchIndex) // for each UTF-32 character matched
+      {
+        if (addSpace) resultBuffer.append(" "); // space between items
+        resultBuffer.append(formatUnicodeNumber(inputText[inputIndex ++]));
+        addSpace = true;          // insert spaces after first item
+      }
+      if (table.rightLength(rule) > 0) // optional string after numbers
+      {
+        resultBuffer.append(" "); // space between items
+        table.appendRight(resultBuffer, rule); // UTF-16, once only
+      }
+      resultBuffer.append(">"); // trailing delimiter
+    }
+    else if (table.ruleActions[rule] == ACTION_DECNUM) // decimal number
+    {
+      /* Format as desired for decimal character number (generic). */
+
+      changeCount = 1;            // one substitution has been made
+      while (inputIndex < searchIndex) // for each UTF-32 character matched
+        resultBuffer.append("<" + inputText[inputIndex ++] + ">");
+    }
+    else if (table.ruleActions[rule] == ACTION_FOLD) // fold characters
+    {
+      /* Compatibility decomposition (NFKD) with combining marks removed,
+      from a table that is computed once.  Characters that don't change
+      are copied as-is, and only count as a change if something changed. */
+
+      boolean foldFlag = false; // true if any character changed
+      while (inputIndex < searchIndex) // for each UTF-32 character matched
+        foldFlag |= PlainText3Fold.appendFold(resultBuffer,
+          inputText[inputIndex ++]);
+      if (foldFlag) changeCount = 1; // substitution has been made
+    }
+    else if (table.ruleActions[rule] == ACTION_HEXNUM) // hexadecimal
+    {
+      /* Format as desired for hexadecimal character number (generic). */
+
+      changeCount = 1;            // one substitution has been made
+      while (inputIndex < searchIndex) // for each UTF-32 character matched
+        resultBuffer.append("<"
+          + Integer.toHexString(inputText[inputIndex ++]).toUpperCase()
+          + ">");
+    }
+    else if (table.ruleActions[rule] == ACTION_JAVA16) // Java backslash
+    {
+      /* Convert the matched UTF-32 characters into Java UTF-16 backslash
+      notation (text) that can be used as source in a Java program. */
+
+      changeCount = 1;            // one substitution has been made
+      StringBuffer sb = new StringBuffer(); // to convert UTF-32 to UTF-16
+      while (inputIndex < searchIndex) // for each UTF-32 character matched
+        utfAppend32(sb, inputText[inputIndex ++]); // copy UTF-32 as UTF-16
+      for (i = 0; i < sb.length(); i ++) // for each new UTF-16 character
+        appendJava16(resultBuffer, sb.charAt(i));
+    }
+    else if (table.ruleActions[rule] == ACTION_OCTNUM) // octal number
+    {
+      /* Format as desired for octal character number (generic). */
+
+      changeCount = 1;            // one substitution has been made
+      while (inputIndex < searchIndex) // for each UTF-32 character matched
+        resultBuffer.append("<"
+          + Integer.toString(inputText[inputIndex ++], 8) + ">");
+    }
+    else if (table.ruleActions[rule] == ACTION_UNINUM) // Unicode number
+    {
+      /* Unicode character number (notation) with delimiters. */
+
+      changeCount = 1;            // one substitution has been made
+      while (inputIndex < searchIndex) // for each UTF-32 character matched
+        resultBuffer.append("<"
+          + formatUnicodeNumber(inputText[inputIndex ++]) + ">");
+    }
+    else if (table.ruleActions[rule] == ACTION_UNINAME) // Unicode name
+    {
+      /* Unicode character number and name with delimiters.  This is what
+      the PlainTextParse1 application generates as one rule per character,
+      except that names are looked up in a compact index when needed. */
+
+      changeCount = 1;            // one substitution has been made
+      while (inputIndex < searchIndex) // for each UTF-32 character matched
+      {
+        resultBuffer.append("<");
+        resultBuffer.append(formatUnicodeNumber(inputText[inputIndex]));
+        PlainText3Names.appendName(resultBuffer, inputText[inputIndex ++]);
+        resultBuffer.append(">");
+      }
+    }
+    else if (table.ruleActions[rule] == ACTION_XMLDEC) // XML decimal
+    {
+      /* We support XML character references in the configuration data file.
+      They are delimited with a clear beginning and end, unlike Java UTF-16
+      backslash notation or Unicode U+nnnn character numbers. */
+
+      changeCount = 1;            // one substitution has been made
+      while (inputIndex < searchIndex) // for each UTF-32 character matched
+        resultBuffer.append("&#" + inputText[inputIndex ++] + ";");
+    }
+    else if (table.ruleActions[rule] == ACTION_XMLHEX) // XML hexadecimal
+    {
+      changeCount = 1;            // one substitution has been made
+      while (inputIndex < searchIndex) // for each UTF-32 character matched
+        resultBuffer.append("&#x"
+          + Integer.toHexString(inputText[inputIndex ++]).toUpperCase()
+          + ";");
+    }
+    else                          // bad data entry, copy matched text
+    {
+      System.err.println(
+        "Invalid <ruleActions> in convertRule() method: "
+        + table.ruleActions[rule]);
+      while (inputIndex < searchIndex) // for each UTF-32 character matched
+        utfAppend32(resultBuffer, inputText[inputIndex ++]); // to UTF-16
+    }
+
+    return(changeCount);
+
+  } // end of convertRule() method
+
+
+/*
+  convertTable() method
+
+  Use one compiled conversion table to replace characters in an array of
+  UTF-32 character numbers, appending the result to a standard Java string
+  buffer (UTF-16).  Return the number of changes made (not characters).  If
+  the caller gives a segmented output, the buffer is moved there whenever it
+  is full, and is empty when we return; check the output for errors.
+*/
+  static int convertTable(
+    PlainText3Table table,        // compiled conversion table
+    int[] inputText,              // UTF-32 input text (code points)
+    StringBuffer resultBuffer,    // converted result in UTF-16
+    PlainText3Changes changeMap,  // null or where we record each change
+    PlainText3Output output)      // null or where full buffers go
+  {
+    int changeCount;              // number of changes made (not characters)
+    int changeStart;              // <changeCount> before current rule
+    int i;                        // index variable
+    int inputIndex;               // current character in <inputText>
+    int inputLength;              // number of characters in <inputText>
+    int[] leftPool;               // all left sides from <table>
+    int[] leftStart;              // offsets into <leftPool> for each rule
+    int leftIndex;                // start of current rule in <leftPool>
+    int leftLength;               // number of UTF-32 characters in left side
+    boolean matchFlag;            // true if all characters match data entry
+    int matchStart;               // first character matched by current rule
+    int rule;                     // index of current rule in <table>
+    int ruleCount;                // number of rules in <table>
+    byte[] ruleKinds;             // kind of left side for each rule
+    int searchIndex;              // current look-ahead index in <inputText>
+    int targetStart;              // length of <resultBuffer> before rule
+
+    /* The input is scanned from beginning to end, in a linear fashion, and
+    starting from any given point, the first rule that matches the input
+    characters is always used.  Copy the packed arrays into local variables,
+    because this is the inner loop for everything we do. */
+
+    changeCount = 0;              // no strings have been replaced yet
+    inputIndex = 0;               // start with the very first character
+    inputLength = inputText.length; // get size of input string in characters
+    if ((changeMap == null) && (table.converter != null)) // compiled?
+      return(table.converter.convert(inputText, resultBuffer, output));
+    leftPool = table.leftPool;
+    leftStart = table.leftStart;
+    ruleCount = table.ruleCount;
+    ruleKinds = table.ruleKinds;
+
+    while (inputIndex < inputLength)
+    {
+      searchIndex = inputIndex;   // just to keep compiler happy
+
+      /* Find the first matching entry (rule) in the conversion table.  Even
+      though we should never have an empty left side (zero UTF-32 characters),
+      we can easily check for this to avoid a possible infinite loop. */
+
+      for (rule = 0; rule < ruleCount; rule ++)
+      {
+        searchIndex = inputIndex; // restart search at this input character
+        leftIndex = leftStart[rule]; // where this left side begins
+        leftLength = leftStart[rule + 1] - leftIndex;
+        if (ruleKinds[rule] == PlainText3Table.KIND_RANGE) // low-high range?
+        {
+          if ((inputText[searchIndex] >= leftPool[leftIndex])
+            && (inputText[searchIndex] <= leftPool[leftIndex + 1]))
+          {
+            searchIndex ++;       // matched one character, advance to next
+            break;                // exit early from <for> loop
+          }
+        }
+        else if (ruleKinds[rule] == PlainText3Table.KIND_CLASS) // class?
+        {
+          if (table.ruleClasses[rule].contains(inputText[searchIndex]))
+          {
+            searchIndex ++;       // matched one character, advance to next
+            break;                // exit early from <for> loop
+          }
+        }
+        else if ((leftLength > 0) // avoid possible infinite loop
+          && (inputIndex + leftLength) <= inputLength)
+        {                         // left side is array of UTF-32 characters
+          i = leftIndex;          // start with first character
+          leftLength += leftIndex; // now the end of this left side
+          matchFlag = true;       // assume all characters match
+          while (matchFlag && (i < leftLength))
+            matchFlag &= (inputText[searchIndex ++] == leftPool[i ++]);
+          if (matchFlag && table.graphemeFlag) // must end with a cluster
+            matchFlag = (searchIndex == PlainText3Grapheme.clusterEnd(
+              inputText, inputIndex, searchIndex));
+          if (matchFlag)          // does input match complete data entry?
+            break;                // yes, exit early from <for> loop
+        }
+      }
+
+      if ((rule < ruleCount) && (table.ruleHits != null)) // -profile?
+        table.ruleHits[rule] ++;  // count matches, not exact with threads
+
+      /* Rules can match whole grapheme clusters instead of single code
+      points.  A range or class matches the first character of a cluster and
+      takes the rest of it, and with no match, the whole cluster is copied.
+      (A string only matches if it ends where a cluster ends.) */
+
+      if (rule >= ruleCount)      // no match found, advance one character
+        searchIndex = inputIndex + 1;
+      if (table.graphemeFlag)     // or one cluster
+        searchIndex = PlainText3Grapheme.clusterEnd(inputText, inputIndex,
+          searchIndex);
+
+      /* Did we find a matching entry in the conversion table? */
+
+      changeStart = changeCount;  // so we know if this rule makes a change
+      matchStart = inputIndex;    // and where the change starts
+      targetStart = resultBuffer.length();
+
+      if (rule >= ruleCount)      // no match found, copy as-is
+      {
+        while (inputIndex < searchIndex) // for each UTF-32 character
+          utfAppend32(resultBuffer, inputText[inputIndex ++]); // to UTF-16
+      }
+      else if (table.ruleActions[rule] == ACTION_ACCEPT) // accept as-is?
+      {
+        while (inputIndex < searchIndex) // for each UTF-32 character matched
+          utfAppend32(resultBuffer, inputText[inputIndex ++]); // to UTF-16
+      }
+      else if (table.ruleActions[rule] == ACTION_REPLACE) // or delete
+      {
+        changeCount ++;           // one more substitution has been made
+        inputIndex = searchIndex; // where next input comes from
+        table.appendRight(resultBuffer, rule); // copy UTF-16, may be empty
+      }
+      else                        // special actions take more work
+      {
+        changeCount += convertRule(table, rule, inputText, inputIndex,
+          searchIndex, resultBuffer);
+        inputIndex = searchIndex; // where next input comes from
+      }
+
+      /* Record where the change happened, if the caller wants to know. */
+
+      if ((changeMap != null) && (changeCount > changeStart))
+        changeMap.add(inputText, matchStart, inputIndex, targetStart,
+          resultBuffer.length(), rule);
+
+      /* Move a full buffer to the segmented output, if any. */
+
+      if ((output != null)
+        && (resultBuffer.length() >= PlainText3Output.SEGMENT_SIZE))
+      {
+        if (output.append(resultBuffer, inputIndex) == false)
+          return(changeCount);    // stopped by a limit or file error
+        resultBuffer.setLength(0);
+      }
+    }
+    if (output != null)           // last partial segment
+    {
+      output.append(resultBuffer, inputLength);
+      resultBuffer.setLength(0);
+    }
+    return(changeCount);          // give caller the number of changes made
+
+  } // end of convertTable() method
+
+
+/*
+  convertUnicode() method
+
+  Convert an array of UTF-32 character numbers with the current conversion
+  table, appending the result to a standard Java string buffer (UTF-16).
+  Return the number of changes made (not characters).  This method does not
+  touch the graphical interface, so it can be called from anywhere.  The table
+  may be replaced by a reload while we run; we keep using the one we started
+  with.  The second form sends the result to a segmented output instead, for
+  text that may be too large for one buffer.
+*/
+  static int convertUnicode(
+    int[] inputText,              // UTF-32 input text (code points)
+    StringBuffer resultBuffer,    // converted result in UTF-16
+    PlainText3Changes changeMap)  // null or where we record each change
+  {
+    return(convertUnicode(inputText, resultBuffer, changeMap, null));
+  }
+
+  static int convertUnicode(
+    int[] inputText,              // UTF-32 input text (code points)
+    PlainText3Output output)      // where converted result goes
+  {
+    return(convertUnicode(inputText, new StringBuffer(
+      PlainText3Output.SEGMENT_SIZE + 0x100), null, output));
+                                  // one segment, plus a little for overflow
+  }
+
+  static int convertUnicode(
+    int[] inputText,              // UTF-32 input text (code points)
+    StringBuffer resultBuffer,    // converted result in UTF-16
+    PlainText3Changes changeMap,  // null or where we record each change
+    PlainText3Output output)      // null or where full buffers go
+  {
+    int changeCount;              // number of changes made (not characters)
+    StringBuffer passBuffer;      // result from one pass, input to next
+    PlainText3Table table;        // <dataTable> when we started
+
+    table = dataTable;            // only read <dataTable> once
+    if (table.next == null)       // one pass, the usual case
+      return(convertTable(table, inputText, resultBuffer, changeMap,
+        output));
+
+    /* Stages that could not be fused are run one after another.  Changes
+    can't be mapped back through more than one pass, so the caller's change
+    map stays empty. */
+
+    changeCount = 0;
+    while (table.next != null)
+    {
+      passBuffer = new StringBuffer(inputText.length);
+      changeCount += convertTable(table, inputText, passBuffer, null, null);
+      inputText = utfParse16(passBuffer.toString(), false, false);
+      table = table.next;
+    }
+    changeCount += convertTable(table, inputText, resultBuffer, null, output);
+    return(changeCount);
+
+  } // end of convertUnicode() method
+
+
+/*
+  findClass() method
+
+  Return the character class for a left side, or null if the name is unknown.
+  Classes depend only on the Java run-time, so each one is resolved once and
+  kept for later rules and later loads of the configuration data file.
+*/
+  static synchronized PlainText3Class findClass(String kind, String value)
+  {
+    PlainText3Class result;       // class from our map, or new class
+    String key;                   // kind and name as map key
+
+    if (classMap == null)         // first time here?
+      classMap = new HashMap<>();
+    key = (kind.equals("P") ? "P" : kind.toLowerCase()) + "=" + value;
+    if (classMap.containsKey(key))
+      return(classMap.get(key));
+    result = PlainText3Class.parse(kind, value);
+    classMap.put(key, result);    // unknown names are remembered as null
+    return(result);
+
+  } // end of findClass() method
+
+
+/*
+  findFormatter() method
+
+  Return the plug-in formatter with a given name, or null if there is none.
+  The first call finds all formatters on the class path with ServiceLoader;
+  later calls only look in our map.  A plug-in that fails to load is reported
+  and skipped.
+*/
+  static synchronized PlainText3Formatter findFormatter(String name)
+  {
+    PlainText3Formatter formatter; // one formatter from service loader
+    Iterator<PlainText3Formatter> iterator; // from service loader
+
+    if (formatterMap == null)     // first time here?
+    {
+      formatterMap = new HashMap<>();
+      iterator = ServiceLoader.load(PlainText3Formatter.class).iterator();
+      while (true)
+      {
+        try
+        {
+          if (iterator.hasNext() == false)
+            break;
+          formatter = iterator.next();
+          formatterMap.put(formatter.name().toLowerCase(), formatter);
+        }
+        catch (ServiceConfigurationError sce) // bad plug-in, keep going
+        {
+          putError("Unable to load formatter plug-in: " + sce.getMessage());
+        }
+      }
+    }
+    return(formatterMap.get(name.toLowerCase()));
+
+  } // end of findFormatter() method
+
+
+/*
+  finishErrors() method
+
+  Called at the end of a batch of work that may have produced errors.  Adds a
+  summary line if some errors were suppressed.
+*/
+  static void finishErrors()
+  {
+    if ((diagnostics != null) && diagnostics.finish() && (errorHook != null))
+      errorHook.run();
+  }
+
+
+/*
+  formatUnicodeNumber() method
+
+  Format an integer as a Unicode character number: uppercase hexadecimal with
+  at least four digits.
+*/
+  static String formatUnicodeNumber(int number)
+  {
+    String hx = "00000000" + Integer.toHexString(number).toUpperCase();
+    return("U+" + hx.substring(Math.min(8, (hx.length() - 4))));
+  }
+
+
+/*
+  fuseCopy() method
+
+  Append a copy of one parsed rule to the engine's linked list.
+*/
+  static void fuseCopy(PlainText3Data data)
+  {
+    addConversion(data.action, data.isRange, data.left, data.right,
+      data.line);
+    dataLast.formatter = data.formatter; // null unless "custom:name"
+    dataLast.leftClass = data.leftClass; // null unless character class
+  }
+
+
+/*
+  fuseRules() method
+
+  Fuse two stages of rules into one list with the same result as running the
+  first stage, then the second stage on its output.  This is only possible if
+  every left side in the second stage is one character (or a range), so that
+  the second stage treats each character alone and can be applied to each
+  piece of the first stage's output separately.  Each rule in the first stage
+  gets its output run through the second stage; range rules are split into
+  single characters only where the second stage changes their output.  Rules
+  from the second stage go at the end, for characters that the first stage
+  doesn't match.  Return the new list, or null (with a note) if the stages
+  can't be fused.
+*/
+  static PlainText3Data fuseRules(
+    PlainText3Data first,         // rules for first stage
+    PlainText3Data later,         // rules for stage applied after <first>
+    String name)                  // name of later stage, for messages
+  {
+    int ch;                       // one character from a range
+    PlainText3Data data;          // current entry in linked list
+    int expanded;                 // single-character rules split from ranges
+    PlainText3Table firstTable, laterTable; // packed rules for each stage
+    int[] input;                  // one character from a range, as input
+    PlainText3Data result;        // fused list of rules
+    int rule;                     // index of <data> in <firstTable>
+    String text;                  // fused right side, or null if no change
+
+    for (data = later; data != null; data = data.next)
+    {
+      if ((data.isRange == false) && (data.left.length > 1))
+      {
+        putError(dataFile, data.line, ("Note: stage \"" + name
+          + "\" can't be fused: left side has more than one character"),
+          null);
+        return(null);
+      }
+    }
+
+    dataFirst = dataLast = null;  // build new list in engine's variables
+    expanded = 0;                 // no ranges split yet
+    firstTable = new PlainText3Table(first);
+    laterTable = new PlainText3Table(later);
+    rule = 0;                     // rules are in the same order as the list
+    for (data = first; data != null; data = data.next)
+    {
+      if (data.isRange)           // each character may come out differently
+      {
+        input = new int[1];
+        for (ch = data.left[0]; ch <= data.left[1]; ch ++)
+        {
+          if ((data.leftClass != null) && !data.leftClass.contains(ch))
+            continue;             // not matched by this rule
+          input[0] = ch;
+          text = fuseText(firstTable, rule, input, laterTable);
+          if (text == null)       // second stage doesn't change this one
+            continue;
+          if (++ expanded > FUSE_LIMIT)
+          {
+            putError(dataFile, data.line, ("Note: stage \"" + name
+              + "\" can't be fused: would need more than "
+              + prettyPlural(FUSE_LIMIT, "single-character rule")), null);
+            dataFirst = dataLast = null;
+            return(null);
+          }
+          addConversion(ACTION_REPLACE, false, new int[] { ch }, text,
+            data.line);
+        }
+        fuseCopy(data);           // for characters that stay the same
+      }
+      else                        // fixed left side has one output
+      {
+        text = fuseText(firstTable, rule, data.left, laterTable);
+        if (text == null)         // second stage doesn't change output
+          fuseCopy(data);
+        else
+          addConversion(ACTION_REPLACE, false, data.left, text, data.line);
+      }
+      rule ++;
+    }
+    for (data = later; data != null; data = data.next)
+      fuseCopy(data);             // characters not matched by first stage
+
+    result = dataFirst;
+    dataFirst = dataLast = null;
+    return(result);
+
+  } // end of fuseRules() method
+
+
+/*
+  fuseStages() method
+
+  Compile stages of rules into one table, fusing each stage into the ones
+  before it when possible.  A stage that can't be fused starts a new pass,
+  which costs one more scan of the text.  With the -grapheme option, nothing
+  is fused, because clusters in one stage's output may cross the pieces that
+  fusion depends on.  Return the first table; later passes are linked from it.
+*/
+  static PlainText3Table fuseStages(
+    ArrayList<PlainText3Data> stages, // first parsed rule for each stage
+    ArrayList<String> names)      // name for each stage, or null for first
+  {
+    PlainText3Data current;       // rules for the pass we are building
+    PlainText3Data fused;         // <current> and next stage, or null
+    int i;                        // index variable
+    PlainText3Table last;         // last pass in <result>
+    PlainText3Data later;         // rules for next stage, or null at end
+    PlainText3Table result;       // first pass
+    PlainText3Table table;        // one finished pass
+
+    current = stages.get(0);
+    last = result = null;
+    for (i = 1; i <= stages.size(); i ++)
+    {
+      later = (i < stages.size()) ? stages.get(i) : null;
+      fused = ((later == null) || graphemeFlag) ? null
+        : fuseRules(current, later, names.get(i));
+      if (fused != null)          // one pass does both stages
+      {
+        current = fused;
+        continue;
+      }
+      table = new PlainText3Table(current); // finish this pass
+      if (result == null)
+        result = table;
+      else
+        last.next = table;
+      last = table;
+      current = later;
+    }
+    return(result);
+
+  } // end of fuseStages() method
+
+
+/*
+  fuseText() method
+
+  Apply one rule from the first stage to some input, then the whole second
+  stage to that output.  Return the result, or null if the second stage made
+  no changes.
+*/
+  static String fuseText(
+    PlainText3Table firstTable,   // rules for first stage
+    int rule,                     // index of rule in <firstTable>
+    int[] input,                  // characters matched by <rule>
+    PlainText3Table laterTable)   // rules for later stage
+  {
+    StringBuffer middle;          // output from first stage
+    StringBuffer result;          // output from later stage
+
+    middle = new StringBuffer();
+    convertRule(firstTable, rule, input, 0, input.length, middle);
+    result = new StringBuffer();
+    if (convertTable(laterTable, utfParse16(middle.toString(), false, false),
+      result, null, null) == 0)
+    {
+      return(null);               // later stage doesn't change this output
+    }
+    return(result.toString());
+
+  } // end of fuseText() method
+
+
+/*
+  initialize() method
+
+  Set the engine's variables to their defaults.  Called by both console and
+  graphical applications before they look at command-line options.
+*/
+  static void initialize()
+  {
+    compileFlag = false;          // by default, interpret conversion table
+    graphemeFlag = false;         // by default, rules match code points
+    dataFile = DEFAULT_FILE;      // default file name for configuration data
+    dataFirst = null;             // no first parsed entry in conversion table
+    dataLast = null;              // no last parsed entry in conversion table
+    dataTable = null;             // no compiled conversion table yet
+    diagnostics = null;           // depends upon console or graphical mode
+    errorHook = null;             // nobody to tell about new errors
+    jbnDataFlag = jbnUserFlag = false; // disable all Java backslash notation
+    maxExpansion = maxOutput = 0; // by default, no limits on output
+    mswinFlag = System.getProperty("os.name").startsWith("Windows");
+    spillLimit = SPILL_LIMIT;     // default characters kept in memory
+    profile = null;               // by default, rules in file order
+    telemetry = null;             // by default, no throughput numbers
+    xmlDataFlag = xmlUserFlag = false; // disable all XML character references
+
+    /* Initialize number formatting styles. */
+
+    formatComma = NumberFormat.getInstance(); // current locale
+    formatComma.setGroupingUsed(true); // use commas or digit groups
+    classMap = null;              // classes are resolved when first needed
+    formatterMap = null;          // plug-ins are found when first needed
+
+  } // end of initialize() method
+
+
+/*
+  loadConfig() method
+
+  Load configuration data from a text file in the current working directory,
+  which is usually the same folder as the program's *.class files.  Should we
+  encounter an error, then print a message, but continue normal execution.
+  None of the file data is critical to the operation of this program.
+
+  Large files, such as those generated by PlainTextParse1, are parsed in blocks
+  of lines on all processors.  The results are added in their original order,
+  so the rules and error messages are the same as parsing one line at a time.
+*/
+  static void loadConfig()
+  {
+    int blocks;                   // number of blocks of lines to parse
+    ExecutorService executor;     // null or thread pool for parsing blocks
+    ArrayList<Future<ArrayList<Object>>> futures; // from each block
+    int i, k;                     // index variables
+    BufferedReader inputFile;     // input character stream from text file
+    String inputText;             // one input line from file
+    Object item;                  // one parsed rule or note
+    int lineNumber;               // line number of a note
+    ArrayList<String> lines;      // all input lines from file
+    Object[] note;                // line number, kind, text, input line
+    int[][] order;                // file order of rules after profile
+    PlainText3Table pass;         // one table in the chain of passes
+    ArrayList<Object> results;    // parsed rules and notes from one block
+    String stageName;             // name of current stage, or null for first
+    ArrayList<String> stageNames; // names of finished stages
+    ArrayList<PlainText3Data> stages; // first rule of each stage
+    PlainText3Table table;        // new compiled conversion table
+    int threads;                  // number of threads in pool
+
+    stageName = null;             // rules before any "stage" line
+    stageNames = new ArrayList<>();
+    stages = new ArrayList<>();   // no stages unless file declares them
+
+    /* Open and read lines from the configuration data file. */
+
+    try                           // catch specific and general I/O errors
+    {
+      inputFile = new BufferedReader(new InputStreamReader(new
+        FileInputStream(dataFile), "UTF-8")); // UTF-8 encoded text file
+      inputFile.mark(4);          // we may need to back up a few bytes
+      i = inputFile.read();       // read byte-order marker if present
+      if ((i >= 0) && (i != '\uFEFF')) // not end-of-file or byte-order mark?
+        inputFile.reset();        // is regular text, go back to beginning
+      lines = new ArrayList<>();
+      while ((inputText = inputFile.readLine()) != null)
+        lines.add(inputText);
+      inputFile.close();          // try to close input file
+
+      /* Parse blocks of lines in parallel, unless there is only one block or
+      one processor. */
+
+      blocks = (lines.size() + PARSE_BLOCK - 1) / PARSE_BLOCK;
+      executor = null;            // small files don't need threads
+      futures = new ArrayList<>();
+      threads = Math.min(blocks, Runtime.getRuntime().availableProcessors());
+      if (threads > 1)
+      {
+        executor = Executors.newFixedThreadPool(threads);
+        for (i = 0; i < lines.size(); i += PARSE_BLOCK)
+        {
+          final ArrayList<String> block = lines; // final copies
+          final int first = i;
+          final int count = Math.min(PARSE_BLOCK, (lines.size() - i));
+          futures.add(executor.submit(new Callable<ArrayList<Object>>() {
+            public ArrayList<Object> call() { return(parseBlock(block,
+              first, count)); } }));
+        }
+        executor.shutdown();      // no more work after this
+      }
+
+      /* Add the results in line order, exactly as if parsed one at a time:
+      rules, rules from built-in packs, stages, and error messages. */
+
+      for (i = 0; i < ((executor == null) ? 1 : blocks); i ++)
+      {
+        results = (executor == null) ? parseBlock(lines, 0, lines.size())
+          : futures.get(i).get();
+        for (k = 0; k < results.size(); k ++)
+        {
+          item = results.get(k);
+          if (item instanceof PlainText3Data) // a rule
+          {
+            addConversion((PlainText3Data) item);
+            continue;
+          }
+          note = (Object[]) item;
+          lineNumber = ((Integer) note[0]).intValue();
+          if (note[1].equals("error"))
+            putError(dataFile, lineNumber, ("Note: " + note[2]),
+              ("Configuration line " + lineNumber + ": " + note[3]));
+          else if (note[1].equals("message")) // from a quoted string
+            putError((String) note[2]);
+          else if (note[1].equals("include")) // rules from a pack
+            PlainText3Builtin.addPack((String) note[2], lineNumber);
+          else                    // "stage"
+          {
+            if (dataFirst != null) // finish previous stage, unless empty
+            {
+              stageNames.add(stageName);
+              stages.add(dataFirst);
+              dataFirst = dataLast = null;
+            }
+            stageName = (String) note[2];
+          }
+        }
+      }
+    }
+
+    catch (FileNotFoundException fnfe) // if the data file does not exist
+    {
+      if (dataFile.equals(DEFAULT_FILE)) // ignore our own data file
+        { /* do nothing, say nothing */ }
+      else                        // but warn if user gave file name
+      {
+        putError("Configuration data file not found: " + dataFile);
+        putError("in current working directory "
+          + System.getProperty("user.dir"));
+      }
+    }
+
+    catch (IOException ioe)       // for all other file I/O errors
+    {
+      putError("Unable to read configuration data file: " + dataFile);
+      putError("in current working directory "
+        + System.getProperty("user.dir"));
+      putError(ioe.getMessage());
+    }
+
+    catch (Exception e)           // interrupted or unexpected exception
+    {
+      putError("Unable to parse configuration data file: " + dataFile);
+      putError(e.toString());
+    }
+
+    /* Use our default data if the configuration file was not found. */
+
+    if ((dataFirst == null) && (stages.size() == 0)) // no conversions?
+    {
+      addConversion(0x2013, "-"); // En Dash
+      addConversion(0x2014, "--"); // Em Dash
+      addConversion(0x2018, "'"); // Left Single Quotation Mark
+      addConversion(0x2019, "'"); // Right Single Quotation Mark
+      addConversion(0x201A, "'"); // Single Low-9 Quotation Mark
+      addConversion(0x201C, "\""); // Left Double Quotation Mark
+      addConversion(0x201D, "\""); // Right Double Quotation Mark
+      addConversion(0x201E, "\""); // Double Low-9 Quotation Mark
+    }
+
+    /* Compile the linked list into a packed table of primitive arrays, then
+    release the list.  With a hundred thousand generated rules, the list costs
+    several objects per rule; the packed table costs a few arrays in total.
+    Stages are fused into as few tables (passes) as possible. */
+
+    if (stages.size() > 0)        // did the file declare stages?
+    {
+      if (dataFirst != null)      // finish last stage, unless empty
+      {
+        stageNames.add(stageName);
+        stages.add(dataFirst);
+      }
+      dataFirst = dataLast = null;
+      table = fuseStages(stages, stageNames);
+      if (profile != null)        // stages are kept in file order
+        putError("Note: rule profile " + profile.path
+          + " is not used with stages.");
+    }
+    else if (profile != null)     // busy rules first, from saved counts
+    {
+      order = new int[1][];       // original index of each rule
+      dataFirst = profile.reorder(dataFirst, order);
+      table = new PlainText3Table(dataFirst);
+      table.profileChecksum = profile.checksum;
+      table.ruleHits = profile.recordFlag ? new long[table.ruleCount] : null;
+      table.ruleOrder = order[0];
+    }
+    else
+      table = new PlainText3Table(dataFirst); // compile conversion table
+    dataFirst = dataLast = null;  // release linked list of parsed entries
+    for (pass = table; pass != null; pass = pass.next)
+    {
+      pass.graphemeFlag = graphemeFlag; // match code points or clusters
+      if (compileFlag && (graphemeFlag == false) // generate Java code?
+        && (pass.ruleHits == null)) // generated code doesn't count matches
+      {
+        pass.converter = compileTable(pass);
+      }
+    }
+    finishErrors();               // summarize any suppressed errors
+    dataTable = table;            // replace old table only when complete
+
+  } // end of loadConfig() method
+
+
+/*
+  parseBlock() method
+
+  Parse a block of lines from the configuration data file for loadConfig():
+  <count> lines starting at index <first> in <lines>.  Nothing shared is
+  changed here, so blocks can be parsed in parallel.  Return a list with one
+  entry for each line that isn't a comment: a PlainText3Data object for a
+  rule, or an array with the line number, "error" or "include" or "stage",
+  the message or name, and the input line.  Messages about the notation in
+  quoted strings come first for their line, as "message" with no input line.
+*/
+  static ArrayList<Object> parseBlock(ArrayList<String> lines, int first,
+    int count)
+  {
+    int action;                   // accept, delete, replace action code
+    Matcher builtinMatcher;       // matcher for <builtinPattern>
+    Pattern builtinPattern;       // regular expression for built-in pack
+    Matcher classMatcher;         // matcher for <classPattern>
+    Pattern classPattern;         // regular expression for character class
+    Matcher commentMatcher;       // matcher for <commentPattern>
+    Pattern commentPattern;       // regular expression for comments
+    Matcher customMatcher;        // matcher for <customPattern>
+    Pattern customPattern;        // regular expression for formatter name
+    PlainText3Data data;          // one parsed rule
+    Matcher equalMatcher;         // matcher for <equalPattern>
+    Pattern equalPattern;         // regular expression for equal sign
+    String errorMess;             // null or an error message
+    PlainText3Formatter formatter; // null or plug-in for "custom:name"
+    int i;                        // index variable
+    boolean includeFlag;          // true if line includes a built-in pack
+    int inputIndex;               // start of next character in <inputText>
+    String inputText;             // one input line from file
+    int itemCount;                // number of characters or strings found
+    Matcher keywordMatcher;       // matcher for <keywordPattern>
+    Pattern keywordPattern;       // regular expression for keyword verb
+    int lastLine;                 // index in <lines> after our block
+    PlainText3Class leftClass;    // null or character class for left side
+    int[] leftSide;               // common left side (range or UTF-32 array)
+    int lineNumber;               // line number of current input text
+    ArrayList<String> messages;   // messages from parsing quoted strings
+    Matcher numberMatcher;        // matcher for <numberPattern>
+    Pattern numberPattern;        // regular expression for Unicode number
+    boolean rangeFlag;            // true if <leftSide) is low-high range
+    Matcher rangeMatcher;         // matcher for <rangePattern>
+    Pattern rangePattern;         // regular expression for low-high range
+    ArrayList<Object> results;    // parsed rules and notes, in order
+    String rightSide;             // replace right side (standard Java string)
+    Matcher spaceMatcher;         // matcher for <spacePattern>
+    Pattern spacePattern;         // regular expression for required space
+    boolean stageFlag;            // true if line starts a new stage
+    Matcher stringMatcher;        // matcher for <stringPattern>
+    Pattern stringPattern;        // regular expression for quoted string
+    int[] textArray;              // parsing array of UTF-32 characters
+
+    /* Regular expressions can be long and complicated ways of describing the
+    obvious.  Be careful when changing them!  The patterns below for character
+    numbers and ranges allow Unicode U+nnnn notation, unsigned decimal numbers,
+    and standard 0xFFFF hexadecimal notation. */
+
+    classPattern = Pattern.compile(
+      "\\G\\s*(?:(?:\\\\([Pp])\\{([^{}]+)\\})|(?:((?i:block|script))=([-0-9A-Za-z_]+)))");
+    builtinPattern = Pattern.compile("\\G\\s*builtin:([A-Za-z]+)");
+    commentPattern = Pattern.compile("\\G\\s*(#.*)?$");
+    customPattern = Pattern.compile("\\G:([0-9A-Za-z][-.0-9A-Za-z_]*)");
+    equalPattern = Pattern.compile("\\G\\s*=");
+    keywordPattern = Pattern.compile("\\G\\s*([A-Za-z][0-9A-Za-z]+)");
+                                  // must not match the "U" in "U+nnnn"
+    lastLine = first + count;
+    lineNumber = first;           // index in <lines>, then line number
+    messages = new ArrayList<>(); // emptied after each line
+    numberPattern = Pattern.compile(
+      "\\G\\s*(?:(?:(\\d+)(?![Xx]))|(?:(?:(?:[Uu]\\+)|(?:0[Xx]))([0-9A-Fa-f]+)))");
+    rangePattern = Pattern.compile(
+      "\\G\\s*(?:(?:(\\d+)(?![Xx]))|(?:(?:(?:[Uu]\\+)|(?:0[Xx]))([0-9A-Fa-f]+)))\\s*(?:(?:\\.\\.)|(?:\\:))\\s*(?:(?:(\\d+)(?![Xx]))|(?:(?:(?:[Uu]\\+)|(?:0[Xx]))([0-9A-Fa-f]+)))");
+    spacePattern = Pattern.compile("\\G\\s+");
+    results = new ArrayList<>();  // nothing parsed yet
+    stringPattern = Pattern.compile(jbnDataFlag // quoted quotes are awkward
+      ? "\\G\\s*\"((?:(?:\\\\.)|[^\"])*)\"" // allow Java backslash quotes
+      : "\\G\\s*\"([^\"]*)\"");   // no escape sequence with quotation marks
+
+    while (lineNumber < lastLine)
+    {
+      inputText = lines.get(lineNumber); // before counting it
+      action = 0;                 // no accept, delete, replace action code
+      builtinMatcher = builtinPattern.matcher(inputText);
+      classMatcher = classPattern.matcher(inputText);
+      commentMatcher = commentPattern.matcher(inputText);
+      customMatcher = customPattern.matcher(inputText);
+      equalMatcher = equalPattern.matcher(inputText);
+      errorMess = null;           // no errors found yet on this line
+      formatter = null;           // no plug-in formatter for this rule
+      includeFlag = false;        // most lines are rules
+      inputIndex = 0;             // start parsing at beginning of line
+      keywordMatcher = keywordPattern.matcher(inputText);
+      leftClass = null;           // no character class yet
+      leftSide = null;            // just to keep compiler happy
+      lineNumber ++;              // current line number in input file
+      numberMatcher = numberPattern.matcher(inputText);
+      rangeFlag = false;          // no low-high character range yet
+      rangeMatcher = rangePattern.matcher(inputText);
+      rightSide = null;           // no replacement string yet
+      spaceMatcher = spacePattern.matcher(inputText);
+      stageFlag = false;          // most lines are rules
+      stringMatcher = stringPattern.matcher(inputText);
+
+      /* An input line can be a comment with no command keyword. */
+
+      if (commentMatcher.find(inputIndex))
+        continue;                 // restart from beginning of <while> loop
+
+      /* The command keyword or verb is the first word on each line. */
+
+      if (keywordMatcher.find(inputIndex))
+      {
+        inputIndex = keywordMatcher.end(); // reposition input after keyword
+        String keyword = keywordMatcher.group(1).toLowerCase();
+        if (keyword.equals("accept"))
+          action = ACTION_ACCEPT;
+        else if (keyword.equals("delete"))
+        {
+          action = ACTION_REPLACE; // delete is replace with empty string
+          rightSide = "";
+        }
+        else if (keyword.equals("include"))
+          includeFlag = true;     // rules from a built-in pack go here
+        else if (keyword.equals("replace"))
+          action = ACTION_REPLACE; // assume standard replace, no specials
+        else if (keyword.equals("stage"))
+          stageFlag = true;       // later rules apply to this rule's output
+        else
+          errorMess = "unknown command keyword or verb: " + keyword;
+
+        /* All command keywords have one or more parameters, with white space
+        (blanks or tabs) after the keyword and before the parameters. */
+
+        if (errorMess != null)
+          { /* do nothing */ }
+        else if (spaceMatcher.find(inputIndex)) // required white space
+          inputIndex = spaceMatcher.end();
+        else
+          errorMess = "missing space after command keyword or verb";
+      }
+      else
+        errorMess = "missing command keyword or verb";
+
+      /* The left side is the same for all keywords: one or more Unicode
+      character numbers or quoted strings, or one low-high range.  A "stage"
+      line has only a quoted name, and an "include" line has only the name of
+      a built-in pack. */
+
+      if (errorMess != null)
+        { /* do nothing */ }
+      else if (includeFlag)
+      {
+        if (builtinMatcher.find(inputIndex))
+        {
+          inputIndex = builtinMatcher.end();
+          if (Arrays.binarySearch(PlainText3Builtin.NAMES,
+            builtinMatcher.group(1).toLowerCase()) < 0)
+          {
+            errorMess = "unknown built-in rule pack: "
+              + builtinMatcher.group(1) + " (known packs are "
+              + Arrays.asList(PlainText3Builtin.NAMES) + ")";
+          }
+        }
+        else
+          errorMess = "missing builtin:name for include";
+      }
+      else if (stageFlag)
+      {
+        if (stringMatcher.find(inputIndex))
+        {
+          inputIndex = stringMatcher.end();
+        }
+        else
+          errorMess = "missing quoted name for stage";
+      }
+      else
+      {
+        /* First look for a character class, which is resolved now into a
+        set of characters.  The rule is stored as a range from the lowest to
+        the highest character in the class. */
+
+        if (classMatcher.find(inputIndex)) // character class?
+        {
+          inputIndex = classMatcher.end(); // reposition input after class
+          if (classMatcher.group(1) != null) // \p{...} or \P{...}
+            leftClass = findClass(classMatcher.group(1),
+              classMatcher.group(2));
+          else                    // block=name or script=name
+            leftClass = findClass(classMatcher.group(3),
+              classMatcher.group(4));
+
+          if (leftClass == null)
+            errorMess = "unknown character class: "
+              + classMatcher.group().trim();
+          else if (leftClass.count == 0)
+            errorMess = "character class is empty: " + leftClass.name;
+          else
+          {
+            leftSide = new int[] { leftClass.first, leftClass.last };
+            rangeFlag = true;     // a range, filtered by the class
+          }
+        }
+
+        /* Then look for a low-high range.  We accept all character numbers
+        here, even if they overlap the reserved range of surrogate pairs. */
+
+        else if (rangeMatcher.find(inputIndex)) // low-high range?
+        {
+          int low, high;          // lower and upper limits of range
+
+          inputIndex = rangeMatcher.end(); // reposition input after range
+
+          try                     // low part may have too many digits
+          {
+            if ((rangeMatcher.group(1) != null) // decimal capture group
+              && (rangeMatcher.group(1).length() > 0))
+            {
+              low = Integer.parseInt(rangeMatcher.group(1)); // decimal
+            }
+            else
+              low = Integer.parseInt(rangeMatcher.group(2), 16); // hex
+          }
+          catch (NumberFormatException nfe) { low = UTF32_ERROR; }
+
+          try                     // high part may have too many digits
+          {
+            if ((rangeMatcher.group(3) != null) // decimal capture group
+              && (rangeMatcher.group(3).length() > 0))
+            {
+              high = Integer.parseInt(rangeMatcher.group(3)); // decimal
+            }
+            else
+              high = Integer.parseInt(rangeMatcher.group(4), 16); // hex
+          }
+          catch (NumberFormatException nfe) { high = UTF32_ERROR; }
+
+          if ((low >= 0) && (low <= UTF32_MAX) && (low <= high)
+            && (high >= 0) && (high <= UTF32_MAX))
+          {
+            leftSide = new int[] { low, high }; // array with two elements
+            rangeFlag = true;     // and those elements have special meaning
+          }
+          else
+            errorMess = "invalid low-high range from "
+              + formatUnicodeNumber(low) + " to "
+              + formatUnicodeNumber(high);
+        }
+
+        /* Look for one or more Unicode character numbers or strings. */
+
+        else
+        {
+          itemCount = 0;          // no characters or strings found yet
+          textArray = new int[0]; // append characters or strings here
+          while (errorMess == null)
+          {
+            /* A leading space is required on second and later items. */
+
+            if (itemCount > 0)
+            {
+              if (spaceMatcher.find(inputIndex))
+                inputIndex = spaceMatcher.end();
+              else                // could be comment or equal sign
+                break;            // exit early from <while> loop
+            }
+
+            /* Look for a character number or a string. */
+
+            if (numberMatcher.find(inputIndex)) // character number
+            {
+              inputIndex = numberMatcher.end();
+              itemCount ++;       // one more character number found
+
+              try                 // number may have too many digits
+              {
+                if ((numberMatcher.group(1) != null) // decimal capture group
+                  && (numberMatcher.group(1).length() > 0))
+                {
+                  i = Integer.parseInt(numberMatcher.group(1)); // decimal
+                }
+                else
+                  i = Integer.parseInt(numberMatcher.group(2), 16); // hex
+              }
+              catch (NumberFormatException nfe) { i = UTF32_ERROR; }
+
+              if ((i < 0) || (i > UTF32_MAX))
+              {
+                errorMess = "maximum Unicode character number is "
+                  + formatUnicodeNumber(UTF32_MAX);
+              }
+              else if (((i >= UTF16_HIGH_BEGIN) && (i <= UTF16_HIGH_END))
+                || ((i >= UTF16_LOW_BEGIN) && (i <= UTF16_LOW_END)))
+              {
+                errorMess = "UTF-16 surrogate characters are reserved: "
+                  + formatUnicodeNumber(i);
+              }
+              else                // valid Unicode character number
+                textArray = appendArray(textArray, new int[] { i });
+            }
+            else if (stringMatcher.find(inputIndex)) // quoted string
+            {
+              inputIndex = stringMatcher.end();
+              itemCount ++;       // one more string found
+              textArray = appendArray(textArray,
+                utfParse16(stringMatcher.group(1), jbnDataFlag,
+                xmlDataFlag, messages)); // accept any string, even empty
+            }
+            else                  // could be comment or equal sign
+              break;              // exit early from <while> loop
+          }
+
+          /* Did we find at least one character or non-empty string? */
+
+          if (errorMess != null)
+            { /* do nothing */ }
+          else if (itemCount == 0) // find any characters or strings?
+            errorMess = "missing character number, range, or quoted string";
+          else if (textArray.length == 0)
+            errorMess = "first parameter or left side may not be empty";
+          else
+            leftSide = textArray; // non-empty array of UTF-32 characters
+        }
+      }
+
+      /* The "accept" and "delete" keywords are complete.  More work needs
+      to be done for the right-hand side of the "replace" keyword. */
+
+      if (errorMess != null)
+        { /* do nothing */ }
+      else if ((action == ACTION_REPLACE) && (rightSide == null))
+      {
+        /* The "replace" keyword also has an equal sign followed by Unicode
+        character numbers or quoted strings for the right side.  Much of the
+        code is a literal repeat from the left side.  To make copy and paste
+        easier, the code is deliberately structured to have the same indent
+        levels. */
+
+        if (equalMatcher.find(inputIndex))
+        {
+          inputIndex = equalMatcher.end();
+          String special = null; // no special pre-defined action yet
+
+          if (keywordMatcher.find(inputIndex))
+          {
+            /* The right side of a "replace" can have a special word for a
+            pre-defined action such as XML character references, optionally
+            followed by a string, which may or may not get used when that
+            action is performed. */
+
+            inputIndex = keywordMatcher.end();
+            special = keywordMatcher.group(1).toLowerCase();
+            if (special.equals("custom"))
+            {
+              /* "custom" alone is the built-in placeholder.  With a name,
+              as in "custom:name", it selects a plug-in formatter, which is
+              found now so that conversion doesn't look up names. */
+
+              action = ACTION_CUSTOM;
+              if (customMatcher.find(inputIndex))
+              {
+                inputIndex = customMatcher.end();
+                formatter = findFormatter(customMatcher.group(1));
+                if (formatter == null)
+                  errorMess = "unknown custom formatter: "
+                    + customMatcher.group(1);
+              }
+            }
+            else if (special.equals("decnum"))
+              action = ACTION_DECNUM;
+            else if (special.equals("fold"))
+              action = ACTION_FOLD;
+            else if (special.equals("hexnum"))
+              action = ACTION_HEXNUM;
+            else if (special.equals("java16"))
+              action = ACTION_JAVA16;
+            else if (special.equals("octnum"))
+              action = ACTION_OCTNUM;
+            else if (special.equals("uniname"))
+              action = ACTION_UNINAME;
+            else if (special.equals("uninum"))
+              action = ACTION_UNINUM;
+            else if (special.equals("xmldec"))
+              action = ACTION_XMLDEC;
+            else if (special.equals("xmlhex"))
+              action = ACTION_XMLHEX;
+            else
+              errorMess = "unknown replace special action: " + special;
+          }
+
+          /* Look for one or more Unicode character numbers or strings. */
+
+          itemCount = 0;          // no characters or strings found yet
+          textArray = new int[0]; // append characters or strings here
+          while (errorMess == null)
+          {
+            /* A leading space is required on second and later items. */
+
+            if ((itemCount > 0) || (special != null))
+            {
+              if (spaceMatcher.find(inputIndex))
+                inputIndex = spaceMatcher.end();
+              else                // could be comment
+                break;            // exit early from <while> loop
+            }
+
+            /* Look for a character number or a string. */
+
+            if (numberMatcher.find(inputIndex)) // character number
+            {
+              inputIndex = numberMatcher.end();
+              itemCount ++;       // one more character number found
+
+              try                 // number may have too many digits
+              {
+                if ((numberMatcher.group(1) != null) // decimal capture group
+                  && (numberMatcher.group(1).length() > 0))
+                {
+                  i = Integer.parseInt(numberMatcher.group(1)); // decimal
+                }
+                else
+                  i = Integer.parseInt(numberMatcher.group(2), 16); // hex
+              }
+              catch (NumberFormatException nfe) { i = UTF32_ERROR; }
+
+              if ((i < 0) || (i > UTF32_MAX))
+              {
+                errorMess = "maximum Unicode character number is "
+                  + formatUnicodeNumber(UTF32_MAX);
+              }
+              else if (((i >= UTF16_HIGH_BEGIN) && (i <= UTF16_HIGH_END))
+                || ((i >= UTF16_LOW_BEGIN) && (i <= UTF16_LOW_END)))
+              {
+                errorMess = "UTF-16 surrogate characters are reserved: "
+                  + formatUnicodeNumber(i);
+              }
+              else                // valid Unicode character number
+                textArray = appendArray(textArray, new int[] { i });
+            }
+            else if (stringMatcher.find(inputIndex)) // quoted string
+            {
+              inputIndex = stringMatcher.end();
+              itemCount ++;       // one more string found
+              textArray = appendArray(textArray,
+                utfParse16(stringMatcher.group(1), jbnDataFlag,
+                xmlDataFlag, messages)); // accept any string, even empty
+            }
+            else                  // could be comment or special action
+              break;              // exit early from <while> loop
+          }
+
+          /* Did we find at least one character number or string? */
+
+          if (errorMess != null)
+            { /* do nothing */ }
+          else if (itemCount > 0) // find any characters or strings?
+            rightSide = utfCreate16(textArray); // to UTF-16 string
+          else if (special != null) // was there a special action?
+            { /* do nothing */ }
+          else
+            errorMess = "missing character number or quoted string";
+        }
+        else
+          errorMess = "syntax error or unexpected input: "
+            + inputText.substring(inputIndex);
+      }
+
+      /* Allow comments at the end of each line. */
+
+      if (errorMess != null)
+        { /* do nothing */ }
+      else if (commentMatcher.find(inputIndex))
+        inputIndex = commentMatcher.end(); // always goes to end of line
+      else
+        errorMess = "syntax error or unexpected input: "
+          + inputText.substring(inputIndex);
+
+      /* Add this line's result to our list.  Rules, built-in packs, stages,
+      and error messages are all kept in order for loadConfig(). */
+
+      for (i = 0; i < messages.size(); i ++)
+        results.add(new Object[] { Integer.valueOf(lineNumber), "message",
+          messages.get(i), null });
+      messages.clear();
+
+      if (errorMess != null)
+        results.add(new Object[] { Integer.valueOf(lineNumber), "error",
+          errorMess, inputText });
+      else if (includeFlag)       // rules from a pack
+        results.add(new Object[] { Integer.valueOf(lineNumber), "include",
+          builtinMatcher.group(1), inputText });
+      else if (stageFlag)         // later rules go in a new stage
+        results.add(new Object[] { Integer.valueOf(lineNumber), "stage",
+          stringMatcher.group(1), inputText });
+      else                        // a rule
+      {
+        data = new PlainText3Data(); // linked into list by loadConfig()
+        data.action = action;
+        data.formatter = formatter; // null unless "custom:name"
+        data.isRange = rangeFlag;
+        data.left = leftSide;
+        data.leftClass = leftClass; // null unless character class
+        data.line = lineNumber;
+        data.right = rightSide;
+        results.add(data);
+        if (false)                // helpful print statements for debugging
+        {
+          System.err.println();
+          System.err.println("line " + lineNumber + ": " + inputText);
+          System.err.println(" action = " + action + " range = "
+            + rangeFlag);
+          System.err.print(" left side ");
+          if (leftSide == null)
+            System.err.println("null");
+          else
+          {
+            System.err.print("length " + leftSide.length + " =");
+            for (i = 0; i < leftSide.length; i ++)
+              System.err.print(" 0x" + Integer.toHexString(leftSide[i]));
+            System.err.println();
+          }
+          System.err.print(" right side ");
+          if (rightSide == null)
+            System.err.println("null");
+          else
+          {
+            System.err.print("length " + rightSide.length() + " =");
+            for (i = 0; i < rightSide.length(); i ++)
+              System.err.print(" 0x"
+                + Integer.toHexString(rightSide.charAt(i)));
+            System.err.println();
+          }
+        }                         // end of debugging print statements
+      }
+    }
+    return(results);
+
+  } // end of parseBlock() method
+
+
+/*
+  parseOption() method
+
+  Check one command-line parameter for the options shared by console and
+  graphical applications: the configuration data file, Java backslash or XML
+  notation, compiling the conversion table, output limits, and telemetry.
+  <word> is the lowercase
+  version of <arg>.  Return true if the option was recognized.
+*/
+  static boolean parseOption(String word, String arg)
+  {
+    long size;                    // number from a size option
+
+    if (word.startsWith("-d") || (mswinFlag && word.startsWith("/d")))
+      dataFile = arg.substring(2); // accept anything for data file name
+
+    else if (word.equals("-compile") || (mswinFlag && word.equals("/compile")))
+      compileFlag = true;         // generate Java code for conversion table
+
+    else if (word.equals("-grapheme")
+      || (mswinFlag && word.equals("/grapheme")))
+    {
+      graphemeFlag = true;        // rules match whole grapheme clusters
+    }
+
+    else if (word.equals("-j") || (mswinFlag && word.equals("/j"))
+      || word.equals("-j1") || (mswinFlag && word.equals("/j1")))
+    {
+      jbnDataFlag = true;         // enable Java backslash in our data file
+      jbnUserFlag = false;        // disable Java backslash in user input/text
+    }
+    else if (word.equals("-j0") || (mswinFlag && word.equals("/j0")))
+      jbnDataFlag = jbnUserFlag = false; // disable all Java backslash
+    else if (word.equals("-j2") || (mswinFlag && word.equals("/j2")))
+    {
+      /* Enable Java backslash notation in the user's input (JTextArea).  This
+      command-line option is hidden because (1) it is not stable, and (2) needs
+      to be combined with rules that convert special text back into character
+      references. */
+
+      jbnDataFlag = false;        // disable Java backslash in our data file
+      jbnUserFlag = true;         // enable Java backslash in user input/text
+    }
+    else if (word.equals("-j3") || (mswinFlag && word.equals("/j3")))
+      jbnDataFlag = jbnUserFlag = true; // enable all Java backslash
+
+    else if ((word.startsWith("-maxexpand")
+      || (mswinFlag && word.startsWith("/maxexpand")))
+      && ((size = parseSize(word.substring(10))) > 0))
+    {
+      maxExpansion = size;        // maximum output per input character
+    }
+    else if ((word.startsWith("-maxoutput")
+      || (mswinFlag && word.startsWith("/maxoutput")))
+      && ((size = parseSize(word.substring(10))) > 0))
+    {
+      maxOutput = size;           // maximum output characters
+    }
+
+    else if (word.equals("-m") || (mswinFlag && word.equals("/m"))
+      || word.equals("-m1") || (mswinFlag && word.equals("/m1")))
+    {
+      xmlDataFlag = true;         // enable XML characters in our data file
+      xmlUserFlag = false;        // disable XML characters in user input/text
+    }
+    else if (word.equals("-m0") || (mswinFlag && word.equals("/m0")))
+      xmlDataFlag = xmlUserFlag = false; // disable all XML characters
+    else if (word.equals("-m2") || (mswinFlag && word.equals("/m2")))
+    {
+      /* Enable XML character references in the user's input.  This option is
+      hidden for the same reasons as Java backslash notation above. */
+
+      xmlDataFlag = false;        // disable XML characters in our data file
+      xmlUserFlag = true;         // enable XML characters in user input/text
+    }
+    else if (word.equals("-m3") || (mswinFlag && word.equals("/m3")))
+      xmlDataFlag = xmlUserFlag = true; // enable all XML characters
+
+    else if (word.startsWith("-profile")
+      || (mswinFlag && word.startsWith("/profile")))
+    {
+      profile = new PlainText3Profile(arg.substring(8), true); // count
+    }
+    else if (word.startsWith("-reorder")
+      || (mswinFlag && word.startsWith("/reorder")))
+    {
+      profile = new PlainText3Profile(arg.substring(8), false); // read only
+    }
+
+    else if ((word.startsWith("-spill") || (mswinFlag
+      && word.startsWith("/spill"))) && ((size = parseSize(word.substring(6)))
+      > 0))
+    {
+      spillLimit = size;          // characters in memory before file
+    }
+
+    else if (word.startsWith("-telemetry")
+      || (mswinFlag && word.startsWith("/telemetry")))
+    {
+      telemetry = new PlainText3Telemetry(arg.substring(10)); // file name
+    }
+
+    else                          // not one of our options
+      return(false);
+    return(true);
+
+  } // end of parseOption() method
+
+
+/*
+  parseSize() method
+
+  Parse a positive number from a command-line option, with an optional suffix
+  of "k", "m", or "g" for thousands, millions, or billions.  Return -1 if the
+  number is not valid.
+*/
+  static long parseSize(String text)
+  {
+    long multiplier;              // from suffix, if any
+    String number;                // text without suffix
+
+    multiplier = 1;               // assume no suffix
+    number = text.toLowerCase();
+    if (number.endsWith("k")) multiplier = 1000L;
+    else if (number.endsWith("m")) multiplier = 1000000L;
+    else if (number.endsWith("g")) multiplier = 1000000000L;
+    if (multiplier > 1)
+      number = number.substring(0, (number.length() - 1));
+    try { return(Long.parseLong(number) * multiplier); }
+    catch (NumberFormatException nfe) { return(-1); }
+
+  } // end of parseSize() method
+
+
+/*
+  prettyPlural() method
+
+  Return a string that formats a number and appends a lowercase "s" to a word
+  if the number is plural (not one).  Also provide a more general method that
+  accepts both a singular word and a plural word.
+*/
+  static String prettyPlural(
+    long number,                  // number to be formatted
+    String singular)              // singular word
+  {
+    return(prettyPlural(number, singular, (singular + "s")));
+  }
+
+  static String prettyPlural(
+    long number,                  // number to be formatted
+    String singular,              // singular word
+    String plural)                // plural word
+  {
+    final String[] names = {"zero", "one", "two"};
+                                  // names for small counting numbers
+    String result;                // our converted result
+
+    if ((number >= 0) && (number < names.length))
+      result = names[(int) number]; // use names for small counting numbers
+    else
+      result = formatComma.format(number); // format number with digit grouping
+
+    if (number == 1)              // is the number singular or plural?
+      result += " " + singular;   // append singular word
+    else
+      result += " " + plural;     // append plural word
+
+    return(result);               // give caller our converted string
+
+  } // end of prettyPlural() method
+
+
+/*
+  putError() method
+
+  Add a complete line of text to the error messages.  We add a newline
+  character, not the caller.  Messages may come from any thread, and are
+  collected by <diagnostics>.  The graphical interface sets <errorHook> to
+  show them in batches; console applications write them to standard error.
+*/
+  static void putError(String text)
+  {
+    putError(null, 0, text, null);
+  }
+
+  static void putError(
+    String file,                  // null or name of file with the error
+    int line,                     // line number in <file>, or zero
+    String text,                  // message text
+    String extra)                 // null or second line of text for user
+  {
+    if (diagnostics == null)      // called before main() chose a mode
+    {
+      System.err.println(text);
+      if (extra != null) System.err.println(extra);
+    }
+    else if (diagnostics.add(file, line, text, extra) && (errorHook != null))
+      errorHook.run();            // first message in a new batch
+  } // end of putError() method
+
+
+/*
+  utfAppend32() method
+
+  Append one UTF-32 character to a standard Java string buffer (UTF-16).  A
+  StringBuffer object maintains its own length, so we don't need to tell the
+  caller whether we use one or two "code units" (surrogate pair).
+*/
+  static void utfAppend32(
+    StringBuffer buffer,          // standard Java string buffer (UTF-16)
+    int ch)                       // Unicode character number (code point)
+  {
+    int offset;                   // offset from start of extended Unicode
+
+    if ((ch < 0) || (ch > UTF32_MAX)
+      || ((ch >= UTF16_HIGH_BEGIN) && (ch <= UTF16_HIGH_END))
+      || ((ch >= UTF16_LOW_BEGIN) && (ch <= UTF16_LOW_END)))
+    {
+      buffer.append(REPLACE_CHAR); // not a valid Unicode character number
+      System.err.println(
+        "Invalid UTF-32 character number in utfAppend32() method: 0x"
+        + Integer.toHexString(ch));
+    }
+    else if (ch <= UTF16_MAX)     // standard 16-bit Unicode character (BMP)
+    {
+      buffer.append((char) ch);   // no conversion necessary
+    }
+    else                          // extended Unicode character
+    {                             // create high, low surrogate pair
+      offset = ch - UTF32_OFFSET; // offset from start of extended Unicode
+      buffer.append((char) (UTF16_HIGH_BEGIN + (offset >> UTF16_SHIFT)));
+      buffer.append((char) (UTF16_LOW_BEGIN + (offset & UTF16_MASK)));
+    }
+  } // end of utfAppend32() method
+
+
+/*
+  utfCreate16() method
+
+  Create a standard Java string (UTF-16) from an array of UTF-32 character
+  numbers (code points).
+*/
+  static String utfCreate16(
+    int[] array)                  // UTF-32 character numbers (code points)
+  {
+    StringBuffer buffer;          // temporary to collect UTF-16 characters
+    int i;                        // index variable
+
+    buffer = new StringBuffer();  // convert size varies UTF-32 to UTF-16
+    for (i = 0; i < array.length; i ++) // for each UTF-32 integer given
+    {
+      utfAppend32(buffer, array[i]); // append UTF-32 to buffer in UTF-16
+    }
+    return(buffer.toString());    // give caller our converted string
+
+  } // end of utfCreate16() method
+
+
+/*
+  utfParse16() method
+
+  Convert a standard Java string (UTF-16 encoded) to an array of UTF-32
+  character numbers.  As an option, parse XML character references.  All of
+  the HTML5 named character references are supported, including the standard
+  five XML entity references:
+
+      &amp;   &   ampersand (U+0026)
+      &apos;  '   apostrophe (U+0027)
+      &gt;    >   greater-than sign (U+003E)
+      &lt;    <   less-than sign (U+003C)
+      &quot;  "   quotation mark (U+0022)
+
+  Names are found by walking a trie (see the PlainText3Entity class) one input
+  character at a time, so there is no searching and no objects are created for
+  each reference.  The longest matching name wins, as in HTML5, which allows
+  legacy names without the final semicolon (&copy and &nbsp).
+
+  Numeric XML character references are supported in decimal and hexadecimal:
+  &#8225; and &#x2021; are both the double dagger symbol.  See the following
+  web page:
+
+      http://www.w3.org/TR/REC-xml/#sec-references
+
+  The input string is usually in plain text (ASCII), but this is not assumed or
+  required.  Invalid character references are ignored (copied as regular text).
+  Messages about them go to putError(), or are added to <messages> if that is
+  not null, so that parseBlock() can keep them in line order.
+*/
+  static int[] utfParse16(
+    String input,                 // standard Java string in UTF-16
+    boolean jbnFlag,              // true if we parse Java backslash notation
+    boolean xmlFlag)              // true if we parse XML character references
+  {
+    return(utfParse16(input, jbnFlag, xmlFlag, null));
+  }
+
+  static int[] utfParse16(
+    String input,                 // standard Java string in UTF-16
+    boolean jbnFlag,              // true if we parse Java backslash notation
+    boolean xmlFlag,              // true if we parse XML character references
+    ArrayList<String> messages)   // null or list for error messages
+  {
+    char ch;                      // one character from input string
+    int[] copyArray;              // temporary for UTF-32 character numbers
+    int copyCount;                // number of UTF-32 characters in array
+    int digits;                   // number of decimal/hex/octal digits found
+    int[] entityChars;            // characters from named entity reference
+    char[] inputChars;            // copy of input string for entity matching
+    int extraChar;                // second character from entity reference
+    boolean hexFlag;              // true if hexadecimal number, false decimal
+    int i;                        // index variable
+    int inputChar;                // current input or parsed character
+    int inputLength;              // number of characters in UTF-16 input
+    int inputNext;                // index of next UTF-16 input character
+    int inputUsed;                // number of input characters consumed
+    int[] result;                 // truncated (optimal size) UTF-32 array
+    int savedChar;                // high surrogate in pair
+    int value;                    // current numeric value during parsing
+
+    inputLength = input.length(); // first, get size of UTF-16 input string
+    copyArray = new int[inputLength]; // always big enough for UTF-32 result
+    copyCount = 0;                // UTF-32 character array is empty
+    entityChars = new int[2];     // reused for all named references
+    inputChars = xmlFlag ? input.toCharArray() : null; // faster than charAt()
+    inputNext = 0;                // start at beginning of input string
+    savedChar = -1;               // no pending high surrogate in pair
+
+    while (inputNext < inputLength) // do the whole input string
+    {
+      extraChar = -1;             // most notations have only one character
+      inputChar = input.charAt(inputNext); // get UTF-16 character from input
+      inputUsed = 1;              // assume exactly one character consumed
+
+      /* The sections below parse other notations that represent characters.
+      They must either (1) do nothing and accept the defaults above, or (2)
+      put exactly one character in <inputChar> and consume one or more input
+      characters by setting <inputUsed> to a positive value.  A few HTML5
+      entity references also put a second character in <extraChar>.  There
+      should be no conflicts between the syntax of each notation. */
+
+      /* XML character references */
+
+      if ((inputChar == '&') && xmlFlag) // start of XML character reference?
+      {
+        if ((i = PlainText3Entity.match(inputChars, (inputNext + 1),
+          entityChars)) > 0)      // named character reference?
+        {
+          inputChar = entityChars[0]; // first character from reference
+          extraChar = entityChars[1]; // usually -1 (none)
+          inputUsed = i - inputNext;
+        }
+        else if (input.startsWith("&#", inputNext)) // numeric char reference?
+        {
+          digits = 0;             // no digits found yet
+          hexFlag = false;        // assume number is in decimal
+          i = inputNext + 2;      // index of first numeric digit
+          value = 0;              // start with zero for numeric value
+          while ((digits >= 0) && (i < inputLength) && (value <= UTF32_MAX))
+                                  // loop through chars in numeric reference
+          {
+            ch = input.charAt(i ++); // get one character from input
+            if ((digits == 0) && (!hexFlag) && ((ch == 'X') || (ch == 'x')))
+            {
+              hexFlag = true;     // now parsing in hexadecimal
+            }
+            else if ((!hexFlag) && (ch >= '0') && (ch <= '9')) // decimal?
+            {
+              digits ++;          // one more digit found
+              value = (value * 10) + (ch - '0'); // add to decimal value
+            }
+            else if (hexFlag && (ch >= '0') && (ch <= '9')) // hex digit?
+            {
+              digits ++;          // one more digit found
+              value = (value << 4) + (ch - '0'); // add to hex value
+            }
+            else if (hexFlag && (ch >= 'A') && (ch <= 'F')) // hex digit?
+            {
+              digits ++;          // one more digit found
+              value = (value << 4) + (ch - 'A' + 10); // add to hex value
+            }
+            else if (hexFlag && (ch >= 'a') && (ch <= 'f')) // hex digit?
+            {
+              digits ++;          // one more digit found
+              value = (value << 4) + (ch - 'a' + 10); // add to hex value
+            }
+            else if ((digits > 0) && (ch == ';')) // end of numeric reference?
+            {
+              digits = -1;        // use <digits> to flag successful finish
+            }
+            else                  // not an acceptable character
+              break;              // exit early from <while> loop
+          }
+
+          /* The number of digits gets set to negative if we properly finished
+          the character reference. */
+
+          if ((digits < 0) && (value >= 0) && (value <= UTF32_MAX))
+          {
+            inputChar = value;    // yes, save numeric reference
+            inputUsed = i - inputNext;
+          }
+          else                    // bad numeric syntax or illegal value
+            utfParseError(messages, "Invalid XML numeric character reference: "
+              + utfParseSubstring(input, inputNext));
+        }
+        else                      // "&" followed by something unknown
+          utfParseError(messages, "Unknown XML character entity reference: "
+            + utfParseSubstring(input, inputNext));
+      }
+
+      /* Java backslash notation.  There are a confusing number of backslashes,
+      because this is Java source code representing Java source code. */
+
+      else if ((inputChar == '\\') && jbnFlag) // start of Java backslash?
+      {
+        ch = (inputNext + 1 < inputLength) ? input.charAt(inputNext + 1) : ' ';
+        switch (ch)               // one character after the backslash
+        {
+          case '"':  value = '"';  break; // Java double quote
+          case '\'': value = '\''; break; // Java single quote
+          case '\\': value = '\\'; break; // Java backslash
+          case 'b':  value = '\b'; break; // Java backspace
+          case 'f':  value = '\f'; break; // Java form feed
+          case 'n':  value = '\n'; break; // Java newline
+          case 'r':  value = '\r'; break; // Java carriage return
+          case 't':  value = '\t'; break; // Java horizontal tab
+          default:   value = -1;   break; // longer or unknown notation
+        }
+        if (value >= 0)           // one of the simple escape sequences?
+        {
+          inputChar = value;      // replace backslash with escaped character
+          inputUsed = 2;          // consume backslash and one character
+        }
+        else if (input.startsWith("\\uu", inputNext))
+        {
+          inputChar = '\\';       // reduce by one "u" (Java standard)
+          inputUsed = 2;
+        }
+        else if (input.startsWith("\\u", inputNext)) // Unicode hex number
+        {
+          /* Hexadecimal character number from 0000 to FFFF, always with
+          exactly four hex digits. */
+
+          digits = 0;             // no digits found yet
+          i = inputNext + 2;      // index of first numeric digit
+          value = 0;              // start with zero for numeric value
+          while ((digits < 4) && (i < inputLength))
+          {
+            ch = input.charAt(i ++); // get one character from input
+            if ((ch >= '0') && (ch <= '9')) // hex digit?
+              value = (value << 4) + (ch - '0'); // add to hex value
+            else if ((ch >= 'A') && (ch <= 'F')) // hex letter?
+              value = (value << 4) + (ch - 'A' + 10);
+            else if ((ch >= 'a') && (ch <= 'f')) // hex letter?
+              value = (value << 4) + (ch - 'a' + 10);
+            else                  // not a valid hex digit
+              break;              // exit early from <while> loop
+            digits ++;            // one more digit found
+          }
+
+          if (digits == 4)        // accept any four-digit hex number
+          {
+            inputChar = value;    // hex number becomes input character
+            inputUsed = digits + 2; // consume backslash, "u", hex digits
+          }
+          else                    // invalid digits, not enough digits, etc
+            utfParseError(messages,
+              "Invalid Java backslash hexadecimal number: "
+              + utfParseSubstring(input, inputNext));
+        }
+        else
+        {
+          /* Could be an octal character number from 0 to 377 (base 8), which
+          is 0 to 255 decimal.  Could be garbage.  Or both.  Octal is old. */
+
+          digits = 0;             // no digits found yet
+          i = inputNext + 1;      // index of first numeric digit
+          value = 0;              // start with zero for numeric value
+          while ((digits < 3) && (i < inputLength))
+          {
+            ch = input.charAt(i ++); // get one character from input
+            if ((ch >= '0') && (ch <= '7'))
+              value = (value << 3) + (ch - '0'); // add to octal value
+            else                  // not a valid octal digit
+              break;              // exit early from <while> loop
+            digits ++;            // one more digit found
+          }
+
+          if ((digits > 0) && (value <= 0xFF)) // limit to 377 octal
+          {
+            inputChar = value;    // octal number becomes input character
+            inputUsed = digits + 1; // consume backslash and octal digits
+          }
+          else                    // generic catch-all error message
+            utfParseError(messages, "Unknown Java backslash notation: "
+              + utfParseSubstring(input, inputNext));
+        }
+      }
+
+      /* There must now be a valid Unicode character number in <inputChar>.
+      This character may be the second part of a surrogate pair.  We allow
+      surrogate pairs to appear as Unicode text, to be generated by Java
+      backslash notation and XML character references, or a mixture. */
+
+      if (savedChar > 0)          // is there a pending high surrogate?
+      {
+        /* Do we have a complete UTF-16 surrogate pair? */
+
+        if ((inputChar >= UTF16_LOW_BEGIN) && (inputChar <= UTF16_LOW_END))
+        {
+          copyArray[copyCount ++] = UTF32_OFFSET
+            + ((savedChar - UTF16_HIGH_BEGIN) << UTF16_SHIFT)
+            + (inputChar - UTF16_LOW_BEGIN);
+          inputChar = savedChar = -1; // consume both characters
+        }
+        else                      // high surrogate followed by anything else
+        {
+          copyArray[copyCount ++] = REPLACE_CHAR; // unpaired high surrogate
+          utfParseError(messages, "Unpaired UTF-16 high surrogate: "
+            + formatUnicodeNumber(savedChar) + " followed by "
+            + formatUnicodeNumber(inputChar));
+          savedChar = -1;         // consume only saved character
+        }
+      }
+
+      /* We have an input character that could be the start of a new surrogate
+      pair, or could be normal text to be returned to the caller. */
+
+      if (inputChar < 0)          // was this input consumed above as pair?
+        { /* do nothing */ }
+      else if ((inputChar >= UTF16_HIGH_BEGIN) && (inputChar <= UTF16_HIGH_END))
+      {
+        savedChar = inputChar;    // should be start of new surrogate pair
+      }
+      else if ((inputChar >= UTF16_LOW_BEGIN) && (inputChar <= UTF16_LOW_END))
+      {
+        copyArray[copyCount ++] = REPLACE_CHAR; // unpaired low surrogate
+        utfParseError(messages, "Unpaired UTF-16 low surrogate: "
+          + formatUnicodeNumber(inputChar));
+      }
+      else                        // long hard road to find real character
+      {
+        copyArray[copyCount ++] = inputChar; // copy one character as-is
+      }
+
+      /* A second character from an entity reference is never a surrogate, and
+      the reference is always longer than the characters it produces. */
+
+      if (extraChar >= 0)
+        copyArray[copyCount ++] = extraChar;
+
+      /* Advance to the next position in the UTF-16 input string. */
+
+      inputNext += inputUsed;     // index of next input character
+    }
+
+    /* Do we have an unpaired high surrogate at the end of the input text? */
+
+    if (savedChar > 0)
+    {
+      copyArray[copyCount ++] = REPLACE_CHAR; // unpaired high surrogate
+      utfParseError(messages, "Unpaired UTF-16 high surrogate: "
+        + formatUnicodeNumber(savedChar) + " at end of input");
+    }
+
+    /* Often the size of the UTF-16 input string is equal to the number of
+    UTF-32 characters we put in the array.  Sometimes not all of the temporary
+    array is used, and we need to truncate that array by copying it to another
+    smaller array. */
+
+    if (copyCount == inputLength) // same size for array and input string?
+      result = copyArray;         // yes, return temporary array as result
+    else                          // need to create a smaller array
+    {
+      result = new int[copyCount]; // required size for resulting array
+      for (i = 0; i < copyCount; i ++) // copy only those characters used
+        result[i] = copyArray[i];
+    }
+    return(result);               // give caller UTF-32 character numbers
+
+  } // end of utfParse16() method
+
+
+/*
+  utfParseError() method
+
+  Report a message from utfParse16(), or save it for the caller.
+*/
+  static void utfParseError(ArrayList<String> messages, String text)
+  {
+    if (messages != null)
+      messages.add(text);
+    else
+      putError(text);
+  }
+
+
+/*
+  utfParseSubstring() method
+
+  Return a substring that goes to the end of a string, has a maximum length, or
+  stops before a control character (newline).
+*/
+  static String utfParseSubstring(
+    String input,                 // standard Java UTF-16 string
+    int offset)                   // starting offset where we look
+  {
+    int i = offset;               // index variable
+    int length = input.length();  // number of characters in input string
+    int limit = offset + 25;      // arbitrary maximum size returned
+
+    while ((i < length) && (i < limit)
+      && (Character.isISOControl(input.charAt(i)) == false))
+    {
+      i ++;                       // this character is likely printable
+    }
+    return(input.substring(offset, i));
+
+  } // end of utfParseSubstring() method
+
+
+/*
+  verifyTable() method
+
+  Check that the conversion rules are consistent: they produce the same result
+  no matter how many times they are applied.  Every Unicode character number
+  from U+0000 to U+10FFFF (except surrogates) is converted twice, and so is
+  every left side with more than one character, in every pass.  Stages that
+  could not be fused are checked as separate passes, the same way they are
+  converted.  Any rule whose output changes on the second pass is reported on
+  standard output, with one example.  The work is split into chunks and done
+  in parallel on all processors.  Return the number of inconsistent rules,
+  plus one if some inputs were inconsistent but no rule could be blamed.
+*/
+  static int verifyTable()
+  {
+    int badCount;                 // number of inconsistent rules
+    int[] badInputs;              // number of failed inputs for each rule
+    ExecutorService executor;     // thread pool for parallel checking
+    String[] examples;            // first failed example for each rule
+    ArrayList<Future<Object[]>> futures; // results from each chunk
+    int i, k;                     // index variables
+    int inputCount;               // number of inputs checked
+    int passCount;                // number of passes (unfused stages)
+    PlainText3Table pass;         // one pass in the conversion table
+    int ruleTotal;                // number of rules in all passes
+    long startTime;               // when we started, in nanoseconds
+    int threads;                  // number of threads in pool
+
+    /* Take one copy of the table, and number the rules of all passes in
+    order, so each rule has one index no matter which pass it is in.  One
+    extra index at the end counts inputs that can't be blamed on a rule. */
+
+    passCount = ruleTotal = 0;
+    for (pass = dataTable; pass != null; pass = pass.next)
+    {
+      passCount ++;
+      ruleTotal += pass.ruleCount;
+    }
+    final PlainText3Table[] passes = new PlainText3Table[passCount];
+    passCount = 0;
+    for (pass = dataTable; pass != null; pass = pass.next)
+      passes[passCount ++] = pass;
+
+    startTime = System.nanoTime();
+    threads = Runtime.getRuntime().availableProcessors();
+    executor = Executors.newFixedThreadPool(threads);
+    futures = new ArrayList<>();
+
+    /* Chunks of single characters, then one chunk for the left sides. */
+
+    for (i = 0; i <= UTF32_MAX; i += VERIFY_CHUNK)
+    {
+      final int low = i;          // final copies for inner class
+      final int high = Math.min(UTF32_MAX, (i + VERIFY_CHUNK - 1));
+      futures.add(executor.submit(new Callable<Object[]>() {
+        public Object[] call() {
+          return(verifyRange(passes, low, high)); } }));
+    }
+    futures.add(executor.submit(new Callable<Object[]>() {
+      public Object[] call() { return(verifyRange(passes, -1, -1)); } }));
+    executor.shutdown();          // no more work after this
+
+    /* Merge the results in order, so the report is always the same. */
+
+    badInputs = new int[ruleTotal + 1];
+    examples = new String[ruleTotal + 1];
+    inputCount = 0;
+    for (i = 0; i < futures.size(); i ++)
+    {
+      Object[] result;            // counts and examples from one chunk
+      try { result = futures.get(i).get(); }
+      catch (Exception e)         // interrupted or unexpected exception
+      {
+        System.err.println("Error in verifyTable() method: " + e);
+        return(-1);
+      }
+      inputCount += ((Integer) result[0]).intValue();
+      int[] counts = (int[]) result[1];
+      String[] samples = (String[]) result[2];
+      for (k = 0; k < counts.length; k ++)
+      {
+        if ((counts[k] > 0) && (examples[k] == null))
+          examples[k] = samples[k]; // keep first example in input order
+        badInputs[k] += counts[k];
+      }
+    }
+
+    badCount = 0;                 // report each inconsistent rule once
+    k = 0;                        // index of rule in all passes
+    for (i = 0; i < passes.length; i ++)
+    {
+      int[] ruleLines = passes[i].ruleLines;
+      for (int rule = 0; rule < ruleLines.length; rule ++, k ++)
+      {
+        if (badInputs[k] > 0)
+        {
+          badCount ++;
+          System.out.println(((ruleLines[rule] > 0)
+            ? ("Configuration line " + ruleLines[rule])
+            : ("Default rule " + (k + 1))) + " is not consistent for "
+            + prettyPlural(badInputs[k], "input") + ", for example: "
+            + examples[k]);
+        }
+      }
+    }
+    if (badInputs[ruleTotal] > 0) // inconsistent, but no rule to blame
+    {
+      badCount ++;
+      System.out.println("No rule can be blamed for "
+        + prettyPlural(badInputs[ruleTotal], "inconsistent input")
+        + ", for example: " + examples[ruleTotal]);
+    }
+    System.out.println("Checked " + prettyPlural(ruleTotal, "rule")
+      + ((passes.length > 1) ? (" in " + prettyPlural(passes.length,
+      "pass", "passes")) : "") + " with " + prettyPlural(inputCount,
+      "input") + " in "
+      + formatComma.format((System.nanoTime() - startTime) / 1000000)
+      + " ms using " + prettyPlural(threads, "thread") + ": "
+      + prettyPlural(badCount - ((badInputs[ruleTotal] > 0) ? 1 : 0),
+      "inconsistent rule") + ".");
+    return(badCount);
+
+  } // end of verifyTable() method
+
+
+/*
+  verifyRange() method
+
+  Check one chunk of work for verifyTable(): a range of character numbers, or
+  all left sides with more than one character (in every pass) when <low> is
+  negative.  Return an array with the number of inputs checked, the number of
+  failed inputs for each rule, and the first example for each rule.  The last
+  entry in each array is for inputs that can't be blamed on any rule.
+*/
+  static Object[] verifyRange(PlainText3Table[] passes, int low, int high)
+  {
+    int ch;                       // current character number
+    int[] counts;                 // number of failed inputs for each rule
+    int i;                        // index variable
+    int inputCount;               // number of inputs checked
+    int rule;                     // index of current rule
+    int ruleTotal;                // number of rules in all passes
+    String[] samples;             // first failed example for each rule
+    int[] single;                 // reused input for one character
+    PlainText3Table table;        // one pass from <passes>
+
+    ruleTotal = 0;
+    for (i = 0; i < passes.length; i ++)
+      ruleTotal += passes[i].ruleCount;
+    counts = new int[ruleTotal + 1];
+    inputCount = 0;
+    samples = new String[ruleTotal + 1];
+    single = new int[1];
+
+    if (low >= 0)                 // range of single characters
+    {
+      for (ch = low; ch <= high; ch ++)
+      {
+        if ((ch >= UTF16_HIGH_BEGIN) && (ch <= UTF16_LOW_END))
+          continue;               // surrogates are not characters
+        single[0] = ch;
+        inputCount ++;
+        verifyInput(passes, single, counts, samples);
+      }
+    }
+    else                          // left sides with more than one character
+    {
+      for (i = 0; i < passes.length; i ++)
+      {
+        table = passes[i];
+        for (rule = 0; rule < table.ruleCount; rule ++)
+        {
+          int start = table.leftStart[rule];
+          int length = table.leftStart[rule + 1] - start;
+          if ((table.ruleKinds[rule] == PlainText3Table.KIND_STRING)
+            && (length > 1))
+          {
+            int[] input = new int[length];
+            System.arraycopy(table.leftPool, start, input, 0, length);
+            inputCount ++;
+            verifyInput(passes, input, counts, samples);
+          }
+        }
+      }
+    }
+    return(new Object[] { Integer.valueOf(inputCount), counts, samples });
+
+  } // end of verifyRange() method
+
+
+/*
+  verifyInput() method
+
+  Convert one input twice.  If the second result is different from the first,
+  then blame the first rule that changed the input, in the first pass that
+  made a change.  An input that can't be blamed on any rule is still counted,
+  in the last entry of <counts>.
+*/
+  static void verifyInput(
+    PlainText3Table[] passes,     // all passes in the conversion table
+    int[] input,                  // UTF-32 input text (code points)
+    int[] counts,                 // number of failed inputs for each rule
+    String[] samples)             // first failed example for each rule
+  {
+    int[] blame;                  // first rule that changed the input
+    StringBuffer first, second;   // results from first and second pass
+    int rule;                     // index of rule to blame
+
+    blame = new int[] { -1 };
+    first = new StringBuffer();
+    if (verifyConvert(passes, input, first, blame) == 0)
+      return;                     // no change, so a second pass is the same
+    second = new StringBuffer();
+    verifyConvert(passes, utfParse16(first.toString(), jbnUserFlag,
+      xmlUserFlag), second, null); // as if user converted the result again
+    if (first.toString().equals(second.toString()))
+      return;                     // consistent
+
+    rule = (blame[0] >= 0) ? blame[0] : (counts.length - 1);
+    if (counts[rule] ++ == 0)     // save first example only
+      samples[rule] = verifyFormat(input) + " becomes "
+        + verifyFormat(utfParse16(first.toString(), false, false)) + " then "
+        + verifyFormat(utfParse16(second.toString(), false, false));
+
+  } // end of verifyInput() method
+
+
+/*
+  verifyConvert() method
+
+  Convert an input through every pass, the same as convertUnicode() does, but
+  with a change map on each pass so that the first rule to make a change can
+  be found.  That rule's index in all passes goes into <blame>, if the caller
+  wants it.  Return the number of changes made.
+*/
+  static int verifyConvert(
+    PlainText3Table[] passes,     // all passes in the conversion table
+    int[] input,                  // UTF-32 input text (code points)
+    StringBuffer result,          // converted result in UTF-16
+    int[] blame)                  // null or where first rule index goes
+  {
+    StringBuffer buffer;          // result from one pass
+    int changeCount;              // number of changes made (not characters)
+    PlainText3Changes changeMap;  // which rules changed this pass
+    int i;                        // index variable
+    int ruleBase;                 // index of first rule in this pass
+
+    changeCount = ruleBase = 0;
+    for (i = 0; i < passes.length; i ++)
+    {
+      buffer = (i == (passes.length - 1)) ? result
+        : new StringBuffer(input.length);
+      changeMap = (blame != null) ? new PlainText3Changes() : null;
+      changeCount += convertTable(passes[i], input, buffer, changeMap, null);
+      if ((changeMap != null) && (blame[0] < 0) && (changeMap.runCount > 0))
+        blame[0] = ruleBase + changeMap.ruleIndex[0];
+      ruleBase += passes[i].ruleCount;
+      if (buffer != result)       // next pass reads this one's result
+        input = utfParse16(buffer.toString(), false, false);
+    }
+    return(changeCount);
+
+  } // end of verifyConvert() method
+
+
+/*
+  verifyFormat() method
+
+  Format an array of UTF-32 characters as a list of Unicode numbers, since the
+  examples often have characters that can't be seen in a console window.
+*/
+  static String verifyFormat(int[] input)
+  {
+    StringBuffer buffer;          // faster than String for multiple appends
+    int i;                        // index variable
+
+    buffer = new StringBuffer();
+    for (i = 0; i < input.length; i ++)
+    {
+      if (i > 0) buffer.append(' ');
+      buffer.append(formatUnicodeNumber(input[i]));
+    }
+    if (buffer.length() == 0) buffer.append("(empty)");
+    return(buffer.toString());
+
+  } // end of verifyFormat() method
+
+} // end of PlainText3Engine class
+
+/* Copyright (c) 2019 by Keith Fenske.  Apache License or GNU GPL. */
@@ -0,0 +1,925 @@
+/*
+  Plain Text #3 (Entity) - HTML5 Named Character References
+  Java class name: PlainText3Entity
+  Copyright (c) 2019 by Keith Fenske.  Apache License or GNU GPL.
+
+  The HTML5 named character references, about 2,200 of them, for parsing XML
+  and HTML text.  The names are compiled into a trie the first time they are
+  needed, and the trie is packed into a pair of integer arrays (a "double
+  array").  Matching walks the trie one input character at a time, remembering
+  the last state with a value, so the longest name wins.
+
+  The table below is one long string.  Each entry is the name (without the
+  ampersand), a space, the number of UTF-16 characters in the value (1 or 2),
+  and then the value.  Entries are sorted by name.  See:
+
+      https://html.spec.whatwg.org/multipage/named-characters.html
+
+  Apache License or GNU General Public License
+  --------------------------------------------
+  PlainText3Entity is free software and has been released under the terms and
+  conditions of the Apache License (version 2.0 or later) and/or the GNU
+  General Public License (GPL, version 2 or later).  This program is
+  distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY,
+  without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+  PARTICULAR PURPOSE.  See the license(s) for more details.  You should have
+  received a copy of the licenses along with this program.  If not, see the
+  http://www.apache.org/licenses/ and http://www.gnu.org/licenses/ web pages.
+*/
+
+import java.util.*;               // lists, maps
+
+class PlainText3Entity
+{
+  /* constants */
+
+  static final int BASE_MASK = 0x7FFFFFFF; // base without legacy flag
+  static final int LEGACY_FLAG = 0x80000000; // legacy name ends at state
+  static final int ROOT_SIZE = 128; // names have only ASCII characters
+  static final String ENTITY_TABLE =
+    "AElig 1\u00C6AElig; 1\u00C6AMP 1&AMP; 1&Aacute 1\u00C1"
+    + "Aacute; 1\u00C1Abreve; 1\u0102Acirc 1\u00C2Acirc; 1\u00C2"
+    + "Acy; 1\u0410Afr; 2\uD835\uDD04Agrave 1\u00C0Agrave; 1\u00C0"
+    + "Alpha; 1\u0391Amacr; 1\u0100And; 1\u2A53Aogon; 1\u0104"
+    + "Aopf; 2\uD835\uDD38ApplyFunction; 1\u2061Aring 1\u00C5"
+    + "Aring; 1\u00C5Ascr; 2\uD835\uDC9CAssign; 1\u2254Atilde 1\u00C3"
+    + "Atilde; 1\u00C3Auml 1\u00C4Auml; 1\u00C4Backslash; 1\u2216"
+    + "Barv; 1\u2AE7Barwed; 1\u2306Bcy; 1\u0411Because; 1\u2235"
+    + "Bernoullis; 1\u212CBeta; 1\u0392Bfr; 2\uD835\uDD05"
+    + "Bopf; 2\uD835\uDD39Breve; 1\u02D8Bscr; 1\u212CBumpeq; 1\u224E"
+    + "CHcy; 1\u0427COPY 1\u00A9COPY; 1\u00A9Cacute; 1\u0106Cap; 1\u22D2"
+    + "CapitalDifferentialD; 1\u2145Cayleys; 1\u212DCcaron; 1\u010C"
+    + "Ccedil 1\u00C7Ccedil; 1\u00C7Ccirc; 1\u0108Cconint; 1\u2230"
+    + "Cdot; 1\u010ACedilla; 1\u00B8CenterDot; 1\u00B7Cfr; 1\u212D"
+    + "Chi; 1\u03A7CircleDot; 1\u2299CircleMinus; 1\u2296"
+    + "CirclePlus; 1\u2295CircleTimes; 1\u2297"
+    + "ClockwiseContourIntegral; 1\u2232CloseCurlyDoubleQuote; 1\u201D"
+    + "CloseCurlyQuote; 1\u2019Colon; 1\u2237Colone; 1\u2A74"
+    + "Congruent; 1\u2261Conint; 1\u222FContourIntegral; 1\u222E"
+    + "Copf; 1\u2102Coproduct; 1\u2210"
+    + "CounterClockwiseContourIntegral; 1\u2233Cross; 1\u2A2F"
+    + "Cscr; 2\uD835\uDC9ECup; 1\u22D3CupCap; 1\u224DDD; 1\u2145"
+    + "DDotrahd; 1\u2911DJcy; 1\u0402DScy; 1\u0405DZcy; 1\u040F"
+    + "Dagger; 1\u2021Darr; 1\u21A1Dashv; 1\u2AE4Dcaron; 1\u010E"
+    + "Dcy; 1\u0414Del; 1\u2207Delta; 1\u0394Dfr; 2\uD835\uDD07"
+    + "DiacriticalAcute; 1\u00B4DiacriticalDot; 1\u02D9"
+    + "DiacriticalDoubleAcute; 1\u02DDDiacriticalGrave; 1`"
+    + "DiacriticalTilde; 1\u02DCDiamond; 1\u22C4DifferentialD; 1\u2146"
+    + "Dopf; 2\uD835\uDD3BDot; 1\u00A8DotDot; 1\u20DCDotEqual; 1\u2250"
+    + "DoubleContourIntegral; 1\u222FDoubleDot; 1\u00A8"
+    + "DoubleDownArrow; 1\u21D3DoubleLeftArrow; 1\u21D0"
+    + "DoubleLeftRightArrow; 1\u21D4DoubleLeftTee; 1\u2AE4"
+    + "DoubleLongLeftArrow; 1\u27F8DoubleLongLeftRightArrow; 1\u27FA"
+    + "DoubleLongRightArrow; 1\u27F9DoubleRightArrow; 1\u21D2"
+    + "DoubleRightTee; 1\u22A8DoubleUpArrow; 1\u21D1"
+    + "DoubleUpDownArrow; 1\u21D5DoubleVerticalBar; 1\u2225"
+    + "DownArrow; 1\u2193DownArrowBar; 1\u2913DownArrowUpArrow; 1\u21F5"
+    + "DownBreve; 1\u0311DownLeftRightVector; 1\u2950"
+    + "DownLeftTeeVector; 1\u295EDownLeftVector; 1\u21BD"
+    + "DownLeftVectorBar; 1\u2956DownRightTeeVector; 1\u295F"
+    + "DownRightVector; 1\u21C1DownRightVectorBar; 1\u2957"
+    + "DownTee; 1\u22A4DownTeeArrow; 1\u21A7Downarrow; 1\u21D3"
+    + "Dscr; 2\uD835\uDC9FDstrok; 1\u0110ENG; 1\u014AETH 1\u00D0"
+    + "ETH; 1\u00D0Eacute 1\u00C9Eacute; 1\u00C9Ecaron; 1\u011A"
+    + "Ecirc 1\u00CAEcirc; 1\u00CAEcy; 1\u042DEdot; 1\u0116"
+    + "Efr; 2\uD835\uDD08Egrave 1\u00C8Egrave; 1\u00C8Element; 1\u2208"
+    + "Emacr; 1\u0112EmptySmallSquare; 1\u25FB"
+    + "EmptyVerySmallSquare; 1\u25ABEogon; 1\u0118Eopf; 2\uD835\uDD3C"
+    + "Epsilon; 1\u0395Equal; 1\u2A75EqualTilde; 1\u2242"
+    + "Equilibrium; 1\u21CCEscr; 1\u2130Esim; 1\u2A73Eta; 1\u0397"
+    + "Euml 1\u00CBEuml; 1\u00CBExists; 1\u2203ExponentialE; 1\u2147"
+    + "Fcy; 1\u0424Ffr; 2\uD835\uDD09FilledSmallSquare; 1\u25FC"
+    + "FilledVerySmallSquare; 1\u25AAFopf; 2\uD835\uDD3DForAll; 1\u2200"
+    + "Fouriertrf; 1\u2131Fscr; 1\u2131GJcy; 1\u0403GT 1>GT; 1>"
+    + "Gamma; 1\u0393Gammad; 1\u03DCGbreve; 1\u011EGcedil; 1\u0122"
+    + "Gcirc; 1\u011CGcy; 1\u0413Gdot; 1\u0120Gfr; 2\uD835\uDD0A"
+    + "Gg; 1\u22D9Gopf; 2\uD835\uDD3EGreaterEqual; 1\u2265"
+    + "GreaterEqualLess; 1\u22DBGreaterFullEqual; 1\u2267"
+    + "GreaterGreater; 1\u2AA2GreaterLess; 1\u2277"
+    + "GreaterSlantEqual; 1\u2A7EGreaterTilde; 1\u2273Gscr; 2\uD835\uDCA2"
+    + "Gt; 1\u226BHARDcy; 1\u042AHacek; 1\u02C7Hat; 1^Hcirc; 1\u0124"
+    + "Hfr; 1\u210CHilbertSpace; 1\u210BHopf; 1\u210D"
+    + "HorizontalLine; 1\u2500Hscr; 1\u210BHstrok; 1\u0126"
+    + "HumpDownHump; 1\u224EHumpEqual; 1\u224FIEcy; 1\u0415IJlig; 1\u0132"
+    + "IOcy; 1\u0401Iacute 1\u00CDIacute; 1\u00CDIcirc 1\u00CE"
+    + "Icirc; 1\u00CEIcy; 1\u0418Idot; 1\u0130Ifr; 1\u2111Igrave 1\u00CC"
+    + "Igrave; 1\u00CCIm; 1\u2111Imacr; 1\u012AImaginaryI; 1\u2148"
+    + "Implies; 1\u21D2Int; 1\u222CIntegral; 1\u222BIntersection; 1\u22C2"
+    + "InvisibleComma; 1\u2063InvisibleTimes; 1\u2062Iogon; 1\u012E"
+    + "Iopf; 2\uD835\uDD40Iota; 1\u0399Iscr; 1\u2110Itilde; 1\u0128"
+    + "Iukcy; 1\u0406Iuml 1\u00CFIuml; 1\u00CFJcirc; 1\u0134Jcy; 1\u0419"
+    + "Jfr; 2\uD835\uDD0DJopf; 2\uD835\uDD41Jscr; 2\uD835\uDCA5"
+    + "Jsercy; 1\u0408Jukcy; 1\u0404KHcy; 1\u0425KJcy; 1\u040C"
+    + "Kappa; 1\u039AKcedil; 1\u0136Kcy; 1\u041AKfr; 2\uD835\uDD0E"
+    + "Kopf; 2\uD835\uDD42Kscr; 2\uD835\uDCA6LJcy; 1\u0409LT 1<LT; 1<"
+    + "Lacute; 1\u0139Lambda; 1\u039BLang; 1\u27EALaplacetrf; 1\u2112"
+    + "Larr; 1\u219ELcaron; 1\u013DLcedil; 1\u013BLcy; 1\u041B"
+    + "LeftAngleBracket; 1\u27E8LeftArrow; 1\u2190LeftArrowBar; 1\u21E4"
+    + "LeftArrowRightArrow; 1\u21C6LeftCeiling; 1\u2308"
+    + "LeftDoubleBracket; 1\u27E6LeftDownTeeVector; 1\u2961"
+    + "LeftDownVector; 1\u21C3LeftDownVectorBar; 1\u2959"
+    + "LeftFloor; 1\u230ALeftRightArrow; 1\u2194LeftRightVector; 1\u294E"
+    + "LeftTee; 1\u22A3LeftTeeArrow; 1\u21A4LeftTeeVector; 1\u295A"
+    + "LeftTriangle; 1\u22B2LeftTriangleBar; 1\u29CF"
+    + "LeftTriangleEqual; 1\u22B4LeftUpDownVector; 1\u2951"
+    + "LeftUpTeeVector; 1\u2960LeftUpVector; 1\u21BF"
+    + "LeftUpVectorBar; 1\u2958LeftVector; 1\u21BCLeftVectorBar; 1\u2952"
+    + "Leftarrow; 1\u21D0Leftrightarrow; 1\u21D4LessEqualGreater; 1\u22DA"
+    + "LessFullEqual; 1\u2266LessGreater; 1\u2276LessLess; 1\u2AA1"
+    + "LessSlantEqual; 1\u2A7DLessTilde; 1\u2272Lfr; 2\uD835\uDD0F"
+    + "Ll; 1\u22D8Lleftarrow; 1\u21DALmidot; 1\u013F"
+    + "LongLeftArrow; 1\u27F5LongLeftRightArrow; 1\u27F7"
+    + "LongRightArrow; 1\u27F6Longleftarrow; 1\u27F8"
+    + "Longleftrightarrow; 1\u27FALongrightarrow; 1\u27F9"
+    + "Lopf; 2\uD835\uDD43LowerLeftArrow; 1\u2199LowerRightArrow; 1\u2198"
+    + "Lscr; 1\u2112Lsh; 1\u21B0Lstrok; 1\u0141Lt; 1\u226AMap; 1\u2905"
+    + "Mcy; 1\u041CMediumSpace; 1\u205FMellintrf; 1\u2133"
+    + "Mfr; 2\uD835\uDD10MinusPlus; 1\u2213Mopf; 2\uD835\uDD44"
+    + "Mscr; 1\u2133Mu; 1\u039CNJcy; 1\u040ANacute; 1\u0143"
+    + "Ncaron; 1\u0147Ncedil; 1\u0145Ncy; 1\u041D"
+    + "NegativeMediumSpace; 1\u200BNegativeThickSpace; 1\u200B"
+    + "NegativeThinSpace; 1\u200BNegativeVeryThinSpace; 1\u200B"
+    + "NestedGreaterGreater; 1\u226BNestedLessLess; 1\u226ANewLine; 1\n"
+    + "Nfr; 2\uD835\uDD11NoBreak; 1\u2060NonBreakingSpace; 1\u00A0"
+    + "Nopf; 1\u2115Not; 1\u2AECNotCongruent; 1\u2262NotCupCap; 1\u226D"
+    + "NotDoubleVerticalBar; 1\u2226NotElement; 1\u2209NotEqual; 1\u2260"
+    + "NotEqualTilde; 2\u2242\u0338NotExists; 1\u2204NotGreater; 1\u226F"
+    + "NotGreaterEqual; 1\u2271NotGreaterFullEqual; 2\u2267\u0338"
+    + "NotGreaterGreater; 2\u226B\u0338NotGreaterLess; 1\u2279"
+    + "NotGreaterSlantEqual; 2\u2A7E\u0338NotGreaterTilde; 1\u2275"
+    + "NotHumpDownHump; 2\u224E\u0338NotHumpEqual; 2\u224F\u0338"
+    + "NotLeftTriangle; 1\u22EANotLeftTriangleBar; 2\u29CF\u0338"
+    + "NotLeftTriangleEqual; 1\u22ECNotLess; 1\u226ENotLessEqual; 1\u2270"
+    + "NotLessGreater; 1\u2278NotLessLess; 2\u226A\u0338"
+    + "NotLessSlantEqual; 2\u2A7D\u0338NotLessTilde; 1\u2274"
+    + "NotNestedGreaterGreater; 2\u2AA2\u0338"
+    + "NotNestedLessLess; 2\u2AA1\u0338NotPrecedes; 1\u2280"
+    + "NotPrecedesEqual; 2\u2AAF\u0338NotPrecedesSlantEqual; 1\u22E0"
+    + "NotReverseElement; 1\u220CNotRightTriangle; 1\u22EB"
+    + "NotRightTriangleBar; 2\u29D0\u0338NotRightTriangleEqual; 1\u22ED"
+    + "NotSquareSubset; 2\u228F\u0338NotSquareSubsetEqual; 1\u22E2"
+    + "NotSquareSuperset; 2\u2290\u0338NotSquareSupersetEqual; 1\u22E3"
+    + "NotSubset; 2\u2282\u20D2NotSubsetEqual; 1\u2288"
+    + "NotSucceeds; 1\u2281NotSucceedsEqual; 2\u2AB0\u0338"
+    + "NotSucceedsSlantEqual; 1\u22E1NotSucceedsTilde; 2\u227F\u0338"
+    + "NotSuperset; 2\u2283\u20D2NotSupersetEqual; 1\u2289"
+    + "NotTilde; 1\u2241NotTildeEqual; 1\u2244NotTildeFullEqual; 1\u2247"
+    + "NotTildeTilde; 1\u2249NotVerticalBar; 1\u2224Nscr; 2\uD835\uDCA9"
+    + "Ntilde 1\u00D1Ntilde; 1\u00D1Nu; 1\u039DOElig; 1\u0152"
+    + "Oacute 1\u00D3Oacute; 1\u00D3Ocirc 1\u00D4Ocirc; 1\u00D4"
+    + "Ocy; 1\u041EOdblac; 1\u0150Ofr; 2\uD835\uDD12Ograve 1\u00D2"
+    + "Ograve; 1\u00D2Omacr; 1\u014COmega; 1\u03A9Omicron; 1\u039F"
+    + "Oopf; 2\uD835\uDD46OpenCurlyDoubleQuote; 1\u201C"
+    + "OpenCurlyQuote; 1\u2018Or; 1\u2A54Oscr; 2\uD835\uDCAA"
+    + "Oslash 1\u00D8Oslash; 1\u00D8Otilde 1\u00D5Otilde; 1\u00D5"
+    + "Otimes; 1\u2A37Ouml 1\u00D6Ouml; 1\u00D6OverBar; 1\u203E"
+    + "OverBrace; 1\u23DEOverBracket; 1\u23B4OverParenthesis; 1\u23DC"
+    + "PartialD; 1\u2202Pcy; 1\u041FPfr; 2\uD835\uDD13Phi; 1\u03A6"
+    + "Pi; 1\u03A0PlusMinus; 1\u00B1Poincareplane; 1\u210CPopf; 1\u2119"
+    + "Pr; 1\u2ABBPrecedes; 1\u227APrecedesEqual; 1\u2AAF"
+    + "PrecedesSlantEqual; 1\u227CPrecedesTilde; 1\u227EPrime; 1\u2033"
+    + "Product; 1\u220FProportion; 1\u2237Proportional; 1\u221D"
+    + "Pscr; 2\uD835\uDCABPsi; 1\u03A8QUOT 1\"QUOT; 1\"Qfr; 2\uD835\uDD14"
+    + "Qopf; 1\u211AQscr; 2\uD835\uDCACRBarr; 1\u2910REG 1\u00AE"
+    + "REG; 1\u00AERacute; 1\u0154Rang; 1\u27EBRarr; 1\u21A0"
+    + "Rarrtl; 1\u2916Rcaron; 1\u0158Rcedil; 1\u0156Rcy; 1\u0420"
+    + "Re; 1\u211CReverseElement; 1\u220BReverseEquilibrium; 1\u21CB"
+    + "ReverseUpEquilibrium; 1\u296FRfr; 1\u211CRho; 1\u03A1"
+    + "RightAngleBracket; 1\u27E9RightArrow; 1\u2192"
+    + "RightArrowBar; 1\u21E5RightArrowLeftArrow; 1\u21C4"
+    + "RightCeiling; 1\u2309RightDoubleBracket; 1\u27E7"
+    + "RightDownTeeVector; 1\u295DRightDownVector; 1\u21C2"
+    + "RightDownVectorBar; 1\u2955RightFloor; 1\u230BRightTee; 1\u22A2"
+    + "RightTeeArrow; 1\u21A6RightTeeVector; 1\u295B"
+    + "RightTriangle; 1\u22B3RightTriangleBar; 1\u29D0"
+    + "RightTriangleEqual; 1\u22B5RightUpDownVector; 1\u294F"
+    + "RightUpTeeVector; 1\u295CRightUpVector; 1\u21BE"
+    + "RightUpVectorBar; 1\u2954RightVector; 1\u21C0"
+    + "RightVectorBar; 1\u2953Rightarrow; 1\u21D2Ropf; 1\u211D"
+    + "RoundImplies; 1\u2970Rrightarrow; 1\u21DBRscr; 1\u211BRsh; 1\u21B1"
+    + "RuleDelayed; 1\u29F4SHCHcy; 1\u0429SHcy; 1\u0428SOFTcy; 1\u042C"
+    + "Sacute; 1\u015ASc; 1\u2ABCScaron; 1\u0160Scedil; 1\u015E"
+    + "Scirc; 1\u015CScy; 1\u0421Sfr; 2\uD835\uDD16"
+    + "ShortDownArrow; 1\u2193ShortLeftArrow; 1\u2190"
+    + "ShortRightArrow; 1\u2192ShortUpArrow; 1\u2191Sigma; 1\u03A3"
+    + "SmallCircle; 1\u2218Sopf; 2\uD835\uDD4ASqrt; 1\u221A"
+    + "Square; 1\u25A1SquareIntersection; 1\u2293SquareSubset; 1\u228F"
+    + "SquareSubsetEqual; 1\u2291SquareSuperset; 1\u2290"
+    + "SquareSupersetEqual; 1\u2292SquareUnion; 1\u2294"
+    + "Sscr; 2\uD835\uDCAEStar; 1\u22C6Sub; 1\u22D0Subset; 1\u22D0"
+    + "SubsetEqual; 1\u2286Succeeds; 1\u227BSucceedsEqual; 1\u2AB0"
+    + "SucceedsSlantEqual; 1\u227DSucceedsTilde; 1\u227FSuchThat; 1\u220B"
+    + "Sum; 1\u2211Sup; 1\u22D1Superset; 1\u2283SupersetEqual; 1\u2287"
+    + "Supset; 1\u22D1THORN 1\u00DETHORN; 1\u00DETRADE; 1\u2122"
+    + "TSHcy; 1\u040BTScy; 1\u0426Tab; 1\tTau; 1\u03A4Tcaron; 1\u0164"
+    + "Tcedil; 1\u0162Tcy; 1\u0422Tfr; 2\uD835\uDD17Therefore; 1\u2234"
+    + "Theta; 1\u0398ThickSpace; 2\u205F\u200AThinSpace; 1\u2009"
+    + "Tilde; 1\u223CTildeEqual; 1\u2243TildeFullEqual; 1\u2245"
+    + "TildeTilde; 1\u2248Topf; 2\uD835\uDD4BTripleDot; 1\u20DB"
+    + "Tscr; 2\uD835\uDCAFTstrok; 1\u0166Uacute 1\u00DAUacute; 1\u00DA"
+    + "Uarr; 1\u219FUarrocir; 1\u2949Ubrcy; 1\u040EUbreve; 1\u016C"
+    + "Ucirc 1\u00DBUcirc; 1\u00DBUcy; 1\u0423Udblac; 1\u0170"
+    + "Ufr; 2\uD835\uDD18Ugrave 1\u00D9Ugrave; 1\u00D9Umacr; 1\u016A"
+    + "UnderBar; 1_UnderBrace; 1\u23DFUnderBracket; 1\u23B5"
+    + "UnderParenthesis; 1\u23DDUnion; 1\u22C3UnionPlus; 1\u228E"
+    + "Uogon; 1\u0172Uopf; 2\uD835\uDD4CUpArrow; 1\u2191"
+    + "UpArrowBar; 1\u2912UpArrowDownArrow; 1\u21C5UpDownArrow; 1\u2195"
+    + "UpEquilibrium; 1\u296EUpTee; 1\u22A5UpTeeArrow; 1\u21A5"
+    + "Uparrow; 1\u21D1Updownarrow; 1\u21D5UpperLeftArrow; 1\u2196"
+    + "UpperRightArrow; 1\u2197Upsi; 1\u03D2Upsilon; 1\u03A5"
+    + "Uring; 1\u016EUscr; 2\uD835\uDCB0Utilde; 1\u0168Uuml 1\u00DC"
+    + "Uuml; 1\u00DCVDash; 1\u22ABVbar; 1\u2AEBVcy; 1\u0412Vdash; 1\u22A9"
+    + "Vdashl; 1\u2AE6Vee; 1\u22C1Verbar; 1\u2016Vert; 1\u2016"
+    + "VerticalBar; 1\u2223VerticalLine; 1|VerticalSeparator; 1\u2758"
+    + "VerticalTilde; 1\u2240VeryThinSpace; 1\u200AVfr; 2\uD835\uDD19"
+    + "Vopf; 2\uD835\uDD4DVscr; 2\uD835\uDCB1Vvdash; 1\u22AA"
+    + "Wcirc; 1\u0174Wedge; 1\u22C0Wfr; 2\uD835\uDD1AWopf; 2\uD835\uDD4E"
+    + "Wscr; 2\uD835\uDCB2Xfr; 2\uD835\uDD1BXi; 1\u039E"
+    + "Xopf; 2\uD835\uDD4FXscr; 2\uD835\uDCB3YAcy; 1\u042FYIcy; 1\u0407"
+    + "YUcy; 1\u042EYacute 1\u00DDYacute; 1\u00DDYcirc; 1\u0176"
+    + "Ycy; 1\u042BYfr; 2\uD835\uDD1CYopf; 2\uD835\uDD50"
+    + "Yscr; 2\uD835\uDCB4Yuml; 1\u0178ZHcy; 1\u0416Zacute; 1\u0179"
+    + "Zcaron; 1\u017DZcy; 1\u0417Zdot; 1\u017BZeroWidthSpace; 1\u200B"
+    + "Zeta; 1\u0396Zfr; 1\u2128Zopf; 1\u2124Zscr; 2\uD835\uDCB5"
+    + "aacute 1\u00E1aacute; 1\u00E1abreve; 1\u0103ac; 1\u223E"
+    + "acE; 2\u223E\u0333acd; 1\u223Facirc 1\u00E2acirc; 1\u00E2"
+    + "acute 1\u00B4acute; 1\u00B4acy; 1\u0430aelig 1\u00E6aelig; 1\u00E6"
+    + "af; 1\u2061afr; 2\uD835\uDD1Eagrave 1\u00E0agrave; 1\u00E0"
+    + "alefsym; 1\u2135aleph; 1\u2135alpha; 1\u03B1amacr; 1\u0101"
+    + "amalg; 1\u2A3Famp 1&amp; 1&and; 1\u2227andand; 1\u2A55"
+    + "andd; 1\u2A5Candslope; 1\u2A58andv; 1\u2A5Aang; 1\u2220"
+    + "ange; 1\u29A4angle; 1\u2220angmsd; 1\u2221angmsdaa; 1\u29A8"
+    + "angmsdab; 1\u29A9angmsdac; 1\u29AAangmsdad; 1\u29AB"
+    + "angmsdae; 1\u29ACangmsdaf; 1\u29ADangmsdag; 1\u29AE"
+    + "angmsdah; 1\u29AFangrt; 1\u221Fangrtvb; 1\u22BEangrtvbd; 1\u299D"
+    + "angsph; 1\u2222angst; 1\u00C5angzarr; 1\u237Caogon; 1\u0105"
+    + "aopf; 2\uD835\uDD52ap; 1\u2248apE; 1\u2A70apacir; 1\u2A6F"
+    + "ape; 1\u224Aapid; 1\u224Bapos; 1'approx; 1\u2248approxeq; 1\u224A"
+    + "aring 1\u00E5aring; 1\u00E5ascr; 2\uD835\uDCB6ast; 1*"
+    + "asymp; 1\u2248asympeq; 1\u224Datilde 1\u00E3atilde; 1\u00E3"
+    + "auml 1\u00E4auml; 1\u00E4awconint; 1\u2233awint; 1\u2A11"
+    + "bNot; 1\u2AEDbackcong; 1\u224Cbackepsilon; 1\u03F6"
+    + "backprime; 1\u2035backsim; 1\u223Dbacksimeq; 1\u22CD"
+    + "barvee; 1\u22BDbarwed; 1\u2305barwedge; 1\u2305bbrk; 1\u23B5"
+    + "bbrktbrk; 1\u23B6bcong; 1\u224Cbcy; 1\u0431bdquo; 1\u201E"
+    + "becaus; 1\u2235because; 1\u2235bemptyv; 1\u29B0bepsi; 1\u03F6"
+    + "bernou; 1\u212Cbeta; 1\u03B2beth; 1\u2136between; 1\u226C"
+    + "bfr; 2\uD835\uDD1Fbigcap; 1\u22C2bigcirc; 1\u25EFbigcup; 1\u22C3"
+    + "bigodot; 1\u2A00bigoplus; 1\u2A01bigotimes; 1\u2A02"
+    + "bigsqcup; 1\u2A06bigstar; 1\u2605bigtriangledown; 1\u25BD"
+    + "bigtriangleup; 1\u25B3biguplus; 1\u2A04bigvee; 1\u22C1"
+    + "bigwedge; 1\u22C0bkarow; 1\u290Dblacklozenge; 1\u29EB"
+    + "blacksquare; 1\u25AAblacktriangle; 1\u25B4"
+    + "blacktriangledown; 1\u25BEblacktriangleleft; 1\u25C2"
+    + "blacktriangleright; 1\u25B8blank; 1\u2423blk12; 1\u2592"
+    + "blk14; 1\u2591blk34; 1\u2593block; 1\u2588bne; 2=\u20E5"
+    + "bnequiv; 2\u2261\u20E5bnot; 1\u2310bopf; 2\uD835\uDD53bot; 1\u22A5"
+    + "bottom; 1\u22A5bowtie; 1\u22C8boxDL; 1\u2557boxDR; 1\u2554"
+    + "boxDl; 1\u2556boxDr; 1\u2553boxH; 1\u2550boxHD; 1\u2566"
+    + "boxHU; 1\u2569boxHd; 1\u2564boxHu; 1\u2567boxUL; 1\u255D"
+    + "boxUR; 1\u255AboxUl; 1\u255CboxUr; 1\u2559boxV; 1\u2551"
+    + "boxVH; 1\u256CboxVL; 1\u2563boxVR; 1\u2560boxVh; 1\u256B"
+    + "boxVl; 1\u2562boxVr; 1\u255Fboxbox; 1\u29C9boxdL; 1\u2555"
+    + "boxdR; 1\u2552boxdl; 1\u2510boxdr; 1\u250Cboxh; 1\u2500"
+    + "boxhD; 1\u2565boxhU; 1\u2568boxhd; 1\u252Cboxhu; 1\u2534"
+    + "boxminus; 1\u229Fboxplus; 1\u229Eboxtimes; 1\u22A0boxuL; 1\u255B"
+    + "boxuR; 1\u2558boxul; 1\u2518boxur; 1\u2514boxv; 1\u2502"
+    + "boxvH; 1\u256AboxvL; 1\u2561boxvR; 1\u255Eboxvh; 1\u253C"
+    + "boxvl; 1\u2524boxvr; 1\u251Cbprime; 1\u2035breve; 1\u02D8"
+    + "brvbar 1\u00A6brvbar; 1\u00A6bscr; 2\uD835\uDCB7bsemi; 1\u204F"
+    + "bsim; 1\u223Dbsime; 1\u22CDbsol; 1\\bsolb; 1\u29C5"
+    + "bsolhsub; 1\u27C8bull; 1\u2022bullet; 1\u2022bump; 1\u224E"
+    + "bumpE; 1\u2AAEbumpe; 1\u224Fbumpeq; 1\u224Fcacute; 1\u0107"
+    + "cap; 1\u2229capand; 1\u2A44capbrcup; 1\u2A49capcap; 1\u2A4B"
+    + "capcup; 1\u2A47capdot; 1\u2A40caps; 2\u2229\uFE00caret; 1\u2041"
+    + "caron; 1\u02C7ccaps; 1\u2A4Dccaron; 1\u010Dccedil 1\u00E7"
+    + "ccedil; 1\u00E7ccirc; 1\u0109ccups; 1\u2A4Cccupssm; 1\u2A50"
+    + "cdot; 1\u010Bcedil 1\u00B8cedil; 1\u00B8cemptyv; 1\u29B2"
+    + "cent 1\u00A2cent; 1\u00A2centerdot; 1\u00B7cfr; 2\uD835\uDD20"
+    + "chcy; 1\u0447check; 1\u2713checkmark; 1\u2713chi; 1\u03C7"
+    + "cir; 1\u25CBcirE; 1\u29C3circ; 1\u02C6circeq; 1\u2257"
+    + "circlearrowleft; 1\u21BAcirclearrowright; 1\u21BBcircledR; 1\u00AE"
+    + "circledS; 1\u24C8circledast; 1\u229Bcircledcirc; 1\u229A"
+    + "circleddash; 1\u229Dcire; 1\u2257cirfnint; 1\u2A10cirmid; 1\u2AEF"
+    + "cirscir; 1\u29C2clubs; 1\u2663clubsuit; 1\u2663colon; 1:"
+    + "colone; 1\u2254coloneq; 1\u2254comma; 1,commat; 1@comp; 1\u2201"
+    + "compfn; 1\u2218complement; 1\u2201complexes; 1\u2102cong; 1\u2245"
+    + "congdot; 1\u2A6Dconint; 1\u222Ecopf; 2\uD835\uDD54coprod; 1\u2210"
+    + "copy 1\u00A9copy; 1\u00A9copysr; 1\u2117crarr; 1\u21B5"
+    + "cross; 1\u2717cscr; 2\uD835\uDCB8csub; 1\u2ACFcsube; 1\u2AD1"
+    + "csup; 1\u2AD0csupe; 1\u2AD2ctdot; 1\u22EFcudarrl; 1\u2938"
+    + "cudarrr; 1\u2935cuepr; 1\u22DEcuesc; 1\u22DFcularr; 1\u21B6"
+    + "cularrp; 1\u293Dcup; 1\u222Acupbrcap; 1\u2A48cupcap; 1\u2A46"
+    + "cupcup; 1\u2A4Acupdot; 1\u228Dcupor; 1\u2A45cups; 2\u222A\uFE00"
+    + "curarr; 1\u21B7curarrm; 1\u293Ccurlyeqprec; 1\u22DE"
+    + "curlyeqsucc; 1\u22DFcurlyvee; 1\u22CEcurlywedge; 1\u22CF"
+    + "curren 1\u00A4curren; 1\u00A4curvearrowleft; 1\u21B6"
+    + "curvearrowright; 1\u21B7cuvee; 1\u22CEcuwed; 1\u22CF"
+    + "cwconint; 1\u2232cwint; 1\u2231cylcty; 1\u232DdArr; 1\u21D3"
+    + "dHar; 1\u2965dagger; 1\u2020daleth; 1\u2138darr; 1\u2193"
+    + "dash; 1\u2010dashv; 1\u22A3dbkarow; 1\u290Fdblac; 1\u02DD"
+    + "dcaron; 1\u010Fdcy; 1\u0434dd; 1\u2146ddagger; 1\u2021"
+    + "ddarr; 1\u21CAddotseq; 1\u2A77deg 1\u00B0deg; 1\u00B0"
+    + "delta; 1\u03B4demptyv; 1\u29B1dfisht; 1\u297Fdfr; 2\uD835\uDD21"
+    + "dharl; 1\u21C3dharr; 1\u21C2diam; 1\u22C4diamond; 1\u22C4"
+    + "diamondsuit; 1\u2666diams; 1\u2666die; 1\u00A8digamma; 1\u03DD"
+    + "disin; 1\u22F2div; 1\u00F7divide 1\u00F7divide; 1\u00F7"
+    + "divideontimes; 1\u22C7divonx; 1\u22C7djcy; 1\u0452dlcorn; 1\u231E"
+    + "dlcrop; 1\u230Ddollar; 1$dopf; 2\uD835\uDD55dot; 1\u02D9"
+    + "doteq; 1\u2250doteqdot; 1\u2251dotminus; 1\u2238dotplus; 1\u2214"
+    + "dotsquare; 1\u22A1doublebarwedge; 1\u2306downarrow; 1\u2193"
+    + "downdownarrows; 1\u21CAdownharpoonleft; 1\u21C3"
+    + "downharpoonright; 1\u21C2drbkarow; 1\u2910drcorn; 1\u231F"
+    + "drcrop; 1\u230Cdscr; 2\uD835\uDCB9dscy; 1\u0455dsol; 1\u29F6"
+    + "dstrok; 1\u0111dtdot; 1\u22F1dtri; 1\u25BFdtrif; 1\u25BE"
+    + "duarr; 1\u21F5duhar; 1\u296Fdwangle; 1\u29A6dzcy; 1\u045F"
+    + "dzigrarr; 1\u27FFeDDot; 1\u2A77eDot; 1\u2251eacute 1\u00E9"
+    + "eacute; 1\u00E9easter; 1\u2A6Eecaron; 1\u011Becir; 1\u2256"
+    + "ecirc 1\u00EAecirc; 1\u00EAecolon; 1\u2255ecy; 1\u044D"
+    + "edot; 1\u0117ee; 1\u2147efDot; 1\u2252efr; 2\uD835\uDD22"
+    + "eg; 1\u2A9Aegrave 1\u00E8egrave; 1\u00E8egs; 1\u2A96"
+    + "egsdot; 1\u2A98el; 1\u2A99elinters; 1\u23E7ell; 1\u2113"
+    + "els; 1\u2A95elsdot; 1\u2A97emacr; 1\u0113empty; 1\u2205"
+    + "emptyset; 1\u2205emptyv; 1\u2205emsp13; 1\u2004emsp14; 1\u2005"
+    + "emsp; 1\u2003eng; 1\u014Bensp; 1\u2002eogon; 1\u0119"
+    + "eopf; 2\uD835\uDD56epar; 1\u22D5eparsl; 1\u29E3eplus; 1\u2A71"
+    + "epsi; 1\u03B5epsilon; 1\u03B5epsiv; 1\u03F5eqcirc; 1\u2256"
+    + "eqcolon; 1\u2255eqsim; 1\u2242eqslantgtr; 1\u2A96"
+    + "eqslantless; 1\u2A95equals; 1=equest; 1\u225Fequiv; 1\u2261"
+    + "equivDD; 1\u2A78eqvparsl; 1\u29E5erDot; 1\u2253erarr; 1\u2971"
+    + "escr; 1\u212Fesdot; 1\u2250esim; 1\u2242eta; 1\u03B7eth 1\u00F0"
+    + "eth; 1\u00F0euml 1\u00EBeuml; 1\u00EBeuro; 1\u20ACexcl; 1!"
+    + "exist; 1\u2203expectation; 1\u2130exponentiale; 1\u2147"
+    + "fallingdotseq; 1\u2252fcy; 1\u0444female; 1\u2640ffilig; 1\uFB03"
+    + "fflig; 1\uFB00ffllig; 1\uFB04ffr; 2\uD835\uDD23filig; 1\uFB01"
+    + "fjlig; 2fjflat; 1\u266Dfllig; 1\uFB02fltns; 1\u25B1fnof; 1\u0192"
+    + "fopf; 2\uD835\uDD57forall; 1\u2200fork; 1\u22D4forkv; 1\u2AD9"
+    + "fpartint; 1\u2A0Dfrac12 1\u00BDfrac12; 1\u00BDfrac13; 1\u2153"
+    + "frac14 1\u00BCfrac14; 1\u00BCfrac15; 1\u2155frac16; 1\u2159"
+    + "frac18; 1\u215Bfrac23; 1\u2154frac25; 1\u2156frac34 1\u00BE"
+    + "frac34; 1\u00BEfrac35; 1\u2157frac38; 1\u215Cfrac45; 1\u2158"
+    + "frac56; 1\u215Afrac58; 1\u215Dfrac78; 1\u215Efrasl; 1\u2044"
+    + "frown; 1\u2322fscr; 2\uD835\uDCBBgE; 1\u2267gEl; 1\u2A8C"
+    + "gacute; 1\u01F5gamma; 1\u03B3gammad; 1\u03DDgap; 1\u2A86"
+    + "gbreve; 1\u011Fgcirc; 1\u011Dgcy; 1\u0433gdot; 1\u0121ge; 1\u2265"
+    + "gel; 1\u22DBgeq; 1\u2265geqq; 1\u2267geqslant; 1\u2A7Eges; 1\u2A7E"
+    + "gescc; 1\u2AA9gesdot; 1\u2A80gesdoto; 1\u2A82gesdotol; 1\u2A84"
+    + "gesl; 2\u22DB\uFE00gesles; 1\u2A94gfr; 2\uD835\uDD24gg; 1\u226B"
+    + "ggg; 1\u22D9gimel; 1\u2137gjcy; 1\u0453gl; 1\u2277glE; 1\u2A92"
+    + "gla; 1\u2AA5glj; 1\u2AA4gnE; 1\u2269gnap; 1\u2A8Agnapprox; 1\u2A8A"
+    + "gne; 1\u2A88gneq; 1\u2A88gneqq; 1\u2269gnsim; 1\u22E7"
+    + "gopf; 2\uD835\uDD58grave; 1`gscr; 1\u210Agsim; 1\u2273"
+    + "gsime; 1\u2A8Egsiml; 1\u2A90gt 1>gt; 1>gtcc; 1\u2AA7gtcir; 1\u2A7A"
+    + "gtdot; 1\u22D7gtlPar; 1\u2995gtquest; 1\u2A7Cgtrapprox; 1\u2A86"
+    + "gtrarr; 1\u2978gtrdot; 1\u22D7gtreqless; 1\u22DB"
+    + "gtreqqless; 1\u2A8Cgtrless; 1\u2277gtrsim; 1\u2273"
+    + "gvertneqq; 2\u2269\uFE00gvnE; 2\u2269\uFE00hArr; 1\u21D4"
+    + "hairsp; 1\u200Ahalf; 1\u00BDhamilt; 1\u210Bhardcy; 1\u044A"
+    + "harr; 1\u2194harrcir; 1\u2948harrw; 1\u21ADhbar; 1\u210F"
+    + "hcirc; 1\u0125hearts; 1\u2665heartsuit; 1\u2665hellip; 1\u2026"
+    + "hercon; 1\u22B9hfr; 2\uD835\uDD25hksearow; 1\u2925"
+    + "hkswarow; 1\u2926hoarr; 1\u21FFhomtht; 1\u223B"
+    + "hookleftarrow; 1\u21A9hookrightarrow; 1\u21AAhopf; 2\uD835\uDD59"
+    + "horbar; 1\u2015hscr; 2\uD835\uDCBDhslash; 1\u210Fhstrok; 1\u0127"
+    + "hybull; 1\u2043hyphen; 1\u2010iacute 1\u00EDiacute; 1\u00ED"
+    + "ic; 1\u2063icirc 1\u00EEicirc; 1\u00EEicy; 1\u0438iecy; 1\u0435"
+    + "iexcl 1\u00A1iexcl; 1\u00A1iff; 1\u21D4ifr; 2\uD835\uDD26"
+    + "igrave 1\u00ECigrave; 1\u00ECii; 1\u2148iiiint; 1\u2A0C"
+    + "iiint; 1\u222Diinfin; 1\u29DCiiota; 1\u2129ijlig; 1\u0133"
+    + "imacr; 1\u012Bimage; 1\u2111imagline; 1\u2110imagpart; 1\u2111"
+    + "imath; 1\u0131imof; 1\u22B7imped; 1\u01B5in; 1\u2208"
+    + "incare; 1\u2105infin; 1\u221Einfintie; 1\u29DDinodot; 1\u0131"
+    + "int; 1\u222Bintcal; 1\u22BAintegers; 1\u2124intercal; 1\u22BA"
+    + "intlarhk; 1\u2A17intprod; 1\u2A3Ciocy; 1\u0451iogon; 1\u012F"
+    + "iopf; 2\uD835\uDD5Aiota; 1\u03B9iprod; 1\u2A3Ciquest 1\u00BF"
+    + "iquest; 1\u00BFiscr; 2\uD835\uDCBEisin; 1\u2208isinE; 1\u22F9"
+    + "isindot; 1\u22F5isins; 1\u22F4isinsv; 1\u22F3isinv; 1\u2208"
+    + "it; 1\u2062itilde; 1\u0129iukcy; 1\u0456iuml 1\u00EFiuml; 1\u00EF"
+    + "jcirc; 1\u0135jcy; 1\u0439jfr; 2\uD835\uDD27jmath; 1\u0237"
+    + "jopf; 2\uD835\uDD5Bjscr; 2\uD835\uDCBFjsercy; 1\u0458"
+    + "jukcy; 1\u0454kappa; 1\u03BAkappav; 1\u03F0kcedil; 1\u0137"
+    + "kcy; 1\u043Akfr; 2\uD835\uDD28kgreen; 1\u0138khcy; 1\u0445"
+    + "kjcy; 1\u045Ckopf; 2\uD835\uDD5Ckscr; 2\uD835\uDCC0lAarr; 1\u21DA"
+    + "lArr; 1\u21D0lAtail; 1\u291BlBarr; 1\u290ElE; 1\u2266lEg; 1\u2A8B"
+    + "lHar; 1\u2962lacute; 1\u013Alaemptyv; 1\u29B4lagran; 1\u2112"
+    + "lambda; 1\u03BBlang; 1\u27E8langd; 1\u2991langle; 1\u27E8"
+    + "lap; 1\u2A85laquo 1\u00ABlaquo; 1\u00ABlarr; 1\u2190larrb; 1\u21E4"
+    + "larrbfs; 1\u291Flarrfs; 1\u291Dlarrhk; 1\u21A9larrlp; 1\u21AB"
+    + "larrpl; 1\u2939larrsim; 1\u2973larrtl; 1\u21A2lat; 1\u2AAB"
+    + "latail; 1\u2919late; 1\u2AADlates; 2\u2AAD\uFE00lbarr; 1\u290C"
+    + "lbbrk; 1\u2772lbrace; 1{lbrack; 1[lbrke; 1\u298Blbrksld; 1\u298F"
+    + "lbrkslu; 1\u298Dlcaron; 1\u013Elcedil; 1\u013Clceil; 1\u2308"
+    + "lcub; 1{lcy; 1\u043Bldca; 1\u2936ldquo; 1\u201Cldquor; 1\u201E"
+    + "ldrdhar; 1\u2967ldrushar; 1\u294Bldsh; 1\u21B2le; 1\u2264"
+    + "leftarrow; 1\u2190leftarrowtail; 1\u21A2leftharpoondown; 1\u21BD"
+    + "leftharpoonup; 1\u21BCleftleftarrows; 1\u21C7"
+    + "leftrightarrow; 1\u2194leftrightarrows; 1\u21C6"
+    + "leftrightharpoons; 1\u21CBleftrightsquigarrow; 1\u21AD"
+    + "leftthreetimes; 1\u22CBleg; 1\u22DAleq; 1\u2264leqq; 1\u2266"
+    + "leqslant; 1\u2A7Dles; 1\u2A7Dlescc; 1\u2AA8lesdot; 1\u2A7F"
+    + "lesdoto; 1\u2A81lesdotor; 1\u2A83lesg; 2\u22DA\uFE00"
+    + "lesges; 1\u2A93lessapprox; 1\u2A85lessdot; 1\u22D6"
+    + "lesseqgtr; 1\u22DAlesseqqgtr; 1\u2A8Blessgtr; 1\u2276"
+    + "lesssim; 1\u2272lfisht; 1\u297Clfloor; 1\u230Alfr; 2\uD835\uDD29"
+    + "lg; 1\u2276lgE; 1\u2A91lhard; 1\u21BDlharu; 1\u21BClharul; 1\u296A"
+    + "lhblk; 1\u2584ljcy; 1\u0459ll; 1\u226Allarr; 1\u21C7"
+    + "llcorner; 1\u231Ellhard; 1\u296Blltri; 1\u25FAlmidot; 1\u0140"
+    + "lmoust; 1\u23B0lmoustache; 1\u23B0lnE; 1\u2268lnap; 1\u2A89"
+    + "lnapprox; 1\u2A89lne; 1\u2A87lneq; 1\u2A87lneqq; 1\u2268"
+    + "lnsim; 1\u22E6loang; 1\u27ECloarr; 1\u21FDlobrk; 1\u27E6"
+    + "longleftarrow; 1\u27F5longleftrightarrow; 1\u27F7"
+    + "longmapsto; 1\u27FClongrightarrow; 1\u27F6looparrowleft; 1\u21AB"
+    + "looparrowright; 1\u21AClopar; 1\u2985lopf; 2\uD835\uDD5D"
+    + "loplus; 1\u2A2Dlotimes; 1\u2A34lowast; 1\u2217lowbar; 1_"
+    + "loz; 1\u25CAlozenge; 1\u25CAlozf; 1\u29EBlpar; 1(lparlt; 1\u2993"
+    + "lrarr; 1\u21C6lrcorner; 1\u231Flrhar; 1\u21CBlrhard; 1\u296D"
+    + "lrm; 1\u200Elrtri; 1\u22BFlsaquo; 1\u2039lscr; 2\uD835\uDCC1"
+    + "lsh; 1\u21B0lsim; 1\u2272lsime; 1\u2A8Dlsimg; 1\u2A8Flsqb; 1["
+    + "lsquo; 1\u2018lsquor; 1\u201Alstrok; 1\u0142lt 1<lt; 1<"
+    + "ltcc; 1\u2AA6ltcir; 1\u2A79ltdot; 1\u22D6lthree; 1\u22CB"
+    + "ltimes; 1\u22C9ltlarr; 1\u2976ltquest; 1\u2A7BltrPar; 1\u2996"
+    + "ltri; 1\u25C3ltrie; 1\u22B4ltrif; 1\u25C2lurdshar; 1\u294A"
+    + "luruhar; 1\u2966lvertneqq; 2\u2268\uFE00lvnE; 2\u2268\uFE00"
+    + "mDDot; 1\u223Amacr 1\u00AFmacr; 1\u00AFmale; 1\u2642malt; 1\u2720"
+    + "maltese; 1\u2720map; 1\u21A6mapsto; 1\u21A6mapstodown; 1\u21A7"
+    + "mapstoleft; 1\u21A4mapstoup; 1\u21A5marker; 1\u25AEmcomma; 1\u2A29"
+    + "mcy; 1\u043Cmdash; 1\u2014measuredangle; 1\u2221mfr; 2\uD835\uDD2A"
+    + "mho; 1\u2127micro 1\u00B5micro; 1\u00B5mid; 1\u2223midast; 1*"
+    + "midcir; 1\u2AF0middot 1\u00B7middot; 1\u00B7minus; 1\u2212"
+    + "minusb; 1\u229Fminusd; 1\u2238minusdu; 1\u2A2Amlcp; 1\u2ADB"
+    + "mldr; 1\u2026mnplus; 1\u2213models; 1\u22A7mopf; 2\uD835\uDD5E"
+    + "mp; 1\u2213mscr; 2\uD835\uDCC2mstpos; 1\u223Emu; 1\u03BC"
+    + "multimap; 1\u22B8mumap; 1\u22B8nGg; 2\u22D9\u0338"
+    + "nGt; 2\u226B\u20D2nGtv; 2\u226B\u0338nLeftarrow; 1\u21CD"
+    + "nLeftrightarrow; 1\u21CEnLl; 2\u22D8\u0338nLt; 2\u226A\u20D2"
+    + "nLtv; 2\u226A\u0338nRightarrow; 1\u21CFnVDash; 1\u22AF"
+    + "nVdash; 1\u22AEnabla; 1\u2207nacute; 1\u0144nang; 2\u2220\u20D2"
+    + "nap; 1\u2249napE; 2\u2A70\u0338napid; 2\u224B\u0338napos; 1\u0149"
+    + "napprox; 1\u2249natur; 1\u266Enatural; 1\u266Enaturals; 1\u2115"
+    + "nbsp 1\u00A0nbsp; 1\u00A0nbump; 2\u224E\u0338nbumpe; 2\u224F\u0338"
+    + "ncap; 1\u2A43ncaron; 1\u0148ncedil; 1\u0146ncong; 1\u2247"
+    + "ncongdot; 2\u2A6D\u0338ncup; 1\u2A42ncy; 1\u043Dndash; 1\u2013"
+    + "ne; 1\u2260neArr; 1\u21D7nearhk; 1\u2924nearr; 1\u2197"
+    + "nearrow; 1\u2197nedot; 2\u2250\u0338nequiv; 1\u2262nesear; 1\u2928"
+    + "nesim; 2\u2242\u0338nexist; 1\u2204nexists; 1\u2204"
+    + "nfr; 2\uD835\uDD2BngE; 2\u2267\u0338nge; 1\u2271ngeq; 1\u2271"
+    + "ngeqq; 2\u2267\u0338ngeqslant; 2\u2A7E\u0338nges; 2\u2A7E\u0338"
+    + "ngsim; 1\u2275ngt; 1\u226Fngtr; 1\u226FnhArr; 1\u21CE"
+    + "nharr; 1\u21AEnhpar; 1\u2AF2ni; 1\u220Bnis; 1\u22FCnisd; 1\u22FA"
+    + "niv; 1\u220Bnjcy; 1\u045AnlArr; 1\u21CDnlE; 2\u2266\u0338"
+    + "nlarr; 1\u219Anldr; 1\u2025nle; 1\u2270nleftarrow; 1\u219A"
+    + "nleftrightarrow; 1\u21AEnleq; 1\u2270nleqq; 2\u2266\u0338"
+    + "nleqslant; 2\u2A7D\u0338nles; 2\u2A7D\u0338nless; 1\u226E"
+    + "nlsim; 1\u2274nlt; 1\u226Enltri; 1\u22EAnltrie; 1\u22EC"
+    + "nmid; 1\u2224nopf; 2\uD835\uDD5Fnot 1\u00ACnot; 1\u00AC"
+    + "notin; 1\u2209notinE; 2\u22F9\u0338notindot; 2\u22F5\u0338"
+    + "notinva; 1\u2209notinvb; 1\u22F7notinvc; 1\u22F6notni; 1\u220C"
+    + "notniva; 1\u220Cnotnivb; 1\u22FEnotnivc; 1\u22FDnpar; 1\u2226"
+    + "nparallel; 1\u2226nparsl; 2\u2AFD\u20E5npart; 2\u2202\u0338"
+    + "npolint; 1\u2A14npr; 1\u2280nprcue; 1\u22E0npre; 2\u2AAF\u0338"
+    + "nprec; 1\u2280npreceq; 2\u2AAF\u0338nrArr; 1\u21CFnrarr; 1\u219B"
+    + "nrarrc; 2\u2933\u0338nrarrw; 2\u219D\u0338nrightarrow; 1\u219B"
+    + "nrtri; 1\u22EBnrtrie; 1\u22EDnsc; 1\u2281nsccue; 1\u22E1"
+    + "nsce; 2\u2AB0\u0338nscr; 2\uD835\uDCC3nshortmid; 1\u2224"
+    + "nshortparallel; 1\u2226nsim; 1\u2241nsime; 1\u2244nsimeq; 1\u2244"
+    + "nsmid; 1\u2224nspar; 1\u2226nsqsube; 1\u22E2nsqsupe; 1\u22E3"
+    + "nsub; 1\u2284nsubE; 2\u2AC5\u0338nsube; 1\u2288"
+    + "nsubset; 2\u2282\u20D2nsubseteq; 1\u2288nsubseteqq; 2\u2AC5\u0338"
+    + "nsucc; 1\u2281nsucceq; 2\u2AB0\u0338nsup; 1\u2285"
+    + "nsupE; 2\u2AC6\u0338nsupe; 1\u2289nsupset; 2\u2283\u20D2"
+    + "nsupseteq; 1\u2289nsupseteqq; 2\u2AC6\u0338ntgl; 1\u2279"
+    + "ntilde 1\u00F1ntilde; 1\u00F1ntlg; 1\u2278ntriangleleft; 1\u22EA"
+    + "ntrianglelefteq; 1\u22ECntriangleright; 1\u22EB"
+    + "ntrianglerighteq; 1\u22EDnu; 1\u03BDnum; 1#numero; 1\u2116"
+    + "numsp; 1\u2007nvDash; 1\u22ADnvHarr; 1\u2904nvap; 2\u224D\u20D2"
+    + "nvdash; 1\u22ACnvge; 2\u2265\u20D2nvgt; 2>\u20D2nvinfin; 1\u29DE"
+    + "nvlArr; 1\u2902nvle; 2\u2264\u20D2nvlt; 2<\u20D2"
+    + "nvltrie; 2\u22B4\u20D2nvrArr; 1\u2903nvrtrie; 2\u22B5\u20D2"
+    + "nvsim; 2\u223C\u20D2nwArr; 1\u21D6nwarhk; 1\u2923nwarr; 1\u2196"
+    + "nwarrow; 1\u2196nwnear; 1\u2927oS; 1\u24C8oacute 1\u00F3"
+    + "oacute; 1\u00F3oast; 1\u229Bocir; 1\u229Aocirc 1\u00F4"
+    + "ocirc; 1\u00F4ocy; 1\u043Eodash; 1\u229Dodblac; 1\u0151"
+    + "odiv; 1\u2A38odot; 1\u2299odsold; 1\u29BCoelig; 1\u0153"
+    + "ofcir; 1\u29BFofr; 2\uD835\uDD2Cogon; 1\u02DBograve 1\u00F2"
+    + "ograve; 1\u00F2ogt; 1\u29C1ohbar; 1\u29B5ohm; 1\u03A9oint; 1\u222E"
+    + "olarr; 1\u21BAolcir; 1\u29BEolcross; 1\u29BBoline; 1\u203E"
+    + "olt; 1\u29C0omacr; 1\u014Domega; 1\u03C9omicron; 1\u03BF"
+    + "omid; 1\u29B6ominus; 1\u2296oopf; 2\uD835\uDD60opar; 1\u29B7"
+    + "operp; 1\u29B9oplus; 1\u2295or; 1\u2228orarr; 1\u21BBord; 1\u2A5D"
+    + "order; 1\u2134orderof; 1\u2134ordf 1\u00AAordf; 1\u00AA"
+    + "ordm 1\u00BAordm; 1\u00BAorigof; 1\u22B6oror; 1\u2A56"
+    + "orslope; 1\u2A57orv; 1\u2A5Boscr; 1\u2134oslash 1\u00F8"
+    + "oslash; 1\u00F8osol; 1\u2298otilde 1\u00F5otilde; 1\u00F5"
+    + "otimes; 1\u2297otimesas; 1\u2A36ouml 1\u00F6ouml; 1\u00F6"
+    + "ovbar; 1\u233Dpar; 1\u2225para 1\u00B6para; 1\u00B6"
+    + "parallel; 1\u2225parsim; 1\u2AF3parsl; 1\u2AFDpart; 1\u2202"
+    + "pcy; 1\u043Fpercnt; 1%period; 1.permil; 1\u2030perp; 1\u22A5"
+    + "pertenk; 1\u2031pfr; 2\uD835\uDD2Dphi; 1\u03C6phiv; 1\u03D5"
+    + "phmmat; 1\u2133phone; 1\u260Epi; 1\u03C0pitchfork; 1\u22D4"
+    + "piv; 1\u03D6planck; 1\u210Fplanckh; 1\u210Eplankv; 1\u210Fplus; 1+"
+    + "plusacir; 1\u2A23plusb; 1\u229Epluscir; 1\u2A22plusdo; 1\u2214"
+    + "plusdu; 1\u2A25pluse; 1\u2A72plusmn 1\u00B1plusmn; 1\u00B1"
+    + "plussim; 1\u2A26plustwo; 1\u2A27pm; 1\u00B1pointint; 1\u2A15"
+    + "popf; 2\uD835\uDD61pound 1\u00A3pound; 1\u00A3pr; 1\u227A"
+    + "prE; 1\u2AB3prap; 1\u2AB7prcue; 1\u227Cpre; 1\u2AAFprec; 1\u227A"
+    + "precapprox; 1\u2AB7preccurlyeq; 1\u227Cpreceq; 1\u2AAF"
+    + "precnapprox; 1\u2AB9precneqq; 1\u2AB5precnsim; 1\u22E8"
+    + "precsim; 1\u227Eprime; 1\u2032primes; 1\u2119prnE; 1\u2AB5"
+    + "prnap; 1\u2AB9prnsim; 1\u22E8prod; 1\u220Fprofalar; 1\u232E"
+    + "profline; 1\u2312profsurf; 1\u2313prop; 1\u221Dpropto; 1\u221D"
+    + "prsim; 1\u227Eprurel; 1\u22B0pscr; 2\uD835\uDCC5psi; 1\u03C8"
+    + "puncsp; 1\u2008qfr; 2\uD835\uDD2Eqint; 1\u2A0Cqopf; 2\uD835\uDD62"
+    + "qprime; 1\u2057qscr; 2\uD835\uDCC6quaternions; 1\u210D"
+    + "quatint; 1\u2A16quest; 1?questeq; 1\u225Fquot 1\"quot; 1\""
+    + "rAarr; 1\u21DBrArr; 1\u21D2rAtail; 1\u291CrBarr; 1\u290F"
+    + "rHar; 1\u2964race; 2\u223D\u0331racute; 1\u0155radic; 1\u221A"
+    + "raemptyv; 1\u29B3rang; 1\u27E9rangd; 1\u2992range; 1\u29A5"
+    + "rangle; 1\u27E9raquo 1\u00BBraquo; 1\u00BBrarr; 1\u2192"
+    + "rarrap; 1\u2975rarrb; 1\u21E5rarrbfs; 1\u2920rarrc; 1\u2933"
+    + "rarrfs; 1\u291Erarrhk; 1\u21AArarrlp; 1\u21ACrarrpl; 1\u2945"
+    + "rarrsim; 1\u2974rarrtl; 1\u21A3rarrw; 1\u219Dratail; 1\u291A"
+    + "ratio; 1\u2236rationals; 1\u211Arbarr; 1\u290Drbbrk; 1\u2773"
+    + "rbrace; 1}rbrack; 1]rbrke; 1\u298Crbrksld; 1\u298Erbrkslu; 1\u2990"
+    + "rcaron; 1\u0159rcedil; 1\u0157rceil; 1\u2309rcub; 1}rcy; 1\u0440"
+    + "rdca; 1\u2937rdldhar; 1\u2969rdquo; 1\u201Drdquor; 1\u201D"
+    + "rdsh; 1\u21B3real; 1\u211Crealine; 1\u211Brealpart; 1\u211C"
+    + "reals; 1\u211Drect; 1\u25ADreg 1\u00AEreg; 1\u00AErfisht; 1\u297D"
+    + "rfloor; 1\u230Brfr; 2\uD835\uDD2Frhard; 1\u21C1rharu; 1\u21C0"
+    + "rharul; 1\u296Crho; 1\u03C1rhov; 1\u03F1rightarrow; 1\u2192"
+    + "rightarrowtail; 1\u21A3rightharpoondown; 1\u21C1"
+    + "rightharpoonup; 1\u21C0rightleftarrows; 1\u21C4"
+    + "rightleftharpoons; 1\u21CCrightrightarrows; 1\u21C9"
+    + "rightsquigarrow; 1\u219Drightthreetimes; 1\u22CCring; 1\u02DA"
+    + "risingdotseq; 1\u2253rlarr; 1\u21C4rlhar; 1\u21CCrlm; 1\u200F"
+    + "rmoust; 1\u23B1rmoustache; 1\u23B1rnmid; 1\u2AEEroang; 1\u27ED"
+    + "roarr; 1\u21FErobrk; 1\u27E7ropar; 1\u2986ropf; 2\uD835\uDD63"
+    + "roplus; 1\u2A2Erotimes; 1\u2A35rpar; 1)rpargt; 1\u2994"
+    + "rppolint; 1\u2A12rrarr; 1\u21C9rsaquo; 1\u203Arscr; 2\uD835\uDCC7"
+    + "rsh; 1\u21B1rsqb; 1]rsquo; 1\u2019rsquor; 1\u2019rthree; 1\u22CC"
+    + "rtimes; 1\u22CArtri; 1\u25B9rtrie; 1\u22B5rtrif; 1\u25B8"
+    + "rtriltri; 1\u29CEruluhar; 1\u2968rx; 1\u211Esacute; 1\u015B"
+    + "sbquo; 1\u201Asc; 1\u227BscE; 1\u2AB4scap; 1\u2AB8scaron; 1\u0161"
+    + "sccue; 1\u227Dsce; 1\u2AB0scedil; 1\u015Fscirc; 1\u015D"
+    + "scnE; 1\u2AB6scnap; 1\u2ABAscnsim; 1\u22E9scpolint; 1\u2A13"
+    + "scsim; 1\u227Fscy; 1\u0441sdot; 1\u22C5sdotb; 1\u22A1"
+    + "sdote; 1\u2A66seArr; 1\u21D8searhk; 1\u2925searr; 1\u2198"
+    + "searrow; 1\u2198sect 1\u00A7sect; 1\u00A7semi; 1;seswar; 1\u2929"
+    + "setminus; 1\u2216setmn; 1\u2216sext; 1\u2736sfr; 2\uD835\uDD30"
+    + "sfrown; 1\u2322sharp; 1\u266Fshchcy; 1\u0449shcy; 1\u0448"
+    + "shortmid; 1\u2223shortparallel; 1\u2225shy 1\u00ADshy; 1\u00AD"
+    + "sigma; 1\u03C3sigmaf; 1\u03C2sigmav; 1\u03C2sim; 1\u223C"
+    + "simdot; 1\u2A6Asime; 1\u2243simeq; 1\u2243simg; 1\u2A9E"
+    + "simgE; 1\u2AA0siml; 1\u2A9DsimlE; 1\u2A9Fsimne; 1\u2246"
+    + "simplus; 1\u2A24simrarr; 1\u2972slarr; 1\u2190"
+    + "smallsetminus; 1\u2216smashp; 1\u2A33smeparsl; 1\u29E4"
+    + "smid; 1\u2223smile; 1\u2323smt; 1\u2AAAsmte; 1\u2AAC"
+    + "smtes; 2\u2AAC\uFE00softcy; 1\u044Csol; 1/solb; 1\u29C4"
+    + "solbar; 1\u233Fsopf; 2\uD835\uDD64spades; 1\u2660"
+    + "spadesuit; 1\u2660spar; 1\u2225sqcap; 1\u2293sqcaps; 2\u2293\uFE00"
+    + "sqcup; 1\u2294sqcups; 2\u2294\uFE00sqsub; 1\u228Fsqsube; 1\u2291"
+    + "sqsubset; 1\u228Fsqsubseteq; 1\u2291sqsup; 1\u2290sqsupe; 1\u2292"
+    + "sqsupset; 1\u2290sqsupseteq; 1\u2292squ; 1\u25A1square; 1\u25A1"
+    + "squarf; 1\u25AAsquf; 1\u25AAsrarr; 1\u2192sscr; 2\uD835\uDCC8"
+    + "ssetmn; 1\u2216ssmile; 1\u2323sstarf; 1\u22C6star; 1\u2606"
+    + "starf; 1\u2605straightepsilon; 1\u03F5straightphi; 1\u03D5"
+    + "strns; 1\u00AFsub; 1\u2282subE; 1\u2AC5subdot; 1\u2ABD"
+    + "sube; 1\u2286subedot; 1\u2AC3submult; 1\u2AC1subnE; 1\u2ACB"
+    + "subne; 1\u228Asubplus; 1\u2ABFsubrarr; 1\u2979subset; 1\u2282"
+    + "subseteq; 1\u2286subseteqq; 1\u2AC5subsetneq; 1\u228A"
+    + "subsetneqq; 1\u2ACBsubsim; 1\u2AC7subsub; 1\u2AD5subsup; 1\u2AD3"
+    + "succ; 1\u227Bsuccapprox; 1\u2AB8succcurlyeq; 1\u227D"
+    + "succeq; 1\u2AB0succnapprox; 1\u2ABAsuccneqq; 1\u2AB6"
+    + "succnsim; 1\u22E9succsim; 1\u227Fsum; 1\u2211sung; 1\u266A"
+    + "sup1 1\u00B9sup1; 1\u00B9sup2 1\u00B2sup2; 1\u00B2sup3 1\u00B3"
+    + "sup3; 1\u00B3sup; 1\u2283supE; 1\u2AC6supdot; 1\u2ABE"
+    + "supdsub; 1\u2AD8supe; 1\u2287supedot; 1\u2AC4suphsol; 1\u27C9"
+    + "suphsub; 1\u2AD7suplarr; 1\u297Bsupmult; 1\u2AC2supnE; 1\u2ACC"
+    + "supne; 1\u228Bsupplus; 1\u2AC0supset; 1\u2283supseteq; 1\u2287"
+    + "supseteqq; 1\u2AC6supsetneq; 1\u228Bsupsetneqq; 1\u2ACC"
+    + "supsim; 1\u2AC8supsub; 1\u2AD4supsup; 1\u2AD6swArr; 1\u21D9"
+    + "swarhk; 1\u2926swarr; 1\u2199swarrow; 1\u2199swnwar; 1\u292A"
+    + "szlig 1\u00DFszlig; 1\u00DFtarget; 1\u2316tau; 1\u03C4"
+    + "tbrk; 1\u23B4tcaron; 1\u0165tcedil; 1\u0163tcy; 1\u0442"
+    + "tdot; 1\u20DBtelrec; 1\u2315tfr; 2\uD835\uDD31there4; 1\u2234"
+    + "therefore; 1\u2234theta; 1\u03B8thetasym; 1\u03D1thetav; 1\u03D1"
+    + "thickapprox; 1\u2248thicksim; 1\u223Cthinsp; 1\u2009thkap; 1\u2248"
+    + "thksim; 1\u223Cthorn 1\u00FEthorn; 1\u00FEtilde; 1\u02DC"
+    + "times 1\u00D7times; 1\u00D7timesb; 1\u22A0timesbar; 1\u2A31"
+    + "timesd; 1\u2A30tint; 1\u222Dtoea; 1\u2928top; 1\u22A4"
+    + "topbot; 1\u2336topcir; 1\u2AF1topf; 2\uD835\uDD65topfork; 1\u2ADA"
+    + "tosa; 1\u2929tprime; 1\u2034trade; 1\u2122triangle; 1\u25B5"
+    + "triangledown; 1\u25BFtriangleleft; 1\u25C3trianglelefteq; 1\u22B4"
+    + "triangleq; 1\u225Ctriangleright; 1\u25B9trianglerighteq; 1\u22B5"
+    + "tridot; 1\u25ECtrie; 1\u225Ctriminus; 1\u2A3Atriplus; 1\u2A39"
+    + "trisb; 1\u29CDtritime; 1\u2A3Btrpezium; 1\u23E2tscr; 2\uD835\uDCC9"
+    + "tscy; 1\u0446tshcy; 1\u045Btstrok; 1\u0167twixt; 1\u226C"
+    + "twoheadleftarrow; 1\u219Etwoheadrightarrow; 1\u21A0uArr; 1\u21D1"
+    + "uHar; 1\u2963uacute 1\u00FAuacute; 1\u00FAuarr; 1\u2191"
+    + "ubrcy; 1\u045Eubreve; 1\u016Ducirc 1\u00FBucirc; 1\u00FB"
+    + "ucy; 1\u0443udarr; 1\u21C5udblac; 1\u0171udhar; 1\u296E"
+    + "ufisht; 1\u297Eufr; 2\uD835\uDD32ugrave 1\u00F9ugrave; 1\u00F9"
+    + "uharl; 1\u21BFuharr; 1\u21BEuhblk; 1\u2580ulcorn; 1\u231C"
+    + "ulcorner; 1\u231Culcrop; 1\u230Fultri; 1\u25F8umacr; 1\u016B"
+    + "uml 1\u00A8uml; 1\u00A8uogon; 1\u0173uopf; 2\uD835\uDD66"
+    + "uparrow; 1\u2191updownarrow; 1\u2195upharpoonleft; 1\u21BF"
+    + "upharpoonright; 1\u21BEuplus; 1\u228Eupsi; 1\u03C5upsih; 1\u03D2"
+    + "upsilon; 1\u03C5upuparrows; 1\u21C8urcorn; 1\u231D"
+    + "urcorner; 1\u231Durcrop; 1\u230Euring; 1\u016Furtri; 1\u25F9"
+    + "uscr; 2\uD835\uDCCAutdot; 1\u22F0utilde; 1\u0169utri; 1\u25B5"
+    + "utrif; 1\u25B4uuarr; 1\u21C8uuml 1\u00FCuuml; 1\u00FC"
+    + "uwangle; 1\u29A7vArr; 1\u21D5vBar; 1\u2AE8vBarv; 1\u2AE9"
+    + "vDash; 1\u22A8vangrt; 1\u299Cvarepsilon; 1\u03F5varkappa; 1\u03F0"
+    + "varnothing; 1\u2205varphi; 1\u03D5varpi; 1\u03D6varpropto; 1\u221D"
+    + "varr; 1\u2195varrho; 1\u03F1varsigma; 1\u03C2"
+    + "varsubsetneq; 2\u228A\uFE00varsubsetneqq; 2\u2ACB\uFE00"
+    + "varsupsetneq; 2\u228B\uFE00varsupsetneqq; 2\u2ACC\uFE00"
+    + "vartheta; 1\u03D1vartriangleleft; 1\u22B2vartriangleright; 1\u22B3"
+    + "vcy; 1\u0432vdash; 1\u22A2vee; 1\u2228veebar; 1\u22BB"
+    + "veeeq; 1\u225Avellip; 1\u22EEverbar; 1|vert; 1|vfr; 2\uD835\uDD33"
+    + "vltri; 1\u22B2vnsub; 2\u2282\u20D2vnsup; 2\u2283\u20D2"
+    + "vopf; 2\uD835\uDD67vprop; 1\u221Dvrtri; 1\u22B3vscr; 2\uD835\uDCCB"
+    + "vsubnE; 2\u2ACB\uFE00vsubne; 2\u228A\uFE00vsupnE; 2\u2ACC\uFE00"
+    + "vsupne; 2\u228B\uFE00vzigzag; 1\u299Awcirc; 1\u0175wedbar; 1\u2A5F"
+    + "wedge; 1\u2227wedgeq; 1\u2259weierp; 1\u2118wfr; 2\uD835\uDD34"
+    + "wopf; 2\uD835\uDD68wp; 1\u2118wr; 1\u2240wreath; 1\u2240"
+    + "wscr; 2\uD835\uDCCCxcap; 1\u22C2xcirc; 1\u25EFxcup; 1\u22C3"
+    + "xdtri; 1\u25BDxfr; 2\uD835\uDD35xhArr; 1\u27FAxharr; 1\u27F7"
+    + "xi; 1\u03BExlArr; 1\u27F8xlarr; 1\u27F5xmap; 1\u27FCxnis; 1\u22FB"
+    + "xodot; 1\u2A00xopf; 2\uD835\uDD69xoplus; 1\u2A01xotime; 1\u2A02"
+    + "xrArr; 1\u27F9xrarr; 1\u27F6xscr; 2\uD835\uDCCDxsqcup; 1\u2A06"
+    + "xuplus; 1\u2A04xutri; 1\u25B3xvee; 1\u22C1xwedge; 1\u22C0"
+    + "yacute 1\u00FDyacute; 1\u00FDyacy; 1\u044Fycirc; 1\u0177"
+    + "ycy; 1\u044Byen 1\u00A5yen; 1\u00A5yfr; 2\uD835\uDD36yicy; 1\u0457"
+    + "yopf; 2\uD835\uDD6Ayscr; 2\uD835\uDCCEyucy; 1\u044Eyuml 1\u00FF"
+    + "yuml; 1\u00FFzacute; 1\u017Azcaron; 1\u017Ezcy; 1\u0437"
+    + "zdot; 1\u017Czeetrf; 1\u2128zeta; 1\u03B6zfr; 2\uD835\uDD37"
+    + "zhcy; 1\u0436zigrarr; 1\u21DDzopf; 2\uD835\uDD6B"
+    + "zscr; 2\uD835\uDCCFzwj; 1\u200Dzwnj; 1\u200C";
+
+  /* class variables */
+
+  static volatile int[] base;     // double-array trie: base for each state
+  static int[] check;             // double-array trie: parent of each state
+  static int[] value;             // first character of value, or -1
+  static int[] value2;            // second character of value, or -1
+
+
+/*
+  buildTrie() method
+
+  Parse the entity table and build the trie.  Because the names are sorted,
+  the children of each node are a contiguous range of names with the same
+  prefix, and we can number the nodes breadth first with a simple queue.  The
+  nodes are then packed into a "double array": the child of state <s> for
+  character <c> is state <base[s] + c>, if and only if <check> for that state
+  is <s>.  Each step in the trie is one addition and one comparison.
+*/
+  static synchronized void buildTrie()
+  {
+    int count;                    // number of names in table
+    int depth;                    // length of prefix for current node
+    char[] edgeChar;              // character for each edge
+    int[] edgeNode;               // child node for each edge
+    int edges;                    // number of edges allocated so far
+    int high, low;                // range of names for current node
+    int i, k;                     // index variables
+    int length;                   // length of value in UTF-16 characters
+    String[] names;               // all names in sorted order
+    int node;                     // current node number
+    int[] nodeCount;              // number of edges leaving each node
+    int[] nodeFirst;              // index of first edge for each node
+    int[] nodeName;               // name ending at each node, or -1
+    int nodes;                    // number of nodes allocated so far
+    int[] nodeState;              // state in double array for each node
+    int[] queueDepth, queueHigh, queueLow; // names for each node (by number)
+    int size;                     // size of double arrays
+    int total;                    // upper limit on nodes and edges
+    int[] trieBase, trieCheck;    // double arrays being built
+    int[] trieValue, trieValue2;  // values being built
+    int[][] values;               // values for each name: one or two chars
+
+    if (base != null)             // another thread may have been first
+      return;
+
+    /* Split the table into names and values. */
+
+    count = 0;                    // count entries by looking for spaces
+    for (i = 0; i < ENTITY_TABLE.length(); i ++)
+    {
+      if (ENTITY_TABLE.charAt(i) == ' ')
+      {
+        count ++;                 // one more entry
+        i += ENTITY_TABLE.charAt(i + 1) - '0' + 1; // skip over value
+      }
+    }
+    names = new String[count];
+    values = new int[count][];
+    i = k = 0;                    // index into table, index of entry
+    total = 1;                    // root node, plus one per name character
+    while (k < count)
+    {
+      int space = ENTITY_TABLE.indexOf(' ', i);
+      names[k] = ENTITY_TABLE.substring(i, space);
+      length = ENTITY_TABLE.charAt(space + 1) - '0';
+      values[k] = PlainText3Engine.utfParse16(ENTITY_TABLE.substring(
+        (space + 2), (space + 2 + length)), false, false); // one or two
+      total += names[k].length();
+      i = space + 2 + length;     // start of next entry
+      k ++;
+    }
+
+    /* Number the nodes breadth first.  Each node's names are in the range
+    from <low> (inclusive) to <high> (exclusive), with <depth> characters in
+    common. */
+
+    edgeChar = new char[total];
+    edgeNode = new int[total];
+    nodeCount = new int[total];
+    nodeFirst = new int[total];
+    nodeName = new int[total];
+    queueDepth = new int[total];
+    queueHigh = new int[total];
+    queueLow = new int[total];
+
+    queueDepth[0] = 0;            // root node has all names
+    queueHigh[0] = count;
+    queueLow[0] = 0;
+    edges = 0;                    // no edges yet
+    nodes = 1;                    // only the root node
+    for (node = 0; node < nodes; node ++)
+    {
+      depth = queueDepth[node];
+      high = queueHigh[node];
+      low = queueLow[node];
+      nodeName[node] = -1;        // assume no name ends here
+      if (names[low].length() == depth) // sorted first if name ends here
+        nodeName[node] = low ++;  // remaining names are longer
+      nodeCount[node] = 0;        // no edges yet for this node
+      nodeFirst[node] = edges;    // where edges will begin
+      while (low < high)          // one child for each different character
+      {
+        char ch = names[low].charAt(depth);
+        i = low + 1;              // find end of names with same character
+        while ((i < high) && (names[i].charAt(depth) == ch))
+          i ++;
+        edgeChar[edges] = ch;
+        edgeNode[edges ++] = nodes;
+        nodeCount[node] ++;
+        queueDepth[nodes] = depth + 1;
+        queueHigh[nodes] = i;
+        queueLow[nodes ++] = low;
+        low = i;                  // next range of names
+      }
+    }
+
+    /* Pack the nodes into the double arrays, in the same breadth-first order,
+    so each node has a state before its children are placed.  For each node,
+    find the lowest base where all of its children land on free states.  The
+    arrays have room for any ASCII character past the highest base. */
+
+    size = nodes + (2 * ROOT_SIZE); // grows below if necessary
+    trieBase = new int[size];
+    trieCheck = new int[size];
+    Arrays.fill(trieCheck, -1);   // all states are free
+    trieCheck[0] = 0;             // except the root
+    nodeState = new int[nodes];
+    nodeState[0] = 0;             // root node is state zero
+    low = 1;                      // lowest base worth trying
+    for (node = 0; node < nodes; node ++)
+    {
+      int b;                      // candidate base for this node
+      boolean fits = false;       // true when all children fit
+      for (b = low; fits == false; b ++)
+      {
+        while ((b + ROOT_SIZE) >= size) // make room for any ASCII child
+        {
+          size *= 2;
+          trieBase = grow(trieBase, size, 0);
+          trieCheck = grow(trieCheck, size, -1);
+        }
+        fits = true;              // assume children fit at this base
+        for (i = 0; fits && (i < nodeCount[node]); i ++)
+          fits = (trieCheck[b + edgeChar[nodeFirst[node] + i]] < 0);
+      }
+      b --;                       // undo last increment from <for> loop
+      trieBase[nodeState[node]] = b;
+      for (i = 0; i < nodeCount[node]; i ++)
+      {
+        int child = b + edgeChar[nodeFirst[node] + i];
+        trieCheck[child] = nodeState[node];
+        nodeState[edgeNode[nodeFirst[node] + i]] = child;
+      }
+      while (trieCheck[low] >= 0) // skip past states that are now full
+        low ++;
+    }
+
+    /* Put the values where the names end, and flag the legacy names. */
+
+    trieValue = new int[size];
+    trieValue2 = new int[size];
+    Arrays.fill(trieValue, -1);   // most states are not a complete name
+    Arrays.fill(trieValue2, -1);
+    for (node = 0; node < nodes; node ++)
+    {
+      if (nodeName[node] >= 0)
+      {
+        trieValue[nodeState[node]] = values[nodeName[node]][0];
+        if (values[nodeName[node]].length > 1)
+          trieValue2[nodeState[node]] = values[nodeName[node]][1];
+        if (names[nodeName[node]].endsWith(";") == false)
+          trieBase[nodeState[node]] |= LEGACY_FLAG; // legacy, no semicolon
+      }
+    }
+
+    /* Other threads look at <base> without locking.  It's volatile and goes
+    last, so a thread that sees the new <base> also sees the other arrays. */
+
+    check = trieCheck;
+    value = trieValue;
+    value2 = trieValue2;
+    base = trieBase;              // trie is now ready for use
+
+  } // end of buildTrie() method
+
+
+/*
+  grow() method
+
+  Return a copy of an integer array with a larger size, filling new elements
+  with the given value.
+*/
+  static int[] grow(int[] array, int size, int fill)
+  {
+    int[] result = new int[size];
+    System.arraycopy(array, 0, result, 0, array.length);
+    Arrays.fill(result, array.length, size, fill);
+    return(result);
+  }
+
+
+/*
+  match() method
+
+  Look for a named character reference starting at the given index, which is
+  just after the ampersand.  Return the index after the longest matching name,
+  or -1 if there is no match.  The characters for the name are put into the
+  caller's array, with -1 for the second character when there is only one.
+*/
+  static int match(
+    char[] input,                 // UTF-16 characters to be parsed
+    int start,                    // index of first character after "&"
+    int[] result)                 // two characters for matching name
+  {
+    char ch;                      // one character from input string
+    int i;                        // index into input string
+    int matchEnd;                 // index after longest matching name
+    int matchState;               // state for longest matching name
+    int next;                     // possible next state
+    int state;                    // current state in trie
+    int[] trieBase, trieCheck;    // local copies of double-array trie
+
+    if (base == null)             // trie is built the first time we need it
+      buildTrie();
+
+    /* Every name with a semicolon ends at the semicolon, so we stop there.
+    Legacy names without a semicolon are flagged in the sign bit of <base>,
+    which we need to load anyway, and might be followed by a longer name. */
+
+    i = start;
+    matchEnd = matchState = -1;   // no match found yet
+    state = 0;                    // start at root of trie
+    trieBase = base;
+    trieCheck = check;
+    while (i < input.length)
+    {
+      ch = input[i ++];           // next character to follow in trie
+      if (ch >= ROOT_SIZE)        // names have only ASCII characters
+        break;                    // exit early from <while> loop
+      next = (trieBase[state] & BASE_MASK) + ch;
+      if (trieCheck[next] != state) // no name continues with this character
+        break;                    // exit early from <while> loop
+      state = next;
+      if (ch == ';')              // complete name, always the longest
+      {
+        matchEnd = i;
+        matchState = state;
+        break;                    // exit early from <while> loop
+      }
+      if (trieBase[state] < 0)    // legacy name without a semicolon?
+      {
+        matchEnd = i;             // remember longest name so far
+        matchState = state;
+      }
+    }
+    if (matchState >= 0)          // copy characters for the name we found
+    {
+      result[0] = value[matchState];
+      result[1] = value2[matchState];
+    }
+    return(matchEnd);             // index after name, or -1
+
+  } // end of match() method
+
+} // end of PlainText3Entity class
+
+/* Copyright (c) 2019 by Keith Fenske.  Apache License or GNU GPL. */
@@ -0,0 +1,179 @@
+/*
+  Plain Text #3 (Fold) - Compatibility Folding
+  Java class name: PlainText3Fold
+  Copyright (c) 2019 by Keith Fenske.  Apache License or GNU GPL.
+
+  Compatibility folding for the "fold" action: each character is replaced by
+  its compatibility decomposition (Unicode NFKD) with all combining marks
+  (general category Mn) removed.  Accented letters become plain letters,
+  ligatures are split, and full-width forms become normal width.
+
+  Calling the Java normalizer for each character would be slow, so the first
+  time we need a folded character, we compute the whole table at once and save
+  it as a two-stage lookup: the high bits of a character number select a block
+  of 256 entries, and the low bits select an entry in that block.  Blocks with
+  no changes all share the same empty block.  Each entry is -1 (unchanged) or
+  the index of a replacement string in one character pool.
+
+  Apache License or GNU General Public License
+  --------------------------------------------
+  PlainText3Fold is free software and has been released under the terms and
+  conditions of the Apache License (version 2.0 or later) and/or the GNU
+  General Public License (GPL, version 2 or later).  This program is
+  distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY,
+  without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+  PARTICULAR PURPOSE.  See the license(s) for more details.  You should have
+  received a copy of the licenses along with this program.  If not, see the
+  http://www.apache.org/licenses/ and http://www.gnu.org/licenses/ web pages.
+*/
+
+import java.text.*;               // Unicode normalization (Normalizer)
+import java.util.*;               // lists, maps
+
+class PlainText3Fold
+{
+  /* constants */
+
+  static final int BLOCK_BITS = 8; // low bits of character number in block
+  static final int BLOCK_SIZE = 1 << BLOCK_BITS; // entries in each block
+  static final int BLOCK_MASK = BLOCK_SIZE - 1; // selects entry in block
+
+  /* class variables */
+
+  static volatile int[] blockIndex; // first entry in <entries> for each block
+  static int[] entries;           // blocks of entries: -1 or replacement
+  static char[] foldPool;         // all replacement strings in UTF-16
+  static int[] foldStart;         // offsets into <foldPool>, one extra at end
+
+
+/*
+  appendFold() method
+
+  Append the folded form of one character to a string buffer.  Return true if
+  the character was changed, or false if it was copied as-is.
+*/
+  static boolean appendFold(StringBuffer buffer, int ch)
+  {
+    int index;                    // replacement string, or -1 if unchanged
+
+    if (blockIndex == null)       // table is built the first time we need it
+      buildTable();
+
+    index = entries[blockIndex[ch >> BLOCK_BITS] + (ch & BLOCK_MASK)];
+    if (index < 0)                // character does not change
+    {
+      PlainText3Engine.utfAppend32(buffer, ch);
+      return(false);
+    }
+    buffer.append(foldPool, foldStart[index], (foldStart[index + 1]
+      - foldStart[index]));
+    return(true);
+
+  } // end of appendFold() method
+
+
+/*
+  buildTable() method
+
+  Fold every Unicode character and save the ones that change.  Only assigned
+  characters can have a decomposition or be a combining mark.
+*/
+  static synchronized void buildTable()
+  {
+    int block;                    // current block number
+    boolean changed;              // true if any character in block changes
+    int ch;                       // current character number
+    int count;                    // number of replacement strings
+    int[] entryList;              // all unique blocks, one after another
+    int entryCount;               // number of entries used in <entryList>
+    StringBuffer folded;          // folded form of current character
+    int i;                        // index variable
+    int[] newIndex;               // <blockIndex> being built
+    StringBuffer pool;            // collects replacement strings
+    ArrayList<Integer> starts;    // offsets of replacements in <pool>
+    int type;                     // Unicode general category of character
+
+    if (blockIndex != null)       // another thread may have been first
+      return;
+
+    count = 0;                    // no replacement strings yet
+    entryCount = BLOCK_SIZE;      // first block is shared "no changes" block
+    entryList = new int[BLOCK_SIZE * 16]; // grows as necessary
+    Arrays.fill(entryList, -1);   // all entries in first block unchanged
+    folded = new StringBuffer();
+    newIndex = new int[(PlainText3Engine.UTF32_MAX + 1) >> BLOCK_BITS];
+    pool = new StringBuffer();
+    starts = new ArrayList<>();
+
+    for (block = 0; block < newIndex.length; block ++)
+    {
+      if ((entryCount + BLOCK_SIZE) > entryList.length) // room for block?
+      {
+        int[] bigger = new int[entryList.length * 2];
+        System.arraycopy(entryList, 0, bigger, 0, entryCount);
+        entryList = bigger;
+      }
+      changed = false;            // assume nothing in this block changes
+      for (i = 0; i < BLOCK_SIZE; i ++)
+      {
+        entryList[entryCount + i] = -1; // assume character does not change
+        ch = (block << BLOCK_BITS) + i;
+        type = Character.getType(ch);
+        if ((type == Character.UNASSIGNED) || (type == Character.SURROGATE)
+          || (type == Character.PRIVATE_USE))
+        {
+          continue;               // no decomposition, not a combining mark
+        }
+        folded.setLength(0);      // fold this character
+        String text = new String(Character.toChars(ch));
+        if ((type != Character.NON_SPACING_MARK)
+          && Normalizer.isNormalized(text, Normalizer.Form.NFKD))
+        {
+          continue;               // no decomposition, not a combining mark
+        }
+        text = Normalizer.normalize(text, Normalizer.Form.NFKD);
+        for (int k = 0; k < text.length(); ) // remove combining marks
+        {
+          int mark = text.codePointAt(k); // marks may be supplementary
+          if (Character.getType(mark) != Character.NON_SPACING_MARK)
+            folded.appendCodePoint(mark);
+          k += Character.charCount(mark);
+        }
+        if (folded.toString().equals(new String(Character.toChars(ch))))
+          continue;               // same after folding (unlikely)
+        starts.add(Integer.valueOf(pool.length()));
+        pool.append(folded);
+        entryList[entryCount + i] = count ++; // index of replacement string
+        changed = true;           // this block must be kept
+      }
+
+      /* Blocks with no changes share the first block.  Otherwise, keep the
+      entries we just filled in. */
+
+      if (changed)
+      {
+        newIndex[block] = entryCount;
+        entryCount += BLOCK_SIZE;
+      }
+      else
+        newIndex[block] = 0;      // shared "no changes" block
+    }
+
+    /* Save the finished table, with <blockIndex> last, as for the trie in
+    PlainText3Entity.buildTrie(). */
+
+    entries = new int[entryCount];
+    System.arraycopy(entryList, 0, entries, 0, entryCount);
+    foldPool = new char[pool.length()];
+    pool.getChars(0, pool.length(), foldPool, 0);
+    foldStart = new int[count + 1];
+    for (i = 0; i < count; i ++)
+      foldStart[i] = starts.get(i).intValue();
+    foldStart[count] = pool.length();
+    blockIndex = newIndex;        // table is now ready for use
+
+  } // end of buildTable() method
+
+} // end of PlainText3Fold class
+
+/* Copyright (c) 2019 by Keith Fenske.  Apache License or GNU GPL. */
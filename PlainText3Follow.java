@@ -0,0 +1,278 @@
+/*
+  Plain Text #3 (Follow) - Convert a Growing File
+  Java class name: PlainText3Follow
+  Copyright (c) 2019 by Keith Fenske.  Apache License or GNU GPL.
+
+  Follow a growing file, like "tail -f", for the console's -follow option.
+  New bytes are read about once a second, and each complete line is converted
+  and written as soon as it arrives.  A partial last line waits for its end,
+  so a rule can't miss text that is split between two writes (rules still
+  can't match across lines that arrive in different reads).  A large backlog
+  is converted in pieces of about a megabyte as it is read, so memory stays
+  small and output starts at once.  A "line" with no newline is cut (at a
+  character boundary) when it grows beyond LINE_LIMIT.
+
+  After each write, a small checkpoint file saves the identity of the file we
+  are reading (its inode, from the Java file key) and the byte offset of the
+  converted text.  A restart with the same checkpoint resumes there without
+  converting anything twice, unless the program stopped between writing output
+  and writing the checkpoint, in which case the last lines are written again.
+  When the log is rotated (the name now has a different inode), the rest of
+  the old file is converted, then the new file is read from the beginning.  A
+  file that gets shorter was truncated in place, and is read from the start.
+
+  Rotation detection needs a file key, which some systems (Windows) don't
+  have.  There, a restart resumes at the saved offset if the file is at least
+  that long, and a rotated file is only noticed if it is shorter than what we
+  already converted, so it is read from the start as if truncated.
+
+  Apache License or GNU General Public License
+  --------------------------------------------
+  PlainText3Follow is free software and has been released under the terms and
+  conditions of the Apache License (version 2.0 or later) and/or the GNU
+  General Public License (GPL, version 2 or later).  This program is
+  distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY,
+  without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+  PARTICULAR PURPOSE.  See the license(s) for more details.  You should have
+  received a copy of the licenses along with this program.  If not, see the
+  http://www.apache.org/licenses/ and http://www.gnu.org/licenses/ web pages.
+*/
+
+import java.io.*;                 // standard I/O
+import java.nio.*;                // byte and character buffers
+import java.nio.channels.*;       // file channels
+import java.nio.charset.*;        // UTF-8 encoding
+
+class PlainText3Follow
+{
+  /* constants */
+
+  static final int BUFFER_SIZE = 0x10000; // bytes read at one time
+  static final int CONVERT_SIZE = 0x100000; // convert after this many bytes
+  static final long INTERVAL = 1000; // milliseconds between checks
+  static final int LINE_LIMIT = 0x1000000; // longest partial line we keep
+
+  /* class variables */
+
+  String checkpoint;              // file for saved key and offset
+  FileChannel channel;            // file we are reading, or null
+  Object fileKey;                 // identity (inode) of file being read
+  String name;                    // name of file we follow
+  long offset;                    // bytes converted from current file
+  Writer output;                  // where converted text goes
+  ByteArrayOutputStream pending;  // bytes read, not yet converted
+
+  /* constructor */
+
+  public PlainText3Follow(String name, String checkpoint, Writer output)
+  {
+    this.channel = null;          // not open yet
+    this.checkpoint = checkpoint;
+    this.fileKey = null;
+    this.name = name;
+    this.offset = 0;
+    this.output = output;
+    this.pending = new ByteArrayOutputStream();
+  }
+
+
+/*
+  convertPending() method
+
+  Convert the complete lines in <pending>, or all of it if <all> is true, and
+  write them.  Then save the checkpoint.  Only the trailing partial line is
+  kept, unless it is longer than LINE_LIMIT.
+*/
+  void convertPending(boolean all) throws IOException
+  {
+    byte[] bytes;                 // everything in <pending>
+    int changes;                  // number of changes made by rules
+    int end;                      // end of last complete line in <bytes>
+    StringBuffer result;          // converted text
+    long start;                   // nanoseconds when we started
+    String text;                  // complete lines as text
+
+    start = System.nanoTime();
+    bytes = pending.toByteArray();
+    end = bytes.length;
+    if (all == false)             // stop after last newline
+      while ((end > 0) && (bytes[end - 1] != '\n'))
+        end --;
+    if ((end == 0) && (bytes.length > LINE_LIMIT)) // no newline in sight?
+    {
+      end = bytes.length - 1;     // back up to start of last character
+      while ((end > 0) && ((bytes[end] & 0xC0) == 0x80))
+        end --;
+    }
+    if (end == 0)                 // no complete line yet
+      return;
+
+    text = new String(bytes, 0, end, StandardCharsets.UTF_8);
+    result = new StringBuffer(text.length() + 0x100);
+    changes = PlainText3Engine.convertUnicode(PlainText3Engine.utfParse16(
+      text, PlainText3Engine.jbnUserFlag, PlainText3Engine.xmlUserFlag),
+      result, null);
+    PlainText3Engine.finishErrors();
+    output.write(result.toString());
+    output.flush();               // output before checkpoint
+
+    pending.reset();              // keep partial line for next time
+    pending.write(bytes, end, (bytes.length - end));
+    offset += end;
+    writeCheckpoint();
+    if (PlainText3Engine.telemetry != null)
+      PlainText3Engine.telemetry.record((System.nanoTime() - start), end,
+        PlainText3Telemetry.utf8Length(result), changes);
+
+  } // end of convertPending() method
+
+
+/*
+  findKey() method
+
+  Return the identity of the file with our name: the inode on UNIX, or null if
+  the file doesn't exist or the system has no such thing.
+*/
+  Object findKey()
+  {
+    try
+    {
+      return(java.nio.file.Files.readAttributes(new File(name).toPath(),
+        java.nio.file.attribute.BasicFileAttributes.class).fileKey());
+    }
+    catch (IOException ioe) { return(null); } // missing during rotation
+  }
+
+
+/*
+  open() method
+
+  Open the file with our name, and start reading at <start>.
+*/
+  void open(long start) throws IOException
+  {
+    channel = new FileInputStream(name).getChannel();
+    fileKey = findKey();
+    offset = start;
+    channel.position(start);
+    pending.reset();
+  }
+
+
+/*
+  readCheckpoint() method
+
+  Return the saved offset if the checkpoint is for the file that has our name
+  now, or zero to start from the beginning.  Without a file key, the offset
+  is trusted if the file hasn't shrunk.
+*/
+  long readCheckpoint()
+  {
+    BufferedReader input;         // reads checkpoint file
+    Object key;                   // identity of file now
+    String line;                  // one line from file
+    String savedKey;              // identity of file when saved
+    long savedOffset;             // offset when saved
+
+    savedKey = null;
+    savedOffset = 0;
+    try
+    {
+      input = new BufferedReader(new InputStreamReader(new FileInputStream(
+        checkpoint), "UTF-8"));
+      while ((line = input.readLine()) != null)
+      {
+        if (line.startsWith("key "))
+          savedKey = line.substring(4);
+        else if (line.startsWith("offset "))
+          savedOffset = Long.parseLong(line.substring(7).trim());
+      }
+      input.close();
+    }
+    catch (FileNotFoundException fnfe) { return(0); } // first run
+    catch (IOException ioe) { return(0); }
+    catch (NumberFormatException nfe) { return(0); }
+
+    if (savedOffset > new File(name).length())
+      return(0);                  // truncated, or a new and shorter file
+    key = findKey();
+    if (key == null)              // no identity on this system
+      return(savedOffset);
+    if ((savedKey == null) || (savedKey.equals(key.toString()) == false))
+      return(0);                  // rotated since then
+    return(savedOffset);
+
+  } // end of readCheckpoint() method
+
+
+/*
+  run() method
+
+  Follow the file until the program is stopped.  Only returns by exception.
+*/
+  void run() throws IOException
+  {
+    ByteBuffer buffer;            // bytes read from channel
+    int count;                    // number of bytes read
+    Object key;                   // identity of file with our name now
+
+    buffer = ByteBuffer.allocate(BUFFER_SIZE);
+    open(readCheckpoint());
+    while (true)
+    {
+      buffer.clear();
+      if ((count = channel.read(buffer)) > 0) // new bytes?
+      {
+        pending.write(buffer.array(), 0, count);
+        if ((count == BUFFER_SIZE) && (pending.size() < CONVERT_SIZE))
+          continue;               // maybe more waiting, read some first
+        convertPending(false);
+        continue;
+      }
+
+      /* Nothing new.  Has the file been rotated or truncated? */
+
+      key = findKey();
+      if ((key != null) && (fileKey != null) && !key.equals(fileKey))
+      {
+        convertPending(true);     // old file is finished, even partial line
+        channel.close();
+        open(0);                  // new file from the start
+        writeCheckpoint();
+        continue;
+      }
+      if (channel.size() < (offset + pending.size())) // truncated in place
+      {
+        open(0);
+        writeCheckpoint();
+        continue;
+      }
+      try { Thread.sleep(INTERVAL); }
+      catch (InterruptedException ie) { return; }
+    }
+  } // end of run() method
+
+
+/*
+  writeCheckpoint() method
+
+  Save the file identity and offset.  The file is written as a copy and
+  renamed, so it is never partial.
+*/
+  void writeCheckpoint() throws IOException
+  {
+    File file;                    // temporary copy of checkpoint
+    Writer writer;                // writes checkpoint copy
+
+    file = new File(checkpoint + ".tmp");
+    writer = new OutputStreamWriter(new FileOutputStream(file), "UTF-8");
+    writer.write("file " + name + "\nkey " + fileKey + "\noffset " + offset
+      + "\n");
+    writer.close();
+    java.nio.file.Files.move(file.toPath(), new File(checkpoint).toPath(),
+      java.nio.file.StandardCopyOption.REPLACE_EXISTING);
+  }
+
+} // end of PlainText3Follow class
+
+/* Copyright (c) 2019 by Keith Fenske.  Apache License or GNU GPL. */
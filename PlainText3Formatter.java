@@ -0,0 +1,65 @@
+/*
+  Plain Text #3 - Formatter Plug-in Interface
+  Java class name: PlainText3Formatter
+  Copyright (c) 2019 by Keith Fenske.  Apache License or GNU GPL.
+
+  A formatter is a plug-in for the "custom" keyword in the configuration data
+  file.  The name after "custom:" selects the formatter, and an optional string
+  after that is given to the formatter as its argument:
+
+      replace U+0400 : U+04FF = custom:cyrillic "<%s>"
+
+  Formatters are found with the standard java.util.ServiceLoader class.  Put
+  your class in a jar file on the class path with a text file called:
+
+      META-INF/services/PlainText3Formatter
+
+  that lists the full class name of each formatter, one per line.  Formatters
+  are looked up by name when the configuration data file is loaded, not each
+  time a rule matches.  One instance of each formatter is shared by all rules
+  and, for the daemon, by all threads, so a formatter should not keep state
+  between calls.
+
+  Apache License or GNU General Public License
+  --------------------------------------------
+  PlainText3Formatter is free software and has been released under the terms
+  and conditions of the Apache License (version 2.0 or later) and/or the GNU
+  General Public License (GPL, version 2 or later).  This program is
+  distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY,
+  without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+  PARTICULAR PURPOSE.  See the license(s) for more details.  You should have
+  received a copy of the licenses along with this program.  If not, see the
+  http://www.apache.org/licenses/ and http://www.gnu.org/licenses/ web pages.
+*/
+
+public interface PlainText3Formatter
+{
+/*
+  name() method
+
+  Return the name used after "custom:" in the configuration data file.  Names
+  are not case sensitive.
+*/
+  String name();
+
+
+/*
+  format() method
+
+  Append the replacement for the characters matched by one rule to the
+  caller's buffer.  The matched text is <text> from index <start> up to but not
+  including <end>, as UTF-32 characters (code points).  The array belongs to
+  the caller and must not be changed or kept.  <argument> is the string after
+  the formatter name in the rule, or empty.  Return true if this counts as a
+  change, false if the text was copied without change.
+*/
+  boolean format(
+    int[] text,                   // UTF-32 input text (code points)
+    int start,                    // first matched character in <text>
+    int end,                      // one past last matched character
+    String argument,              // string from rule, may be empty
+    StringBuffer result);         // caller's buffer for converted text
+
+} // end of PlainText3Formatter interface
+
+/* Copyright (c) 2019 by Keith Fenske.  Apache License or GNU GPL. */
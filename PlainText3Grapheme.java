@@ -0,0 +1,341 @@
+/*
+  Plain Text #3 (Grapheme) - Extended Grapheme Clusters
+  Java class name: PlainText3Grapheme
+  Copyright (c) 2019 by Keith Fenske.  Apache License or GNU GPL.
+
+  Extended grapheme clusters (Unicode UAX #29) for the -grapheme option: an
+  emoji sequence joined with U+200D, a pair of regional indicators (a flag), a
+  Hangul syllable made of jamo, or a base character with its combining marks
+  is one unit that a rule matches and converts as a whole.
+
+  The break property of every character is computed the first time we need
+  it and saved as a two-stage lookup, like the table in PlainText3Fold: the
+  high bits of a character number select a block of 256 one-byte entries.
+  Most properties come from the Java general category.  Regional indicators,
+  Hangul jamo, and the few marks that are exceptions come from small lists
+  here, as does Extended_Pictographic, which Java didn't have until recently.
+  The rule for Indic conjuncts (GB9c) is not included.
+
+  Apache License or GNU General Public License
+  --------------------------------------------
+  PlainText3Grapheme is free software and has been released under the terms and
+  conditions of the Apache License (version 2.0 or later) and/or the GNU
+  General Public License (GPL, version 2 or later).  This program is
+  distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY,
+  without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+  PARTICULAR PURPOSE.  See the license(s) for more details.  You should have
+  received a copy of the licenses along with this program.  If not, see the
+  http://www.apache.org/licenses/ and http://www.gnu.org/licenses/ web pages.
+*/
+
+class PlainText3Grapheme
+{
+  /* constants */
+
+  static final int BLOCK_BITS = 8; // low bits of character number in block
+  static final int BLOCK_SIZE = 1 << BLOCK_BITS; // entries in each block
+  static final int BLOCK_MASK = BLOCK_SIZE - 1; // selects entry in block
+
+  static final byte OTHER = 0;    // break properties, from UAX #29
+  static final byte CR = 1;
+  static final byte LF = 2;
+  static final byte CONTROL = 3;
+  static final byte EXTEND = 4;
+  static final byte ZWJ = 5;
+  static final byte REGIONAL = 6; // Regional_Indicator
+  static final byte PREPEND = 7;
+  static final byte SPACING = 8;  // SpacingMark
+  static final byte HANGUL_L = 9;
+  static final byte HANGUL_V = 10;
+  static final byte HANGUL_T = 11;
+  static final byte HANGUL_LV = 12;
+  static final byte HANGUL_LVT = 13;
+  static final byte PICTURE = 14; // Extended_Pictographic (otherwise Other)
+
+  static final int[] EXTEND_LIST = { // Other_Grapheme_Extend, not Mn or Me
+    0x09BE, 0x09BE, 0x09D7, 0x09D7, 0x0B3E, 0x0B3E, 0x0B57, 0x0B57, 0x0BBE,
+    0x0BBE, 0x0BD7, 0x0BD7, 0x0CC2, 0x0CC2, 0x0CD5, 0x0CD6, 0x0D3E, 0x0D3E,
+    0x0D57, 0x0D57, 0x0DCF, 0x0DCF, 0x0DDF, 0x0DDF, 0x1B35, 0x1B35, 0x200C,
+    0x200C, 0x302E, 0x302F, 0xFF9E, 0xFF9F, 0x1133E, 0x1133E, 0x11357,
+    0x11357, 0x114B0, 0x114B0, 0x114BD, 0x114BD, 0x115AF, 0x115AF, 0x11930,
+    0x11930, 0x1D165, 0x1D165, 0x1D16E, 0x1D172, 0x1F3FB, 0x1F3FF, 0xE0020,
+    0xE007F };
+
+  static final int[] PICTURE_LIST = { // Extended_Pictographic ranges
+    0x00A9, 0x00A9, 0x00AE, 0x00AE, 0x203C, 0x203C, 0x2049, 0x2049, 0x2122,
+    0x2122, 0x2139, 0x2139, 0x2194, 0x2199, 0x21A9, 0x21AA, 0x231A, 0x231B,
+    0x2328, 0x2328, 0x2388, 0x2388, 0x23CF, 0x23CF, 0x23E9, 0x23F3, 0x23F8,
+    0x23FA, 0x24C2, 0x24C2, 0x25AA, 0x25AB, 0x25B6, 0x25B6, 0x25C0, 0x25C0,
+    0x25FB, 0x25FE, 0x2600, 0x2605, 0x2607, 0x2612, 0x2614, 0x2685, 0x2690,
+    0x2705, 0x2708, 0x2712, 0x2714, 0x2714, 0x2716, 0x2716, 0x271D, 0x271D,
+    0x2721, 0x2721, 0x2728, 0x2728, 0x2733, 0x2734, 0x2744, 0x2744, 0x2747,
+    0x2747, 0x274C, 0x274C, 0x274E, 0x274E, 0x2753, 0x2755, 0x2757, 0x2757,
+    0x2763, 0x2767, 0x2795, 0x2797, 0x27A1, 0x27A1, 0x27B0, 0x27B0, 0x27BF,
+    0x27BF, 0x2934, 0x2935, 0x2B05, 0x2B07, 0x2B1B, 0x2B1C, 0x2B50, 0x2B50,
+    0x2B55, 0x2B55, 0x3030, 0x3030, 0x303D, 0x303D, 0x3297, 0x3297, 0x3299,
+    0x3299, 0x1F000, 0x1F0FF, 0x1F10D, 0x1F10F, 0x1F12F, 0x1F12F, 0x1F16C,
+    0x1F171, 0x1F17E, 0x1F17F, 0x1F18E, 0x1F18E, 0x1F191, 0x1F19A, 0x1F1AD,
+    0x1F1E5, 0x1F201, 0x1F20F, 0x1F21A, 0x1F21A, 0x1F22F, 0x1F22F, 0x1F232,
+    0x1F23A, 0x1F23C, 0x1F23F, 0x1F249, 0x1F3FA, 0x1F400, 0x1F53D, 0x1F546,
+    0x1F64F, 0x1F680, 0x1F6FF, 0x1F774, 0x1F77F, 0x1F7D5, 0x1F7FF, 0x1F80C,
+    0x1F80F, 0x1F848, 0x1F84F, 0x1F85A, 0x1F85F, 0x1F888, 0x1F88F, 0x1F8AE,
+    0x1F8FF, 0x1F90C, 0x1F93A, 0x1F93C, 0x1F945, 0x1F947, 0x1FAFF, 0x1FC00,
+    0x1FFFD };
+
+  static final int[] PREPEND_LIST = { // Prepended_Concatenation_Mark, etc.
+    0x0600, 0x0605, 0x06DD, 0x06DD, 0x070F, 0x070F, 0x0890, 0x0891, 0x08E2,
+    0x08E2, 0x0D4E, 0x0D4E, 0x110BD, 0x110BD, 0x110CD, 0x110CD, 0x111C2,
+    0x111C3 };
+
+  /* class variables */
+
+  static volatile int[] blockIndex; // first entry in <entries> for each block
+  static byte[] entries;          // blocks of entries: break properties
+
+
+/*
+  buildTable() method
+
+  Find the break property of every Unicode character.  Blocks where every
+  entry is OTHER share one block, which covers most of the unassigned and
+  private use planes.
+*/
+  static synchronized void buildTable()
+  {
+    int block;                    // current block number
+    int ch;                       // current character number
+    byte[] entryList;             // all unique blocks, one after another
+    int entryCount;               // number of entries used in <entryList>
+    int i;                        // index variable
+    int[] newIndex;               // <blockIndex> being built
+    boolean otherFlag;            // true if every entry in block is OTHER
+    byte property;                // break property of current character
+
+    if (blockIndex != null)       // another thread may have been first
+      return;
+
+    entryCount = BLOCK_SIZE;      // first block is shared "all other" block
+    entryList = new byte[BLOCK_SIZE * 64]; // grows as necessary
+    newIndex = new int[(PlainText3Engine.UTF32_MAX + 1) >> BLOCK_BITS];
+
+    for (block = 0; block < newIndex.length; block ++)
+    {
+      if ((entryCount + BLOCK_SIZE) > entryList.length) // room for block?
+      {
+        byte[] bigger = new byte[entryList.length * 2];
+        System.arraycopy(entryList, 0, bigger, 0, entryCount);
+        entryList = bigger;
+      }
+      otherFlag = true;           // assume nothing special in this block
+      for (i = 0; i < BLOCK_SIZE; i ++)
+      {
+        ch = (block << BLOCK_BITS) + i;
+        property = findProperty(ch);
+        entryList[entryCount + i] = property;
+        otherFlag &= (property == OTHER);
+      }
+      if (otherFlag)              // share the first block
+        newIndex[block] = 0;
+      else                        // keep the entries we just filled in
+      {
+        newIndex[block] = entryCount;
+        entryCount += BLOCK_SIZE;
+      }
+    }
+
+    /* Save the finished table, with <blockIndex> last (see
+    PlainText3Entity.buildTrie() for why). */
+
+    entries = new byte[entryCount];
+    System.arraycopy(entryList, 0, entries, 0, entryCount);
+    blockIndex = newIndex;        // table is now ready for use
+
+  } // end of buildTable() method
+
+
+/*
+  clusterEnd() method
+
+  Given <start> at the beginning of a grapheme cluster, and <end> somewhere
+  after it (one past the last character that a rule matched), return the
+  first cluster boundary at or after <end>.  Rules that match whole clusters
+  are unchanged; a rule that matches part of a cluster takes the rest of it.
+  Pass <end> as <start> + 1 to find the end of one cluster.
+*/
+  static int clusterEnd(int[] text, int start, int end)
+  {
+    int i;                        // index variable
+    int length;                   // number of characters in <text>
+    byte next;                    // property of character at <i>
+    int picture;                  // 1 after picture + extends, 2 after ZWJ
+    byte previous;                // property of character before <i>
+    int regional;                 // number of regional indicators in a row
+
+    length = text.length;
+    if ((end == (start + 1)) && ((end == length) || ((text[start] >= 0x20)
+      && (text[start] < 0x7F) && (text[end] < 0x300))))
+    {
+      return(end);                // plain ASCII, nothing joins to it
+    }
+    if (blockIndex == null)       // table is built the first time we need it
+      buildTable();
+
+    previous = property(text[start]);
+    picture = (previous == PICTURE) ? 1 : 0;
+    regional = (previous == REGIONAL) ? 1 : 0;
+    for (i = start + 1; i < length; i ++)
+    {
+      next = property(text[i]);
+      if ((i >= end) && isBreak(previous, next, picture, regional))
+        break;                    // boundary after the end of the match
+
+      if (next == REGIONAL)       // count pairs of regional indicators
+        regional = (previous == REGIONAL) ? (regional + 1) : 1;
+      if (next == PICTURE)        // emoji sequence may continue
+        picture = 1;
+      else if ((next == EXTEND) && (picture == 1))
+        { /* still after a picture */ }
+      else if ((next == ZWJ) && (picture == 1))
+        picture = 2;              // next picture joins this one
+      else
+        picture = 0;
+      previous = next;
+    }
+    return(i);
+
+  } // end of clusterEnd() method
+
+
+/*
+  findProperty() method
+
+  Find the break property of one character, without the table.
+*/
+  static byte findProperty(int ch)
+  {
+    int type;                     // Unicode general category
+
+    if (ch == 0x000D) return(CR);
+    if (ch == 0x000A) return(LF);
+    if (ch == 0x200D) return(ZWJ);
+    if ((ch >= 0x1F1E6) && (ch <= 0x1F1FF)) return(REGIONAL);
+    if (inList(ch, EXTEND_LIST)) return(EXTEND);
+    if (inList(ch, PREPEND_LIST)) return(PREPEND);
+    if (inList(ch, PICTURE_LIST)) return(PICTURE);
+
+    if (((ch >= 0x1100) && (ch <= 0x115F))
+      || ((ch >= 0xA960) && (ch <= 0xA97C)))
+    {
+      return(HANGUL_L);           // leading consonant jamo
+    }
+    if (((ch >= 0x1160) && (ch <= 0x11A7))
+      || ((ch >= 0xD7B0) && (ch <= 0xD7C6)))
+    {
+      return(HANGUL_V);           // vowel jamo
+    }
+    if (((ch >= 0x11A8) && (ch <= 0x11FF))
+      || ((ch >= 0xD7CB) && (ch <= 0xD7FB)))
+    {
+      return(HANGUL_T);           // trailing consonant jamo
+    }
+    if ((ch >= 0xAC00) && (ch <= 0xD7A3)) // precomposed syllables
+      return((((ch - 0xAC00) % 28) == 0) ? HANGUL_LV : HANGUL_LVT);
+
+    type = Character.getType(ch);
+    if ((type == Character.NON_SPACING_MARK)
+      || (type == Character.ENCLOSING_MARK))
+    {
+      return(EXTEND);
+    }
+    if (type == Character.COMBINING_SPACING_MARK)
+      return(SPACING);
+    if ((type == Character.CONTROL) || (type == Character.FORMAT)
+      || (type == Character.LINE_SEPARATOR)
+      || (type == Character.PARAGRAPH_SEPARATOR)
+      || (type == Character.SURROGATE))
+    {
+      return(CONTROL);
+    }
+    return(OTHER);
+
+  } // end of findProperty() method
+
+
+/*
+  inList() method
+
+  Return true if a character is in a list of low-high ranges.  The lists are
+  short, and are only searched while the table is being built.
+*/
+  static boolean inList(int ch, int[] list)
+  {
+    int i;                        // index variable
+
+    for (i = 0; i < list.length; i += 2)
+      if ((ch >= list[i]) && (ch <= list[i + 1]))
+        return(true);
+    return(false);
+  }
+
+
+/*
+  isBreak() method
+
+  Return true if there is a cluster boundary between two characters with the
+  given properties (rules GB3 to GB999).  <picture> and <regional> describe
+  what came before, for emoji sequences (GB11) and flags (GB12, GB13).
+*/
+  static boolean isBreak(byte previous, byte next, int picture, int regional)
+  {
+    if ((previous == CR) && (next == LF))
+      return(false);              // GB3
+    if ((previous == CR) || (previous == LF) || (previous == CONTROL)
+      || (next == CR) || (next == LF) || (next == CONTROL))
+    {
+      return(true);               // GB4, GB5
+    }
+    if ((previous == HANGUL_L) && ((next == HANGUL_L) || (next == HANGUL_V)
+      || (next == HANGUL_LV) || (next == HANGUL_LVT)))
+    {
+      return(false);              // GB6
+    }
+    if (((previous == HANGUL_LV) || (previous == HANGUL_V))
+      && ((next == HANGUL_V) || (next == HANGUL_T)))
+    {
+      return(false);              // GB7
+    }
+    if (((previous == HANGUL_LVT) || (previous == HANGUL_T))
+      && (next == HANGUL_T))
+    {
+      return(false);              // GB8
+    }
+    if ((next == EXTEND) || (next == ZWJ) || (next == SPACING)
+      || (previous == PREPEND))
+    {
+      return(false);              // GB9, GB9a, GB9b
+    }
+    if ((previous == ZWJ) && (next == PICTURE) && (picture == 2))
+      return(false);              // GB11
+    if ((previous == REGIONAL) && (next == REGIONAL)
+      && ((regional % 2) == 1))
+    {
+      return(false);              // GB12, GB13
+    }
+    return(true);                 // GB999
+
+  } // end of isBreak() method
+
+
+/*
+  property() method
+
+  Return the break property of one character from the table.
+*/
+  static byte property(int ch)
+  {
+    return(entries[blockIndex[ch >> BLOCK_BITS] + (ch & BLOCK_MASK)]);
+  }
+
+} // end of PlainText3Grapheme class
+
+/* Copyright (c) 2019 by Keith Fenske.  Apache License or GNU GPL. */
@@ -0,0 +1,341 @@
+/*
+  Plain Text #3 (Java Source) - Escape Non-ASCII Characters in Java Files
+  Java class name: PlainText3JavaSource
+  Copyright (c) 2019 by Keith Fenske.  Apache License or GNU GPL.
+
+  Escape non-ASCII characters in Java source files, like the old native2ascii
+  tool, but only where an escape means the same thing as the character: in
+  string literals, character literals, text blocks, and comments.  Identifiers
+  and other code are left alone.  Escapes are a backslash, "u", and four
+  hexadecimal digits, the same as the "java16" action.
+
+  Files are found by walking directories for names ending in ".java", and are
+  converted in parallel on all processors.  A file is only written if it has
+  changed, and then through a temporary file in the same directory, so a file
+  is never half written.  Input must be UTF-8.
+
+  Apache License or GNU General Public License
+  --------------------------------------------
+  PlainText3JavaSource is free software and has been released under the terms
+  and conditions of the Apache License (version 2.0 or later) and/or the GNU
+  General Public License (GPL, version 2 or later).  This program is
+  distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY,
+  without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+  PARTICULAR PURPOSE.  See the license(s) for more details.  You should have
+  received a copy of the licenses along with this program.  If not, see the
+  http://www.apache.org/licenses/ and http://www.gnu.org/licenses/ web pages.
+*/
+
+import java.io.*;                 // standard I/O
+import java.nio.*;                // byte and character buffers
+import java.nio.charset.*;        // UTF-8 encoding
+import java.util.*;               // lists, maps
+import java.util.concurrent.*;    // thread pools for parallel work
+
+class PlainText3JavaSource
+{
+  /* constants */
+
+  static final int CODE = 0;      // lexer state: outside literals, comments
+  static final int BLOCK_COMMENT = 1; // lexer state: inside /* */
+  static final int CHAR_LITERAL = 2; // lexer state: inside ' '
+  static final int LINE_COMMENT = 3; // lexer state: inside // to end of line
+  static final int STRING_LITERAL = 4; // lexer state: inside " "
+  static final int TEXT_BLOCK = 5; // lexer state: inside """ """
+
+/*
+  copyAttributes() method
+
+  Give a new file the permissions of the file it replaces, so that a private
+  source file doesn't become readable by everyone.  Temporary files are
+  created for the owner only.  The owner and group are copied too, if we're
+  allowed to; usually only the superuser can give a file away.  File systems
+  without POSIX permissions (Windows) are left alone.
+*/
+  static void copyAttributes(File from, File to) throws IOException
+  {
+    java.nio.file.attribute.PosixFileAttributes attributes;
+                                  // owner, group, and permissions of <from>
+    java.nio.file.attribute.PosixFileAttributeView view; // changes <to>
+
+    view = java.nio.file.Files.getFileAttributeView(to.toPath(),
+      java.nio.file.attribute.PosixFileAttributeView.class);
+    if (view == null)             // not a POSIX file system
+      return;
+    attributes = java.nio.file.Files.readAttributes(from.toPath(),
+      java.nio.file.attribute.PosixFileAttributes.class);
+    try
+    {
+      view.setGroup(attributes.group());
+      view.setOwner(attributes.owner());
+    }
+    catch (IOException ioe) { /* not allowed, keep our own owner */ }
+    view.setPermissions(attributes.permissions()); // after owner changes
+
+  } // end of copyAttributes() method
+
+
+/*
+  escapeFile() method
+
+  Escape one Java source file.  Return an array with the number of characters
+  escaped (an Integer, zero if the file was not written) and an error message
+  (a String, or null).
+*/
+  static Object[] escapeFile(File file)
+  {
+    byte[] bytes;                 // raw contents of the file
+    int[] count;                  // number of characters escaped
+    CharsetDecoder decoder;       // strict UTF-8, no replacement characters
+    String result;                // escaped text, or null if no change
+    File temp;                    // new contents, before being renamed
+    String text;                  // decoded contents of the file
+
+    count = new int[1];
+    temp = null;
+    try
+    {
+      bytes = java.nio.file.Files.readAllBytes(file.toPath());
+      decoder = StandardCharsets.UTF_8.newDecoder()
+        .onMalformedInput(CodingErrorAction.REPORT)
+        .onUnmappableCharacter(CodingErrorAction.REPORT);
+      text = decoder.decode(ByteBuffer.wrap(bytes)).toString();
+      if ((result = escapeText(text, count)) == null) // nothing to escape?
+        return(new Object[] { Integer.valueOf(0), null });
+
+      temp = File.createTempFile("PlainText3", ".tmp",
+        file.getAbsoluteFile().getParentFile());
+      OutputStream stream = new FileOutputStream(temp);
+      try { stream.write(result.getBytes(StandardCharsets.UTF_8)); }
+      finally { stream.close(); }
+      copyAttributes(file, temp);
+      java.nio.file.Files.move(temp.toPath(), file.toPath(),
+        java.nio.file.StandardCopyOption.REPLACE_EXISTING);
+      return(new Object[] { Integer.valueOf(count[0]), null });
+    }
+    catch (CharacterCodingException cce)
+    {
+      return(new Object[] { Integer.valueOf(0), ("Not UTF-8, not changed: "
+        + file.getPath()) });
+    }
+    catch (IOException ioe)
+    {
+      if (temp != null) temp.delete(); // don't leave partial files around
+      return(new Object[] { Integer.valueOf(0), ("Unable to escape "
+        + file.getPath() + ": " + ioe.getMessage()) });
+    }
+  } // end of escapeFile() method
+
+
+/*
+  escapeText() method
+
+  Escape non-ASCII characters in literals and comments of Java source text,
+  with a small lexer that knows only what it needs to: where comments and
+  literals begin and end.  Inside a literal, a backslash and the character
+  after it are copied as they are (an escape sequence).  Inside a comment, a
+  character after an odd number of backslashes is copied as it is, because
+  the Java compiler doesn't see an escape after a backslash that is itself
+  escaped.  Return null if nothing was escaped, and put the number of escapes
+  in <count>.
+*/
+  static String escapeText(String text, int[] count)
+  {
+    int backslashes;              // number of backslashes just before here
+    char ch;                      // one character from <text>
+    int i;                        // index variable
+    int length;                   // number of characters in <text>
+    StringBuffer result;          // text with escapes
+    int state;                    // one of the lexer state constants
+
+    backslashes = 0;
+    count[0] = 0;                 // nothing escaped yet
+    length = text.length();
+    result = new StringBuffer(length + (length / 8));
+    state = CODE;
+    i = 0;
+    while (i < length)
+    {
+      ch = text.charAt(i ++);
+      if (state == CODE)          // look for start of comment or literal
+      {
+        result.append(ch);
+        if ((ch == '/') && (i < length) && (text.charAt(i) == '/'))
+        {
+          result.append(text.charAt(i ++));
+          state = LINE_COMMENT;
+        }
+        else if ((ch == '/') && (i < length) && (text.charAt(i) == '*'))
+        {
+          result.append(text.charAt(i ++));
+          state = BLOCK_COMMENT;
+        }
+        else if ((ch == '"') && text.startsWith("\"\"", i))
+        {
+          result.append("\"\"");
+          i += 2;
+          state = TEXT_BLOCK;
+        }
+        else if (ch == '"')
+          state = STRING_LITERAL;
+        else if (ch == '\'')
+          state = CHAR_LITERAL;
+        backslashes = 0;
+        continue;
+      }
+
+      if ((ch > 0x7F) && (((state != BLOCK_COMMENT) && (state != LINE_COMMENT))
+        || ((backslashes % 2) == 0)))
+      {
+        PlainText3Engine.appendJava16(result, ch);
+        count[0] ++;
+        backslashes = 0;
+        continue;
+      }
+      result.append(ch);
+
+      if ((state == BLOCK_COMMENT) || (state == LINE_COMMENT))
+      {
+        backslashes = (ch == '\\') ? (backslashes + 1) : 0;
+        if ((state == LINE_COMMENT) && ((ch == '\n') || (ch == '\r')))
+          state = CODE;
+        else if ((state == BLOCK_COMMENT) && (ch == '*') && (i < length)
+          && (text.charAt(i) == '/'))
+        {
+          result.append(text.charAt(i ++));
+          state = CODE;
+        }
+      }
+      else if (ch == '\\')        // escape sequence in a literal
+      {
+        if (i < length)
+          result.append(text.charAt(i ++)); // copy next character as it is
+      }
+      else if ((state == TEXT_BLOCK) && (ch == '"')
+        && text.startsWith("\"\"", i))
+      {
+        result.append("\"\"");
+        i += 2;
+        state = CODE;
+      }
+      else if ((state == STRING_LITERAL) && (ch == '"'))
+        state = CODE;
+      else if ((state == CHAR_LITERAL) && (ch == '\''))
+        state = CODE;
+      else if ((state != TEXT_BLOCK) && ((ch == '\n') || (ch == '\r')))
+        state = CODE;             // unclosed literal: don't lose our place
+    }
+    return((count[0] == 0) ? null : result.toString());
+
+  } // end of escapeText() method
+
+
+/*
+  escapeTree() method
+
+  Escape all Java source files in the given files and directories, on all
+  processors.  Names of changed files go to standard output, in the order they
+  were found, and a summary to standard error.  Return the number of files
+  with errors.
+*/
+  static int escapeTree(ArrayList<String> names)
+  {
+    int changedFiles;             // number of files written
+    int errorCount;               // number of files with errors
+    long escapeCount;             // total characters escaped
+    ExecutorService executor;     // thread pool for parallel files
+    ArrayList<File> files;        // all Java source files found
+    ArrayList<Future<Object[]>> futures; // results from each file
+    int i;                        // index variable
+    long startTime;               // when we started, in nanoseconds
+    int threads;                  // number of threads in pool
+
+    startTime = System.nanoTime();
+    files = new ArrayList<>();
+    for (i = 0; i < names.size(); i ++)
+      findFiles(new File(names.get(i)), files, true);
+
+    threads = Runtime.getRuntime().availableProcessors();
+    executor = Executors.newFixedThreadPool(threads);
+    futures = new ArrayList<>();
+    for (i = 0; i < files.size(); i ++)
+    {
+      final File file = files.get(i); // final copy for inner class
+      futures.add(executor.submit(new Callable<Object[]>() {
+        public Object[] call() { return(escapeFile(file)); } }));
+    }
+    executor.shutdown();          // no more work after this
+
+    changedFiles = errorCount = 0;
+    escapeCount = 0;
+    for (i = 0; i < futures.size(); i ++)
+    {
+      Object[] result;            // count and error from one file
+      try { result = futures.get(i).get(); }
+      catch (Exception e)         // interrupted or unexpected exception
+      {
+        result = new Object[] { Integer.valueOf(0), ("Unable to escape "
+          + files.get(i).getPath() + ": " + e) };
+      }
+      int count = ((Integer) result[0]).intValue();
+      if (result[1] != null)
+      {
+        PlainText3Engine.putError((String) result[1]);
+        errorCount ++;
+      }
+      else if (count > 0)
+      {
+        System.out.println(files.get(i).getPath());
+        changedFiles ++;
+        escapeCount += count;
+      }
+    }
+
+    System.err.println("Escaped "
+      + PlainText3Engine.prettyPlural(escapeCount, "character") + " in "
+      + PlainText3Engine.formatComma.format(changedFiles) + " of "
+      + PlainText3Engine.prettyPlural(files.size(), "Java file") + " in "
+      + PlainText3Engine.formatComma.format((System.nanoTime() - startTime)
+      / 1000000) + " ms using "
+      + PlainText3Engine.prettyPlural(threads, "thread") + ".");
+    return(errorCount);
+
+  } // end of escapeTree() method
+
+
+/*
+  findFiles() method
+
+  Add Java source files to a list: the file itself if named by the user, or
+  all files ending in ".java" under a directory, sorted by name so the order
+  is always the same.
+*/
+  static void findFiles(File file, ArrayList<File> files, boolean named)
+  {
+    File[] children;              // contents of a directory
+    int i;                        // index variable
+
+    if (file.isDirectory())
+    {
+      if ((children = file.listFiles()) == null)
+      {
+        PlainText3Engine.putError("Unable to read directory: "
+          + file.getPath());
+        return;
+      }
+      Arrays.sort(children);
+      for (i = 0; i < children.length; i ++)
+        findFiles(children[i], files, false);
+    }
+    else if (named && !file.exists())
+      PlainText3Engine.putError("Input file not found: " + file.getPath());
+    else if (named || (file.isFile()
+      && file.getName().toLowerCase().endsWith(".java")))
+    {
+      files.add(file);
+    }
+  } // end of findFiles() method
+
+} // end of PlainText3JavaSource class
+
+/* Copyright (c) 2019 by Keith Fenske.  Apache License or GNU GPL. */
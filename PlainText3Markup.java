@@ -0,0 +1,580 @@
+/*
+  Plain Text #3 (Markup) - Convert Structured Text
+  Java class name: PlainText3Markup
+  Copyright (c) 2019 by Keith Fenske.  Apache License or GNU GPL.
+
+  Streaming conversion for structured text, where the rules should only see
+  the words that a person reads, not the syntax around them.  One pass over
+  the input, with no document tree in memory:
+
+      CSV   - each field; quoting is added if a converted field needs it
+      HTML  - text between tags; script and style elements are copied
+      JSON  - string values; object keys, numbers, and syntax are copied
+      XML   - text between tags, and CDATA sections
+
+  Tags, attributes, comments, processing instructions, and character or
+  entity references are copied unchanged.  A value that the rules don't change
+  is copied exactly as it was, including any escape sequences.  Input is
+  decoded strictly (see strictReader()), so that everything we copy is the
+  same bytes in the output: bytes that aren't UTF-8 are an error, not quietly
+  replaced.
+
+  Text between tags is converted when the next tag starts.  A very long text
+  node is converted in pieces, at the first line break after TEXT_LIMIT
+  characters, or between any two characters after LINE_LIMIT, so memory stays
+  bounded.  (Rules can't match across those pieces.)
+
+  Apache License or GNU General Public License
+  --------------------------------------------
+  PlainText3Markup is free software and has been released under the terms and
+  conditions of the Apache License (version 2.0 or later) and/or the GNU
+  General Public License (GPL, version 2 or later).  This program is
+  distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY,
+  without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+  PARTICULAR PURPOSE.  See the license(s) for more details.  You should have
+  received a copy of the licenses along with this program.  If not, see the
+  http://www.apache.org/licenses/ and http://www.gnu.org/licenses/ web pages.
+*/
+
+import java.io.*;                 // standard I/O
+import java.nio.charset.*;        // strict UTF-8 decoding
+
+class PlainText3Markup
+{
+  /* constants */
+
+  static final int BUFFER_SIZE = 0x10000; // characters for input and output
+  static final int FORMAT_CSV = 1; // comma-separated values
+  static final int FORMAT_HTML = 2; // HTML with raw script and style
+  static final int FORMAT_JSON = 3; // JSON string values
+  static final int FORMAT_NONE = 0; // plain text, not for this class
+  static final int FORMAT_XML = 4; // XML text and CDATA
+  static final int LINE_LIMIT = 0x1000000; // cut text with no line break
+  static final int MAX_REFERENCE = 32; // longest entity name we look for
+  static final int TEXT_LIMIT = 0x100000; // convert text at next line break
+
+  /* class variables */
+
+  long changeCount;               // changes made by conversion rules
+  int format;                     // one of the FORMAT_ constants
+  Reader input;                   // where text comes from
+  char[] inputBuffer;             // characters read, not yet used
+  int inputCount;                 // number of characters in <inputBuffer>
+  int inputIndex;                 // next character in <inputBuffer>
+  Writer output;                  // where text goes
+  char[] outputBuffer;            // characters not yet written
+  int outputIndex;                // number of characters in <outputBuffer>
+  StringBuffer text;              // text waiting to be converted
+
+  /* constructor */
+
+  public PlainText3Markup(int format, Reader input, Writer output)
+  {
+    this.changeCount = 0;         // no changes yet
+    this.format = format;
+    this.input = input;
+    this.inputBuffer = new char[BUFFER_SIZE];
+    this.inputCount = this.inputIndex = 0; // nothing read yet
+    this.output = output;
+    this.outputBuffer = new char[BUFFER_SIZE];
+    this.outputIndex = 0;         // nothing to write yet
+    this.text = new StringBuffer();
+  }
+
+
+/*
+  convert() method
+
+  Convert one value with the engine's current rules.  Return null if the
+  rules made no changes, so the caller can copy the original.
+*/
+  String convert(String value)
+  {
+    int changes;                  // number of changes for this value
+    StringBuffer result;          // converted value
+
+    result = new StringBuffer(value.length());
+    changes = PlainText3Engine.convertUnicode(PlainText3Engine.utfParse16(
+      value, PlainText3Engine.jbnUserFlag, PlainText3Engine.xmlUserFlag),
+      result, null);
+    changeCount += changes;
+    return((changes == 0) ? null : result.toString());
+  }
+
+
+/*
+  copyUntil() method
+
+  Copy characters until (and including) an ending string.  With <fold>, the
+  ending is compared without regard to case, for HTML tag names.  Return false
+  if the input ended first.
+*/
+  boolean copyUntil(String end, boolean fold) throws IOException
+  {
+    int ch;                       // one input character
+    StringBuffer window;          // last few characters copied
+
+    window = new StringBuffer();
+    while ((ch = next()) >= 0)
+    {
+      put(ch);
+      window.append((char) (fold ? Character.toLowerCase((char) ch) : ch));
+      if (window.length() > end.length())
+        window.deleteCharAt(0);
+      if (window.toString().equals(end))
+        return(true);
+    }
+    return(false);
+
+  } // end of copyUntil() method
+
+
+/*
+  flushText() method
+
+  Convert and write any text waiting since the last markup.
+*/
+  void flushText()
+  {
+    String result;                // converted text, or null if no change
+
+    if (text.length() == 0)
+      return;
+    result = convert(text.toString());
+    putString((result == null) ? text.toString() : result);
+    text.setLength(0);
+  }
+
+
+/*
+  limitText() method
+
+  Convert and write the waiting text if it has grown too long, at a place
+  where no rule is likely to match across the cut: after a line break, or
+  once the text is longer than LINE_LIMIT, after any character that isn't
+  half of a surrogate pair or the start of a CDATA ending.
+*/
+  void limitText()
+  {
+    char last;                    // last character of waiting text
+    int length;                   // number of characters in waiting text
+
+    length = text.length();
+    if (length < TEXT_LIMIT)
+      return;
+    last = text.charAt(length - 1);
+    if ((last == '\n') || ((length >= LINE_LIMIT)
+      && (Character.isHighSurrogate(last) == false) && (last != ']')))
+    {
+      flushText();
+    }
+  }
+
+
+/*
+  next() and peek() methods
+
+  Return the next input character, or -1 at the end.  next() uses the
+  character; peek() leaves it for next time.
+*/
+  int next() throws IOException
+  {
+    int ch = peek();              // refill buffer if needed
+    if (ch >= 0)
+      inputIndex ++;
+    return(ch);
+  }
+
+  int peek() throws IOException
+  {
+    if (inputIndex >= inputCount)
+    {
+      inputCount = input.read(inputBuffer, 0, BUFFER_SIZE);
+      inputIndex = 0;
+      if (inputCount <= 0)
+      {
+        inputCount = 0;           // end of input, maybe again next time
+        return(-1);
+      }
+    }
+    return(inputBuffer[inputIndex]);
+  }
+
+
+/*
+  put() and putString() methods
+
+  Write characters through our own buffer, which is faster than calling the
+  caller's Writer for each character.
+*/
+  void put(int ch)
+  {
+    if (outputIndex >= BUFFER_SIZE)
+      putFlush();
+    outputBuffer[outputIndex ++] = (char) ch;
+  }
+
+  void putFlush()
+  {
+    try { output.write(outputBuffer, 0, outputIndex); }
+    catch (IOException ioe) { throw new UncheckedIOException(ioe); }
+    outputIndex = 0;
+  }
+
+  void putString(String value)
+  {
+    int i;                        // index variable
+    for (i = 0; i < value.length(); i ++)
+      put(value.charAt(i));
+  }
+
+
+/*
+  strictReader() method
+
+  Return a reader that decodes UTF-8 from a byte stream, and throws an
+  exception for bytes that aren't UTF-8 instead of replacing them.  Markup
+  is copied through this reader, so a replacement would change bytes that
+  should be copied exactly.
+*/
+  static Reader strictReader(InputStream stream)
+  {
+    return(new BufferedReader(new InputStreamReader(stream,
+      StandardCharsets.UTF_8.newDecoder()
+      .onMalformedInput(CodingErrorAction.REPORT)
+      .onUnmappableCharacter(CodingErrorAction.REPORT)), BUFFER_SIZE));
+  }
+
+
+/*
+  run() method
+
+  Convert all input and write all output.  Return the number of changes made
+  by the conversion rules.  The caller flushes and closes the Writer.
+*/
+  long run() throws IOException
+  {
+    try
+    {
+      if (format == FORMAT_CSV)
+        runCsv();
+      else if (format == FORMAT_JSON)
+        runJson();
+      else
+        runMarkup();
+      flushText();
+      putFlush();
+    }
+    catch (CharacterCodingException cce) // from strictReader()
+    {
+      throw new IOException(
+        "input is not valid UTF-8, so markup can't be copied exactly");
+    }
+    catch (UncheckedIOException uioe) // from put(), which can't throw
+    {
+      throw uioe.getCause();
+    }
+    return(changeCount);
+
+  } // end of run() method
+
+
+/*
+  runCsv() method
+
+  Comma-separated values (RFC 4180).  A quoted field may have commas, line
+  breaks, and doubled quotes.  If a converted unquoted field needs quotes,
+  they are added.
+*/
+  void runCsv() throws IOException
+  {
+    int ch;                       // one input character
+    StringBuffer raw;             // field as it was in the input
+    String result;                // converted field, or null if no change
+    StringBuffer value;           // field without quotes
+
+    raw = new StringBuffer();
+    value = new StringBuffer();
+    while (peek() >= 0)
+    {
+      raw.setLength(0);
+      value.setLength(0);
+      if (peek() == '"')          // quoted field
+      {
+        raw.append((char) next());
+        while ((ch = next()) >= 0)
+        {
+          raw.append((char) ch);
+          if (ch != '"')
+            value.append((char) ch);
+          else if (peek() == '"') // doubled quote is one quote
+          {
+            raw.append((char) next());
+            value.append('"');
+          }
+          else                    // closing quote
+            break;
+        }
+      }
+      else                        // unquoted field, up to next delimiter
+      {
+        while (((ch = peek()) >= 0) && (ch != ',') && (ch != '\n')
+          && (ch != '\r'))
+        {
+          value.append((char) next());
+        }
+        raw.append(value);
+      }
+
+      result = convert(value.toString());
+      if (result == null)         // no change, copy exactly
+        putString(raw.toString());
+      else if ((raw.length() > 0) && (raw.charAt(0) == '"')
+        || (result.indexOf(',') >= 0) || (result.indexOf('"') >= 0)
+        || (result.indexOf('\n') >= 0) || (result.indexOf('\r') >= 0))
+      {
+        putString("\"" + result.replace("\"", "\"\"") + "\"");
+      }
+      else
+        putString(result);
+
+      while (((ch = peek()) >= 0) && (ch != ',') && (ch != '\n')
+        && (ch != '\r'))          // junk after closing quote
+      {
+        put(next());
+      }
+      if (ch >= 0)                // delimiter: comma or line break
+        put(next());
+    }
+  } // end of runCsv() method
+
+
+/*
+  runJson() method
+
+  JSON (RFC 8259).  A string followed by a colon is an object key and is
+  copied; any other string is a value and is converted.  Escape sequences are
+  decoded before conversion, and only the characters that JSON requires are
+  escaped again.
+*/
+  void runJson() throws IOException
+  {
+    int ch;                       // one input character
+    StringBuffer raw;             // string as it was, without quotes
+    String result;                // converted value, or null if no change
+    StringBuffer space;           // white space after string
+    StringBuffer value;           // string with escapes decoded
+
+    raw = new StringBuffer();
+    space = new StringBuffer();
+    value = new StringBuffer();
+    while ((ch = next()) >= 0)
+    {
+      if (ch != '"')              // syntax, numbers, literals: copy
+      {
+        put(ch);
+        continue;
+      }
+
+      raw.setLength(0);
+      value.setLength(0);
+      while (((ch = next()) >= 0) && (ch != '"'))
+      {
+        raw.append((char) ch);
+        if (ch != '\\')
+        {
+          value.append((char) ch);
+          continue;
+        }
+        if ((ch = next()) < 0)
+          break;
+        raw.append((char) ch);
+        if (ch == 'b') value.append('\b');
+        else if (ch == 'f') value.append('\f');
+        else if (ch == 'n') value.append('\n');
+        else if (ch == 'r') value.append('\r');
+        else if (ch == 't') value.append('\t');
+        else if (ch == 'u')       // four hexadecimal digits
+        {
+          int code = 0;           // character number
+          int i;                  // index variable
+          for (i = 0; (i < 4) && (peek() >= 0); i ++)
+          {
+            ch = next();
+            raw.append((char) ch);
+            code = (code * 16) + Character.digit((char) ch, 16);
+          }
+          value.append((char) code);
+        }
+        else                      // quote, backslash, slash
+          value.append((char) ch);
+      }
+
+      space.setLength(0);         // is this string a key?
+      while (((ch = peek()) == ' ') || (ch == '\t') || (ch == '\n')
+        || (ch == '\r'))
+      {
+        space.append((char) next());
+      }
+      result = (ch == ':') ? null : convert(value.toString());
+
+      put('"');
+      if (result == null)         // key, or no change: copy exactly
+        putString(raw.toString());
+      else for (int i = 0; i < result.length(); i ++)
+      {
+        ch = result.charAt(i);
+        if ((ch == '"') || (ch == '\\'))
+        {
+          put('\\');
+          put(ch);
+        }
+        else if (ch == '\n') putString("\\n");
+        else if (ch == '\r') putString("\\r");
+        else if (ch == '\t') putString("\\t");
+        else if (ch < 0x20)
+          putString("\\u" + Integer.toHexString(0x10000 | ch).substring(1));
+        else
+          put(ch);
+      }
+      put('"');
+      putString(space.toString());
+    }
+  } // end of runJson() method
+
+
+/*
+  runMarkup() method
+
+  HTML or XML.  Text between tags is collected and converted; everything
+  inside angle brackets is copied.  Character and entity references are
+  copied, so the rules never see "&amp;" as letters.  In HTML, the contents of
+  script and style elements are code, not text, and are copied.
+*/
+  void runMarkup() throws IOException
+  {
+    int ch;                       // one input character
+    boolean endTag;               // true for </name>
+    StringBuffer name;            // tag or reference name
+    int quote;                    // quote character in a tag, or zero
+
+    name = new StringBuffer();
+    while ((ch = next()) >= 0)
+    {
+      if (ch == '&')              // character or entity reference
+      {
+        name.setLength(0);
+        while ((name.length() < MAX_REFERENCE) && (((ch = peek()) == '#')
+          || Character.isLetterOrDigit((char) ch)))
+        {
+          name.append((char) next());
+        }
+        if ((name.length() > 0) && (peek() == ';'))
+        {
+          flushText();
+          put('&');
+          putString(name.toString());
+          put(next());            // the semicolon
+        }
+        else                      // a plain ampersand in sloppy HTML
+          text.append('&').append(name);
+        continue;
+      }
+      if (ch != '<')              // ordinary text
+      {
+        text.append((char) ch);
+        limitText();
+        continue;
+      }
+
+      flushText();                // markup starts here
+      put(ch);
+      ch = peek();
+      if (ch == '?')              // processing instruction
+        copyUntil("?>", false);
+      else if (ch == '!')         // comment, CDATA, or declaration
+      {
+        put(next());
+        name.setLength(0);
+        while ((name.length() < 7) && ((ch = peek()) >= 0)
+          && ("-[CDATA".indexOf(ch) >= 0))
+        {
+          name.append((char) next());
+          if (name.toString().equals("--") || name.toString().equals(
+            "[CDATA["))
+          {
+            break;
+          }
+        }
+        putString(name.toString());
+        if (name.toString().equals("--"))
+          copyUntil("-->", false);
+        else if (name.toString().equals("[CDATA["))
+        {
+          while ((ch = next()) >= 0) // CDATA is text without references
+          {
+            text.append((char) ch);
+            int length = text.length(); // look for "]]>" at the end
+            if ((ch == '>') && (length >= 3)
+              && (text.charAt(length - 2) == ']')
+              && (text.charAt(length - 3) == ']'))
+            {
+              text.setLength(length - 3);
+              break;
+            }
+            limitText();
+          }
+          flushText();
+          if (ch >= 0) putString("]]>");
+        }
+        else                      // DOCTYPE, maybe with internal subset
+        {
+          quote = 0;              // here, a count of open brackets
+          while ((ch = next()) >= 0)
+          {
+            put(ch);
+            if (ch == '[') quote ++;
+            else if (ch == ']') quote --;
+            else if ((ch == '>') && (quote <= 0)) break;
+          }
+        }
+      }
+      else                        // start tag or end tag
+      {
+        endTag = (ch == '/');
+        name.setLength(0);
+        quote = 0;                // not inside a quoted attribute
+        while ((ch = next()) >= 0)
+        {
+          put(ch);
+          if (quote != 0)
+          {
+            if (ch == quote) quote = 0;
+          }
+          else if ((ch == '"') || (ch == '\''))
+            quote = ch;
+          else if (ch == '>')
+            break;
+          else if ((name.length() == 0) || Character.isLetterOrDigit(
+            name.charAt(name.length() - 1)))
+          {
+            if (Character.isLetterOrDigit((char) ch))
+              name.append(Character.toLowerCase((char) ch));
+            else if (name.length() > 0)
+              name.append(' ');   // end of name
+          }
+        }
+        String tag = name.toString().trim();
+        if ((format == FORMAT_HTML) && !endTag && (tag.equals("script")
+          || tag.equals("style")))
+        {
+          copyUntil("</" + tag, true); // code, not text
+          copyUntil(">", false);
+        }
+      }
+    }
+  } // end of runMarkup() method
+
+} // end of PlainText3Markup class
+
+/* Copyright (c) 2019 by Keith Fenske.  Apache License or GNU GPL. */
@@ -0,0 +1,201 @@
+/*
+  Plain Text #3 (Names) - Unicode Character Names
+  Java class name: PlainText3Names
+  Copyright (c) 2019 by Keith Fenske.  Apache License or GNU GPL.
+
+  Unicode character names for the "uniname" action, loaded only when the first
+  name is needed.  Names come from the Character Map data file (CharMap4.txt)
+  if that file is in the current working directory, otherwise from the Java
+  run-time, which takes most of a second to ask for every character's name.
+  Either way, the index is a sorted array of character numbers and one pool of
+  front-coded names: in each block of names, the first name is complete, and
+  each following name saves only the characters that differ from the previous
+  name.  Sorted captions share long prefixes ("LATIN CAPITAL LETTER ...").
+
+  <loaded> is volatile and set last, so a thread that sees it true without
+  locking also sees the finished arrays.
+
+  Apache License or GNU General Public License
+  --------------------------------------------
+  PlainText3Names is free software and has been released under the terms and
+  conditions of the Apache License (version 2.0 or later) and/or the GNU
+  General Public License (GPL, version 2 or later).  This program is
+  distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY,
+  without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+  PARTICULAR PURPOSE.  See the license(s) for more details.  You should have
+  received a copy of the licenses along with this program.  If not, see the
+  http://www.apache.org/licenses/ and http://www.gnu.org/licenses/ web pages.
+*/
+
+import java.io.*;                 // standard I/O
+import java.util.*;               // lists, maps
+import java.util.regex.*;         // regular expressions
+
+class PlainText3Names
+{
+  /* constants */
+
+  static final int BLOCK_SIZE = 16; // names per front-coded block
+  static final String NAMES_FILE = "CharMap4.txt"; // mouse captions by number
+
+  /* class variables */
+
+  static int[] blockStart;        // offsets into <namePool> for each block
+  static int[] codes;             // sorted Unicode character numbers
+  static volatile boolean loaded = false; // true after index is built
+  static char[] namePool;         // front-coded names: prefix, suffix, chars
+
+
+/*
+  appendName() method
+
+  Append a space and the name of one character to a string buffer.  Nothing is
+  appended if the character does not have a name.  Names are decoded directly
+  into the caller's buffer, so no objects are created per character.
+*/
+  static void appendName(StringBuffer buffer, int ch)
+  {
+    int base;                     // length of buffer before decoding name
+    int high, low, middle;        // binary search limits
+    int i;                        // index variable
+    int pool;                     // current position in <namePool>
+    int prefix, suffix;           // shared and new characters in one name
+
+    if (loaded == false)          // have we built the index yet?
+      loadNames();
+
+    low = 0;                      // binary search for character number
+    high = codes.length - 1;
+    middle = -1;                  // assume not found
+    while (low <= high)
+    {
+      middle = (low + high) >>> 1;
+      if (codes[middle] < ch)
+        low = middle + 1;
+      else if (codes[middle] > ch)
+        high = middle - 1;
+      else
+        break;                    // found, exit early from <while> loop
+    }
+    if ((middle < 0) || (codes[middle] != ch)) // no name for this character
+      return;
+
+    /* Decode names from the start of the block until we reach the one we
+    want.  Each name reuses the front of the previous name. */
+
+    buffer.append(" ");
+    base = buffer.length();       // names begin here in caller's buffer
+    pool = blockStart[middle / BLOCK_SIZE]; // first name in block
+    for (i = middle - (middle % BLOCK_SIZE); i <= middle; i ++)
+    {
+      prefix = namePool[pool ++]; // characters shared with previous name
+      suffix = namePool[pool ++]; // new characters in this name
+      buffer.setLength(base + prefix); // keep shared part of previous name
+      buffer.append(namePool, pool, suffix);
+      pool += suffix;
+    }
+  } // end of appendName() method
+
+
+/*
+  loadNames() method
+
+  Read the Character Map data file and build the front-coded index.  If the
+  file can't be read, then we build the index from the Java run-time names
+  instead, and say nothing, because the data file is optional.
+*/
+  static synchronized void loadNames()
+  {
+    int ch;                       // one Unicode character number
+    int count;                    // number of names found
+    int i;                        // index variable
+    BufferedReader input;         // input character stream
+    Iterator<Map.Entry<Integer, String>> iterator; // each in <sorted>
+    String line;                  // one line of text from input file
+    Matcher matcher;              // pattern matcher for <pattern>
+    Pattern pattern;              // compiled regular expression
+    StringBuffer pool;            // collects front-coded names
+    String previous;              // previous name in sorted order
+    TreeMap<Integer, String> sorted; // names sorted by number
+
+    if (loaded)                   // another thread may have been first
+      return;
+
+    sorted = new TreeMap<>();     // temporary while reading file
+    try                           // catch specific and general I/O errors
+    {
+      input = new BufferedReader(new InputStreamReader(new FileInputStream(
+        NAMES_FILE), "UTF-8"));   // mouse captions for Unicode characters
+      pattern = Pattern.compile(
+        "^\\s*[Uu]\\+([0-9A-Fa-f]+)\\s*=\\s*(.*\\S)\\s*$");
+      while ((line = input.readLine()) != null) // read one line from file
+      {
+        matcher = pattern.matcher(line); // only want specific lines
+        if (matcher.find())       // if this line has correct syntax
+        {
+          try                     // number may have too many digits
+          {
+            Integer key = Integer.valueOf(Integer.parseInt(matcher.group(1),
+              16));
+            if (sorted.containsKey(key) == false) // keep first caption only
+              sorted.put(key, matcher.group(2));
+          }
+          catch (NumberFormatException nfe) { /* ignore this line */ }
+        }
+      }
+      input.close();              // try to close input file
+    }
+    catch (IOException ioe)       // file not found or other I/O errors
+    {
+      sorted.clear();             // ignore partial file, use Java run-time
+      for (ch = 0; ch <= PlainText3Engine.UTF32_MAX; ch ++)
+      {
+        i = Character.getType(ch);
+        if ((i == Character.SURROGATE) || (i == Character.UNASSIGNED))
+          continue;               // no name, don't bother asking
+        line = Character.getName(ch);
+        if (line != null)
+          sorted.put(Integer.valueOf(ch), line);
+      }
+    }
+
+    /* Front code the names in blocks of <BLOCK_SIZE>. */
+
+    count = sorted.size();
+    blockStart = new int[(count + BLOCK_SIZE - 1) / BLOCK_SIZE];
+    codes = new int[count];
+    i = 0;                        // index of current name
+    iterator = sorted.entrySet().iterator();
+    pool = new StringBuffer();
+    previous = "";                // no previous name yet
+    while (iterator.hasNext())
+    {
+      Map.Entry<Integer, String> entry = iterator.next();
+      String name = entry.getValue();
+      int prefix = 0;             // characters shared with previous name
+      if ((i % BLOCK_SIZE) == 0)  // first name in block is always complete
+        blockStart[i / BLOCK_SIZE] = pool.length();
+      else
+      {
+        int limit = Math.min(name.length(), previous.length());
+        while ((prefix < limit) && (name.charAt(prefix)
+          == previous.charAt(prefix)))
+        {
+          prefix ++;
+        }
+      }
+      codes[i ++] = entry.getKey().intValue();
+      pool.append((char) prefix);
+      pool.append((char) (name.length() - prefix));
+      pool.append(name.substring(prefix));
+      previous = name;
+    }
+    namePool = new char[pool.length()];
+    pool.getChars(0, pool.length(), namePool, 0);
+    loaded = true;                // index is now ready for use
+
+  } // end of loadNames() method
+
+} // end of PlainText3Names class
+
+/* Copyright (c) 2019 by Keith Fenske.  Apache License or GNU GPL. */
@@ -0,0 +1,241 @@
+/*
+  Plain Text #3 (Output) - Segmented Output for Converted Text
+  Java class name: PlainText3Output
+  Copyright (c) 2019 by Keith Fenske.  Apache License or GNU GPL.
+
+  Converted text for the console and the daemon, collected in segments so
+  that a rule with a large expansion (such as a character number for every
+  character) can't exhaust the Java heap.  Segments are kept in memory up to a
+  limit; after that, they are encoded as UTF-8 and written to a temporary
+  file, which is streamed back out at the end and deleted.  Optional limits
+  on the total output, and on the output per input character, stop a runaway
+  conversion with a message instead of an OutOfMemoryError.
+
+  Errors are not thrown from append(), because it is called from the inner
+  loop of the conversion.  It returns false and sets <error> instead, and the
+  caller stops converting.
+
+  Apache License or GNU General Public License
+  --------------------------------------------
+  PlainText3Output is free software and has been released under the terms and
+  conditions of the Apache License (version 2.0 or later) and/or the GNU
+  General Public License (GPL, version 2 or later).  This program is
+  distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY,
+  without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+  PARTICULAR PURPOSE.  See the license(s) for more details.  You should have
+  received a copy of the licenses along with this program.  If not, see the
+  http://www.apache.org/licenses/ and http://www.gnu.org/licenses/ web pages.
+*/
+
+import java.io.*;                 // standard I/O
+import java.nio.*;                // byte and character buffers
+import java.nio.channels.*;       // file channels
+import java.nio.charset.*;        // UTF-8 encoding
+import java.util.*;               // lists, maps
+
+class PlainText3Output
+{
+  /* constants */
+
+  static final int BUFFER_SIZE = 0x10000; // bytes for encoding to file
+  static final int SEGMENT_SIZE = 0x10000; // characters per segment
+
+  /* class variables */
+
+  CharsetEncoder encoder;         // UTF-8 for temporary file
+  String error;                   // null or why conversion was stopped
+  long maxExpansion;              // zero or maximum output per input char
+  long maxOutput;                 // zero or maximum output characters
+  long memoryCount;               // characters in <segments>
+  ArrayList<String> segments;     // strings kept in memory, in order
+  FileChannel spillChannel;       // null or temporary file for the rest
+  File spillFile;                 // null or name of temporary file
+  long spillLimit;                // characters kept in memory before file
+  long totalCount;                // output characters so far
+
+  /* constructor */
+
+  public PlainText3Output(long spillLimit, long maxOutput, long maxExpansion)
+  {
+    this.encoder = null;          // only needed if we spill
+    this.error = null;            // no errors yet
+    this.maxExpansion = maxExpansion;
+    this.maxOutput = maxOutput;
+    this.memoryCount = this.totalCount = 0; // no output yet
+    this.segments = new ArrayList<>();
+    this.spillChannel = null;     // no temporary file yet
+    this.spillFile = null;
+    this.spillLimit = spillLimit;
+  }
+
+
+/*
+  append() method
+
+  Take the text from the caller's buffer, which the caller then empties.
+  <inputCount> is the number of input characters converted so far, for the
+  expansion limit.  Return false if conversion must stop.
+*/
+  boolean append(StringBuffer text, long inputCount)
+  {
+    ByteBuffer bytes;             // encoded text for temporary file
+    CharBuffer chars;             // text not yet encoded
+    CoderResult result;           // status from encoder
+
+    totalCount += text.length();
+    if ((maxOutput > 0) && (totalCount > maxOutput))
+    {
+      error = "output is more than the limit of "
+        + PlainText3Engine.prettyPlural(maxOutput, "character");
+      return(false);
+    }
+    if ((maxExpansion > 0) && (totalCount > SEGMENT_SIZE)
+      && (totalCount > (maxExpansion * Math.max(inputCount, 1))))
+    {
+      error = "output is more than " + maxExpansion
+        + " times the size of the input";
+      return(false);
+    }
+
+    if ((spillChannel == null) && ((memoryCount + text.length())
+      <= spillLimit))             // still fits in memory?
+    {
+      segments.add(text.toString());
+      memoryCount += text.length();
+      return(true);
+    }
+
+    try
+    {
+      if (spillChannel == null)   // first time past the memory limit
+      {
+        encoder = Charset.forName("UTF-8").newEncoder()
+          .onMalformedInput(CodingErrorAction.REPLACE)
+          .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        spillFile = File.createTempFile("PlainText3", ".tmp");
+        spillFile.deleteOnExit(); // in case we are killed
+        spillChannel = new RandomAccessFile(spillFile, "rw").getChannel();
+      }
+      bytes = ByteBuffer.allocate(BUFFER_SIZE);
+      chars = CharBuffer.wrap(text);
+      do
+      {
+        result = encoder.encode(chars, bytes, false);
+        bytes.flip();
+        while (bytes.hasRemaining())
+          spillChannel.write(bytes);
+        bytes.clear();
+      } while (result.isOverflow());
+    }
+    catch (IOException ioe)
+    {
+      error = "unable to write temporary file: " + ioe.getMessage();
+      close();
+      return(false);
+    }
+    return(true);
+
+  } // end of append() method
+
+
+/*
+  byteCount() method
+
+  Return the number of bytes that writeTo() will write, without encoding the
+  memory segments twice.  A surrogate pair is four bytes in UTF-8, and a lone
+  surrogate is replaced by one byte, the same as String.getBytes() does.
+*/
+  long byteCount() throws IOException
+  {
+    char ch;                      // one character from a segment
+    int i, k;                     // index variables
+    long result;                  // number of bytes
+    String text;                  // one segment
+
+    result = (spillChannel != null) ? spillChannel.size() : 0;
+    for (i = 0; i < segments.size(); i ++)
+    {
+      text = segments.get(i);
+      for (k = 0; k < text.length(); k ++)
+      {
+        ch = text.charAt(k);
+        if (ch < 0x80)
+          result += 1;
+        else if (ch < 0x800)
+          result += 2;
+        else if (Character.isHighSurrogate(ch) && ((k + 1) < text.length())
+          && Character.isLowSurrogate(text.charAt(k + 1)))
+        {
+          result += 4;
+          k ++;                   // skip low half of pair
+        }
+        else if (Character.isSurrogate(ch))
+          result += 1;            // replaced by a question mark
+        else
+          result += 3;
+      }
+    }
+    return(result);
+
+  } // end of byteCount() method
+
+
+/*
+  close() method
+
+  Close and delete the temporary file, if any.  Memory segments are released.
+*/
+  void close()
+  {
+    if (spillChannel != null)
+    {
+      try { spillChannel.close(); } catch (IOException ioe) { /* ignore */ }
+      spillFile.delete();
+      spillChannel = null;
+    }
+    segments.clear();
+  }
+
+
+/*
+  writeTo() method
+
+  Write all output as UTF-8 to a channel, then close.  Return the number of
+  bytes written.
+*/
+  long writeTo(WritableByteChannel channel) throws IOException
+  {
+    ByteBuffer bytes;             // encoded text from memory
+    int i;                        // index variable
+    long position;                // next byte from temporary file
+    long result;                  // number of bytes written
+    long size;                    // size of temporary file
+
+    result = 0;
+    try
+    {
+      for (i = 0; i < segments.size(); i ++)
+      {
+        bytes = ByteBuffer.wrap(segments.get(i).getBytes("UTF-8"));
+        result += bytes.remaining();
+        while (bytes.hasRemaining())
+          channel.write(bytes);
+      }
+      if (spillChannel != null)   // rest of output is in temporary file
+      {
+        size = spillChannel.size();
+        position = 0;
+        while (position < size)
+          position += spillChannel.transferTo(position, (size - position),
+            channel);
+        result += size;
+      }
+    }
+    finally { close(); }
+    return(result);
+
+  } // end of writeTo() method
+
+} // end of PlainText3Output class
+
+/* Copyright (c) 2019 by Keith Fenske.  Apache License or GNU GPL. */
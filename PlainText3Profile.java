@@ -0,0 +1,335 @@
+/*
+  Plain Text #3 (Profile) - Profile-Guided Rule Order
+  Java class name: PlainText3Profile
+  Copyright (c) 2019 by Keith Fenske.  Apache License or GNU GPL.
+
+  Profile-guided rule order for the -profile and -reorder options.  Rules are
+  tried in file order for every input character, so a busy rule near the end
+  of a long file costs a comparison with every rule before it.  With -profile,
+  the interpreter counts how often each rule matches, and the counts are saved
+  when the program exits, added to any counts already in the file.  With
+  either option, a saved profile moves busy rules toward the front when the
+  configuration is loaded.
+
+  A rule only moves ahead of rules that can never match at the same position
+  as it does: ranges or classes that don't overlap, strings where neither is
+  the start of the other, and so on.  Swapping two such neighbors can't change
+  which rule is first to match anywhere, so the result is the same as the file
+  order.  The profile file has a checksum of the rules, and is ignored if the
+  configuration has changed since.  Rules in stages are not reordered.
+
+  Apache License or GNU General Public License
+  --------------------------------------------
+  PlainText3Profile is free software and has been released under the terms and
+  conditions of the Apache License (version 2.0 or later) and/or the GNU
+  General Public License (GPL, version 2 or later).  This program is
+  distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY,
+  without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+  PARTICULAR PURPOSE.  See the license(s) for more details.  You should have
+  received a copy of the licenses along with this program.  If not, see the
+  http://www.apache.org/licenses/ and http://www.gnu.org/licenses/ web pages.
+*/
+
+import java.io.*;                 // standard I/O
+import java.nio.charset.*;        // UTF-8 encoding
+import java.util.*;               // lists, maps
+
+class PlainText3Profile
+{
+  /* constants */
+
+  static final int MOVE_LIMIT = 1000; // most rules that we try to move
+
+  /* class variables */
+
+  long checksum;                  // checksum of rules for <hits>
+  long[] hits;                    // matches for each rule in file order
+  String path;                    // file where we read and write counts
+  boolean recordFlag;             // true if we count matches (-profile)
+
+  /* constructor */
+
+  public PlainText3Profile(String path, boolean recordFlag)
+  {
+    this.checksum = 0;            // no rules yet
+    this.hits = new long[0];
+    this.path = path;
+    this.recordFlag = recordFlag;
+    if (recordFlag)               // save counts when program exits
+      Runtime.getRuntime().addShutdownHook(new Thread() {
+        public void run() { write(PlainText3Engine.dataTable); } });
+  }
+
+
+/*
+  collect() method
+
+  Add the matches counted by a table to our totals, and clear the table's
+  counts so they aren't added twice.  Counts from other threads may be lost
+  while we do this; they are only a guide.
+*/
+  synchronized void collect(PlainText3Table table)
+  {
+    int i;                        // index variable
+
+    if ((table == null) || (table.ruleHits == null)
+      || (table.profileChecksum != checksum))
+    {
+      return;                     // not profiled, or rules have changed
+    }
+    for (i = 0; i < table.ruleCount; i ++)
+    {
+      hits[table.ruleOrder[i]] += table.ruleHits[i];
+      table.ruleHits[i] = 0;
+    }
+  }
+
+
+/*
+  findChecksum() method
+
+  Return a checksum of the rules in a list, so that a profile isn't used with
+  rules other than the ones it was made from.
+*/
+  static long findChecksum(PlainText3Data first)
+  {
+    java.util.zip.CRC32 crc;      // checksum of everything about each rule
+    PlainText3Data data;          // current entry in linked list
+    int i;                        // index variable
+    StringBuffer text;            // one rule as text
+
+    crc = new java.util.zip.CRC32();
+    text = new StringBuffer();
+    for (data = first; data != null; data = data.next)
+    {
+      text.setLength(0);
+      text.append(data.action + (data.isRange ? " range" : " string"));
+      for (i = 0; i < data.left.length; i ++)
+        text.append(" " + data.left[i]);
+      if (data.leftClass != null)
+        text.append(" class " + data.leftClass.name);
+      if (data.right != null)
+        text.append(" = " + data.right);
+      text.append("\n");
+      crc.update(text.toString().getBytes(StandardCharsets.UTF_8));
+    }
+    return(crc.getValue());
+  }
+
+
+/*
+  matchesBoth() method
+
+  Return true if two rules might both match at the same input position.  A
+  class is treated as its whole range when compared with another range.
+*/
+  static boolean matchesBoth(PlainText3Data one, PlainText3Data two)
+  {
+    int i;                        // index variable
+    PlainText3Data range;         // the range, if only one is a range
+    PlainText3Data shorter, longer; // two strings, by length
+
+    if (one.isRange && two.isRange)
+      return((one.left[0] <= two.left[1]) && (two.left[0] <= one.left[1]));
+    if (one.isRange || two.isRange) // a range and a string
+    {
+      range = one.isRange ? one : two;
+      i = one.isRange ? two.left[0] : one.left[0]; // first character
+      return((i >= range.left[0]) && (i <= range.left[1])
+        && ((range.leftClass == null) || range.leftClass.contains(i)));
+    }
+    shorter = (one.left.length <= two.left.length) ? one : two;
+    longer = (shorter == one) ? two : one;
+    for (i = 0; i < shorter.left.length; i ++)
+      if (shorter.left[i] != longer.left[i])
+        return(false);            // neither is the start of the other
+    return(true);
+
+  } // end of matchesBoth() method
+
+
+/*
+  read() method
+
+  Read the counts saved in our file, if it is for rules with this checksum.
+  Return false if there is no file, or it is for other rules.
+*/
+  boolean read(long wanted, int ruleCount)
+  {
+    BufferedReader input;         // reads profile file
+    String line;                  // one line from file
+    long[] newHits;               // counts from file
+    String[] words;               // words on one line
+
+    newHits = new long[ruleCount];
+    try
+    {
+      input = new BufferedReader(new InputStreamReader(new FileInputStream(
+        path), "UTF-8"));
+      try
+      {
+        while ((line = input.readLine()) != null)
+        {
+          words = line.trim().split("\\s+");
+          if (words[0].equals("checksum") && (words.length == 3)
+            && ((Long.parseLong(words[1], 16) != wanted)
+            || (Integer.parseInt(words[2]) != ruleCount)))
+          {
+            return(false);        // profile for other rules
+          }
+          if (words[0].equals("rule") && (words.length == 3))
+          {
+            int rule = Integer.parseInt(words[1]) - 1; // numbered from one
+            if ((rule >= 0) && (rule < ruleCount))
+              newHits[rule] = Long.parseLong(words[2]);
+          }
+        }
+      }
+      finally { input.close(); }
+    }
+    catch (FileNotFoundException fnfe) { return(false); } // first run
+    catch (IOException ioe)
+    {
+      PlainText3Engine.putError("Unable to read profile " + path + ": "
+        + ioe.getMessage());
+      return(false);
+    }
+    catch (NumberFormatException nfe)
+    {
+      PlainText3Engine.putError("Invalid profile " + path + ": "
+        + nfe.getMessage());
+      return(false);
+    }
+    hits = newHits;
+    return(true);
+
+  } // end of read() method
+
+
+/*
+  reorder() method
+
+  Called by loadConfig() with the parsed rules in file order.  Load counts for
+  these rules, if any, and return the rules in the order that we want them.
+  <order> gets the original index of each rule in the new order.
+*/
+  synchronized PlainText3Data reorder(PlainText3Data first, int[][] order)
+  {
+    ArrayList<Integer> busy;      // index of each rule that has matched
+    PlainText3Data data;          // current entry in linked list
+    int from, to;                 // old and new position of a moving rule
+    int i, k;                     // index variables
+    int[] moving;                 // busy rules, most matches first
+    boolean[] moved;              // true for busy rules already placed
+    int[] newOrder;               // original index of rule at each position
+    long newChecksum;             // checksum of these rules
+    PlainText3Data[] rules;       // rules in file order
+    int ruleCount;                // number of rules
+
+    ruleCount = 0;
+    for (data = first; data != null; data = data.next)
+      ruleCount ++;
+    rules = new PlainText3Data[ruleCount];
+    ruleCount = 0;
+    for (data = first; data != null; data = data.next)
+      rules[ruleCount ++] = data;
+
+    collect(PlainText3Engine.dataTable); // counts from before a reload
+    newChecksum = findChecksum(first);
+    if ((newChecksum != checksum) || (hits.length != ruleCount))
+    {
+      if (read(newChecksum, ruleCount) == false)
+        hits = new long[ruleCount]; // start counting again
+      checksum = newChecksum;
+    }
+
+    /* Sort busy rules by count, then file order, and move each one forward
+    until it meets a rule that it might conflict with, or a busier rule. */
+
+    busy = new ArrayList<>();
+    for (i = 0; i < ruleCount; i ++)
+      if (hits[i] > 0)
+        busy.add(Integer.valueOf(i));
+    Collections.sort(busy, new Comparator<Integer>() {
+      public int compare(Integer one, Integer two)
+      {
+        int a = one.intValue(), b = two.intValue();
+        if (hits[a] != hits[b]) return((hits[a] > hits[b]) ? -1 : 1);
+        return(a - b);
+      } });
+    moving = new int[Math.min(busy.size(), MOVE_LIMIT)];
+    for (i = 0; i < moving.length; i ++)
+      moving[i] = busy.get(i).intValue();
+
+    moved = new boolean[ruleCount];
+    newOrder = new int[ruleCount];
+    for (i = 0; i < ruleCount; i ++)
+      newOrder[i] = i;
+    for (i = 0; i < moving.length; i ++)
+    {
+      from = 0;                   // find current position of this rule
+      while (newOrder[from] != moving[i])
+        from ++;
+      to = from;                  // move as far forward as allowed
+      while ((to > 0) && (moved[newOrder[to - 1]] == false)
+        && (matchesBoth(rules[moving[i]], rules[newOrder[to - 1]]) == false))
+      {
+        to --;
+      }
+      for (k = from; k > to; k --)
+        newOrder[k] = newOrder[k - 1];
+      newOrder[to] = moving[i];
+      moved[moving[i]] = true;
+    }
+
+    /* Link the rules again in their new order. */
+
+    for (i = 0; i < ruleCount; i ++)
+      rules[newOrder[i]].next = (i < (ruleCount - 1))
+        ? rules[newOrder[i + 1]] : null;
+    order[0] = newOrder;
+    return((ruleCount == 0) ? null : rules[newOrder[0]]);
+
+  } // end of reorder() method
+
+
+/*
+  write() method
+
+  Save the counts in our file: a checksum line, then one line for each rule
+  that has matched, numbered from one in file order.  The file is written as a
+  copy and renamed, so it is never partial.
+*/
+  synchronized void write(PlainText3Table table)
+  {
+    int i;                        // index variable
+    StringBuffer text;            // what we write
+
+    collect(table);
+    text = new StringBuffer();
+    text.append("# PlainText3 rule profile: matches for each rule, numbered"
+      + " in file order\n");
+    text.append("checksum " + Long.toHexString(checksum) + " " + hits.length
+      + "\n");
+    for (i = 0; i < hits.length; i ++)
+      if (hits[i] > 0)
+        text.append("rule " + (i + 1) + " " + hits[i] + "\n");
+    try
+    {
+      File file = new File(path + ".tmp");
+      Writer output = new OutputStreamWriter(new FileOutputStream(file),
+        "UTF-8");
+      output.write(text.toString());
+      output.close();
+      java.nio.file.Files.move(file.toPath(), new File(path).toPath(),
+        java.nio.file.StandardCopyOption.REPLACE_EXISTING);
+    }
+    catch (IOException ioe)
+    {
+      System.err.println("Profile file " + path + ": " + ioe.getMessage());
+    }
+  } // end of write() method
+
+} // end of PlainText3Profile class
+
+/* Copyright (c) 2019 by Keith Fenske.  Apache License or GNU GPL. */
@@ -0,0 +1,234 @@
+/*
+  Plain Text #3 (Table) - Compiled Conversion Table
+  Java class name: PlainText3Table
+  Copyright (c) 2019 by Keith Fenske.  Apache License or GNU GPL.
+
+  The compiled conversion table.  After the configuration file has been parsed
+  into a linked list of PlainText3Data objects, the list is packed into a few
+  primitive arrays: all left sides in one integer pool with offsets, all right
+  sides in one character pool with offsets, and the action codes in a byte
+  array.  Duplicate right sides are stored only once.  Rules are numbered from
+  zero in their original order, so the first matching rule is still the first
+  rule in the table.
+
+  Apache License or GNU General Public License
+  --------------------------------------------
+  PlainText3Table is free software and has been released under the terms and
+  conditions of the Apache License (version 2.0 or later) and/or the GNU
+  General Public License (GPL, version 2 or later).  This program is
+  distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY,
+  without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+  PARTICULAR PURPOSE.  See the license(s) for more details.  You should have
+  received a copy of the licenses along with this program.  If not, see the
+  http://www.apache.org/licenses/ and http://www.gnu.org/licenses/ web pages.
+*/
+
+import java.util.*;               // lists, maps
+
+class PlainText3Table
+{
+  /* constants */
+
+  static final byte KIND_CLASS = 2; // left side is a character class
+  static final byte KIND_RANGE = 1; // left side is a low-high range
+  static final byte KIND_STRING = 0; // left side is array of UTF-32 characters
+
+  /* class variables */
+
+  PlainText3Converter converter;  // null or generated code for this table
+  boolean graphemeFlag;           // true if rules match grapheme clusters
+  int[] leftPool;                 // all left sides, one after another
+  int[] leftStart;                // offsets into <leftPool>, one extra at end
+  PlainText3Table next;           // null or next pass (stage not fused)
+  long profileChecksum;           // rules checksum for <ruleHits>
+  char[] rightPool;               // all unique right sides in UTF-16
+  int rightCount;                 // number of unique right sides
+  int[] rightIndex;               // index of right side for each rule, or -1
+  int[] rightStart;               // offsets into <rightPool>, one extra at end
+  byte[] ruleActions;             // accept, delete, replace action codes
+  String[] ruleArguments;         // null or argument for each plug-in rule
+  PlainText3Class[] ruleClasses;  // null or character class for each rule
+  int ruleCount;                  // number of rules in table
+  PlainText3Formatter[] ruleFormatters; // null or plug-in for each rule
+  long[] ruleHits;                // null or matches for each rule (profile)
+  byte[] ruleKinds;               // kind of left side for each rule
+  int[] ruleLines;                // configuration line number for each rule
+  int[] ruleOrder;                // null or file order index for each rule
+  boolean shrinkFlag;             // true if no rule makes text longer
+
+  /* constructor */
+
+  public PlainText3Table(PlainText3Data first)
+  {
+    boolean classFlag;            // true if any rule has a character class
+    PlainText3Data data;          // current entry in linked list
+    HashMap<String, Integer> dedupMap; // right side to its index
+    boolean formatterFlag;        // true if any rule has a plug-in formatter
+    int i;                        // index variable
+    int leftCount;                // total characters in all left sides
+    int nextUnique;               // next unique right side to be copied
+    int rightSize;                // total characters in all right sides
+    Integer unique;               // index of an existing right side string
+
+    /* First pass: count the rules and the size of the left side pool, and
+    find the unique right sides. */
+
+    classFlag = false;            // no character classes found yet
+    dedupMap = new HashMap<>();   // empty map of right side strings
+    formatterFlag = false;        // no plug-in formatters found yet
+    leftCount = rightSize = ruleCount = 0; // nothing found yet
+    for (data = first; data != null; data = data.next)
+    {
+      classFlag |= (data.leftClass != null);
+      formatterFlag |= (data.formatter != null);
+      ruleCount ++;               // one more rule in linked list
+      leftCount += data.left.length; // characters in left side
+      if ((data.right != null) && (dedupMap.containsKey(data.right) == false))
+      {
+        dedupMap.put(data.right, Integer.valueOf(dedupMap.size()));
+        rightSize += data.right.length(); // characters in new right side
+      }
+    }
+
+    /* Second pass: copy each rule into the packed arrays. */
+
+    leftPool = new int[leftCount];
+    leftStart = new int[ruleCount + 1];
+    rightCount = dedupMap.size();
+    rightIndex = new int[ruleCount];
+    rightPool = new char[rightSize];
+    rightStart = new int[rightCount + 1];
+    ruleActions = new byte[ruleCount];
+    ruleArguments = formatterFlag ? new String[ruleCount] : null;
+    ruleClasses = classFlag ? new PlainText3Class[ruleCount] : null;
+    ruleFormatters = formatterFlag ? new PlainText3Formatter[ruleCount] : null;
+    ruleKinds = new byte[ruleCount];
+    ruleLines = new int[ruleCount];
+    converter = null;             // interpreted unless caller compiles us
+    graphemeFlag = false;         // single characters unless caller says
+    next = null;                  // one pass unless caller links more
+    profileChecksum = 0;          // not profiled unless caller says
+    ruleHits = null;
+    ruleOrder = null;             // rules in file order
+    shrinkFlag = true;            // until we find a rule that can grow
+
+    leftCount = rightSize = 0;    // now used as fill positions in pools
+    i = nextUnique = 0;           // index of current rule, right side
+    for (data = first; data != null; data = data.next)
+    {
+      leftStart[i] = leftCount;   // where this left side begins
+      System.arraycopy(data.left, 0, leftPool, leftCount, data.left.length);
+      leftCount += data.left.length;
+      ruleActions[i] = (byte) data.action;
+      ruleKinds[i] = (data.leftClass != null) ? KIND_CLASS
+        : data.isRange ? KIND_RANGE : KIND_STRING;
+      if (data.leftClass != null) // class is shared, not copied
+        ruleClasses[i] = data.leftClass;
+      ruleLines[i] = data.line;
+      if (data.action == PlainText3Engine.ACTION_ACCEPT) // same length
+        { /* do nothing */ }
+      else if ((data.action != PlainText3Engine.ACTION_REPLACE)
+        || (data.right.codePointCount(0, data.right.length())
+        > (data.isRange ? 1 : data.left.length)))
+      {
+        shrinkFlag = false;       // special action or longer right side
+      }
+      if (data.formatter != null) // bind plug-in now, not for each match
+      {
+        ruleArguments[i] = (data.right == null) ? "" : data.right;
+        ruleFormatters[i] = data.formatter;
+      }
+
+      if (data.right == null)     // accept action has no right side
+        rightIndex[i] = -1;
+      else
+      {
+        unique = dedupMap.get(data.right);
+        rightIndex[i] = unique.intValue();
+        if (unique.intValue() == nextUnique) // first time we see this?
+        {                         // indexes were assigned in the same order
+          rightStart[nextUnique ++] = rightSize;
+          data.right.getChars(0, data.right.length(), rightPool, rightSize);
+          rightSize += data.right.length();
+        }
+      }
+      i ++;                       // index of next rule
+    }
+    leftStart[ruleCount] = leftCount; // end of last left side
+    rightStart[rightCount] = rightSize; // end of last right side
+
+  } // end of constructor
+
+
+/*
+  appendRight() method
+
+  Append the right side of a rule to a string buffer.  Nothing is appended for
+  accept rules, which don't have a right side.
+*/
+  void appendRight(StringBuffer buffer, int rule)
+  {
+    int index = rightIndex[rule]; // which unique right side
+    if (index >= 0)               // does this rule have a right side?
+      buffer.append(rightPool, rightStart[index], (rightStart[index + 1]
+        - rightStart[index]));
+  }
+
+
+/*
+  footprint() method
+
+  Return the approximate number of bytes used by this table: the array
+  contents plus a nominal header for each array object.
+*/
+  long footprint()
+  {
+    final int HEADER = 16;        // nominal bytes for each array object
+    return((9 * HEADER) + (4L * leftPool.length) + (4L * leftStart.length)
+      + (2L * rightPool.length) + (4L * rightIndex.length)
+      + (4L * rightStart.length) + ruleActions.length + ruleKinds.length
+      + (4L * ruleLines.length) + ((ruleFormatters == null) ? 0
+      : ((2 * HEADER) + (8L * ruleCount))) + footprintClasses());
+  }
+
+
+/*
+  footprintClasses() method
+
+  Return the approximate number of bytes used by character classes, counting
+  each class once even if several rules share it.
+*/
+  long footprintClasses()
+  {
+    int i;                        // index variable
+    long result;                  // total bytes
+    IdentityHashMap<PlainText3Class, String> seen; // classes counted
+
+    if (ruleClasses == null)
+      return(0);
+    result = 16 + (8L * ruleCount); // array of references
+    seen = new IdentityHashMap<>();
+    for (i = 0; i < ruleCount; i ++)
+      if ((ruleClasses[i] != null) && (seen.put(ruleClasses[i], "") == null))
+        result += ruleClasses[i].footprint();
+    return(result);
+  }
+
+
+/*
+  rightLength() method
+
+  Return the number of UTF-16 characters in the right side of a rule, which is
+  zero for both delete rules and accept rules.
+*/
+  int rightLength(int rule)
+  {
+    int index = rightIndex[rule]; // which unique right side
+    if (index < 0)                // accept rules have no right side
+      return(0);
+    return(rightStart[index + 1] - rightStart[index]);
+  }
+
+} // end of PlainText3Table class
+
+/* Copyright (c) 2019 by Keith Fenske.  Apache License or GNU GPL. */
@@ -0,0 +1,312 @@
+/*
+  Plain Text #3 (Telemetry) - Throughput and Latency Numbers
+  Java class name: PlainText3Telemetry
+  Copyright (c) 2019 by Keith Fenske.  Apache License or GNU GPL.
+
+  Throughput numbers for console and daemon runs: files (or client requests),
+  bytes in and out, changes, queue depth, and a latency histogram for p50 and
+  p99.  Counters are LongAdder objects, so threads converting in parallel
+  don't fight over one memory location.  The histogram has buckets in the
+  style of HdrHistogram: exact below 64 microseconds, then 32 buckets for each
+  power of two, which keeps about 3% precision with a fixed array.
+
+  Numbers are written every few seconds and when the program exits.  If the
+  file name ends with ".prom", the file is replaced each time in Prometheus
+  text format (for a node exporter's text file collector).  Otherwise, one
+  JSON object is appended per line, with rates for the last interval.
+
+  Apache License or GNU General Public License
+  --------------------------------------------
+  PlainText3Telemetry is free software and has been released under the terms
+  and conditions of the Apache License (version 2.0 or later) and/or the GNU
+  General Public License (GPL, version 2 or later).  This program is
+  distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY,
+  without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+  PARTICULAR PURPOSE.  See the license(s) for more details.  You should have
+  received a copy of the licenses along with this program.  If not, see the
+  http://www.apache.org/licenses/ and http://www.gnu.org/licenses/ web pages.
+*/
+
+import java.io.*;                 // standard I/O
+import java.text.*;               // number formatting
+import java.util.*;               // lists, maps
+import java.util.concurrent.*;    // thread pools for parallel work
+import java.util.concurrent.atomic.*; // counters for telemetry
+
+class PlainText3Telemetry
+{
+  /* constants */
+
+  static final int BUCKET_COUNT = 64 + (63 - 6) * 32; // histogram size
+  static final long INTERVAL = 10000; // milliseconds between writes
+  static final String PROM_SUFFIX = ".prom"; // file name for Prometheus
+
+  /* class variables */
+
+  LongAdder bytesIn;              // UTF-8 bytes read
+  LongAdder bytesOut;             // UTF-8 bytes written
+  LongAdder changes;              // changes made by conversion rules
+  LongAdder files;                // files or requests converted
+  AtomicLongArray histogram;      // latency counts by bucket (microseconds)
+  long lastBytes, lastFiles;      // totals at last write
+  long lastTime;                  // nanoseconds at last write
+  LongAdder nanos;                // sum of all latencies in nanoseconds
+  String path;                    // file where we write numbers
+  boolean promFlag;               // true for Prometheus, false for JSON
+  LongAdder queued;               // files or requests waiting for a thread
+
+  /* constructor */
+
+  public PlainText3Telemetry(String path)
+  {
+    this.bytesIn = new LongAdder();
+    this.bytesOut = new LongAdder();
+    this.changes = new LongAdder();
+    this.files = new LongAdder();
+    this.histogram = new AtomicLongArray(BUCKET_COUNT);
+    this.lastBytes = this.lastFiles = 0;
+    this.lastTime = System.nanoTime();
+    this.nanos = new LongAdder();
+    this.path = path;
+    this.promFlag = path.toLowerCase().endsWith(PROM_SUFFIX);
+    this.queued = new LongAdder();
+  }
+
+
+/*
+  bucketIndex() and bucketValue() methods
+
+  Convert a latency in microseconds to a histogram bucket, and a bucket back to
+  the largest latency that it holds.
+*/
+  static int bucketIndex(long micros)
+  {
+    int power;                    // position of highest one bit
+
+    if (micros < 64)              // small values are exact
+      return((int) Math.max(micros, 0));
+    power = 63 - Long.numberOfLeadingZeros(micros); // 6 or more
+    return(64 + ((power - 6) * 32) + (int) ((micros >> (power - 5)) - 32));
+  }
+
+  static long bucketValue(int index)
+  {
+    int shift;                    // bits dropped for this bucket's power
+
+    if (index < 64)
+      return(index);
+    shift = ((index - 64) / 32) + 1;
+    return(((((index - 64) % 32) + 33L) << shift) - 1);
+  }
+
+
+/*
+  percentile() method
+
+  Return the latency in milliseconds at or below which the given fraction of
+  all recorded latencies fall, or zero if nothing was recorded.  Counts may
+  change while we look, which is fine for a report.
+*/
+  double percentile(double fraction)
+  {
+    long count;                   // number of latencies seen so far
+    int i;                        // index variable
+    long target;                  // number of latencies we must pass
+    long total;                   // total number of latencies
+
+    total = 0;
+    for (i = 0; i < BUCKET_COUNT; i ++)
+      total += histogram.get(i);
+    if (total == 0)
+      return(0.0);
+    target = Math.max(1, (long) Math.ceil(total * fraction));
+    count = 0;
+    for (i = 0; i < BUCKET_COUNT; i ++)
+    {
+      count += histogram.get(i);
+      if (count >= target)
+        return(bucketValue(i) / 1000.0);
+    }
+    return(bucketValue(BUCKET_COUNT - 1) / 1000.0);
+
+  } // end of percentile() method
+
+
+/*
+  queue() method
+
+  Change the number of files or requests waiting for a thread.
+*/
+  void queue(int delta)
+  {
+    queued.add(delta);
+  }
+
+
+/*
+  record() method
+
+  Record one converted file or request.  Called by any thread.
+*/
+  void record(long elapsed, long inCount, long outCount, int changeCount)
+  {
+    bytesIn.add(inCount);
+    bytesOut.add(outCount);
+    changes.add(changeCount);
+    files.increment();
+    histogram.incrementAndGet(bucketIndex(elapsed / 1000));
+    nanos.add(elapsed);
+  }
+
+
+/*
+  start() method
+
+  Write the numbers every few seconds on a daemon thread, and once more when
+  the program exits.
+*/
+  void start()
+  {
+    Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+      public Thread newThread(Runnable task)
+      {
+        Thread thread = new Thread(task, "PlainText3 telemetry");
+        thread.setDaemon(true);   // don't keep JVM alive for this
+        return(thread);
+      } }).scheduleWithFixedDelay(new Runnable() {
+        public void run() { write(); } },
+      INTERVAL, INTERVAL, TimeUnit.MILLISECONDS);
+    Runtime.getRuntime().addShutdownHook(new Thread() {
+      public void run() { write(); } });
+  }
+
+
+/*
+  utf8Length() method
+
+  Return the number of bytes needed for a string in UTF-8, without making the
+  bytes.
+*/
+  static long utf8Length(CharSequence text)
+  {
+    char ch;                      // one character from <text>
+    int i;                        // index variable
+    int length;                   // number of characters in <text>
+    long result;                  // number of bytes
+
+    length = text.length();
+    result = 0;
+    for (i = 0; i < length; i ++)
+    {
+      ch = text.charAt(i);
+      if (ch < 0x80) result += 1;
+      else if (ch < 0x800) result += 2;
+      else if ((ch >= PlainText3Engine.UTF16_HIGH_BEGIN)
+        && (ch <= PlainText3Engine.UTF16_HIGH_END) && ((i + 1) < length))
+      {
+        result += 4;              // surrogate pair is one character
+        i ++;
+      }
+      else result += 3;
+    }
+    return(result);
+
+  } // end of utf8Length() method
+
+
+/*
+  write() method
+
+  Write the current numbers to our file.  Errors are reported once per write
+  and don't stop conversion.
+*/
+  synchronized void write()
+  {
+    long byteCount, changeCount, fileCount; // totals now
+    DecimalFormat decimal;        // number format without grouping
+    double megabytes;             // UTF-8 bytes read, in megabytes
+    long now;                     // nanoseconds now
+    double seconds;               // seconds since last write
+    StringBuffer text;            // what we write
+
+    byteCount = bytesIn.sum();
+    changeCount = changes.sum();
+    fileCount = files.sum();
+    now = System.nanoTime();
+    seconds = Math.max(now - lastTime, 1) / 1000000000.0;
+    megabytes = byteCount / 1000000.0;
+    decimal = new DecimalFormat("0.######",
+      DecimalFormatSymbols.getInstance(Locale.US));
+    text = new StringBuffer();
+
+    if (promFlag)                 // Prometheus text format, totals only
+    {
+      text.append("# HELP plaintext3_files_total Files converted.\n");
+      text.append("# TYPE plaintext3_files_total counter\n");
+      text.append("plaintext3_files_total " + fileCount + "\n");
+      text.append("# HELP plaintext3_bytes_in_total UTF-8 bytes read.\n");
+      text.append("# TYPE plaintext3_bytes_in_total counter\n");
+      text.append("plaintext3_bytes_in_total " + byteCount + "\n");
+      text.append("# HELP plaintext3_bytes_out_total UTF-8 bytes written.\n");
+      text.append("# TYPE plaintext3_bytes_out_total counter\n");
+      text.append("plaintext3_bytes_out_total " + bytesOut.sum() + "\n");
+      text.append("# HELP plaintext3_changes_total Changes made by rules.\n");
+      text.append("# TYPE plaintext3_changes_total counter\n");
+      text.append("plaintext3_changes_total " + changeCount + "\n");
+      text.append("# HELP plaintext3_queue_depth Files waiting.\n");
+      text.append("# TYPE plaintext3_queue_depth gauge\n");
+      text.append("plaintext3_queue_depth " + queued.sum() + "\n");
+      text.append("# HELP plaintext3_file_seconds Time per file.\n");
+      text.append("# TYPE plaintext3_file_seconds summary\n");
+      text.append("plaintext3_file_seconds{quantile=\"0.5\"} "
+        + decimal.format(percentile(0.50) / 1000.0) + "\n");
+      text.append("plaintext3_file_seconds{quantile=\"0.99\"} "
+        + decimal.format(percentile(0.99) / 1000.0) + "\n");
+      text.append("plaintext3_file_seconds_sum "
+        + decimal.format(nanos.sum() / 1000000000.0) + "\n");
+      text.append("plaintext3_file_seconds_count " + fileCount + "\n");
+    }
+    else                          // one JSON object per line
+    {
+      text.append("{\"time\":" + System.currentTimeMillis());
+      text.append(",\"files\":" + fileCount);
+      text.append(",\"files_per_s\":"
+        + decimal.format((fileCount - lastFiles) / seconds));
+      text.append(",\"bytes_in\":" + byteCount);
+      text.append(",\"bytes_out\":" + bytesOut.sum());
+      text.append(",\"bytes_per_s\":"
+        + decimal.format((byteCount - lastBytes) / seconds));
+      text.append(",\"changes\":" + changeCount);
+      text.append(",\"changes_per_mb\":" + decimal.format((megabytes > 0)
+        ? (changeCount / megabytes) : 0.0));
+      text.append(",\"queue\":" + queued.sum());
+      text.append(",\"p50_ms\":" + decimal.format(percentile(0.50)));
+      text.append(",\"p99_ms\":" + decimal.format(percentile(0.99)));
+      text.append("}\n");
+    }
+    lastBytes = byteCount;
+    lastFiles = fileCount;
+    lastTime = now;
+
+    /* Prometheus readers must never see a partial file, so we write a copy
+    and rename it.  JSON lines are appended. */
+
+    try
+    {
+      File file = new File(promFlag ? (path + ".tmp") : path);
+      Writer output = new OutputStreamWriter(new FileOutputStream(file,
+        !promFlag), "UTF-8");
+      output.write(text.toString());
+      output.close();
+      if (promFlag && !file.renameTo(new File(path)))
+        throw new IOException("can't rename " + file.getPath());
+    }
+    catch (IOException ioe)
+    {
+      System.err.println("Telemetry file " + path + ": " + ioe.getMessage());
+    }
+  } // end of write() method
+
+} // end of PlainText3Telemetry class
+
+/* Copyright (c) 2019 by Keith Fenske.  Apache License or GNU GPL. */
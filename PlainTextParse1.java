@@ -13,6 +13,9 @@
   directory.  Output goes into a file called "parsed-captions.txt" encoded as
   UTF-8 text (mostly US-ASCII).  Add this to your "PlainText3.txt" data file.
 
+  The "uniname" keyword in PlainText3 now gives the same result from one range
+  rule, looking up names only when needed, without any generated rules.
+
   General users have no need for the PlainTextParse1 application.  THIS CODE IS
   UGLY AND SHOULD *NOT* BE USED AS THE BASIS FOR ANY OTHER PROGRAMS.
 
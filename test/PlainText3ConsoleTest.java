@@ -0,0 +1,186 @@
+/*
+  Plain Text #3 (Console Test) - Check the Console Conversion Path
+  Java class name: PlainText3ConsoleTest
+  Copyright (c) 2019 by Keith Fenske.  Apache License or GNU GPL.
+
+  Checks that a conversion table compiled with -compile is really used when
+  the console converts a stream, not only by the -benchmark option, and that
+  the generated code gives the same output as the interpreter, both for small
+  text and for text large enough to fill several output segments.  There is
+  no test framework: compile with the other classes, then run:
+
+      javac  -d classes  *.java  test/*.java
+      java  -cp classes  PlainText3ConsoleTest
+
+  The exit status is zero if all checks pass, or one if any fail.  If there is
+  no Java compiler in the run-time (a JRE, not a JDK), the checks are skipped.
+
+  Apache License or GNU General Public License
+  --------------------------------------------
+  PlainText3ConsoleTest is free software and has been released under the terms
+  and conditions of the Apache License (version 2.0 or later) and/or the GNU
+  General Public License (GPL, version 2 or later).  This program is
+  distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY,
+  without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+  PARTICULAR PURPOSE.  See the license(s) for more details.  You should have
+  received a copy of the licenses along with this program.  If not, see the
+  http://www.apache.org/licenses/ and http://www.gnu.org/licenses/ web pages.
+*/
+
+import java.io.*;                 // standard I/O
+
+public class PlainText3ConsoleTest extends PlainText3Console
+{
+  /* class variables */
+
+  static int calls;               // times the generated converter was called
+  static int failCount;           // number of failed checks
+
+/*
+  main() method
+
+  Load a small configuration with -compile, wrap the generated converter so
+  that we can count calls, and convert through the console.
+*/
+  public static void main(String[] args)
+  {
+    File config;                  // temporary configuration data file
+    final PlainText3Converter generated; // converter made by -compile
+    String interpreted;           // console output from the interpreter
+    StringBuffer large;           // text for several output segments
+    String small;                 // text for one output segment
+    Writer writer;                // writes configuration data file
+
+    initialize();                 // same defaults as the console
+    try
+    {
+      config = File.createTempFile("PlainText3Test", ".txt");
+      config.deleteOnExit();
+      writer = new OutputStreamWriter(new FileOutputStream(config), ENCODING);
+      writer.write("replace U+2014 = \"--\"\n"
+        + "replace \"ab\" = \"[ab]\"\n"
+        + "replace U+00C0 : U+00FF = xmldec\n");
+      writer.close();
+    }
+    catch (IOException ioe)
+    {
+      System.err.println("FAILED: unable to write configuration: " + ioe);
+      System.exit(1);
+      return;                     // keep compiler happy about <config>
+    }
+    dataFile = config.getPath();
+    compileFlag = true;           // generate Java code for the table
+    format = PlainText3Markup.FORMAT_NONE;
+    loadConfig();
+    if (dataTable.converter == null) // JRE without a compiler?
+    {
+      System.err.println("Skipped: no generated converter.");
+      System.exit(0);
+    }
+    generated = dataTable.converter;
+    dataTable.converter = new PlainText3Converter() {
+      public int convert(int[] inputText, StringBuffer resultBuffer,
+        PlainText3Output output)
+      {
+        calls ++;
+        return(generated.convert(inputText, resultBuffer, output));
+      } };
+
+    /* Small text, converted once with the generated code and once with the
+    interpreter. */
+
+    small = "a\u2014b ab \u00E9t\u00E9\n";
+    check("small text uses generated converter", runConsole(small),
+      "a--b [ab] &#233;t&#233;\n", 1);
+    interpreted = interpret(small);
+    check("small text matches interpreter", interpreted,
+      "a--b [ab] &#233;t&#233;\n", 0);
+
+    /* Large text: the generated code moves full buffers to the segmented
+    output, and a rule may match across a segment boundary. */
+
+    large = new StringBuffer();
+    while (large.length() < (5 * PlainText3Output.SEGMENT_SIZE))
+      large.append("x\u00E9ab\u2014");
+    calls = 0;
+    check("large text matches interpreter", runConsole(large.toString()),
+      interpret(large.toString()), 1);
+
+    System.err.println((failCount == 0) ? "All checks passed."
+      : (prettyPlural(failCount, "check") + " failed."));
+    System.exit((failCount == 0) ? 0 : 1);
+
+  } // end of main() method
+
+
+/*
+  check() method
+
+  Compare one result with what we expected, and the number of calls to the
+  generated converter since the last check.
+*/
+  static void check(String title, String actual, String expected,
+    int expectedCalls)
+  {
+    if (actual.equals(expected) && (calls == expectedCalls))
+      System.err.println("Passed: " + title);
+    else
+    {
+      System.err.println("FAILED: " + title + " (generated converter called "
+        + prettyPlural(calls, "time") + ", expected " + expectedCalls
+        + "; output " + (actual.equals(expected) ? "same" : "different")
+        + ")");
+      failCount ++;
+    }
+    calls = 0;
+  }
+
+
+/*
+  interpret() method
+
+  Convert text through the console with the interpreter, then put the
+  generated converter back.
+*/
+  static String interpret(String text)
+  {
+    PlainText3Converter saved;    // counting converter
+    String result;                // console output
+
+    saved = dataTable.converter;
+    dataTable.converter = null;   // interpret the table
+    result = runConsole(text);
+    dataTable.converter = saved;
+    return(result);
+  }
+
+
+/*
+  runConsole() method
+
+  Give text to the console's convertStream() method, and return what it wrote
+  to standard output, or an error message.
+*/
+  static String runConsole(String text)
+  {
+    ByteArrayOutputStream bytes;  // captured standard output
+    PrintStream saved;            // real standard output
+
+    bytes = new ByteArrayOutputStream();
+    saved = System.out;
+    try
+    {
+      System.setOut(new PrintStream(bytes, true, ENCODING));
+      output = new BufferedWriter(new OutputStreamWriter(System.out,
+        ENCODING));
+      convertStream(new ByteArrayInputStream(text.getBytes(ENCODING)));
+      output.flush();
+      return(bytes.toString(ENCODING));
+    }
+    catch (IOException ioe) { return("error: " + ioe.getMessage()); }
+    finally { System.setOut(saved); }
+  }
+
+} // end of PlainText3ConsoleTest class
+
+/* Copyright (c) 2019 by Keith Fenske.  Apache License or GNU GPL. */